@@ -142,8 +142,11 @@ public class ContextListener implements ServletContextListener {
     @Override
     public void contextDestroyed(ServletContextEvent sce) {
         try {
+            DataManager.getInstance().getUsageStatisticsRecorder().shutdown();
             DataManager.getInstance().getDao().shutdown();
             DataManager.getInstance().getThreadPoolManager().shutdown();
+            DataManager.getInstance().getHttpClientManager().shutdown();
+            DataManager.getInstance().getManifestCache().shutdown();
             logger.info("Successfully stopped DAO");
         } catch (DAOException e) {
             logger.error("Error stopping DAO", e);
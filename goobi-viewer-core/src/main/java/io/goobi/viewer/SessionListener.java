@@ -48,9 +48,7 @@ public class SessionListener implements HttpSessionListener {
     /** {@inheritDoc} */
     @Override
     public void sessionCreated(HttpSessionEvent event) {
-        //        if (DataManager.getInstance().getSessionMap().put(event.getSession().getId(), new HashMap<>()) == null) {
-        //            logger.trace("Session created: {}", event.getSession().getId());
-        //        }
+        DataManager.getInstance().getSessionTelemetry().sessionCreated(event.getSession());
     }
 
     /* (non-Javadoc)
@@ -59,7 +57,7 @@ public class SessionListener implements HttpSessionListener {
     /** {@inheritDoc} */
     @Override
     public void sessionDestroyed(HttpSessionEvent event) {
-        if (DataManager.getInstance().getSessionMap().remove(event.getSession().getId()) != null) {
+        if (DataManager.getInstance().getSessionTelemetry().sessionDestroyed(event.getSession().getId())) {
             String sessionId = event.getSession().getId();
             // logger.trace("Session destroyed: {}", sessionId);
             DataManager.getInstance().getRecordLockManager().removeLocksForSessionId(sessionId, null);
@@ -39,6 +39,7 @@ public class MonitoringStatus {
 
     private final Map<String, String> monitoring = new LinkedHashMap<>();
     private final Map<String, Map<String, String>> versions = new LinkedHashMap<>();
+    private final Map<String, Map<String, Long>> statistics = new LinkedHashMap<>();
     private final String theme;
 
     public MonitoringStatus() {
@@ -63,6 +64,13 @@ public class MonitoringStatus {
         return versions;
     }
 
+    /**
+     * @return the statistics
+     */
+    public Map<String, Map<String, Long>> getStatistics() {
+        return statistics;
+    }
+
     /**
      * @return the theme
      */
@@ -0,0 +1,491 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.api.rest.resourcebuilders;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Providers;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.solr.common.SolrDocument;
+
+import de.intranda.api.iiif.presentation.IPresentationModelElement;
+import de.intranda.api.iiif.presentation.v2.AbstractPresentationModelElement2;
+import de.intranda.api.iiif.presentation.v3.AbstractPresentationModelElement3;
+import io.goobi.viewer.api.rest.filters.IIIFPresentationResponseFilter;
+import io.goobi.viewer.api.rest.v1.ApiUrls;
+import io.goobi.viewer.controller.DataManager;
+import io.goobi.viewer.controller.NetTools;
+import io.goobi.viewer.exceptions.DAOException;
+import io.goobi.viewer.exceptions.IndexUnreachableException;
+import io.goobi.viewer.exceptions.PresentationException;
+import io.goobi.viewer.model.iiif.presentation.v2.builder.BuildMode;
+import io.goobi.viewer.model.iiif.presentation.v3.builder.ManifestBuilder;
+import io.goobi.viewer.model.search.SearchHelper;
+import io.goobi.viewer.model.security.IPrivilegeHolder;
+import io.goobi.viewer.model.security.LicenseType;
+import io.goobi.viewer.model.security.clients.ClientApplicationManager;
+import io.goobi.viewer.model.security.user.User;
+import io.goobi.viewer.solr.SolrConstants;
+
+/**
+ * Disk-backed cache for serialized IIIF manifests. Each record has its own folder containing one file per variant (API version and build mode).
+ * File names contain the latest <code>DATEUPDATED</code> value of the record, so a re-indexed record is never served from an outdated file.
+ * Changes that do not touch the index (comments, annotations) are signaled via {@link #invalidate(String)}, which deletes the cached files of a
+ * record and regenerates the previously cached variants in the background.
+ * <p>
+ * Manifests are generated without a user context. Access to the record itself is checked by the IIIF request filter before the cache is
+ * consulted. Since manifests embed annotation lists filtered by the {@link IPrivilegeHolder#PRIV_VIEW_UGC} privilege, requests with other
+ * privileges than an anonymous client must bypass the cache (see {@link #isAnonymousAccess(HttpServletRequest)}).
+ * </p>
+ */
+public class ManifestCache {
+
+    private static final Logger logger = LogManager.getLogger(ManifestCache.class);
+
+    private static final String FILE_EXTENSION = ".json";
+
+    /** Variant of IIIF Presentation 3.0 manifests */
+    public static final String VARIANT_V3 = "v3";
+
+    /**
+     * Builds a manifest variant without a request context, used for background regeneration.
+     */
+    @FunctionalInterface
+    public interface ManifestGenerator {
+        IPresentationModelElement generate(String pi) throws Exception; //NOSONAR Builders throw a variety of checked exceptions
+    }
+
+    private final Path folder;
+    private final boolean enabled;
+    private final Map<String, ManifestGenerator> generators = new ConcurrentHashMap<>();
+    private final Set<String> regenerating = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor executor;
+    /** JSON writer of the REST API, so that cached manifests are serialized exactly like uncached responses */
+    private volatile MessageBodyWriter<Object> writer = null;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder regenerations = new LongAdder();
+
+    /**
+     *
+     * @param folder Root folder of the cache
+     * @param enabled If false, nothing is cached
+     */
+    public ManifestCache(Path folder, boolean enabled) {
+        this.folder = folder;
+        this.enabled = enabled && folder != null;
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1000), r -> {
+            Thread t = new Thread(r, "manifest-cache");
+            t.setDaemon(true);
+            return t;
+        }, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    /**
+     *
+     * @return true if manifests are cached; false otherwise
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Registers the generator used to rebuild the given variant after {@link #invalidate(String)}.
+     *
+     * @param variant
+     * @param generator
+     */
+    public void registerGenerator(String variant, ManifestGenerator generator) {
+        generators.put(variant, generator);
+    }
+
+    /**
+     * Registers the generators for all variants served by the REST API. The API URLs are built from the configured REST API URL in the same way
+     * as the REST applications do, so regenerated manifests don't depend on the host of any request.
+     *
+     * @param restApiUrl Configured REST API URL
+     */
+    public void registerDefaultGenerators(String restApiUrl) {
+        ApiUrls urlsV1 = new ApiUrls(restApiUrl.replace("/rest", "/api/v1"));
+        for (BuildMode buildMode : BuildMode.values()) {
+            registerGenerator(getVariant(buildMode),
+                    pi -> withContext(new IIIFPresentation2ResourceBuilder(urlsV1, null).getManifest(pi, Collections.emptyList(), buildMode)));
+        }
+        io.goobi.viewer.api.rest.v2.ApiUrls urlsV2 =
+                new io.goobi.viewer.api.rest.v2.ApiUrls(restApiUrl.replace("/rest", "/api/v2").replace("/api/v1", "/api/v2"));
+        registerGenerator(VARIANT_V3, pi -> withContext(new ManifestBuilder(urlsV2).build(pi, null)));
+    }
+
+    /**
+     *
+     * @param buildMode
+     * @return Variant of IIIF Presentation 2.1.1 manifests with the given build mode
+     */
+    public static String getVariant(BuildMode buildMode) {
+        return "v2_" + buildMode.name().toLowerCase();
+    }
+
+    /**
+     * Sets the JSON-LD context, which is otherwise added by the response filter, so that it is part of the cached manifest.
+     *
+     * @param element
+     * @return element
+     */
+    public static IPresentationModelElement withContext(IPresentationModelElement element) {
+        if (element instanceof AbstractPresentationModelElement2 element2) {
+            element2.setContext(IIIFPresentationResponseFilter.CONTEXT_PRESENTATION_2);
+        } else if (element instanceof AbstractPresentationModelElement3 element3) {
+            element3.setContext(IIIFPresentationResponseFilter.CONTEXT_PRESENTATION_3);
+        }
+        return element;
+    }
+
+    /**
+     * Checks whether the given request has the same access to user generated content as an anonymous client. Only such requests may be served
+     * cached manifests.
+     *
+     * @param request
+     * @return true if the request has the access privileges of an anonymous client; false otherwise
+     * @should return true if request null
+     */
+    public static boolean isAnonymousAccess(HttpServletRequest request) {
+        if (request == null) {
+            return true;
+        }
+        HttpSession session = request.getSession(false);
+        User user = session != null ? (User) session.getAttribute("user") : null;
+        try {
+            List<LicenseType> licenseTypes = DataManager.getInstance().getDao().getRecordLicenseTypes();
+            String suffix = SearchHelper.getPersonalFilterQuerySuffix(licenseTypes, user, NetTools.getIpAddress(request),
+                    ClientApplicationManager.getClientFromSession(session), IPrivilegeHolder.PRIV_VIEW_UGC);
+            return suffix.equals(
+                    SearchHelper.getPersonalFilterQuerySuffix(licenseTypes, null, null, Optional.empty(), IPrivilegeHolder.PRIV_VIEW_UGC));
+        } catch (IndexUnreachableException | PresentationException | DAOException e) {
+            logger.warn("Could not determine access privileges, not using cached manifest: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Returns the cached manifest for the given record and variant, if it was created for the given index state.
+     *
+     * @param pi Record identifier
+     * @param variant Manifest variant
+     * @param dateUpdated Latest <code>DATEUPDATED</code> value of the record
+     * @return Optional containing the cached manifest; empty if not cached
+     * @should return manifest stored for same dateUpdated
+     * @should return empty if dateUpdated differs
+     */
+    public Optional<CachedManifest> get(String pi, String variant, long dateUpdated) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Path file = getFile(pi, variant, dateUpdated);
+        try {
+            if (Files.isRegularFile(file)) {
+                CachedManifest ret = new CachedManifest(Files.readAllBytes(file), variant, dateUpdated, Files.getLastModifiedTime(file).toMillis());
+                hits.increment();
+                return Optional.of(ret);
+            }
+        } catch (IOException e) {
+            // File was deleted by an invalidation in the meantime
+            logger.debug("Could not read cached manifest {}: {}", file, e.getMessage());
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * Serializes the given manifest with the JSON writer of the REST API and stores it for the given record, variant and index state. Files of the
+     * same variant created for other index states are deleted. If caching is disabled, the manifest is only serialized.
+     *
+     * @param pi Record identifier
+     * @param variant Manifest variant
+     * @param dateUpdated Latest <code>DATEUPDATED</code> value of the record
+     * @param manifest Manifest with its JSON-LD context already set
+     * @param providers Providers of the REST API
+     * @return {@link CachedManifest}
+     * @throws IOException
+     * @should delete files of other index states
+     */
+    public CachedManifest put(String pi, String variant, long dateUpdated, IPresentationModelElement manifest, Providers providers)
+            throws IOException {
+        @SuppressWarnings("unchecked")
+        Class<Object> type = (Class<Object>) manifest.getClass();
+        MessageBodyWriter<Object> w = providers.getMessageBodyWriter(type, type, new Annotation[0], MediaType.APPLICATION_JSON_TYPE);
+        if (w == null) {
+            throw new IOException("No JSON writer found for " + manifest.getClass().getName());
+        }
+        // The JSON provider is application scoped, so it can be reused for background regeneration
+        writer = w;
+        return put(pi, variant, dateUpdated, manifest, w);
+    }
+
+    private CachedManifest put(String pi, String variant, long dateUpdated, IPresentationModelElement manifest, MessageBodyWriter<Object> w)
+            throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        w.writeTo(manifest, manifest.getClass(), manifest.getClass(), new Annotation[0], MediaType.APPLICATION_JSON_TYPE, new MultivaluedHashMap<>(),
+                out);
+        byte[] json = out.toByteArray();
+        long now = System.currentTimeMillis();
+        if (!enabled) {
+            return new CachedManifest(json, variant, dateUpdated, now);
+        }
+        Path file = getFile(pi, variant, dateUpdated);
+        try {
+            Files.createDirectories(file.getParent());
+            Path tempFile = Files.createTempFile(file.getParent(), variant, ".tmp");
+            try {
+                Files.write(tempFile, json);
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+            now = Files.getLastModifiedTime(file).toMillis();
+            for (Path other : listFiles(file.getParent())) {
+                if (!other.equals(file) && getVariant(other).equals(variant)) {
+                    Files.deleteIfExists(other);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Could not cache manifest {}: {}", file, e.getMessage());
+        }
+        return new CachedManifest(json, variant, dateUpdated, now);
+    }
+
+    /**
+     * Deletes all cached manifests of the given record and regenerates the variants that were cached in the background.
+     *
+     * @param pi Record identifier
+     * @should delete cached files
+     */
+    public void invalidate(String pi) {
+        if (!enabled || StringUtils.isBlank(pi)) {
+            return;
+        }
+        invalidations.increment();
+        Path recordFolder = getRecordFolder(pi);
+        List<String> variants = new ArrayList<>();
+        for (Path file : listFiles(recordFolder)) {
+            variants.add(getVariant(file));
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                logger.warn("Could not delete cached manifest {}: {}", file, e.getMessage());
+            }
+        }
+        logger.trace("Invalidated cached manifests of {}: {}", pi, variants);
+        if (!variants.isEmpty() && regenerating.add(pi)) {
+            try {
+                executor.execute(() -> regenerate(pi, variants));
+            } catch (RejectedExecutionException e) {
+                regenerating.remove(pi);
+            }
+        }
+    }
+
+    private void regenerate(String pi, Collection<String> variants) {
+        regenerating.remove(pi);
+        MessageBodyWriter<Object> w = writer;
+        if (w == null) {
+            // Nothing served yet; manifests are created on the next request
+            return;
+        }
+        try {
+            long dateUpdated = getDateUpdated(pi);
+            for (String variant : variants) {
+                ManifestGenerator generator = generators.get(variant);
+                if (generator != null && get(pi, variant, dateUpdated).isEmpty()) {
+                    put(pi, variant, dateUpdated, generator.generate(pi), w);
+                    regenerations.increment();
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Could not regenerate manifest for {}: {}", pi, e.getMessage());
+        }
+    }
+
+    /**
+     *
+     * @return Counters for monitoring
+     */
+    public Map<String, Long> getStatistics() {
+        Map<String, Long> ret = new LinkedHashMap<>();
+        ret.put("hits", hits.sum());
+        ret.put("misses", misses.sum());
+        ret.put("notModified", notModified.sum());
+        ret.put("invalidations", invalidations.sum());
+        ret.put("regenerations", regenerations.sum());
+        return ret;
+    }
+
+    /**
+     * Stops background regeneration.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Returns the latest <code>DATEUPDATED</code> value of the given record, which identifies the current index state of the record.
+     *
+     * @param pi Record identifier
+     * @return Latest <code>DATEUPDATED</code> value; 0 if record not found
+     * @throws PresentationException
+     * @throws IndexUnreachableException
+     */
+    public static long getDateUpdated(String pi) throws PresentationException, IndexUnreachableException {
+        SolrDocument doc = DataManager.getInstance()
+                .getSearchIndex()
+                .getFirstDoc(SolrConstants.PI + ":\"" + pi + "\"", Collections.singletonList(SolrConstants.DATEUPDATED));
+        if (doc == null || doc.getFieldValues(SolrConstants.DATEUPDATED) == null) {
+            return 0;
+        }
+        long ret = 0;
+        for (Object value : doc.getFieldValues(SolrConstants.DATEUPDATED)) {
+            if (value instanceof Long l) {
+                ret = Math.max(ret, l);
+            }
+        }
+        return ret;
+    }
+
+    Path getRecordFolder(String pi) {
+        String name = URLEncoder.encode(pi, StandardCharsets.UTF_8);
+        if (name.startsWith(".")) {
+            name = "_" + name;
+        }
+        return folder.resolve(name);
+    }
+
+    Path getFile(String pi, String variant, long dateUpdated) {
+        return getRecordFolder(pi).resolve(variant + "_" + dateUpdated + FILE_EXTENSION);
+    }
+
+    private static String getVariant(Path file) {
+        String name = file.getFileName().toString();
+        return name.substring(0, Math.max(0, name.lastIndexOf('_')));
+    }
+
+    private static List<Path> listFiles(Path recordFolder) {
+        List<Path> ret = new ArrayList<>();
+        if (!Files.isDirectory(recordFolder)) {
+            return ret;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(recordFolder, "*" + FILE_EXTENSION)) {
+            stream.forEach(ret::add);
+        } catch (IOException e) {
+            logger.warn("Could not list cached manifests in {}: {}", recordFolder, e.getMessage());
+        }
+        return ret;
+    }
+
+    /**
+     * Serialized manifest together with the validators for conditional requests.
+     */
+    public class CachedManifest {
+
+        private final byte[] json;
+        private final EntityTag entityTag;
+        private final long lastModified;
+
+        CachedManifest(byte[] json, String variant, long dateUpdated, long lastModified) {
+            this.json = json;
+            this.entityTag = new EntityTag(variant + "-" + dateUpdated + "-" + Long.toHexString(lastModified));
+            // HTTP dates have a resolution of seconds
+            this.lastModified = lastModified - lastModified % 1000;
+        }
+
+        /**
+         *
+         * @return Serialized manifest
+         */
+        public byte[] getJson() {
+            return json;
+        }
+
+        public EntityTag getEntityTag() {
+            return entityTag;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        /**
+         * Creates the response for the given request: 304 if the client already has this version, otherwise 200 with the serialized manifest.
+         * Both carry ETag and Last-Modified headers.
+         *
+         * @param request Request containing the conditional headers
+         * @param contentType Content type of the manifest
+         * @return {@link Response}
+         */
+        public Response toResponse(Request request, String contentType) {
+            Date date = new Date(lastModified);
+            ResponseBuilder builder = request != null ? request.evaluatePreconditions(date, entityTag) : null;
+            if (builder != null) {
+                notModified.increment();
+            } else {
+                builder = Response.ok(json, contentType);
+            }
+            return builder.tag(entityTag).lastModified(date).build();
+        }
+    }
+}
@@ -51,6 +51,7 @@ public class ApiUrls extends AbstractApiUrlManager {
     public static final String INDEX_STATISTICS = "/statistics";
     public static final String INDEX_SPATIAL_HEATMAP = "/spatial/heatmap/{solrField}";
     public static final String INDEX_SPATIAL_SEARCH = "/spatial/search/{solrField}";
+    public static final String INDEX_SPATIAL_TILE = "/spatial/tiles/{solrField}/{zoom}/{x}/{y}";
 
     public static final String MONITORING = "/monitoring";
     public static final String MONITORING_CORE_VERSION = "/version/core";
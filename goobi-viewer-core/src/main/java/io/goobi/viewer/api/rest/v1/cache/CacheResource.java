@@ -46,6 +46,7 @@ import io.goobi.viewer.api.rest.bindings.AuthorizationBinding;
 import io.goobi.viewer.api.rest.model.IResponseMessage;
 import io.goobi.viewer.api.rest.model.SuccessMessage;
 import io.goobi.viewer.api.rest.v1.ApiUrls;
+import io.goobi.viewer.controller.DataManager;
 import io.goobi.viewer.exceptions.DAOException;
 import io.goobi.viewer.model.job.download.DownloadJobTools;
 import io.swagger.v3.oas.annotations.Operation;
@@ -139,6 +140,10 @@ public class CacheResource {
         }
 
         int deleted = CacheUtils.deleteFromCache(pi, content, thumbs, pdf);
+        // Called by the indexer after a record has been (re-)indexed
+        DataManager.getInstance().getManifestCache().invalidate(pi);
+        DataManager.getInstance().getActivityLog().invalidate();
+        DataManager.getInstance().getRecordSnapshotCache().invalidate(pi);
 
         // Delete download jobs/files
         if (pdf) {
@@ -26,6 +26,7 @@ import static io.goobi.viewer.api.rest.v1.ApiUrls.INDEX_FIELDS;
 import static io.goobi.viewer.api.rest.v1.ApiUrls.INDEX_QUERY;
 import static io.goobi.viewer.api.rest.v1.ApiUrls.INDEX_SPATIAL_HEATMAP;
 import static io.goobi.viewer.api.rest.v1.ApiUrls.INDEX_SPATIAL_SEARCH;
+import static io.goobi.viewer.api.rest.v1.ApiUrls.INDEX_SPATIAL_TILE;
 import static io.goobi.viewer.api.rest.v1.ApiUrls.INDEX_STATISTICS;
 import static io.goobi.viewer.api.rest.v1.ApiUrls.INDEX_STREAM;
 
@@ -372,6 +373,54 @@ public class IndexResource {
         return "[" + objects + "]";
     }
 
+    /**
+     * Returns a single map tile of geospatial search results. Depending on the zoom level and the number of hits within the tile, the tile contains
+     * either the individual GeoJSON features or one cluster feature per heatmap cell with the number of hits in that cell.
+     *
+     * @param solrField
+     * @param zoom
+     * @param x
+     * @param y
+     * @param filterQuery
+     * @param facetQuery
+     * @param labelField
+     * @return GeoJSON feature collection as {@link String}
+     * @throws IndexUnreachableException
+     * @throws PresentationException
+     * @throws IllegalRequestException
+     */
+    @GET
+    @Path(INDEX_SPATIAL_TILE)
+    @Produces({ MediaType.APPLICATION_JSON })
+    @Operation(summary = "Returns a map tile of geospatial search results as GeoJson feature collection, clustered at low zoom levels",
+            tags = { "index" })
+    public String getGeoJsonTile(
+            @Parameter(description = "SOLR field containing spatial coordinates") @PathParam("solrField") String solrField,
+            @Parameter(description = "Zoom level") @PathParam("zoom") int zoom,
+            @Parameter(description = "Tile column, counted from the west") @PathParam("x") int x,
+            @Parameter(description = "Tile row, counted from the north") @PathParam("y") int y,
+            @Parameter(description = "Additional query to filter results by") @QueryParam("query") @DefaultValue("*:*") String filterQuery,
+            @Parameter(description = "Facetting to be applied to results") @QueryParam("facetQuery") @DefaultValue("") String facetQuery,
+            @Parameter(description = "The SOLR field to be used as label for each feature") @QueryParam("labelField") String labelField)
+            throws IndexUnreachableException, PresentationException, IllegalRequestException {
+        servletResponse.addHeader("Cache-Control", "max-age=300");
+
+        String finalQuery = filterQuery;
+        if (!finalQuery.startsWith("{!join")) {
+            finalQuery = new StringBuilder().append("+(")
+                    .append(filterQuery)
+                    .append(")")
+                    .append(SearchHelper.getAllSuffixes(servletRequest, true, true))
+                    .toString();
+        }
+
+        try {
+            return DataManager.getInstance().getGeoMapTileProvider().getTile(solrField, zoom, x, y, finalQuery, facetQuery, labelField);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalRequestException(e.getMessage());
+        }
+    }
+
     private static Optional<JSONArray> getFacetResults(QueryResponse response) {
         List<FacetField> facetFields = response.getFacetFields();
         if (facetFields != null && !facetFields.isEmpty()) {
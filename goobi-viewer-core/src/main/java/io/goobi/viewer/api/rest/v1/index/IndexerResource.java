@@ -75,6 +75,10 @@ public class IndexerResource {
     public SuccessMessage setIndexerVersion(IndexerDataRequestParameters params) throws IllegalRequestException {
         try {
             DataManager.getInstance().setIndexerVersion(new ObjectMapper().writeValueAsString(params));
+            // Files in the hotfolder before or after this report mean records have been (or are being) indexed
+            if (DataManager.getInstance().getHotfolderFileCount() > 0 || params.getHotfolderFileCount() > 0) {
+                DataManager.getInstance().getSearchIndex().incrementIndexGeneration();
+            }
             DataManager.getInstance().setHotfolderFileCount(params.getHotfolderFileCount());
             AdminBean ab = BeanUtils.getAdminBean();
             if (ab != null) {
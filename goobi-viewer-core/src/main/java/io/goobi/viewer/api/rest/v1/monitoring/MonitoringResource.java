@@ -52,6 +52,9 @@ import io.goobi.viewer.controller.NetTools;
 import io.goobi.viewer.controller.mq.MessageQueueManager;
 import io.goobi.viewer.exceptions.DAOException;
 import io.goobi.viewer.exceptions.HTTPException;
+import io.goobi.viewer.model.iiif.search.parser.AltoWordIndex;
+import io.goobi.viewer.model.search.SearchHitFulltextLoader;
+import io.goobi.viewer.model.search.SearchQueryDispatcher;
 import io.goobi.viewer.modules.IModule;
 import io.goobi.viewer.solr.SolrTools;
 import io.swagger.v3.oas.annotations.Operation;
@@ -150,6 +153,20 @@ public class MonitoringResource {
             setVersionValues(moduleVersion, module.getVersionJson());
         }
 
+        // Internal statistics
+        ret.getStatistics().put("fulltextLoading", SearchHitFulltextLoader.getStatistics());
+        ret.getStatistics().put("searchQueries", SearchQueryDispatcher.getStatistics());
+        ret.getStatistics().put("solrQueryCache", DataManager.getInstance().getSearchIndex().getQueryCacheStatistics());
+        ret.getStatistics().put("httpClient", DataManager.getInstance().getHttpClientManager().getStatistics());
+        ret.getStatistics().put("reIndexQueue", DataManager.getInstance().getReIndexQueue().getStatistics());
+        ret.getStatistics().put("manifestCache", DataManager.getInstance().getManifestCache().getStatistics());
+        ret.getStatistics().put("activityLog", DataManager.getInstance().getActivityLog().getStatistics());
+        ret.getStatistics().put("geoMapTiles", DataManager.getInstance().getGeoMapTileProvider().getStatistics());
+        ret.getStatistics().put("altoWordIndex", AltoWordIndex.getStatistics());
+        ret.getStatistics().put("recordSnapshots", DataManager.getInstance().getRecordSnapshotCache().getStatistics());
+        ret.getStatistics().put("usageStatisticsRollups", DataManager.getInstance().getUsageStatisticsRollupCache().getStatistics());
+        ret.getStatistics().put("sessions", DataManager.getInstance().getSessionTelemetry().getStatistics());
+
         return ret;
     }
 
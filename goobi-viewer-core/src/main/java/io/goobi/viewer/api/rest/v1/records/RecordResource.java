@@ -63,6 +63,9 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.Providers;
 import javax.ws.rs.core.StreamingOutput;
 
 import org.apache.commons.lang3.StringUtils;
@@ -71,6 +74,7 @@ import org.apache.logging.log4j.Logger;
 import org.apache.solr.common.SolrDocument;
 import org.json.JSONObject;
 
+
 import de.intranda.api.annotation.IAnnotationCollection;
 import de.intranda.api.annotation.wa.collection.AnnotationPage;
 import de.intranda.api.iiif.presentation.IPresentationModelElement;
@@ -87,9 +91,12 @@ import io.goobi.viewer.api.rest.bindings.AuthorizationBinding;
 import io.goobi.viewer.api.rest.bindings.IIIFPresentationBinding;
 import io.goobi.viewer.api.rest.bindings.ViewerRestServiceBinding;
 import io.goobi.viewer.api.rest.filters.FilterTools;
+import io.goobi.viewer.api.rest.filters.IIIFPresentationResponseFilter;
 import io.goobi.viewer.api.rest.model.ner.DocumentReference;
 import io.goobi.viewer.api.rest.resourcebuilders.AnnotationsResourceBuilder;
 import io.goobi.viewer.api.rest.resourcebuilders.IIIFPresentation2ResourceBuilder;
+import io.goobi.viewer.api.rest.resourcebuilders.ManifestCache;
+import io.goobi.viewer.api.rest.resourcebuilders.ManifestCache.CachedManifest;
 import io.goobi.viewer.api.rest.resourcebuilders.NERBuilder;
 import io.goobi.viewer.api.rest.resourcebuilders.RisResourceBuilder;
 import io.goobi.viewer.api.rest.resourcebuilders.TextResourceBuilder;
@@ -135,6 +142,10 @@ public class RecordResource {
     private HttpServletRequest servletRequest;
     @Context
     private HttpServletResponse servletResponse;
+    @Context
+    private Request containerRequest;
+    @Context
+    private Providers providers;
     @Inject
     private ApiUrls urls;
 
@@ -286,13 +297,13 @@ public class RecordResource {
     @Produces({ MediaType.APPLICATION_JSON })
     @Operation(tags = { "records", "iiif" }, summary = "Get IIIF 2.1.1 manifest for record")
     @IIIFPresentationBinding
-    public IPresentationModelElement getManifest(
+    public Response getManifest(
             @Parameter(
                     description = "Build mode for manifest to select type of resources to include. Default is 'iiif' which returns the full"
                             + " IIIF manifest with all resources. 'thumbs' Does not read width and height of canvas resources and 'iiif_simple'"
                             + " ignores all resources from files") @QueryParam("mode") String mode)
             throws ContentNotFoundException, PresentationException, IndexUnreachableException, URISyntaxException, ViewerConfigurationException,
-            DAOException {
+            DAOException, IOException {
         IIIFPresentation2ResourceBuilder b = new IIIFPresentation2ResourceBuilder(urls, servletRequest);
         BuildMode buildMode = getBuildeMode(mode);
         if (BuildMode.IIIF == buildMode) {
@@ -306,7 +317,19 @@ public class RecordResource {
                 logger.error("Error forwarding manifest url", e);
             }
         }
-        return b.getManifest(pi, Collections.emptyList(), buildMode);
+
+        ManifestCache cache = DataManager.getInstance().getManifestCache();
+        if (!cache.isEnabled() || !ManifestCache.isAnonymousAccess(servletRequest)) {
+            return Response.ok(b.getManifest(pi, Collections.emptyList(), buildMode)).build();
+        }
+        // Cached manifests are always built without a user context, like the background regeneration
+        String variant = ManifestCache.getVariant(buildMode);
+        long dateUpdated = ManifestCache.getDateUpdated(pi);
+        Optional<CachedManifest> cached = cache.get(pi, variant, dateUpdated);
+        CachedManifest manifest = cached.isPresent() ? cached.get()
+                : cache.put(pi, variant, dateUpdated, ManifestCache.withContext(new IIIFPresentation2ResourceBuilder(urls, null).getManifest(pi,
+                        Collections.emptyList(), buildMode)), providers);
+        return manifest.toResponse(containerRequest, MediaType.APPLICATION_JSON + ";charset=UTF-8");
     }
 
     @GET
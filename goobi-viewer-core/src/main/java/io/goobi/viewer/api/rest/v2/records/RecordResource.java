@@ -41,13 +41,15 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.Providers;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import de.intranda.api.annotation.IAnnotationCollection;
 import de.intranda.api.annotation.wa.collection.AnnotationPage;
-import de.intranda.api.iiif.presentation.IPresentationModelElement;
 import de.unigoettingen.sub.commons.contentlib.exceptions.ContentLibException;
 import de.unigoettingen.sub.commons.contentlib.exceptions.IllegalRequestException;
 import de.unigoettingen.sub.commons.contentlib.servlet.rest.CORSBinding;
@@ -56,8 +58,12 @@ import io.goobi.viewer.api.rest.AbstractApiUrlManager.ApiPath;
 import io.goobi.viewer.api.rest.bindings.IIIFPresentationBinding;
 import io.goobi.viewer.api.rest.bindings.ViewerRestServiceBinding;
 import io.goobi.viewer.api.rest.filters.FilterTools;
+import io.goobi.viewer.api.rest.filters.IIIFPresentationResponseFilter;
 import io.goobi.viewer.api.rest.resourcebuilders.AnnotationsResourceBuilder;
+import io.goobi.viewer.api.rest.resourcebuilders.ManifestCache;
+import io.goobi.viewer.api.rest.resourcebuilders.ManifestCache.CachedManifest;
 import io.goobi.viewer.api.rest.v2.ApiUrls;
+import io.goobi.viewer.controller.DataManager;
 import io.goobi.viewer.exceptions.DAOException;
 import io.goobi.viewer.exceptions.IndexUnreachableException;
 import io.goobi.viewer.exceptions.PresentationException;
@@ -76,10 +82,15 @@ import io.swagger.v3.oas.annotations.Parameter;
 public class RecordResource {
 
     private static final Logger logger = LogManager.getLogger(RecordResource.class);
+
     @Context
     private HttpServletRequest servletRequest;
     @Context
     private HttpServletResponse servletResponse;
+    @Context
+    private Request containerRequest;
+    @Context
+    private Providers providers;
     @Inject
     private ApiUrls urls;
 
@@ -96,9 +107,9 @@ public class RecordResource {
     @Produces({ MediaType.APPLICATION_JSON })
     @Operation(tags = { "records", "iiif" }, summary = "Get IIIF 3.0 manifest for record")
     @IIIFPresentationBinding
-    public IPresentationModelElement getManifest()
+    public Response getManifest()
             throws PresentationException, IndexUnreachableException, URISyntaxException, ViewerConfigurationException,
-            DAOException, IllegalPathSyntaxException, ContentLibException {
+            DAOException, IllegalPathSyntaxException, ContentLibException, IOException {
         try {
             Optional<URI> forwardURI = new ManifestBuilder(urls).getExternalManifestURI(pi);
             if (forwardURI.isPresent()) {
@@ -108,7 +119,18 @@ public class RecordResource {
         } catch (IOException e) {
             logger.error("Error forwarding manifest url", e);
         }
-        return new ManifestBuilder(urls).build(pi, servletRequest);
+
+        ManifestCache cache = DataManager.getInstance().getManifestCache();
+        if (!cache.isEnabled() || !ManifestCache.isAnonymousAccess(servletRequest)) {
+            return Response.ok(new ManifestBuilder(urls).build(pi, servletRequest)).build();
+        }
+        // Cached manifests are always built without a user context, like the background regeneration
+        long dateUpdated = ManifestCache.getDateUpdated(pi);
+        Optional<CachedManifest> cached = cache.get(pi, ManifestCache.VARIANT_V3, dateUpdated);
+        CachedManifest manifest = cached.isPresent() ? cached.get()
+                : cache.put(pi, ManifestCache.VARIANT_V3, dateUpdated, ManifestCache.withContext(new ManifestBuilder(urls).build(pi, null)),
+                        providers);
+        return manifest.toResponse(containerRequest, IIIFPresentationResponseFilter.CONTENT_TYPE_IIIF3);
     }
 
     @GET
@@ -121,8 +121,22 @@ public final class ALTOTools {
      * @should extract fulltext correctly
      */
     public static String getFulltext(String alto, String charset, boolean mergeLineBreakWords, HttpServletRequest request) {
+        return getFulltextForContextPath(alto, charset, mergeLineBreakWords, request != null ? request.getContextPath() : null);
+    }
+
+    /**
+     * Like {@link #getFulltext(String, String, boolean, HttpServletRequest)}, but without access to the request, e.g. for use outside of the request
+     * thread.
+     *
+     * @param alto a {@link java.lang.String} object.
+     * @param charset
+     * @param mergeLineBreakWords a boolean.
+     * @param contextPath Context path for named entity links; no links are added if null
+     * @return a {@link java.lang.String} object.
+     */
+    public static String getFulltextForContextPath(String alto, String charset, boolean mergeLineBreakWords, String contextPath) {
         try {
-            return alto2Txt(alto, charset, mergeLineBreakWords, request);
+            return alto2Txt(alto, charset, mergeLineBreakWords, contextPath);
         } catch (IOException | XMLStreamException | JDOMException e) {
             logger.error(e.getMessage(), e);
         }
@@ -215,7 +229,7 @@ public final class ALTOTools {
      * @param alto a {@link java.lang.String} object.
      * @param charset ALTO charset
      * @param mergeLineBreakWords a boolean.
-     * @param request a {@link javax.servlet.http.HttpServletRequest} object.
+     * @param contextPath Context path for named entity links; no links are added if null
      * @return a {@link java.lang.String} object.
      * @throws java.io.IOException if any.
      * @throws javax.xml.stream.XMLStreamException if any.
@@ -223,7 +237,7 @@ public final class ALTOTools {
      * @should use extract fulltext correctly
      * @should concatenate word at line break correctly
      */
-    protected static String alto2Txt(String alto, String charset, boolean mergeLineBreakWords, HttpServletRequest request)
+    protected static String alto2Txt(String alto, String charset, boolean mergeLineBreakWords, String contextPath)
             throws IOException, XMLStreamException, JDOMException {
         if (alto == null) {
             throw new IllegalArgumentException("alto may not be null");
@@ -295,8 +309,7 @@ public final class ALTOTools {
                                         // with URI (skip if tag is already used so
                                         // that the tag link is not rendered for
                                         // every tagged word)
-                                        if (request != null) {
-                                            String contextPath = request.getContextPath();
+                                        if (contextPath != null) {
                                             strings.append("<span data-remotecontent=\"");
                                             strings.append(contextPath);
                                             strings.append("/api?action=normdata&amp;url=");
@@ -24,6 +24,10 @@ package io.goobi.viewer.controller;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
 
 import org.apache.commons.configuration2.HierarchicalConfiguration;
 import org.apache.commons.configuration2.XMLConfiguration;
@@ -36,19 +40,120 @@ import org.apache.logging.log4j.LogManager;
 
 /**
  * Abstract configuration with base getters.
+ * <p>
+ * Values resolved via the <code>getLocal*</code> getters are kept in a snapshot that is discarded as a whole once one of the config files has been
+ * modified, so that repeated calls (e.g. from EL expressions evaluated for each row of a list) do not query the XML configuration each time. The
+ * config files are checked for modifications at most every {@link #RELOAD_CHECK_INTERVAL} milliseconds. Components that derive their own data
+ * from configuration values can register a listener via {@link #addChangeListener(Runnable)} to be notified when that happens.
  */
 public abstract class AbstractConfiguration {
 
     private static final Logger logger = LogManager.getLogger(AbstractConfiguration.class);
 
+    /** Minimum interval in milliseconds between two checks of the config files for modifications. */
+    static final long RELOAD_CHECK_INTERVAL = 5000;
+
+    /** Placeholder for null values, which cannot be stored in the snapshot map. */
+    private static final Object NULL_VALUE = new Object();
+
     protected ReloadingFileBasedConfigurationBuilder<XMLConfiguration> builder;
     protected ReloadingFileBasedConfigurationBuilder<XMLConfiguration> builderLocal;
 
+    /** Values resolved since the last modification of the config files. */
+    private volatile Map<String, Object> snapshot = new ConcurrentHashMap<>();
+    private volatile long nextReloadCheck = 0;
+    private final List<Runnable> changeListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Checks the config files for modifications, if the last check was more than {@link #RELOAD_CHECK_INTERVAL} milliseconds ago. If a file has
+     * been modified, it will be reloaded upon the next access and the value snapshot is discarded.
+     */
+    protected void checkForReloading() {
+        long now = System.currentTimeMillis();
+        if (now < nextReloadCheck) {
+            return;
+        }
+        nextReloadCheck = now + RELOAD_CHECK_INTERVAL;
+
+        boolean modified = false;
+        if (builder != null && builder.getReloadingController().checkForReloading(null)) {
+            modified = true;
+        }
+        if (builderLocal != null && builderLocal.getReloadingController().checkForReloading(null)) {
+            modified = true;
+        }
+        if (modified) {
+            logger.info("Configuration file modified, reloading...");
+            resetSnapshot();
+        }
+    }
+
+    /**
+     * Discards all values resolved so far and notifies all registered change listeners.
+     */
+    protected void resetSnapshot() {
+        snapshot = new ConcurrentHashMap<>();
+        for (Runnable listener : changeListeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                logger.error(e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Returns the value for the given key from the current snapshot. If the snapshot does not contain the key yet, the value is resolved via the
+     * given loader and added to the snapshot.
+     *
+     * @param key Unique key for the value
+     * @param loader Supplier that resolves the value from the configuration
+     * @return Value for key
+     * @should resolve value only once
+     * @should resolve value again after reset
+     * @should return null values
+     */
+    @SuppressWarnings("unchecked")
+    protected <T> T getCachedValue(String key, Supplier<T> loader) {
+        checkForReloading();
+        Map<String, Object> currentSnapshot = snapshot;
+        Object value = currentSnapshot.get(key);
+        if (value == null) {
+            T loaded = loader.get();
+            value = loaded != null ? loaded : NULL_VALUE;
+            currentSnapshot.putIfAbsent(key, value);
+        }
+
+        return value == NULL_VALUE ? null : (T) value;
+    }
+
+    /**
+     * Registers a listener that is called whenever the configuration has been modified.
+     *
+     * @param listener Listener to add
+     * @should notify listener on reset
+     */
+    public void addChangeListener(Runnable listener) {
+        if (listener != null) {
+            changeListeners.add(listener);
+        }
+    }
+
+    /**
+     *
+     * @param listener Listener to remove
+     * @should not notify removed listener
+     */
+    public void removeChangeListener(Runnable listener) {
+        changeListeners.remove(listener);
+    }
+
     /**
      *
      * @return {@link XMLConfiguration} that is synced with the current state of the config file
      */
     protected XMLConfiguration getConfig() {
+        checkForReloading();
         try {
             return builder.getConfiguration();
         } catch (ConfigurationException e) {
@@ -84,6 +189,10 @@ public abstract class AbstractConfiguration {
      * @return a int.
      */
     protected int getLocalInt(String inPath, int inDefault) {
+        return getCachedValue("int:" + inPath + ":" + inDefault, () -> loadLocalInt(inPath, inDefault));
+    }
+
+    private int loadLocalInt(String inPath, int inDefault) {
         try {
             return getConfigLocal().getInt(inPath, getConfig().getInt(inPath, inDefault));
         } catch (ConversionException e) {
@@ -104,7 +213,7 @@ public abstract class AbstractConfiguration {
      * @return a float.
      */
     protected float getLocalFloat(String inPath) {
-        return getConfigLocal().getFloat(inPath, getConfig().getFloat(inPath));
+        return getCachedValue("float:" + inPath, () -> getConfigLocal().getFloat(inPath, getConfig().getFloat(inPath)));
     }
 
     /**
@@ -117,6 +226,10 @@ public abstract class AbstractConfiguration {
      * @return a float.
      */
     protected float getLocalFloat(String inPath, float inDefault) {
+        return getCachedValue("float:" + inPath + ":" + inDefault, () -> loadLocalFloat(inPath, inDefault));
+    }
+
+    private float loadLocalFloat(String inPath, float inDefault) {
         try {
             return getConfigLocal().getFloat(inPath, getConfig().getFloat(inPath, inDefault));
         } catch (ConversionException e) {
@@ -138,6 +251,10 @@ public abstract class AbstractConfiguration {
      * @return a {@link java.lang.String} object.
      */
     protected String getLocalString(String inPath, String inDefault) {
+        return getCachedValue("string:" + inPath + ":" + inDefault, () -> loadLocalString(inPath, inDefault));
+    }
+
+    private String loadLocalString(String inPath, String inDefault) {
         try {
             return getConfigLocal().getString(inPath, getConfig().getString(inPath, inDefault));
         } catch (Exception e) {
@@ -155,7 +272,7 @@ public abstract class AbstractConfiguration {
      * @return a {@link java.lang.String} object.
      */
     protected String getLocalString(String inPath) {
-        return getConfigLocal().getString(inPath, getConfig().getString(inPath));
+        return getCachedValue("string:" + inPath, () -> getConfigLocal().getString(inPath, getConfig().getString(inPath)));
     }
 
     /**
@@ -167,6 +284,11 @@ public abstract class AbstractConfiguration {
      * @return a {@link java.util.List} object.
      */
     protected List<Object> getLocalNodeList(String inPath) {
+        // Return a copy so that callers cannot modify the cached list
+        return new ArrayList<>(getCachedValue("nodes:" + inPath, () -> Collections.unmodifiableList(loadLocalNodeList(inPath))));
+    }
+
+    private List<Object> loadLocalNodeList(String inPath) {
         List<Object> objects = ((HierarchicalConfiguration<ImmutableNode>) getConfigLocal()).getList(inPath,
                 ((HierarchicalConfiguration<ImmutableNode>) getConfig()).getList(inPath));
         if (objects != null && !objects.isEmpty()) {
@@ -218,7 +340,9 @@ public abstract class AbstractConfiguration {
      * @return configured list; defaultList if none found
      */
     protected List<String> getLocalList(String inPath, List<String> defaultList) {
-        return getLocalList(getConfigLocal(), getConfig(), inPath, defaultList);
+        // Return a copy so that callers cannot modify the cached list
+        return new ArrayList<>(getCachedValue("list:" + inPath + ":" + defaultList,
+                () -> Collections.unmodifiableList(getLocalList(getConfigLocal(), getConfig(), inPath, defaultList))));
     }
 
     /**
@@ -243,6 +367,10 @@ public abstract class AbstractConfiguration {
      * @return a boolean.
      */
     protected boolean getLocalBoolean(String inPath, boolean inDefault) {
+        return getCachedValue("boolean:" + inPath + ":" + inDefault, () -> loadLocalBoolean(inPath, inDefault));
+    }
+
+    private boolean loadLocalBoolean(String inPath, boolean inDefault) {
         try {
             return getConfigLocal().getBoolean(inPath, getConfig().getBoolean(inPath, inDefault));
         } catch (Exception e) {
@@ -315,8 +443,10 @@ public abstract class AbstractConfiguration {
      *
      * @param property Property path (e.g. "accessConditions.fullAccessForLocalhost")
      * @param value New value to set
+     * @should replace previously resolved values
      */
     public void overrideValue(String property, Object value) {
         getConfig().setProperty(property, value);
+        resetSnapshot();
     }
 }
@@ -0,0 +1,265 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.controller;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Thread safe, size bounded cache with least-recently-used eviction and an optional maximum age of its entries. Optionally, the total weight of all
+ * entries (e.g. the number of elements they hold) can be bounded as well, for caches whose entries differ a lot in size. Keeps counts of cache hits
+ * and misses for monitoring.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class BoundedCache<K, V> {
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final long maxWeight;
+    private final ToLongFunction<V> weigher;
+    private final Map<K, Entry<V>> entries;
+    /** Total weight of all entries; only accessed while holding the lock on {@link #entries} */
+    private long weight = 0;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * 
+     * @param maxSize Maximum number of entries. The least recently used entry is evicted when exceeded
+     * @param ttl Maximum age of an entry. If null or zero, entries don't expire
+     */
+    public BoundedCache(int maxSize, Duration ttl) {
+        this(maxSize, ttl, Long.MAX_VALUE, v -> 0);
+    }
+
+    /**
+     * 
+     * @param maxSize Maximum number of entries. The least recently used entry is evicted when exceeded
+     * @param ttl Maximum age of an entry. If null or zero, entries don't expire
+     * @param maxWeight Maximum total weight of all entries. Least recently used entries are evicted when exceeded
+     * @param weigher Determines the weight of a value; must not change while the value is cached
+     */
+    public BoundedCache(int maxSize, Duration ttl, long maxWeight, ToLongFunction<V> weigher) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        if (maxWeight < 1) {
+            throw new IllegalArgumentException("maxWeight must be positive");
+        }
+        this.maxSize = maxSize;
+        this.ttlMillis = ttl != null ? ttl.toMillis() : 0;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > BoundedCache.this.maxSize) {
+                    weight -= eldest.getValue().weight;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * 
+     * @param key
+     * @return Cached value for key; null if none exists or it has expired
+     * @should return null for expired entries
+     * @should evict least recently used entry if max size exceeded
+     */
+    public V get(K key) {
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && !isExpired(entry)) {
+                hits.incrementAndGet();
+                return entry.value;
+            }
+            if (entry != null) {
+                removeEntry(key);
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Adds the given value. Values that are heavier than the maximum total weight are not cached.
+     * 
+     * @param key
+     * @param value
+     * @should evict least recently used entries if max weight exceeded
+     * @should not cache values heavier than max weight
+     */
+    public void put(K key, V value) {
+        if (value == null) {
+            return;
+        }
+        long valueWeight = weigher.applyAsLong(value);
+        synchronized (entries) {
+            removeEntry(key);
+            if (valueWeight > maxWeight) {
+                return;
+            }
+            weight += valueWeight;
+            entries.put(key, new Entry<>(value, System.currentTimeMillis(), valueWeight));
+            // Evict least recently used entries, but never the new one
+            Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+            while (weight > maxWeight && iterator.hasNext()) {
+                Map.Entry<K, Entry<V>> eldest = iterator.next();
+                if (Objects.equals(eldest.getKey(), key)) {
+                    break;
+                }
+                weight -= eldest.getValue().weight;
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * 
+     * @param key
+     * @return Previously cached value; null if none existed
+     */
+    public V remove(K key) {
+        synchronized (entries) {
+            Entry<V> entry = removeEntry(key);
+            return entry != null ? entry.value : null;
+        }
+    }
+
+    /**
+     * Must be called while holding the lock on {@link #entries}.
+     * 
+     * @param key
+     * @return Removed entry; null if none existed
+     */
+    private Entry<V> removeEntry(K key) {
+        Entry<V> ret = entries.remove(key);
+        if (ret != null) {
+            weight -= ret.weight;
+        }
+        return ret;
+    }
+
+    /**
+     * Removes all entries whose key matches the given predicate.
+     * 
+     * @param filter
+     * @return Number of removed entries
+     */
+    public int removeIf(Predicate<K> filter) {
+        synchronized (entries) {
+            int ret = 0;
+            Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<K, Entry<V>> entry = iterator.next();
+                if (filter.test(entry.getKey())) {
+                    weight -= entry.getValue().weight;
+                    iterator.remove();
+                    ret++;
+                }
+            }
+            return ret;
+        }
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            weight = 0;
+        }
+    }
+
+    /**
+     * 
+     * @return Number of entries, including expired entries not yet removed
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * 
+     * @return Total weight of all entries, including expired entries not yet removed
+     */
+    public long getWeight() {
+        synchronized (entries) {
+            return weight;
+        }
+    }
+
+    /**
+     * @return the maxSize
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return Number of {@link #get(Object)} calls that returned a value
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return Number of {@link #get(Object)} calls that returned null
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private boolean isExpired(Entry<V> entry) {
+        return ttlMillis > 0 && System.currentTimeMillis() - entry.created > ttlMillis;
+    }
+
+    private static class Entry<V> {
+
+        private final V value;
+        private final long created;
+        private final long weight;
+
+        public Entry(V value, long created, long weight) {
+            this.value = value;
+            this.created = created;
+            this.weight = weight;
+        }
+    }
+}
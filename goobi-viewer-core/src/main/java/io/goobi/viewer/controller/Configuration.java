@@ -49,12 +49,9 @@ import javax.faces.model.SelectItem;
 import org.apache.commons.configuration2.BaseHierarchicalConfiguration;
 import org.apache.commons.configuration2.HierarchicalConfiguration;
 import org.apache.commons.configuration2.XMLConfiguration;
-import org.apache.commons.configuration2.builder.ConfigurationBuilderEvent;
 import org.apache.commons.configuration2.builder.ReloadingFileBasedConfigurationBuilder;
 import org.apache.commons.configuration2.builder.fluent.Parameters;
 import org.apache.commons.configuration2.convert.DefaultListDelimiterHandler;
-import org.apache.commons.configuration2.event.Event;
-import org.apache.commons.configuration2.event.EventListener;
 import org.apache.commons.configuration2.ex.ConfigurationException;
 import org.apache.commons.configuration2.tree.ImmutableNode;
 import org.apache.commons.lang3.StringUtils;
@@ -139,7 +136,7 @@ public class Configuration extends AbstractConfiguration {
 
     static final String VALUE_DEFAULT = "_DEFAULT";
 
-    private Set<String> stopwords;
+    private volatile Set<String> stopwords;
 
     /**
      * <p>
@@ -148,7 +145,6 @@ public class Configuration extends AbstractConfiguration {
      *
      * @param configFilePath a {@link java.lang.String} object.
      */
-    @SuppressWarnings({ "unchecked", "rawtypes" })
     public Configuration(String configFilePath) {
         // Load default config file
         builder =
@@ -165,14 +161,6 @@ public class Configuration extends AbstractConfiguration {
             } catch (ConfigurationException e) {
                 logger.error(e.getMessage(), e);
             }
-            builder.addEventListener(ConfigurationBuilderEvent.CONFIGURATION_REQUEST,
-                    new EventListener() {
-
-                        @Override
-                        public void onEvent(Event event) {
-                            builder.getReloadingController().checkForReloading(null);
-                        }
-                    });
         } else {
             logger.error("Default configuration file not found: {}; Base path is {}", builder.getFileHandler().getFile().getAbsoluteFile(),
                     builder.getFileHandler().getBasePath());
@@ -193,22 +181,21 @@ public class Configuration extends AbstractConfiguration {
             } catch (ConfigurationException e) {
                 logger.error(e.getMessage(), e);
             }
-            builderLocal.addEventListener(ConfigurationBuilderEvent.CONFIGURATION_REQUEST,
-                    new EventListener() {
-
-                        @Override
-                        public void onEvent(Event event) {
-                            builderLocal.getReloadingController().checkForReloading(null);
-                        }
-                    });
         }
 
         // Load stopwords
+        initStopwords();
+        // Stopwords file path may have changed
+        addChangeListener(this::initStopwords);
+    }
+
+    /**
+     * Loads stopwords from the configured file.
+     */
+    private void initStopwords() {
         try {
             stopwords = loadStopwords(getStopwordsFilePath());
-        } catch (
-
-        FileNotFoundException e) {
+        } catch (FileNotFoundException e) {
             logger.error(e.getMessage());
             stopwords = new HashSet<>(0);
         } catch (IOException | IllegalArgumentException e) {
@@ -1108,6 +1095,16 @@ public class Configuration extends AbstractConfiguration {
         return getLocalInt("metadata.browsingMenu.indexSizeThreshold", 100000);
     }
 
+    /**
+     * Maximum age of a cached browsing term index after which it is rebuilt, even if the indexer hasn't reported any changes.
+     *
+     * @return Maximum age in minutes
+     * @should return correct value
+     */
+    public int getBrowsingMenuIndexMaxAge() {
+        return getLocalInt("metadata.browsingMenu.indexSizeThreshold[@maxAge]", 60);
+    }
+
     /**
      * <p>
      * getBrowsingMenuHitsPerPage.
@@ -1587,6 +1584,17 @@ public class Configuration extends AbstractConfiguration {
         return getLocalInt("search.fulltextFragmentLength", 200);
     }
 
+    /**
+     * Returns the maximum time in milliseconds to wait for the full-texts of the search hits on a result page to be loaded. Hits whose full-text
+     * has not been loaded after this time are displayed without full-text fragments.
+     *
+     * @should return correct value
+     * @return Configured value
+     */
+    public int getFulltextLoadingTimeout() {
+        return getLocalInt("search.fulltextFragmentLength[@loadingTimeout]", 10000);
+    }
+
     /**
      * <p>
      * isAdvancedSearchEnabled.
@@ -3179,6 +3187,19 @@ public class Configuration extends AbstractConfiguration {
             return defaultValue;
         }
 
+        // Facet field properties are requested for each facet on each search page, so the result is kept in the value snapshot
+        return getCachedValue("facetField:" + facetField + ":" + property + ":" + defaultValue,
+                () -> loadPropertyForFacetField(facetField, property, defaultValue));
+    }
+
+    /**
+     *
+     * @param facetField
+     * @param property
+     * @param defaultValue
+     * @return Configured value; defaultValue if none found
+     */
+    private String loadPropertyForFacetField(String facetField, String property, String defaultValue) {
         String facetifiedField = SearchHelper.facetifyField(facetField);
         // Regular fields
         List<HierarchicalConfiguration<ImmutableNode>> facetFields = getLocalConfigurationsAt("search.facets.field");
@@ -3484,6 +3505,25 @@ public class Configuration extends AbstractConfiguration {
         return getLocalBoolean("pdf.docHierarchyPdfEnabled", false);
     }
 
+    /**
+     * Returns the number of threads used to pre-render single page PDF files. The limit applies to all records being pre-rendered at the same time.
+     *
+     * @return Configured number of threads; at least 1
+     * @should return correct value
+     */
+    public int getPdfPrerenderThreads() {
+        return Math.max(1, getLocalInt("pdf.prerender[@threads]", 2));
+    }
+
+    /**
+     * 
+     * @return true if record and section PDFs are to be assembled from pre-rendered single page PDF files where available; false otherwise
+     * @should return correct value
+     */
+    public boolean isAssemblePdfFromPrerenderedPages() {
+        return getLocalBoolean("pdf.prerender[@assemble]", false);
+    }
+
     /**
      * <p>
      * isTitleEpubEnabled.
@@ -4141,6 +4181,27 @@ public class Configuration extends AbstractConfiguration {
         return getLocalInt("performance.pageLoaderThreshold", 1000);
     }
 
+    /**
+     * Number of pages loaded per Solr query by the prefetching page loader used for records at or above the page loader threshold. A value of 0
+     * disables prefetching and loads one page at a time.
+     *
+     * @should return correct value
+     * @return Configured value; 10 if none set
+     */
+    public int getPageLoaderPrefetchSize() {
+        return getLocalInt("performance.pageLoaderThreshold[@prefetchSize]", 10);
+    }
+
+    /**
+     * Maximum number of records of which the index data is shared by all sessions opening them. A value of 0 disables the cache.
+     *
+     * @should return correct value
+     * @return Configured value; 200 if none set
+     */
+    public int getRecordSnapshotCacheSize() {
+        return getLocalInt("performance.recordSnapshotCache[@size]", 200);
+    }
+
     /**
      * <p>
      * isPreventProxyCaching.
@@ -4165,6 +4226,114 @@ public class Configuration extends AbstractConfiguration {
         return getLocalBoolean(("performance.solr.useHttp2"), true);
     }
 
+    /**
+     * 
+     * @return Maximum number of open connections of the shared HTTP client
+     * @should return correct value
+     */
+    public int getHttpClientMaxConnections() {
+        return getLocalInt("performance.httpClient.maxConnections", 100);
+    }
+
+    /**
+     * 
+     * @return Maximum number of open connections per host of the shared HTTP client
+     * @should return correct value
+     */
+    public int getHttpClientMaxConnectionsPerRoute() {
+        return getLocalInt("performance.httpClient.maxConnectionsPerRoute", 20);
+    }
+
+    /**
+     * 
+     * @return Number of seconds idle connections of the shared HTTP client are kept open
+     * @should return correct value
+     */
+    public int getHttpClientKeepAlive() {
+        return getLocalInt("performance.httpClient.keepAlive", 30);
+    }
+
+    /**
+     * 
+     * @return true if Solr query results are cached; false otherwise
+     * @should return correct value
+     */
+    public boolean isSolrQueryCacheEnabled() {
+        return getLocalBoolean("performance.solr.queryCache[@enabled]", false);
+    }
+
+    /**
+     * 
+     * @return Maximum number of cached Solr query results
+     * @should return correct value
+     */
+    public int getSolrQueryCacheMaxSize() {
+        return getLocalInt("performance.solr.queryCache[@maxSize]", 1000);
+    }
+
+    /**
+     * 
+     * @return Maximum age of cached Solr query results in seconds
+     * @should return correct value
+     */
+    public int getSolrQueryCacheTtl() {
+        return getLocalInt("performance.solr.queryCache[@ttl]", 300);
+    }
+
+    /**
+     * 
+     * @return Maximum number of Solr queries of a single search that are executed at the same time
+     * @should return correct value
+     */
+    public int getSearchQueriesMaxConcurrency() {
+        return getLocalInt("performance.solr.searchQueries[@maxConcurrency]", 4);
+    }
+
+    /**
+     * 
+     * @return Time in seconds after which the Solr queries of a single search are cancelled
+     * @should return correct value
+     */
+    public int getSearchQueriesTimeout() {
+        return getLocalInt("performance.solr.searchQueries[@timeout]", 60);
+    }
+
+    /**
+     * 
+     * @return Time in seconds during which re-index requests for the same record are collected
+     * @should return correct value
+     */
+    public int getReIndexQueueDebounce() {
+        return getLocalInt("performance.reIndexQueue[@debounce]", 5);
+    }
+
+    /**
+     * 
+     * @return Maximum number of records waiting to be re-indexed
+     * @should return correct value
+     */
+    public int getReIndexQueueMaxPending() {
+        return getLocalInt("performance.reIndexQueue[@maxPending]", 1000);
+    }
+
+    /**
+     * 
+     * @return true if serialized IIIF manifests are cached on disk; false otherwise
+     * @should return correct value
+     */
+    public boolean isIIIFManifestCacheEnabled() {
+        return getLocalBoolean("performance.iiifManifestCache[@enabled]", false);
+    }
+
+    /**
+     * 
+     * @return Folder for cached IIIF manifests
+     * @should return correct value
+     */
+    public String getIIIFManifestCacheFolder() {
+        return getLocalString("performance.iiifManifestCache[@folder]", Paths.get(StringUtils.defaultString(getViewerHome()), "manifest_cache").toString());
+    }
+
     /**
      * <p>
      * isSolrCompressionEnabled.
@@ -5569,6 +5738,33 @@ public class Configuration extends AbstractConfiguration {
         return getLocalBoolean("maps.facet.heatmap[@enabled]", false);
     }
 
+    /**
+     * 
+     * @return true if the geo facet map loads search hits as map tiles; false otherwise
+     * @should return correct value
+     */
+    public boolean useTilesForFacetting() {
+        return getLocalBoolean("maps.facet.tiles[@enabled]", true);
+    }
+
+    /**
+     * 
+     * @return Zoom level from which on map tiles always contain individual features instead of clusters
+     * @should return correct value
+     */
+    public int getGeoMapTileFeatureZoom() {
+        return getLocalInt("maps.tiles[@featureZoom]", 12);
+    }
+
+    /**
+     * 
+     * @return Maximum number of hits in a map tile below the feature zoom level for which individual features are delivered instead of clusters
+     * @should return correct value
+     */
+    public int getGeoMapTileMaxFeatures() {
+        return getLocalInt("maps.tiles[@maxFeatures]", 500);
+    }
+
     public GeoMapMarker getMarkerForMapSearch() {
         HierarchicalConfiguration<ImmutableNode> config = getLocalConfigurationAt("maps.search.marker");
         return readGeoMapMarker(config);
@@ -5920,6 +6116,27 @@ public class Configuration extends AbstractConfiguration {
         return getLocalBoolean("statistics[@enabled]", false);
     }
 
+    /**
+     * Interval in seconds in which recorded usage statistics are written to the database
+     * 
+     * @return Configured value
+     * @should return correct value
+     */
+    public int getStatisticsFlushInterval() {
+        return getLocalInt("statistics.flush[@interval]", 60);
+    }
+
+    /**
+     * Number of sessions for which usage statistics are kept in memory before they are written to the database regardless of
+     * {@link #getStatisticsFlushInterval()}
+     * 
+     * @return Configured value
+     * @should return correct value
+     */
+    public int getStatisticsFlushMaxBufferedSessions() {
+        return getLocalInt("statistics.flush[@maxBufferedSessions]", 1000);
+    }
+
     public String getCrawlerDetectionRegex() {
         return getLocalString("statistics.crawlerDetection[@regex]",
                 ".*[bB]ot.*|.*Yahoo! Slurp.*|.*Feedfetcher-Google.*|.*Apache-HttpClient.*|.*[Ss]pider.*|.*[Cc]rawler.*|.*nagios.*|.*Yandex.*");
@@ -39,6 +39,56 @@ public class DamerauLevenshtein {
         return matrix[compOne.length()][compTwo.length()];
     }
 
+    /**
+     * Checks whether the Optimal String Alignment distance between the given strings is at most maxDistance. Unlike {@link #getSimilarity()}, only
+     * three rows of the matrix are kept and the calculation stops as soon as the distance is known to exceed maxDistance, which makes this
+     * suitable for checking many words against a search term.
+     *
+     * @param a First string
+     * @param b Second string
+     * @param maxDistance Maximum allowed distance
+     * @return true if the distance between a and b is at most maxDistance; false otherwise
+     * @should return true if distance within max distance
+     * @should return false if distance exceeds max distance
+     * @should count transposition as one edit
+     * @should handle empty strings
+     */
+    public static boolean isWithinDistance(String a, String b, int maxDistance) {
+        if (Math.abs(a.length() - b.length()) > maxDistance) {
+            return false;
+        }
+
+        int[] prevPrevRow = new int[b.length() + 1];
+        int[] prevRow = new int[b.length() + 1];
+        int[] row = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            prevRow[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            row[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = minimum(prevRow[j] + 1, row[j - 1] + 1, prevRow[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = minimum(value, prevPrevRow[j - 2] + cost);
+                }
+                row[j] = value;
+                rowMin = minimum(rowMin, value);
+            }
+            // Values can only grow from one row to the next
+            if (rowMin > maxDistance) {
+                return false;
+            }
+            int[] temp = prevPrevRow;
+            prevPrevRow = prevRow;
+            prevRow = row;
+            row = temp;
+        }
+
+        return prevRow[b.length()] <= maxDistance;
+    }
+
     /**
      * Calculate distance according to the actual Damerau-Levenshtein distance
      * 
@@ -425,6 +425,24 @@ public final class DataFileTools {
      */
     public static String loadFulltext(String altoFilePath, String fulltextFilePath, boolean mergeLineBreakWords, HttpServletRequest request)
             throws IOException, IndexUnreachableException {
+        return loadFulltext(altoFilePath, fulltextFilePath, mergeLineBreakWords, request != null ? request.getContextPath() : null);
+    }
+
+    /**
+     * Like {@link #loadFulltext(String, String, boolean, HttpServletRequest)}, but only using the context path of the request, so that it can be
+     * called outside of the request thread.
+     *
+     * @param altoFilePath ALTO file path relative to the data repository
+     * @param fulltextFilePath plain full-text file path relative to the data repository
+     * @param mergeLineBreakWords a boolean.
+     * @param contextPath Context path for named entity links in ALTO full-texts; may be null
+     * @return a {@link java.lang.String} object.
+     * @throws java.io.FileNotFoundException if any.
+     * @throws java.io.IOException if any.
+     * @throws io.goobi.viewer.exceptions.IndexUnreachableException if any.
+     */
+    public static String loadFulltext(String altoFilePath, String fulltextFilePath, boolean mergeLineBreakWords, String contextPath)
+            throws IOException, IndexUnreachableException {
         TextResourceBuilder builder = new TextResourceBuilder();
         if (fulltextFilePath != null) {
             // Plain full-text file
@@ -446,7 +464,7 @@ public final class DataFileTools {
             try {
                 StringPair alto = loadAlto(altoFilePath);
                 if (alto != null) {
-                    return ALTOTools.getFulltext(alto.getOne(), alto.getTwo(), mergeLineBreakWords, request);
+                    return ALTOTools.getFulltextForContextPath(alto.getOne(), alto.getTwo(), mergeLineBreakWords, contextPath);
                 }
             } catch (ContentNotFoundException e) {
                 throw new FileNotFoundException(e.getMessage());
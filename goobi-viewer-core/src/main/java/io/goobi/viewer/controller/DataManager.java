@@ -21,10 +21,10 @@
  */
 package io.goobi.viewer.controller;
 
+import java.nio.file.Paths;
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -38,6 +38,7 @@ import org.apache.logging.log4j.Logger;
 
 import de.intranda.monitoring.timer.TimeAnalysis;
 import io.goobi.viewer.api.rest.model.tasks.TaskManager;
+import io.goobi.viewer.api.rest.resourcebuilders.ManifestCache;
 import io.goobi.viewer.dao.IDAO;
 import io.goobi.viewer.dao.impl.JPADAO;
 import io.goobi.viewer.exceptions.DAOException;
@@ -45,12 +46,18 @@ import io.goobi.viewer.exceptions.ModuleMissingException;
 import io.goobi.viewer.model.archives.ArchiveManager;
 import io.goobi.viewer.model.bookmark.SessionStoreBookmarkManager;
 import io.goobi.viewer.model.crowdsourcing.campaigns.Campaign;
+import io.goobi.viewer.model.iiif.discovery.ActivityLog;
+import io.goobi.viewer.model.maps.GeoMapTileProvider;
+import io.goobi.viewer.model.security.AccessRulesManager;
 import io.goobi.viewer.model.security.authentication.AuthResponseListener;
 import io.goobi.viewer.model.security.authentication.OpenIdProvider;
 import io.goobi.viewer.model.security.clients.ClientApplicationManager;
 import io.goobi.viewer.model.security.recordlock.RecordLockManager;
+import io.goobi.viewer.model.statistics.usage.StatisticsRollupCache;
 import io.goobi.viewer.model.statistics.usage.UsageStatisticsRecorder;
 import io.goobi.viewer.model.translations.language.LanguageHelper;
+import io.goobi.viewer.model.urlresolution.ViewerRouteManager;
+import io.goobi.viewer.model.viewer.RecordSnapshotCache;
 import io.goobi.viewer.modules.IModule;
 import io.goobi.viewer.modules.interfaces.DefaultURLBuilder;
 import io.goobi.viewer.modules.interfaces.IURLBuilder;
@@ -73,7 +80,7 @@ public final class DataManager {
 
     private final List<IModule> modules = new ArrayList<>();
 
-    private final Map<String, Map<String, String>> sessionMap = new LinkedHashMap<>();
+    private final SessionTelemetry sessionTelemetry = new SessionTelemetry();
 
     private final RecordLockManager recordLockManager = new RecordLockManager();
 
@@ -117,6 +124,24 @@ public final class DataManager {
 
     private ThreadPoolManager threadPoolManager = null;
 
+    private AccessRulesManager accessRulesManager = null;
+
+    private ViewerRouteManager viewerRouteManager = null;
+
+    private HttpClientManager httpClientManager = null;
+
+    private ReIndexQueue reIndexQueue = null;
+
+    private ManifestCache manifestCache = null;
+
+    private ActivityLog activityLog = null;
+
+    private GeoMapTileProvider geoMapTileProvider = null;
+
+    private RecordSnapshotCache recordSnapshotCache = null;
+
+    private StatisticsRollupCache usageStatisticsRollupCache = null;
+
     /**
      * <p>
      * Getter for the field <code>instance</code>.
@@ -253,18 +278,18 @@ public final class DataManager {
      * @return a int.
      */
     public int getSessionCount() {
-        return sessionMap.size();
+        return sessionTelemetry.getSessionCount();
     }
 
     /**
      * <p>
-     * Getter for the field <code>sessionMap</code>.
+     * Getter for the field <code>sessionTelemetry</code>.
      * </p>
      *
-     * @return the sessionMap
+     * @return the sessionTelemetry
      */
-    public Map<String, Map<String, String>> getSessionMap() {
-        return sessionMap;
+    public SessionTelemetry getSessionTelemetry() {
+        return sessionTelemetry;
     }
 
     /**
@@ -366,6 +391,8 @@ public final class DataManager {
      */
     public void injectDao(IDAO dao) {
         this.dao = dao;
+        this.accessRulesManager = null;
+        this.viewerRouteManager = null;
     }
 
     /**
@@ -604,6 +631,52 @@ public final class DataManager {
         this.usageStatisticsRecorder = usageStatisticsRecorder;
     }
 
+    /**
+     * 
+     * @return the accessRulesManager
+     * @throws DAOException
+     */
+    public AccessRulesManager getAccessRulesManager() throws DAOException {
+        if (accessRulesManager == null) {
+            synchronized (LOCK) {
+                if (accessRulesManager == null) {
+                    accessRulesManager = new AccessRulesManager(getDao());
+                }
+            }
+        }
+
+        return accessRulesManager;
+    }
+
+    /**
+     * 
+     * @return the viewerRouteManager
+     * @throws DAOException
+     */
+    public ViewerRouteManager getViewerRouteManager() throws DAOException {
+        if (viewerRouteManager == null) {
+            synchronized (LOCK) {
+                if (viewerRouteManager == null) {
+                    viewerRouteManager = new ViewerRouteManager(getDao());
+                }
+            }
+        }
+
+        return viewerRouteManager;
+    }
+
+    /**
+     * 
+     * @return the httpClientManager
+     */
+    public synchronized HttpClientManager getHttpClientManager() {
+        if (httpClientManager == null) {
+            httpClientManager = new HttpClientManager(getConfiguration().getHttpClientMaxConnections(),
+                    getConfiguration().getHttpClientMaxConnectionsPerRoute(), getConfiguration().getHttpClientKeepAlive(), THREAD_POOL_SIZE);
+        }
+        return httpClientManager;
+    }
+
     public synchronized ThreadPoolManager getThreadPoolManager() {
         if (threadPoolManager == null) {
             this.threadPoolManager = new ThreadPoolManager(THREAD_POOL_SIZE);
@@ -611,4 +684,106 @@ public final class DataManager {
         return threadPoolManager;
     }
 
+    /**
+     * 
+     * @return the reIndexQueue
+     */
+    public ReIndexQueue getReIndexQueue() {
+        if (reIndexQueue == null) {
+            synchronized (LOCK) {
+                if (reIndexQueue == null) {
+                    reIndexQueue = new ReIndexQueue(getConfiguration().getReIndexQueueDebounce() * 1000L, getConfiguration().getReIndexQueueMaxPending());
+                }
+            }
+        }
+
+        return reIndexQueue;
+    }
+
+    /**
+     * 
+     * @return the manifestCache
+     */
+    public ManifestCache getManifestCache() {
+        if (manifestCache == null) {
+            synchronized (LOCK) {
+                if (manifestCache == null) {
+                    ManifestCache cache = new ManifestCache(Paths.get(getConfiguration().getIIIFManifestCacheFolder()),
+                            getConfiguration().isIIIFManifestCacheEnabled());
+                    if (cache.isEnabled()) {
+                        cache.registerDefaultGenerators(getConfiguration().getRestApiUrl());
+                    }
+                    manifestCache = cache;
+                }
+            }
+        }
+
+        return manifestCache;
+    }
+
+    /**
+     * 
+     * @return the recordSnapshotCache
+     */
+    public RecordSnapshotCache getRecordSnapshotCache() {
+        if (recordSnapshotCache == null) {
+            synchronized (LOCK) {
+                if (recordSnapshotCache == null) {
+                    recordSnapshotCache = new RecordSnapshotCache(getConfiguration().getRecordSnapshotCacheSize());
+                }
+            }
+        }
+
+        return recordSnapshotCache;
+    }
+
+    /**
+     * 
+     * @return the usageStatisticsRollupCache
+     */
+    public StatisticsRollupCache getUsageStatisticsRollupCache() {
+        if (usageStatisticsRollupCache == null) {
+            synchronized (LOCK) {
+                if (usageStatisticsRollupCache == null) {
+                    usageStatisticsRollupCache = new StatisticsRollupCache();
+                }
+            }
+        }
+
+        return usageStatisticsRollupCache;
+    }
+
+    /**
+     * 
+     * @return the activityLog
+     */
+    public ActivityLog getActivityLog() {
+        if (activityLog == null) {
+            synchronized (LOCK) {
+                if (activityLog == null) {
+                    activityLog = new ActivityLog();
+                }
+            }
+        }
+
+        return activityLog;
+    }
+
+    /**
+     * 
+     * @return the geoMapTileProvider
+     */
+    public GeoMapTileProvider getGeoMapTileProvider() {
+        if (geoMapTileProvider == null) {
+            synchronized (LOCK) {
+                if (geoMapTileProvider == null) {
+                    geoMapTileProvider = new GeoMapTileProvider(getConfiguration().getGeoMapTileFeatureZoom(),
+                            getConfiguration().getGeoMapTileMaxFeatures());
+                }
+            }
+        }
+
+        return geoMapTileProvider;
+    }
+
 }
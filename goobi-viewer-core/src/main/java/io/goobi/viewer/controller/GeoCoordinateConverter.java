@@ -84,6 +84,9 @@ import io.goobi.viewer.solr.SolrTools;
 public class GeoCoordinateConverter {
 
     private static final Logger logger = LogManager.getLogger(GeoCoordinateConverter.class);
+
+    /** Default maximum number of documents loaded per query */
+    private static final int MAX_DOCS = 10_000;
     protected static final String POINT_LAT_LNG_PATTERN = "([\\dE.-]+)[\\s/]*([\\dE.-]+)";
     protected static final String POLYGON_LAT_LNG_PATTERN = "POLYGON\\(\\(([\\dE.-]+[\\s/]*[\\dE.-]+[,\\s]*)+\\)\\)"; //NOSONAR
 
@@ -130,8 +133,27 @@ public class GeoCoordinateConverter {
     public List<GeoMapFeature> getFeaturesFromSolrQuery(String query, List<String> filterQueries, List<String> coordinateFields,
             String markerTitleField, boolean aggregateResults)
             throws PresentationException, IndexUnreachableException {
+        return getFeaturesFromSolrQuery(query, filterQueries, coordinateFields, markerTitleField, aggregateResults, MAX_DOCS);
+    }
+
+    /**
+     * Collect all point coordinate in the given coordinate fields from at most maxDocs solr documents returned by the given solr query
+     * 
+     * @param query Solr query to get documents
+     * @param filterQueries filter for solr query
+     * @param coordinateFields fields containing the coordinate points to collect
+     * @param markerTitleField solr field containing a title for the coordinates
+     * @param aggregateResults
+     * @param maxDocs Maximum number of documents to load
+     * @return a list of {@link GeoMapFeature}
+     * @throws PresentationException
+     * @throws IndexUnreachableException
+     */
+    public List<GeoMapFeature> getFeaturesFromSolrQuery(String query, List<String> filterQueries, List<String> coordinateFields,
+            String markerTitleField, boolean aggregateResults, int maxDocs)
+            throws PresentationException, IndexUnreachableException {
         Map<SolrDocument, List<SolrDocument>> docs = StringUtils.isNotBlank(query)
-                ? getSolrDocuments(query, filterQueries, coordinateFields, markerTitleField, aggregateResults) : Collections.emptyMap();
+                ? getSolrDocuments(query, filterQueries, coordinateFields, markerTitleField, aggregateResults, maxDocs) : Collections.emptyMap();
 
         List<GeoMapFeature> features = new ArrayList<>();
         for (Entry<SolrDocument, List<SolrDocument>> entry : docs.entrySet()) {
@@ -166,7 +188,7 @@ public class GeoCoordinateConverter {
     }
 
     private Map<SolrDocument, List<SolrDocument>> getSolrDocuments(final String query, List<String> filterQueries, List<String> coordinateFields,
-            String markerTitleField, boolean aggregateResults)
+            String markerTitleField, boolean aggregateResults, int maxDocs)
             throws PresentationException, IndexUnreachableException {
 
         String coordinateFieldsQuery = coordinateFields.stream().map(s -> s + ":*").collect(Collectors.joining(" "));
@@ -180,7 +202,7 @@ public class GeoCoordinateConverter {
 
         QueryResponse response = DataManager.getInstance()
                 .getSearchIndex()
-                .search(finalQuery, 0, 10_000, null, null, getSolrFieldsForMainQuery(coordinateFields, markerTitleField, aggregateResults),
+                .search(finalQuery, 0, maxDocs, null, null, getSolrFieldsForMainQuery(coordinateFields, markerTitleField, aggregateResults),
                         filterQueries, params);
         SolrDocumentList docs = response.getResults();
 
@@ -188,7 +210,7 @@ public class GeoCoordinateConverter {
             String expandQuery = useQuery.replaceAll("\\{\\!join[^}]+}", "");
             QueryResponse expandResponse = DataManager.getInstance()
                     .getSearchIndex()
-                    .search(expandQuery, 0, 10_000, null, null, getSolrFieldsForExpandQuery(coordinateFields, markerTitleField), filterQueries,
+                    .search(expandQuery, 0, MAX_DOCS, null, null, getSolrFieldsForExpandQuery(coordinateFields, markerTitleField), filterQueries,
                             params);
             SolrDocumentList expandDocs = expandResponse.getResults();
 
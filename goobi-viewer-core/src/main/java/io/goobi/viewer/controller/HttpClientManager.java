@@ -0,0 +1,210 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.controller;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.impl.client.BasicCookieStore;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Holds a single, connection pooling HTTP client for outgoing requests (content server, BaseX, authority data, etc.), so that connections to
+ * the same host can be reused instead of opening a new connection (and client) for each request. Also keeps per-host request statistics.
+ */
+public class HttpClientManager {
+
+    private static final Logger logger = LogManager.getLogger(HttpClientManager.class);
+
+    /** Default timeout in milliseconds for requests that don't configure their own. */
+    private static final int DEFAULT_TIMEOUT = 30000;
+
+    private static final String EXECUTOR_NAME = "http-async";
+    /** Asynchronous requests that don't fit into the queue fail right away instead of blocking the caller */
+    private static final int EXECUTOR_QUEUE_SIZE = 500;
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+    private final ExecutorService asyncExecutor;
+    /** Request statistics per host. */
+    private final Map<String, HostStatistics> hostStatistics = new ConcurrentHashMap<>();
+
+    /**
+     * 
+     * @param maxConnections Maximum number of open connections
+     * @param maxConnectionsPerRoute Maximum number of open connections per host
+     * @param keepAlive Maximum number of seconds an idle connection is kept open
+     * @param asyncThreads Number of threads for asynchronous requests
+     */
+    public HttpClientManager(int maxConnections, int maxConnectionsPerRoute, int keepAlive, int asyncThreads) {
+        this.connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+        // Check connections that have been idle for a while before reusing them
+        connectionManager.setValidateAfterInactivity(2000);
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setSocketTimeout(DEFAULT_TIMEOUT)
+                        .setConnectTimeout(DEFAULT_TIMEOUT)
+                        .setConnectionRequestTimeout(DEFAULT_TIMEOUT)
+                        .build())
+                .setKeepAliveStrategy((response, context) -> {
+                    long duration = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                    return duration > 0 ? Math.min(duration, keepAlive * 1000L) : keepAlive * 1000L;
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(keepAlive, TimeUnit.SECONDS)
+                .build();
+        this.asyncExecutor = DataManager.getInstance()
+                .getThreadPoolManager()
+                .getBoundedExecutor(EXECUTOR_NAME, asyncThreads, EXECUTOR_QUEUE_SIZE, new ThreadPoolExecutor.AbortPolicy());
+        logger.info("HTTP client initialized (max connections: {}, per host: {}, keep-alive: {}s)", maxConnections, maxConnectionsPerRoute,
+                keepAlive);
+    }
+
+    /**
+     * Executes the given request with the shared client. Each request gets its own cookie store, so that cookies are never shared between
+     * requests. The returned response must be closed by the caller to release the connection back into the pool.
+     * 
+     * @param request Request to execute
+     * @param context Optional context (e.g. containing cookies)
+     * @return {@link CloseableHttpResponse}
+     * @throws IOException
+     * @should record statistics for host
+     */
+    public CloseableHttpResponse execute(HttpUriRequest request, HttpClientContext context) throws IOException {
+        HttpClientContext useContext = context != null ? context : HttpClientContext.create();
+        if (useContext.getCookieStore() == null) {
+            useContext.setCookieStore(new BasicCookieStore());
+        }
+        String host = request.getURI().getHost();
+        long start = System.nanoTime();
+        try {
+            CloseableHttpResponse ret = httpClient.execute(request, useContext);
+            record(host, System.nanoTime() - start, ret.getStatusLine().getStatusCode() >= 500);
+            return ret;
+        } catch (IOException e) {
+            record(host, System.nanoTime() - start, true);
+            throw e;
+        }
+    }
+
+    /**
+     * Runs the given task (usually a blocking request via {@link NetTools}) asynchronously. If too many tasks are waiting, the returned future is
+     * completed exceptionally with a {@link RejectedExecutionException}.
+     * 
+     * @param task
+     * @return {@link CompletableFuture} with the task's result
+     * @should return result of task
+     * @should complete exceptionally if task fails
+     */
+    public <T> CompletableFuture<T> executeAsync(Callable<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return task.call();
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }, asyncExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * 
+     * @param host
+     * @param nanos Request duration
+     * @param error true if the request failed
+     */
+    void record(String host, long nanos, boolean error) {
+        HostStatistics stats = hostStatistics.computeIfAbsent(host != null ? host : "", k -> new HostStatistics());
+        stats.requests.incrementAndGet();
+        stats.nanos.addAndGet(nanos);
+        if (error) {
+            stats.errors.incrementAndGet();
+        }
+    }
+
+    /**
+     * 
+     * @return Number of requests, failed requests and average request duration in milliseconds per host
+     */
+    public Map<String, Long> getStatistics() {
+        Map<String, Long> ret = new TreeMap<>();
+        for (Map.Entry<String, HostStatistics> entry : hostStatistics.entrySet()) {
+            long requests = entry.getValue().requests.get();
+            ret.put(entry.getKey() + ".requests", requests);
+            ret.put(entry.getKey() + ".errors", entry.getValue().errors.get());
+            ret.put(entry.getKey() + ".averageMillis", requests > 0 ? TimeUnit.NANOSECONDS.toMillis(entry.getValue().nanos.get() / requests) : 0);
+        }
+        ret.put("leasedConnections", (long) connectionManager.getTotalStats().getLeased());
+        ret.put("availableConnections", (long) connectionManager.getTotalStats().getAvailable());
+        return ret;
+    }
+
+    /**
+     * Closes the client and all pooled connections. The executor for asynchronous requests is shut down by the {@link ThreadPoolManager}.
+     */
+    public void shutdown() {
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            logger.error(e.getMessage());
+        }
+    }
+
+    /**
+     * @return the shared {@link CloseableHttpClient}; must not be closed by callers
+     */
+    public CloseableHttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    private static class HostStatistics {
+
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong nanos = new AtomicLong();
+    }
+}
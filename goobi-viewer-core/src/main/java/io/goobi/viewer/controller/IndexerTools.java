@@ -43,7 +43,6 @@ import io.goobi.viewer.exceptions.DAOException;
 import io.goobi.viewer.exceptions.IndexUnreachableException;
 import io.goobi.viewer.exceptions.PresentationException;
 import io.goobi.viewer.exceptions.RecordNotFoundException;
-import io.goobi.viewer.messages.Messages;
 import io.goobi.viewer.model.annotation.serialization.AnnotationIndexAugmenter;
 import io.goobi.viewer.model.cms.pages.CMSPage;
 import io.goobi.viewer.modules.interfaces.IndexAugmenter;
@@ -66,50 +65,71 @@ public final class IndexerTools {
     /** Constant <code>SUFFIX_CMS="_cms"</code> */
     public static final String SUFFIX_CMS = "_cms";
 
+    /** Lock stripes for hotfolder exports, see {@link #getExportLock(String)} */
+    private static final Object[] EXPORT_LOCKS = new Object[64];
+
+    static {
+        Arrays.setAll(EXPORT_LOCKS, i -> new Object());
+    }
+
     private IndexerTools() {
     }
 
     /**
-     * Re-index in background thread to significantly decrease saving times.
+     * Re-index in background to significantly decrease saving times. Requests for the same record are coalesced by the {@link ReIndexQueue}.
      *
      * @param pi a {@link java.lang.String} object.
      */
     public static void triggerReIndexRecord(String pi) {
-        triggerReIndexRecord(pi, DataManager.getInstance().getModules());
+        logger.debug("Queueing re-index of record {}", pi);
+        DataManager.getInstance().getReIndexQueue().submitRecord(pi);
     }
 
+    /**
+     * Re-index in background using the given augmenters. Since the augmenters cannot be persisted, these requests are neither coalesced nor
+     * passed through the message queue; they are run on the bounded executor of the {@link ReIndexQueue} instead.
+     *
+     * @param pi a {@link java.lang.String} object.
+     * @param augmenters
+     */
     public static void triggerReIndexRecord(String pi, List<? extends IndexAugmenter> augmenters) {
         logger.debug("Re-indexing record {}", pi);
-        new Thread(() -> {
+        DataManager.getInstance().getReIndexQueue().execute(() -> {
             try {
                 if (!reIndexRecord(pi, augmenters)) {
                     logger.error("Failed to re-index  record {}", pi);
-                    Messages.error("reIndexRecordFailure");
-                } else {
-                    Messages.info("reIndexRecordSuccess");
                 }
             } catch (DAOException | RecordNotFoundException e) {
                 logger.error("Failed to reindex record {}: {}", pi, e.getMessage(), e);
-                Messages.error("reIndexRecordFailure");
             }
-        }).start();
+        });
     }
 
     /**
-     * 
+     * Re-index a single page in background. If further requests for the same record arrive within the debounce window of the
+     * {@link ReIndexQueue}, they are merged into a single job.
+     *
+     * @param pi a {@link java.lang.String} object.
+     * @param page Page order
+     */
+    public static void triggerReIndexPage(String pi, int page) {
+        logger.debug("Queueing re-index of page {}/{}", pi, page);
+        DataManager.getInstance().getReIndexQueue().submitPage(pi, page);
+    }
+
+    /**
+     * Re-index the given CMS page in background.
+     *
      * @param page
-     * @param augmenters
+     * @param augmenters Not used for CMS pages
      */
     public static void triggerReIndexCMSPage(CMSPage page, List<? extends IndexAugmenter> augmenters) {
-        logger.debug("Re-indexing CMS page {}", page.getId());
-        new Thread(() -> {
-            if (!reIndexCMSPage(page, augmenters)) {
-                logger.error("Failed to re-index CMS page {}", page);
-                Messages.error("reIndexCmsPageFailure");
-            } else {
-                Messages.info("reIndexCmsPageSuccess");
-            }
-        }).start();
+        if (page == null || page.getId() == null) {
+            logger.warn("Cannot re-index CMS page without ID");
+            return;
+        }
+        logger.debug("Queueing re-index of CMS page {}", page.getId());
+        DataManager.getInstance().getReIndexQueue().submitCmsPage(page.getId());
     }
 
     /**
@@ -122,7 +142,7 @@ public final class IndexerTools {
      * @throws io.goobi.viewer.exceptions.DAOException if any.
      * @throws io.goobi.viewer.exceptions.RecordNotFoundException if any.
      */
-    public static synchronized boolean reIndexRecord(String pi) throws DAOException, RecordNotFoundException {
+    public static boolean reIndexRecord(String pi) throws DAOException, RecordNotFoundException {
         return reIndexRecord(pi, getAllAugmenters(pi, null));
     }
 
@@ -137,12 +157,27 @@ public final class IndexerTools {
      * @throws io.goobi.viewer.exceptions.RecordNotFoundException if any.
      * @should write overview page data
      */
-    public static synchronized boolean reIndexRecord(String pi, Collection<? extends IndexAugmenter> augmenters)
+    public static boolean reIndexRecord(String pi, Collection<? extends IndexAugmenter> augmenters)
             throws DAOException, RecordNotFoundException {
         if (StringUtils.isEmpty(pi)) {
             throw new IllegalArgumentException("pi may not be null or empty");
         }
 
+        synchronized (getExportLock(pi)) {
+            return exportRecord(pi, augmenters);
+        }
+    }
+
+    /**
+     * Exports the record with the given PI into the hotfolder. Must only be called while holding the export lock for the PI.
+     *
+     * @param pi
+     * @param augmenters
+     * @return true if export for reindexing successful; false otherwise
+     * @throws DAOException
+     * @throws RecordNotFoundException
+     */
+    private static boolean exportRecord(String pi, Collection<? extends IndexAugmenter> augmenters) throws DAOException, RecordNotFoundException {
         String dataRepository = null;
         String recordType = null;
         try {
@@ -229,7 +264,7 @@ public final class IndexerTools {
      * @throws io.goobi.viewer.exceptions.IndexUnreachableException if any.
      * @throws java.io.IOException if any.
      */
-    public static synchronized boolean reIndexPage(String pi, int page)
+    public static boolean reIndexPage(String pi, int page)
             throws DAOException, PresentationException, IndexUnreachableException, IOException {
         return reIndexPage(pi, page, getAllAugmenters(pi, page));
     }
@@ -274,7 +309,7 @@ public final class IndexerTools {
      * @throws io.goobi.viewer.exceptions.IndexUnreachableException if any.
      * @throws java.io.IOException if any.
      */
-    public static synchronized boolean reIndexPage(String pi, int page, Collection<? extends IndexAugmenter> augmenters)
+    public static boolean reIndexPage(String pi, int page, Collection<? extends IndexAugmenter> augmenters)
             throws PresentationException, IndexUnreachableException, IOException {
         logger.trace("reIndexPage: {}/{}", pi, page);
         if (StringUtils.isEmpty(pi)) {
@@ -284,6 +319,24 @@ public final class IndexerTools {
             throw new IllegalArgumentException("Illegal page number: " + page);
         }
 
+        synchronized (getExportLock(pi)) {
+            return exportPage(pi, page, augmenters);
+        }
+    }
+
+    /**
+     * Exports the given page into the hotfolder. Must only be called while holding the export lock for the PI.
+     *
+     * @param pi
+     * @param page
+     * @param augmenters
+     * @return true if export for reindexing successful; false otherwise
+     * @throws PresentationException
+     * @throws IndexUnreachableException
+     * @throws IOException
+     */
+    private static boolean exportPage(String pi, int page, Collection<? extends IndexAugmenter> augmenters)
+            throws PresentationException, IndexUnreachableException, IOException {
         String dataRepository = DataManager.getInstance().getSearchIndex().findDataRepositoryName(pi);
 
         String query = new StringBuilder().append('+')
@@ -369,26 +422,40 @@ public final class IndexerTools {
      * @param augmenters
      * @return true if export for reindexing successful; false otherwise
      */
-    public static synchronized boolean reIndexCMSPage(CMSPage page, Collection<? extends IndexAugmenter> augmenters) {
+    public static boolean reIndexCMSPage(CMSPage page, Collection<? extends IndexAugmenter> augmenters) {
         if (page == null) {
             throw new IllegalArgumentException("page may not be null");
         }
 
         Document doc = page.exportAsXml();
-        String namingScheme = findNamingScheme("CMS" + page.getId(), "xml");
+        String baseName = "CMS" + page.getId();
+        synchronized (getExportLock(baseName)) {
+            String namingScheme = findNamingScheme(baseName, "xml");
 
-        // Finally, write the record XML file to the hotfolder
-        try {
-            XmlTools.writeXmlFile(doc,
-                    new File(DataManager.getInstance().getConfiguration().getHotfolder(), namingScheme + ".xml").getAbsolutePath());
-            return true;
-        } catch (IOException e) {
-            logger.error(e.getMessage());
+            // Finally, write the record XML file to the hotfolder
+            try {
+                XmlTools.writeXmlFile(doc,
+                        new File(DataManager.getInstance().getConfiguration().getHotfolder(), namingScheme + ".xml").getAbsolutePath());
+                return true;
+            } catch (IOException e) {
+                logger.error(e.getMessage());
+            }
         }
 
         return false;
     }
 
+    /**
+     * Returns the lock that serializes hotfolder exports for the given base name (PI or CMS page name). Exports of different records only share a
+     * lock if their base names hash to the same stripe.
+     *
+     * @param baseName
+     * @return Lock object
+     */
+    static Object getExportLock(String baseName) {
+        return EXPORT_LOCKS[Math.floorMod(baseName.hashCode(), EXPORT_LOCKS.length)];
+    }
+
     /**
      * 
      * @param baseName Main file initial base name
@@ -415,8 +482,8 @@ public final class IndexerTools {
             logger.info("'{}' is already being indexed, looking for an alternative naming scheme...", namingScheme);
             long iteration = System.currentTimeMillis();
             // Just checking for the presence of the record XML file at this
-            // point, because this method is synchronized and no two
-            // instances should be running at the same time.
+            // point, because callers hold the export lock for the base name
+            // and no two exports of the same record run at the same time.
             while ((new File(DataManager.getInstance().getConfiguration().getHotfolder(), namingScheme + "#" + iteration + ".xml")).exists()) {
                 iteration = System.currentTimeMillis();
             }
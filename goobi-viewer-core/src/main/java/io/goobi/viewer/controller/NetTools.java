@@ -34,6 +34,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -60,8 +61,6 @@ import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.entity.mime.HttpMultipartMode;
 import org.apache.http.entity.mime.MultipartEntityBuilder;
 import org.apache.http.impl.client.BasicCookieStore;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
 import org.apache.http.impl.cookie.BasicClientCookie;
 import org.apache.http.message.BasicHeader;
 import org.apache.http.message.BasicNameValuePair;
@@ -127,9 +126,10 @@ public final class NetTools {
     public static String[] callUrlGET(String url) {
         // logger.trace("callUrlGET: {}", url); //NOSONAR Sometimes needed for debugging
         String[] ret = new String[2];
-        try (CloseableHttpClient httpClient = HttpClients.custom().build()) {
+        try {
             HttpGet httpGet = new HttpGet(url);
-            try (CloseableHttpResponse response = httpClient.execute(httpGet); StringWriter writer = new StringWriter()) {
+            try (CloseableHttpResponse response = DataManager.getInstance().getHttpClientManager().execute(httpGet, null);
+                    StringWriter writer = new StringWriter()) {
                 ret[0] = String.valueOf(response.getStatusLine().getStatusCode());
                 switch (response.getStatusLine().getStatusCode()) {
                     case HttpServletResponse.SC_OK:
@@ -179,24 +179,42 @@ public final class NetTools {
      * @throws io.goobi.viewer.exceptions.HTTPException if any.
      */
     public static String getWebContentGET(String url, int timeout) throws IOException, HTTPException {
-        RequestConfig defaultRequestConfig = RequestConfig.custom()
+        HttpGet get = new HttpGet(url);
+        get.setConfig(createRequestConfig(timeout));
+        try (CloseableHttpResponse response = DataManager.getInstance().getHttpClientManager().execute(get, null)) {
+            int code = response.getStatusLine().getStatusCode();
+            if (code == HttpStatus.SC_OK) {
+                return EntityUtils.toString(response.getEntity(), StringTools.DEFAULT_ENCODING);
+            }
+            logger.trace("{}: {}", code, response.getStatusLine().getReasonPhrase());
+            // Consume the entity so that the connection can be reused
+            EntityUtils.consumeQuietly(response.getEntity());
+            throw new HTTPException(code, response.getStatusLine().getReasonPhrase());
+        }
+    }
+
+    /**
+     * Asynchronous variant of {@link #getWebContentGET(String)}.
+     *
+     * @param url URL to call
+     * @return {@link CompletableFuture} with the content fetched from the given url; completes exceptionally with an {@link IOException} or
+     *         {@link HTTPException}
+     */
+    public static CompletableFuture<String> getWebContentGETAsync(String url) {
+        return DataManager.getInstance().getHttpClientManager().executeAsync(() -> getWebContentGET(url));
+    }
+
+    /**
+     * 
+     * @param timeout
+     * @return {@link RequestConfig} with the given timeout for connecting, reading and waiting for a pooled connection
+     */
+    private static RequestConfig createRequestConfig(int timeout) {
+        return RequestConfig.custom()
                 .setSocketTimeout(timeout)
                 .setConnectTimeout(timeout)
                 .setConnectionRequestTimeout(timeout)
                 .build();
-        try (CloseableHttpClient httpClient = HttpClients.custom().setDefaultRequestConfig(defaultRequestConfig).build()) {
-            HttpGet get = new HttpGet(url);
-            try (CloseableHttpResponse response = httpClient.execute(get); StringWriter writer = new StringWriter()) {
-                int code = response.getStatusLine().getStatusCode();
-                if (code == HttpStatus.SC_OK) {
-                    return EntityUtils.toString(response.getEntity(), StringTools.DEFAULT_ENCODING);
-                    // IOUtils.copy(response.getEntity().getContent(), writer);
-                    // return writer.toString();
-                }
-                logger.trace("{}: {}", code, response.getStatusLine().getReasonPhrase());
-                throw new HTTPException(code, response.getStatusLine().getReasonPhrase());
-            }
-        }
     }
 
     /**
@@ -290,66 +308,58 @@ public final class NetTools {
             context.setCookieStore(cookieStore);
         }
 
-        RequestConfig defaultRequestConfig = RequestConfig.custom()
-                .setSocketTimeout(HTTP_TIMEOUT)
-                .setConnectTimeout(HTTP_TIMEOUT)
-                .setConnectionRequestTimeout(HTTP_TIMEOUT)
-                .build();
-        try (CloseableHttpClient httpClient = HttpClients.custom().setDefaultRequestConfig(defaultRequestConfig).build()) {
-
-            HttpRequestBase requestBase;
-            switch (method.toUpperCase()) {
-                case "POST":
-                    requestBase = new HttpPost(url);
-                    break;
-                case "PUT":
-                    requestBase = new HttpPut(url);
-                    break;
-                case HTTP_METHOD_DELETE:
-                    requestBase = new HttpDelete(url);
-                    break;
-                default:
-                    return "";
-            }
-            //            if (StringUtils.isNotEmpty(contentType)) {
-            //                requestBase.setHeader("Content-Type", contentType);
-            //            }
-            if (headers != null && !headers.isEmpty()) {
-                for (String key : headers.keySet()) {
-                    requestBase.addHeader(key, headers.get(key));
-                }
+        HttpRequestBase requestBase;
+        switch (method.toUpperCase()) {
+            case "POST":
+                requestBase = new HttpPost(url);
+                break;
+            case "PUT":
+                requestBase = new HttpPut(url);
+                break;
+            case HTTP_METHOD_DELETE:
+                requestBase = new HttpDelete(url);
+                break;
+            default:
+                return "";
+        }
+        //            if (StringUtils.isNotEmpty(contentType)) {
+        //                requestBase.setHeader("Content-Type", contentType);
+        //            }
+        if (headers != null && !headers.isEmpty()) {
+            for (String key : headers.keySet()) {
+                requestBase.addHeader(key, headers.get(key));
             }
-            Charset.forName(StringTools.DEFAULT_ENCODING);
-            // TODO allow combinations of params + body
-            if (requestBase instanceof HttpPost || requestBase instanceof HttpPut) {
-                if (file != null) {
-                    // Multipart
-                    ((HttpEntityEnclosingRequestBase) requestBase).setEntity(
-                            MultipartEntityBuilder.create()
-                                    .setMode(HttpMultipartMode.BROWSER_COMPATIBLE)
-                                    .addBinaryBody("file", file)
-                                    .addTextBody("filename", file.getName())
-                                    .build());
-                } else if (StringUtils.isNotEmpty(stringBody)) {
-                    ByteArrayEntity entity = new ByteArrayEntity(stringBody.getBytes(StringTools.DEFAULT_ENCODING));
-                    entity.setContentEncoding(StringTools.DEFAULT_ENCODING);
-                    if (contentType != null) {
-                        entity.setContentType(new BasicHeader(HTTP.CONTENT_TYPE, contentType));
-                    }
-                    ((HttpEntityEnclosingRequestBase) requestBase).setEntity(entity);
-                } else {
-                    ((HttpEntityEnclosingRequestBase) requestBase).setEntity(new UrlEncodedFormEntity(nameValuePairs));
+        }
+        Charset.forName(StringTools.DEFAULT_ENCODING);
+        // TODO allow combinations of params + body
+        if (requestBase instanceof HttpPost || requestBase instanceof HttpPut) {
+            if (file != null) {
+                // Multipart
+                ((HttpEntityEnclosingRequestBase) requestBase).setEntity(
+                        MultipartEntityBuilder.create()
+                                .setMode(HttpMultipartMode.BROWSER_COMPATIBLE)
+                                .addBinaryBody("file", file)
+                                .addTextBody("filename", file.getName())
+                                .build());
+            } else if (StringUtils.isNotEmpty(stringBody)) {
+                ByteArrayEntity entity = new ByteArrayEntity(stringBody.getBytes(StringTools.DEFAULT_ENCODING));
+                entity.setContentEncoding(StringTools.DEFAULT_ENCODING);
+                if (contentType != null) {
+                    entity.setContentType(new BasicHeader(HTTP.CONTENT_TYPE, contentType));
                 }
+                ((HttpEntityEnclosingRequestBase) requestBase).setEntity(entity);
+            } else {
+                ((HttpEntityEnclosingRequestBase) requestBase).setEntity(new UrlEncodedFormEntity(nameValuePairs));
             }
-            try (CloseableHttpResponse response = (context == null ? httpClient.execute(requestBase) : httpClient.execute(requestBase, context));
-                    StringWriter writer = new StringWriter()) {
-                int code = response.getStatusLine().getStatusCode();
-                logger.trace("{}: {}", code, response.getStatusLine().getReasonPhrase());
-                if (code == HttpStatus.SC_OK) {
-                    return EntityUtils.toString(response.getEntity(), StringTools.DEFAULT_ENCODING);
-                }
+        }
+        requestBase.setConfig(createRequestConfig(HTTP_TIMEOUT));
+        try (CloseableHttpResponse response = DataManager.getInstance().getHttpClientManager().execute(requestBase, context)) {
+            int code = response.getStatusLine().getStatusCode();
+            logger.trace("{}: {}", code, response.getStatusLine().getReasonPhrase());
+            if (code == HttpStatus.SC_OK) {
                 return EntityUtils.toString(response.getEntity(), StringTools.DEFAULT_ENCODING);
             }
+            return EntityUtils.toString(response.getEntity(), StringTools.DEFAULT_ENCODING);
         }
     }
 
@@ -0,0 +1,493 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.controller;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import io.goobi.viewer.controller.mq.MessageQueueManager;
+import io.goobi.viewer.controller.mq.ViewerMessage;
+import io.goobi.viewer.exceptions.DAOException;
+import io.goobi.viewer.exceptions.IndexUnreachableException;
+import io.goobi.viewer.exceptions.MessageQueueException;
+import io.goobi.viewer.exceptions.PresentationException;
+import io.goobi.viewer.exceptions.RecordNotFoundException;
+import io.goobi.viewer.model.cms.pages.CMSPage;
+import io.goobi.viewer.model.job.TaskType;
+
+/**
+ * Collects re-index requests for records, pages and CMS pages and hands them on as {@link TaskType#REINDEX_RECORD} messages after a debounce
+ * window. Requests for the same record that arrive within the window are coalesced into a single job; several pages of the same record are merged
+ * into one record job. If the message queue is not running, jobs are executed on a small bounded executor instead; when its queue is full, the
+ * job is put back into the pending jobs and dispatched again later.
+ * <p>
+ * Jobs that have been passed to the message queue are persisted and survive restarts. Jobs that are still waiting for their debounce window to
+ * expire are passed to the message queue on {@link #shutdown()}, if it is still running.
+ * </p>
+ */
+public class ReIndexQueue {
+
+    private static final Logger logger = LogManager.getLogger(ReIndexQueue.class);
+
+    /** Number of retries for re-index messages; failing exports are usually not fixed by retrying many times */
+    private static final int MESSAGE_MAX_RETRIES = 3;
+    /** Minimum delay in milliseconds before a job rejected by the local executor is dispatched again */
+    private static final long REJECTED_RETRY_DELAY = 1000;
+    /** Maximum time in milliseconds to wait for locally executed jobs on shutdown */
+    private static final long SHUTDOWN_TIMEOUT = 10000;
+
+    private static final String EXECUTOR_NAME = "reindex-worker";
+    private static final int EXECUTOR_THREADS = 1;
+
+    private final long debounceMillis;
+    private final int maxPending;
+    private final Predicate<ReIndexJob> localRunner;
+    private final Map<String, ReIndexJob> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    private final ThreadPoolExecutor executor;
+    /** Number of jobs submitted to {@link #executor} that have not finished yet */
+    private final AtomicInteger localJobs = new AtomicInteger();
+
+    private volatile MessageQueueManager messageQueueManager;
+
+    private final LongAdder requested = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder executedLocally = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    /**
+     *
+     * @param debounceMillis Time in milliseconds during which requests for the same record are collected
+     * @param maxPending Maximum number of records waiting for their debounce window; further records are dispatched immediately
+     */
+    public ReIndexQueue(long debounceMillis, int maxPending) {
+        this(debounceMillis, maxPending, ReIndexJob::execute);
+    }
+
+    /**
+     *
+     * @param debounceMillis Time in milliseconds during which requests for the same record are collected
+     * @param maxPending Maximum number of records waiting for their debounce window; further records are dispatched immediately
+     * @param localRunner Executes jobs if the message queue is not running; returns false if the job failed
+     */
+    ReIndexQueue(long debounceMillis, int maxPending, Predicate<ReIndexJob> localRunner) {
+        this.debounceMillis = Math.max(0, debounceMillis);
+        this.maxPending = Math.max(1, maxPending);
+        this.localRunner = localRunner;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "reindex-debounce");
+            t.setDaemon(true);
+            return t;
+        });
+        this.executor = DataManager.getInstance()
+                .getThreadPoolManager()
+                .getBoundedExecutor(EXECUTOR_NAME, EXECUTOR_THREADS, this.maxPending, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Sets the message queue to which jobs are passed. Until set (or while not running), jobs are executed locally.
+     *
+     * @param messageQueueManager
+     */
+    public void setMessageQueueManager(MessageQueueManager messageQueueManager) {
+        this.messageQueueManager = messageQueueManager;
+    }
+
+    /**
+     * Requests a re-index of the complete record with the given PI.
+     *
+     * @param pi Record identifier
+     * @should coalesce requests for same record
+     */
+    public void submitRecord(String pi) {
+        if (StringUtils.isEmpty(pi)) {
+            throw new IllegalArgumentException("pi may not be null or empty");
+        }
+        submit(pi, ReIndexJob::addRecord, () -> new ReIndexJob(pi, null));
+    }
+
+    /**
+     * Requests a re-index of a single page of the record with the given PI.
+     *
+     * @param pi Record identifier
+     * @param page Page order
+     * @should merge pages of same record
+     */
+    public void submitPage(String pi, int page) {
+        if (StringUtils.isEmpty(pi)) {
+            throw new IllegalArgumentException("pi may not be null or empty");
+        }
+        if (page <= 0) {
+            throw new IllegalArgumentException("Illegal page number: " + page);
+        }
+        submit(pi, job -> job.addPage(page), () -> new ReIndexJob(pi, null));
+    }
+
+    /**
+     * Requests a re-index of the CMS page with the given ID.
+     *
+     * @param cmsPageId Database ID of the CMS page
+     */
+    public void submitCmsPage(long cmsPageId) {
+        submit(ReIndexJob.getCmsPageKey(cmsPageId), job -> {
+        }, () -> new ReIndexJob(null, cmsPageId));
+    }
+
+    /**
+     * Runs the given task on the bounded executor, without coalescing. If the executor is busy, the task is discarded.
+     *
+     * @param task
+     */
+    public void execute(Runnable task) {
+        if (!executeLocally(task)) {
+            failed.increment();
+            logger.error("Re-index task discarded, local re-index backlog is full");
+        }
+    }
+
+    /**
+     * Submits the given task to the bounded executor.
+     *
+     * @param task
+     * @return true if the task was accepted; false if the executor is busy or has been shut down
+     */
+    private boolean executeLocally(Runnable task) {
+        localJobs.incrementAndGet();
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    localJobs.decrementAndGet();
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            localJobs.decrementAndGet();
+            return false;
+        }
+    }
+
+    private void submit(String key, Consumer<ReIndexJob> update, Supplier<ReIndexJob> factory) {
+        requested.increment();
+        boolean[] created = { false };
+        pending.compute(key, (k, job) -> {
+            ReIndexJob ret = job;
+            if (ret == null) {
+                ret = factory.get();
+                created[0] = true;
+            } else {
+                coalesced.increment();
+            }
+            update.accept(ret);
+            return ret;
+        });
+        if (!created[0]) {
+            return;
+        }
+        if (debounceMillis == 0 || pending.size() > maxPending || scheduler.isShutdown()) {
+            dispatch(key);
+        } else {
+            scheduler.schedule(() -> dispatch(key), debounceMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Removes the job with the given key from the pending jobs and passes it to the message queue or to the local executor. If the local executor
+     * does not accept the job, it is put back into the pending jobs and dispatched again later.
+     *
+     * @param key
+     * @should keep job pending if local executor is busy
+     */
+    void dispatch(String key) {
+        ReIndexJob job = pending.remove(key);
+        if (job == null) {
+            return;
+        }
+        MessageQueueManager mq = this.messageQueueManager;
+        if (mq != null && mq.isQueueRunning()) {
+            try {
+                if (mq.addToQueue(job.toMessage()) != null) {
+                    queued.increment();
+                    return;
+                }
+            } catch (MessageQueueException e) {
+                logger.warn("Could not add re-index job {} to message queue, executing locally: {}", key, e.getMessage());
+            }
+        }
+        boolean accepted = executeLocally(() -> {
+            try {
+                if (localRunner.test(job)) {
+                    executedLocally.increment();
+                } else {
+                    failed.increment();
+                }
+            } catch (RuntimeException e) {
+                failed.increment();
+                logger.error("Re-index job {} failed: {}", key, e.getMessage(), e);
+            }
+        });
+        if (!accepted) {
+            keepPending(key, job);
+        }
+    }
+
+    /**
+     * Puts a job that could not be executed back into the pending jobs, merged with any request that has arrived since, and schedules another
+     * dispatch.
+     *
+     * @param key
+     * @param job
+     */
+    private void keepPending(String key, ReIndexJob job) {
+        pending.merge(key, job, ReIndexJob::merge);
+        try {
+            scheduler.schedule(() -> dispatch(key), Math.max(debounceMillis, REJECTED_RETRY_DELAY), TimeUnit.MILLISECONDS);
+            logger.warn("Local re-index backlog is full, re-index job {} will be retried", key);
+        } catch (RejectedExecutionException e) {
+            logger.warn("Local re-index backlog is full, re-index job {} is kept pending", key);
+        }
+    }
+
+    /**
+     *
+     * @return Number of records waiting for their debounce window
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     *
+     * @return Counters for monitoring
+     */
+    public Map<String, Long> getStatistics() {
+        Map<String, Long> ret = new LinkedHashMap<>();
+        ret.put("requested", requested.sum());
+        ret.put("coalesced", coalesced.sum());
+        ret.put("pending", (long) pending.size());
+        ret.put("queued", queued.sum());
+        ret.put("executedLocally", executedLocally.sum());
+        ret.put("failed", failed.sum());
+        ret.put("localBacklog", (long) executor.getQueue().size());
+        return ret;
+    }
+
+    /**
+     * Stops the debounce timer and dispatches all pending jobs immediately, so that they end up in the message queue while it is still running.
+     * Waits a few seconds for locally executed jobs to finish. The local executor itself is shut down by the {@link ThreadPoolManager}.
+     *
+     * @should dispatch pending jobs
+     */
+    public void shutdown() {
+        scheduler.shutdownNow();
+        for (String key : new ArrayList<>(pending.keySet())) {
+            dispatch(key);
+        }
+        long deadline = System.currentTimeMillis() + SHUTDOWN_TIMEOUT;
+        try {
+            while (localJobs.get() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (localJobs.get() > 0 || !pending.isEmpty()) {
+            logger.warn("{} local re-index jobs were not executed before shutdown", localJobs.get() + pending.size());
+        }
+    }
+
+    /**
+     * Coalesced re-index request for a record or a CMS page.
+     */
+    public static class ReIndexJob {
+
+        static final String PROPERTY_PI = "pi";
+        static final String PROPERTY_PAGES = "pages";
+        static final String PROPERTY_RECORD = "record";
+        static final String PROPERTY_CMS_PAGE_ID = "cmsPageId";
+
+        private final String pi;
+        private final Long cmsPageId;
+        private final Set<Integer> pages = new TreeSet<>();
+        private boolean record = false;
+
+        ReIndexJob(String pi, Long cmsPageId) {
+            this.pi = pi;
+            this.cmsPageId = cmsPageId;
+        }
+
+        static String getCmsPageKey(long cmsPageId) {
+            return "CMS" + cmsPageId;
+        }
+
+        void addRecord() {
+            record = true;
+            pages.clear();
+        }
+
+        void addPage(int page) {
+            if (!record) {
+                pages.add(page);
+            }
+        }
+
+        /**
+         * Adds the requests of the given job for the same record or CMS page to this job.
+         *
+         * @param other
+         * @return this
+         */
+        ReIndexJob merge(ReIndexJob other) {
+            if (other.record) {
+                addRecord();
+            } else {
+                other.pages.forEach(this::addPage);
+            }
+            return this;
+        }
+
+        public String getPi() {
+            return pi;
+        }
+
+        public Long getCmsPageId() {
+            return cmsPageId;
+        }
+
+        public Set<Integer> getPages() {
+            return Collections.unmodifiableSet(pages);
+        }
+
+        /**
+         *
+         * @return true if the complete record is re-indexed, either because it was requested or because several pages were requested
+         */
+        public boolean isRecord() {
+            return record || pages.size() > 1;
+        }
+
+        /**
+         *
+         * @return {@link ViewerMessage} for this job
+         */
+        public ViewerMessage toMessage() {
+            ViewerMessage message = new ViewerMessage(TaskType.REINDEX_RECORD.name());
+            if (cmsPageId != null) {
+                message.getProperties().put(PROPERTY_CMS_PAGE_ID, String.valueOf(cmsPageId));
+            } else {
+                message.getProperties().put(PROPERTY_PI, pi);
+                message.getProperties().put(PROPERTY_RECORD, String.valueOf(record));
+                message.getProperties().put(PROPERTY_PAGES, pages.stream().map(String::valueOf).collect(Collectors.joining(",")));
+            }
+            message.setMaxRetries(MESSAGE_MAX_RETRIES);
+            return message;
+        }
+
+        /**
+         *
+         * @param message
+         * @return {@link ReIndexJob} described by the given message
+         * @should restore job from message
+         */
+        public static ReIndexJob fromMessage(ViewerMessage message) {
+            Map<String, String> properties = message.getProperties();
+            if (StringUtils.isNotBlank(properties.get(PROPERTY_CMS_PAGE_ID))) {
+                return new ReIndexJob(null, Long.valueOf(properties.get(PROPERTY_CMS_PAGE_ID)));
+            }
+            ReIndexJob ret = new ReIndexJob(properties.get(PROPERTY_PI), null);
+            if (Boolean.parseBoolean(properties.get(PROPERTY_RECORD))) {
+                ret.addRecord();
+            } else {
+                for (String page : StringUtils.split(StringUtils.defaultString(properties.get(PROPERTY_PAGES)), ',')) {
+                    ret.addPage(Integer.parseInt(page.trim()));
+                }
+                if (ret.pages.isEmpty()) {
+                    ret.addRecord();
+                }
+            }
+            return ret;
+        }
+
+        /**
+         * Writes the record, page or CMS page into the hotfolder.
+         *
+         * @return true if successful; false otherwise
+         */
+        public boolean execute() {
+            try {
+                if (cmsPageId != null) {
+                    CMSPage page = DataManager.getInstance().getDao().getCMSPage(cmsPageId);
+                    if (page == null) {
+                        logger.warn("CMS page {} not found, cannot re-index", cmsPageId);
+                        return false;
+                    }
+                    return IndexerTools.reIndexCMSPage(page, null);
+                }
+                if (!isRecord() && !pages.isEmpty()) {
+                    int page = pages.iterator().next();
+                    try {
+                        if (IndexerTools.reIndexPage(pi, page)) {
+                            return true;
+                        }
+                    } catch (PresentationException | IndexUnreachableException | IOException e) {
+                        logger.warn("Could not re-index page {}/{}, re-indexing record instead: {}", pi, page, e.getMessage());
+                    }
+                }
+                return IndexerTools.reIndexRecord(pi);
+            } catch (DAOException | RecordNotFoundException e) {
+                logger.error("Failed to re-index {}: {}", this, e.getMessage());
+                return false;
+            }
+        }
+
+        @Override
+        public String toString() {
+            if (cmsPageId != null) {
+                return getCmsPageKey(cmsPageId);
+            }
+            return isRecord() ? pi : pi + "#" + pages;
+        }
+    }
+}
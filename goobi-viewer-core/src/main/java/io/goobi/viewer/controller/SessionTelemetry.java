@@ -0,0 +1,340 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.controller;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
+
+/**
+ * Keeps track of all active HTTP sessions. Sessions are registered when the container creates them and each request only updates a few primitive
+ * fields of its session, so recording never creates sessions and costs next to nothing. Derived values such as the number of JSF views stored in a
+ * session, formatted dates or the memory per session are only computed when {@link #getSessions()} or {@link #getStatistics()} are called, i.e.
+ * by the admin session overview and the monitoring API.
+ */
+public class SessionTelemetry {
+
+    /** Session attribute under which Mojarra stores the server side JSF view states */
+    static final String ATTRIBUTE_LOGICAL_VIEW_MAP = "com.sun.faces.renderkit.ServerSideStateHelper.LogicalViewMap";
+
+    private final Map<String, SessionInfo> sessions = new ConcurrentHashMap<>();
+
+    private final LongAdder created = new LongAdder();
+    private final LongAdder destroyed = new LongAdder();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder requestsWithoutSession = new LongAdder();
+    private final LongAccumulator peak = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Request data of a single session.
+     */
+    public static final class SessionInfo {
+
+        private final String id;
+        private final HttpSession session;
+        private final long created;
+        private final LongAdder requests = new LongAdder();
+        private volatile long lastRequest;
+        private volatile long previousRequest;
+        private volatile String address;
+        private volatile String forwardedFor;
+
+        SessionInfo(HttpSession session, long created) {
+            this.id = session.getId();
+            this.session = session;
+            this.created = created;
+            this.lastRequest = created;
+            this.previousRequest = created;
+        }
+
+        private void recordRequest(HttpServletRequest request, long now) {
+            requests.increment();
+            previousRequest = lastRequest;
+            lastRequest = now;
+            address = request.getRemoteAddr();
+            forwardedFor = request.getHeader("x-forwarded-for");
+        }
+
+        /**
+         * @return the session ID
+         */
+        public String getId() {
+            return id;
+        }
+
+        /**
+         * @return Creation time in milliseconds
+         */
+        public long getCreated() {
+            return created;
+        }
+
+        /**
+         * @return Time of the latest request in milliseconds
+         */
+        public long getLastRequest() {
+            return lastRequest;
+        }
+
+        /**
+         * @return Time of the request before the latest one in milliseconds
+         */
+        public long getPreviousRequest() {
+            return previousRequest;
+        }
+
+        /**
+         * @return Number of requests recorded for this session
+         */
+        public long getRequests() {
+            return requests.sum();
+        }
+
+        /**
+         * @return Remote address of the latest request
+         */
+        public String getAddress() {
+            return address;
+        }
+
+        /**
+         * @return X-Forwarded-For header of the latest request
+         */
+        public String getForwardedFor() {
+            return forwardedFor;
+        }
+
+        /**
+         * @return Session timeout in seconds; -1 if the session is no longer valid
+         */
+        public int getTimeout() {
+            try {
+                return session.getMaxInactiveInterval();
+            } catch (IllegalStateException e) {
+                return -1;
+            }
+        }
+
+        /**
+         * 
+         * @return Number of logical JSF views stored in the session
+         * @should count views stored in session
+         */
+        public int getLogicalViewCount() {
+            Map<?, ?> logicalViews = getLogicalViewMap();
+            return logicalViews != null ? logicalViews.size() : 0;
+        }
+
+        /**
+         * 
+         * @return Number of JSF views stored in the session over all logical views
+         * @should count views stored in session
+         */
+        public int getTotalViewCount() {
+            Map<?, ?> logicalViews = getLogicalViewMap();
+            if (logicalViews == null) {
+                return 0;
+            }
+            int ret = 0;
+            // The map is modified by concurrent requests of the same session
+            for (Object views : new ArrayList<>(logicalViews.values())) {
+                if (views instanceof Map<?, ?> map) {
+                    ret += map.size();
+                }
+            }
+            return ret;
+        }
+
+        private Map<?, ?> getLogicalViewMap() {
+            try {
+                return session.getAttribute(ATTRIBUTE_LOGICAL_VIEW_MAP) instanceof Map<?, ?> map ? map : null;
+            } catch (IllegalStateException e) {
+                // Session has been invalidated
+                return null;
+            }
+        }
+
+        /**
+         * 
+         * @return All values of this session formatted for display
+         */
+        public Map<String, String> getMetadata() {
+            Map<String, String> ret = new LinkedHashMap<>();
+            ret.put("id", id);
+            ret.put("created", format(created));
+            ret.put("address", address);
+            ret.put("x-forwarded-for", forwardedFor);
+            ret.put("last request", format(lastRequest));
+            ret.put("previous request", format(previousRequest));
+            ret.put("requests", String.valueOf(getRequests()));
+            ret.put("timeout", getTimeout() + " s");
+            ret.put("Logical Views stored in session", String.valueOf(getLogicalViewCount()));
+            ret.put("Total views stored in session", String.valueOf(getTotalViewCount()));
+            return ret;
+        }
+
+        private static String format(long millis) {
+            return Instant.ofEpochMilli(millis).atZone(ZoneId.systemDefault()).format(DateTools.FORMATTERJAVAUTILDATETOSTRING);
+        }
+    }
+
+    /**
+     * Registers a newly created session.
+     * 
+     * @param session
+     */
+    public void sessionCreated(HttpSession session) {
+        if (session == null) {
+            return;
+        }
+        created.increment();
+        register(session);
+    }
+
+    /**
+     * Records a request of an existing session. Requests without a session are only counted; no session is ever created here.
+     * 
+     * @param request
+     * @should not create session
+     * @should register unknown session
+     * @should not register invalidated session
+     */
+    public void recordRequest(HttpServletRequest request) {
+        requests.increment();
+        HttpSession session = request.getSession(false);
+        if (session == null) {
+            requestsWithoutSession.increment();
+            return;
+        }
+        SessionInfo info = sessions.get(session.getId());
+        if (info == null) {
+            // Sessions restored after a restart are not reported as created
+            info = register(session);
+            if (info == null) {
+                return;
+            }
+        }
+        info.recordRequest(request, System.currentTimeMillis());
+    }
+
+    /**
+     * 
+     * @param session
+     * @return {@link SessionInfo} for the given session; null if the session has already been invalidated
+     */
+    private SessionInfo register(HttpSession session) {
+        SessionInfo ret = sessions.computeIfAbsent(session.getId(), k -> {
+            try {
+                return new SessionInfo(session, session.getCreationTime());
+            } catch (IllegalStateException e) {
+                // Invalidated sessions are never destroyed again, so they must not be registered
+                return null;
+            }
+        });
+        if (ret != null) {
+            peak.accumulate(sessions.size());
+        }
+        return ret;
+    }
+
+    /**
+     * Removes the session with the given ID.
+     * 
+     * @param sessionId
+     * @return true if the session was known; false otherwise
+     * @should return true only for known sessions
+     */
+    public boolean sessionDestroyed(String sessionId) {
+        if (sessionId == null || sessions.remove(sessionId) == null) {
+            return false;
+        }
+        destroyed.increment();
+        return true;
+    }
+
+    /**
+     * 
+     * @return Number of active sessions
+     */
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * 
+     * @param sessionId
+     * @return {@link SessionInfo} of the given session; null if unknown
+     */
+    public SessionInfo getSession(String sessionId) {
+        return sessionId != null ? sessions.get(sessionId) : null;
+    }
+
+    /**
+     * 
+     * @return Snapshot of all active sessions
+     */
+    public Collection<SessionInfo> getSessions() {
+        return new ArrayList<>(sessions.values());
+    }
+
+    /**
+     * Collects aggregate session values. The heap per session is the currently used heap divided by the number of active sessions, i.e. an upper
+     * bound that also includes all memory not held by sessions.
+     *
+     * @return Session counts and memory usage for monitoring
+     * @should compute aggregate values
+     */
+    public Map<String, Long> getStatistics() {
+        List<SessionInfo> snapshot = new ArrayList<>(sessions.values());
+        long logicalViews = 0;
+        long totalViews = 0;
+        for (SessionInfo info : snapshot) {
+            logicalViews += info.getLogicalViewCount();
+            totalViews += info.getTotalViewCount();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        long heapUsed = runtime.totalMemory() - runtime.freeMemory();
+
+        Map<String, Long> ret = new LinkedHashMap<>();
+        ret.put("active", (long) snapshot.size());
+        ret.put("peak", peak.get());
+        ret.put("created", created.sum());
+        ret.put("destroyed", destroyed.sum());
+        ret.put("requests", requests.sum());
+        ret.put("requestsWithoutSession", requestsWithoutSession.sum());
+        ret.put("logicalViews", logicalViews);
+        ret.put("totalViews", totalViews);
+        ret.put("heapUsed", heapUsed);
+        ret.put("heapPerSession", snapshot.isEmpty() ? 0 : heapUsed / snapshot.size());
+        return ret;
+    }
+}
@@ -21,16 +21,29 @@
  */
 package io.goobi.viewer.controller;
 
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.poi.ss.formula.functions.T;
 
 public class ThreadPoolManager {
 
     private final ExecutorService executorService;
+    /** Dedicated executors for tasks that must not wait behind unrelated work in the shared pool */
+    private final Map<String, ThreadPoolExecutor> boundedExecutors = new ConcurrentHashMap<>();
+    /** Single threaded executors for periodic tasks */
+    private final Map<String, ScheduledThreadPoolExecutor> scheduledExecutors = new ConcurrentHashMap<>();
     private final Object lock = new Object();
 
     public ThreadPoolManager(int size) {
@@ -52,9 +65,70 @@ public class ThreadPoolManager {
     public void shutdown() {
         synchronized (lock) {
             this.executorService.shutdownNow();
+            this.boundedExecutors.values().forEach(ThreadPoolExecutor::shutdownNow);
+            this.scheduledExecutors.values().forEach(ScheduledThreadPoolExecutor::shutdownNow);
         }
     }
 
+    /**
+     * Returns the dedicated executor with the given name, which is created with the given number of daemon threads and a queue of the given size
+     * on first access. Tasks that don't fit into the queue, or are submitted after {@link #shutdown()}, are executed in the submitting thread, which
+     * slows down callers instead of piling up work.
+     *
+     * @param name Name of the executor, used as thread name prefix
+     * @param threads Number of threads
+     * @param queueSize Maximum number of waiting tasks
+     * @return {@link ThreadPoolExecutor}
+     * @should run tasks in calling thread if queue is full
+     */
+    public ThreadPoolExecutor getBoundedExecutor(String name, int threads, int queueSize) {
+        return getBoundedExecutor(name, threads, queueSize, (r, executor) -> r.run());
+    }
+
+    /**
+     * Returns the dedicated executor with the given name, which is created with the given number of daemon threads, a queue of the given size and
+     * the given handler for tasks that don't fit into the queue or are submitted after {@link #shutdown()} on first access. Use
+     * {@link ThreadPoolExecutor.AbortPolicy} to receive a {@link java.util.concurrent.RejectedExecutionException} for such tasks.
+     *
+     * @param name Name of the executor, used as thread name prefix
+     * @param threads Number of threads
+     * @param queueSize Maximum number of waiting tasks
+     * @param rejectionHandler Handler for rejected tasks
+     * @return {@link ThreadPoolExecutor}
+     * @should throw RejectedExecutionException if queue is full and abort policy given
+     */
+    public ThreadPoolExecutor getBoundedExecutor(String name, int threads, int queueSize, RejectedExecutionHandler rejectionHandler) {
+        return boundedExecutors.computeIfAbsent(name, k -> {
+            AtomicInteger count = new AtomicInteger();
+            return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueSize), r -> {
+                Thread t = new Thread(r, name + "-" + count.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }, rejectionHandler);
+        });
+    }
+
+    /**
+     * Returns the scheduled executor with the given name, which is created with a single daemon thread on first access. Tasks are run one at a time,
+     * so periodic tasks of the same kind should share an executor. Cancelled tasks are removed from the queue right away. Tasks submitted after
+     * {@link #shutdown()} are rejected with a {@link java.util.concurrent.RejectedExecutionException}.
+     *
+     * @param name Name of the executor, used as thread name
+     * @return {@link ScheduledExecutorService}
+     * @should return same executor for same name
+     */
+    public ScheduledExecutorService getScheduledExecutor(String name) {
+        return scheduledExecutors.computeIfAbsent(name, k -> {
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+                Thread t = new Thread(r, name);
+                t.setDaemon(true);
+                return t;
+            });
+            executor.setRemoveOnCancelPolicy(true);
+            return executor;
+        });
+    }
+
     public ExecutorService getExecutorService() {
         synchronized (lock) {
             return executorService;
@@ -58,6 +58,7 @@ public class StartQueueBrokerListener implements ServletContextListener {
                         ActiveMQConfig.getConfigResource(MessageQueueManager.ACTIVE_MQ_CONFIG_FILENAME));
             } else if (this.messageBroker.initializeMessageServer()) {
                 log.info("Successfully started ActiveMQ");
+                DataManager.getInstance().getReIndexQueue().setMessageQueueManager(this.messageBroker);
             } else {
                 log.error("ActiveMQ not initialized!");
             }
@@ -66,6 +67,8 @@ public class StartQueueBrokerListener implements ServletContextListener {
 
     @Override
     public void contextDestroyed(ServletContextEvent sce) {
+        // Pass pending re-index jobs to the queue while it is still running
+        DataManager.getInstance().getReIndexQueue().shutdown();
         this.messageBroker.closeMessageServer();
     }
 
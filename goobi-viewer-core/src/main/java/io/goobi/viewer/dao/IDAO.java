@@ -2540,6 +2540,60 @@ public interface IDAO {
      */
     public long getTotalAnnotationCount() throws DAOException;
 
+    /**
+     * Returns {@link CrowdsourcingAnnotation}s matching the given filters. Filters that are null or empty are ignored. Since annotation bodies are
+     * stored as JSON, textQuery only preselects annotations whose body contains the given text anywhere.
+     *
+     * @param first Index of the first result
+     * @param pageSize Maximum number of results
+     * @param textQuery Text which the annotation body must contain (case insensitive)
+     * @param motivations Allowed motivations
+     * @param generators Allowed generator (question) IDs
+     * @param creators Allowed creator (user) IDs
+     * @param targetPi PI of the annotated record
+     * @param targetPage Order of the annotated page
+     * @param sortField Field to sort by; must be contained in {@link CrowdsourcingAnnotation#VALID_COLUMNS_FOR_ORDER_BY}
+     * @param descending
+     * @return List of {@link CrowdsourcingAnnotation}s matching given filters
+     * @throws DAOException
+     */
+    public List<CrowdsourcingAnnotation> getAnnotations(int first, int pageSize, String textQuery, List<String> motivations, List<Long> generators,
+            List<Long> creators, String targetPi, Integer targetPage, String sortField, boolean descending) throws DAOException;
+
+    /**
+     * Returns up to pageSize {@link CrowdsourcingAnnotation}s matching the given filters whose IDs follow afterId in the given sort order. Paging
+     * this way (keyset pagination) does not require the database to skip all preceding rows.
+     *
+     * @param afterId ID of the last annotation of the previous page; null to start at the beginning
+     * @param pageSize Maximum number of results
+     * @param textQuery Text which the annotation body must contain (case insensitive)
+     * @param motivations Allowed motivations
+     * @param generators Allowed generator (question) IDs
+     * @param creators Allowed creator (user) IDs
+     * @param targetPi PI of the annotated record
+     * @param targetPage Order of the annotated page
+     * @param descending If true, annotations are sorted by descending ID
+     * @return List of {@link CrowdsourcingAnnotation}s matching given filters, sorted by ID
+     * @throws DAOException
+     */
+    public List<CrowdsourcingAnnotation> getAnnotationsAfterId(Long afterId, int pageSize, String textQuery, List<String> motivations,
+            List<Long> generators, List<Long> creators, String targetPi, Integer targetPage, boolean descending) throws DAOException;
+
+    /**
+     * Returns the number of {@link CrowdsourcingAnnotation}s matching the given filters. Filters that are null or empty are ignored.
+     *
+     * @param textQuery Text which the annotation body must contain (case insensitive)
+     * @param motivations Allowed motivations
+     * @param generators Allowed generator (question) IDs
+     * @param creators Allowed creator (user) IDs
+     * @param targetPi PI of the annotated record
+     * @param targetPage Order of the annotated page
+     * @return Number of {@link CrowdsourcingAnnotation}s matching given filters
+     * @throws DAOException
+     */
+    public long getAnnotationCount(String textQuery, List<String> motivations, List<Long> generators, List<Long> creators, String targetPi,
+            Integer targetPage) throws DAOException;
+
     public List<CustomSidebarWidget> getAllCustomWidgets() throws DAOException;
 
     public CustomSidebarWidget getCustomWidget(Long id) throws DAOException;
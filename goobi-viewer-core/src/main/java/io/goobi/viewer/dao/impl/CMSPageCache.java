@@ -0,0 +1,179 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.dao.impl;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import io.goobi.viewer.exceptions.DAOException;
+import io.goobi.viewer.model.cms.pages.CMSPage;
+import io.goobi.viewer.model.cms.pages.content.PersistentCMSComponent;
+
+/**
+ * Read-through cache for published {@link CMSPage}s, used by {@link JPADAO}. Pages are cached by database ID and by static page name, together
+ * with their content items, categories and template. Every entry is stamped with the cache version at the time its loading started; calling
+ * {@link #invalidate()} increments the version, so entries loaded before a write are never returned afterwards, even if they were stored after
+ * the invalidation. Entries also expire after a while to pick up changes made by other viewer instances.
+ * <p>
+ * Cached pages are never handed out. Callers get a copy created via {@link CMSPage#CMSPage(CMSPage)}, which keeps all database IDs, so they may
+ * modify and save it like a page loaded from the database without affecting other readers.
+ * </p>
+ */
+class CMSPageCache {
+
+    private static final Logger logger = LogManager.getLogger(CMSPageCache.class);
+
+    /** Maximum age of a cache entry before it is reloaded from the database */
+    private static final long MAX_AGE_MILLIS = Duration.ofMinutes(10).toMillis();
+
+    /**
+     * Loads a page from the database on a cache miss.
+     */
+    @FunctionalInterface
+    interface PageLoader {
+        CMSPage load() throws DAOException;
+    }
+
+    private final AtomicLong version = new AtomicLong();
+    private final Map<Long, Entry> pagesById = new ConcurrentHashMap<>();
+    private final Map<String, Entry> pagesByStaticPageName = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the published page with the given ID, loading it via the given loader if it is not cached. Unpublished pages are returned but not
+     * cached.
+     *
+     * @param id Database ID of the page
+     * @param loader Loader to call on a cache miss
+     * @return Copy of the page with the given ID; null if none found
+     * @throws DAOException
+     * @should return cached page
+     * @should return copies of cached page
+     * @should not cache unpublished pages
+     * @should reload page after invalidation
+     * @should not return page loaded before invalidation
+     */
+    CMSPage getPage(long id, PageLoader loader) throws DAOException {
+        Entry entry = pagesById.get(id);
+        if (isValid(entry)) {
+            return copy(entry.page);
+        }
+        long loadVersion = version.get();
+        CMSPage page = loader.load();
+        if (page != null && page.isPublished()) {
+            initialize(page);
+            pagesById.put(id, new Entry(page, loadVersion));
+            return copy(page);
+        }
+        return page;
+    }
+
+    /**
+     * Returns the page mapped to the given static page name, loading it via the given loader if it is not cached. The absence of a mapping is
+     * cached as well, since most static pages are not mapped to a CMS page.
+     *
+     * @param staticPageName Name of the static page
+     * @param loader Loader to call on a cache miss
+     * @return Copy of the page mapped to the given static page; null if none found
+     * @throws DAOException
+     * @should cache missing pages
+     */
+    CMSPage getPageForStaticPage(String staticPageName, PageLoader loader) throws DAOException {
+        Entry entry = pagesByStaticPageName.get(staticPageName);
+        if (isValid(entry)) {
+            return copy(entry.page);
+        }
+        long loadVersion = version.get();
+        CMSPage page = loader.load();
+        if (page == null || page.isPublished()) {
+            if (page != null) {
+                initialize(page);
+            }
+            pagesByStaticPageName.put(staticPageName, new Entry(page, loadVersion));
+            return copy(page);
+        }
+        return page;
+    }
+
+    /**
+     * Discards all cached pages. Must be called after CMS pages or any of their parts have been saved or deleted.
+     */
+    void invalidate() {
+        long v = version.incrementAndGet();
+        pagesById.clear();
+        pagesByStaticPageName.clear();
+        logger.trace("CMS page cache invalidated, new version: {}", v);
+    }
+
+    /**
+     *
+     * @return Current cache version
+     */
+    long getVersion() {
+        return version.get();
+    }
+
+    private boolean isValid(Entry entry) {
+        return entry != null && entry.version == version.get() && System.currentTimeMillis() - entry.created < MAX_AGE_MILLIS;
+    }
+
+    /**
+     * Resolves the lazily loaded parts of the given page while it is still owned by a single thread, so that copying the cached instance
+     * concurrently does not trigger lazy loading.
+     *
+     * @param page
+     */
+    private static void initialize(CMSPage page) {
+        page.getCategories().size();
+        for (PersistentCMSComponent component : page.getPersistentComponents()) {
+            component.getContentItems().size();
+        }
+        page.getTemplate();
+        // Resolves the remaining collections (properties, sidebar elements)
+        copy(page);
+    }
+
+    /**
+     *
+     * @param page
+     * @return Copy of the given page; null if page is null
+     */
+    private static CMSPage copy(CMSPage page) {
+        return page != null ? new CMSPage(page) : null;
+    }
+
+    private static final class Entry {
+
+        private final CMSPage page;
+        private final long version;
+        private final long created = System.currentTimeMillis();
+
+        private Entry(CMSPage page, long version) {
+            this.page = page;
+            this.version = version;
+        }
+    }
+}
@@ -114,6 +114,7 @@ import jakarta.persistence.Query;
 import jakarta.persistence.RollbackException;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 
 /**
@@ -144,7 +145,9 @@ public class JPADAO implements IDAO {
      * EntityManagerFactory for the persistence context. Only build once at application startup
      */
     private final EntityManagerFactory factory;
-    private Object cmsRequestLock = new Object();
+    /** Serializes writes to CMS entities. Reads do not lock and are served from {@link #cmsPageCache} where possible. */
+    private final Object cmsRequestLock = new Object();
+    private final CMSPageCache cmsPageCache = new CMSPageCache();
     private Object crowdsourcingRequestLock = new Object();
 
     /**
@@ -2810,38 +2813,47 @@ public class JPADAO implements IDAO {
     @SuppressWarnings("unchecked")
     @Override
     public List<CMSPage> getAllCMSPages() throws DAOException {
-        synchronized (cmsRequestLock) {
-            preQuery();
-            EntityManager em = getEntityManager();
-            try {
-                Query q = em.createQuery("SELECT o FROM CMSPage o");
-                return q.getResultList();
-            } catch (PersistenceException e) {
-                logger.error(MSG_EXCEPTION_CMS, e.getMessage());
-                return new ArrayList<>();
-            } finally {
-                close(em);
-            }
+        preQuery();
+        EntityManager em = getEntityManager();
+        try {
+            Query q = em.createQuery("SELECT o FROM CMSPage o");
+            return q.getResultList();
+        } catch (PersistenceException e) {
+            logger.error(MSG_EXCEPTION_CMS, e.getMessage());
+            return new ArrayList<>();
+        } finally {
+            close(em);
         }
     }
 
-    /** {@inheritDoc} */
+    /**
+     * {@inheritDoc}
+     *
+     * @should return page mapped to static page
+     */
     @Override
     public CMSPage getCmsPageForStaticPage(String pageName) throws DAOException {
-        synchronized (cmsRequestLock) {
-            preQuery();
-            EntityManager em = getEntityManager();
-            try {
-                Query q = em.createQuery("SELECT o FROM CMSPage o WHERE o.staticPageName = :pageName");
-                q.setParameter("pageName", pageName);
-                q.setHint(PARAM_STOREMODE, PARAM_STOREMODE_VALUE_REFRESH);
-                if (!q.getResultList().isEmpty()) {
-                    return (CMSPage) q.getSingleResult();
-                }
-            } finally {
-                close(em);
-            }
-            return null;
+        return cmsPageCache.getPageForStaticPage(pageName, () -> loadCmsPageForStaticPage(pageName));
+    }
+
+    /**
+     * Loads the CMS page mapped to the given static page from the database, bypassing {@link #cmsPageCache}.
+     *
+     * @param pageName
+     * @return {@link CMSPage} mapped to pageName; null if none found
+     * @throws DAOException
+     */
+    private CMSPage loadCmsPageForStaticPage(String pageName) throws DAOException {
+        preQuery();
+        EntityManager em = getEntityManager();
+        try {
+            Query q = em.createQuery("SELECT o FROM CMSPage o, CMSStaticPage s WHERE s.pageName = :pageName AND o.id = s.cmsPageId");
+            q.setParameter("pageName", pageName);
+            q.setHint(PARAM_STOREMODE, PARAM_STOREMODE_VALUE_REFRESH);
+            q.setMaxResults(1);
+            return (CMSPage) getSingleResult(q).orElse(null);
+        } finally {
+            close(em);
         }
     }
 
@@ -2850,49 +2862,47 @@ public class JPADAO implements IDAO {
     @Override
     public List<CMSPage> getCMSPages(int first, int pageSize, String sortField, boolean descending, Map<String, String> filters,
             List<Long> allowedTemplates, List<String> allowedSubthemes, List<String> allowedCategories) throws DAOException {
-        synchronized (cmsRequestLock) {
-            preQuery();
-            EntityManager em = getEntityManager();
-            try {
-                StringBuilder sbQuery = new StringBuilder("SELECT DISTINCT a FROM CMSPage a");
-                StringBuilder order = new StringBuilder();
+        preQuery();
+        EntityManager em = getEntityManager();
+        try {
+            StringBuilder sbQuery = new StringBuilder("SELECT DISTINCT a FROM CMSPage a");
+            StringBuilder order = new StringBuilder();
 
-                Map<String, Object> params = new HashMap<>();
+            Map<String, Object> params = new HashMap<>();
 
-                String filterString = createFilterQuery2(null, filters, params);
-                String rightsFilterString = "";
-                try {
-                    rightsFilterString = createCMSPageFilter(params, "a", allowedTemplates, allowedSubthemes, allowedCategories);
-                    if (!rightsFilterString.isEmpty()) {
-                        rightsFilterString = (StringUtils.isBlank(filterString) ? QUERY_ELEMENT_WHERE : QUERY_ELEMENT_AND) + rightsFilterString;
-                    }
-                } catch (AccessDeniedException e) {
-                    //may not request any cms pages at all
-                    return Collections.emptyList();
+            String filterString = createFilterQuery2(null, filters, params);
+            String rightsFilterString = "";
+            try {
+                rightsFilterString = createCMSPageFilter(params, "a", allowedTemplates, allowedSubthemes, allowedCategories);
+                if (!rightsFilterString.isEmpty()) {
+                    rightsFilterString = (StringUtils.isBlank(filterString) ? QUERY_ELEMENT_WHERE : QUERY_ELEMENT_AND) + rightsFilterString;
                 }
+            } catch (AccessDeniedException e) {
+                //may not request any cms pages at all
+                return Collections.emptyList();
+            }
 
-                if (StringUtils.isNotEmpty(sortField)) {
-                    order.append(" ORDER BY a.").append(sortField);
-                    if (descending) {
-                        order.append(QUERY_ELEMENT_DESC);
-                    }
+            if (StringUtils.isNotEmpty(sortField)) {
+                order.append(" ORDER BY a.").append(sortField);
+                if (descending) {
+                    order.append(QUERY_ELEMENT_DESC);
                 }
-                sbQuery.append(filterString).append(rightsFilterString).append(order);
+            }
+            sbQuery.append(filterString).append(rightsFilterString).append(order);
 
-                logger.trace("CMS page query: {}", sbQuery);
-                Query q = em.createQuery(sbQuery.toString());
-                params.entrySet().forEach(entry -> q.setParameter(entry.getKey(), entry.getValue()));
-                q.setFirstResult(first);
-                q.setMaxResults(pageSize);
-                q.setFlushMode(FlushModeType.COMMIT);
+            logger.trace("CMS page query: {}", sbQuery);
+            Query q = em.createQuery(sbQuery.toString());
+            params.entrySet().forEach(entry -> q.setParameter(entry.getKey(), entry.getValue()));
+            q.setFirstResult(first);
+            q.setMaxResults(pageSize);
+            q.setFlushMode(FlushModeType.COMMIT);
 
-                return q.getResultList();
-            } catch (PersistenceException e) {
-                logger.error(MSG_EXCEPTION_CMS, e.getMessage());
-                return new ArrayList<>();
-            } finally {
-                close(em);
-            }
+            return q.getResultList();
+        } catch (PersistenceException e) {
+            logger.error(MSG_EXCEPTION_CMS, e.getMessage());
+            return new ArrayList<>();
+        } finally {
+            close(em);
         }
     }
 
@@ -3025,20 +3035,34 @@ public class JPADAO implements IDAO {
         }
     }
 
-    /** {@inheritDoc} */
+    /**
+     * {@inheritDoc}
+     *
+     * @should return updated page after update
+     * @should return copies of same page to concurrent readers
+     */
     @Override
     public CMSPage getCMSPage(long id) throws DAOException {
-        synchronized (cmsRequestLock) {
-            logger.trace("getCMSPage: {}", id);
-            preQuery();
-            EntityManager em = getEntityManager();
-            try {
-                return em.getReference(CMSPage.class, id);
-            } catch (EntityNotFoundException e) {
-                return null;
-            } finally {
-                close(em);
-            }
+        logger.trace("getCMSPage: {}", id);
+        return cmsPageCache.getPage(id, () -> loadCMSPage(id));
+    }
+
+    /**
+     * Loads the CMS page with the given ID from the database, bypassing {@link #cmsPageCache}.
+     *
+     * @param id
+     * @return {@link CMSPage} with the given ID; null if none found
+     * @throws DAOException
+     */
+    private CMSPage loadCMSPage(long id) throws DAOException {
+        preQuery();
+        EntityManager em = getEntityManager();
+        try {
+            return em.getReference(CMSPage.class, id);
+        } catch (EntityNotFoundException e) {
+            return null;
+        } finally {
+            close(em);
         }
     }
 
@@ -3046,16 +3070,14 @@ public class JPADAO implements IDAO {
     @SuppressWarnings("unchecked")
     @Override
     public List<CMSNavigationItem> getRelatedNavItem(CMSPage page) throws DAOException {
-        synchronized (cmsRequestLock) {
-            preQuery();
-            EntityManager em = getEntityManager();
-            try {
-                Query q = em.createQuery("SELECT o FROM CMSNavigationItem o WHERE o.cmsPage = :page");
-                q.setParameter("page", page);
-                return q.getResultList();
-            } finally {
-                close(em);
-            }
+        preQuery();
+        EntityManager em = getEntityManager();
+        try {
+            Query q = em.createQuery("SELECT o FROM CMSNavigationItem o WHERE o.cmsPage = :page");
+            q.setParameter("page", page);
+            return q.getResultList();
+        } finally {
+            close(em);
         }
     }
 
@@ -3070,6 +3092,7 @@ public class JPADAO implements IDAO {
                 startTransaction(em);
                 em.persist(page);
                 commitTransaction(em);
+                cmsPageCache.invalidate();
                 return true;
             } catch (PersistenceException e) {
                 logger.error("Error adding cmsPage to database", e);
@@ -3091,6 +3114,7 @@ public class JPADAO implements IDAO {
                 startTransaction(em);
                 em.merge(page);
                 commitTransaction(em);
+                cmsPageCache.invalidate();
                 return true;
             } catch (PersistenceException | NullPointerException e) {
                 logger.error("Error saving page ", e);
@@ -3114,6 +3138,7 @@ public class JPADAO implements IDAO {
                 CMSPage o = em.getReference(CMSPage.class, page.getId());
                 em.remove(o);
                 commitTransaction(em);
+                cmsPageCache.invalidate();
                 return true;
             } catch (PersistenceException e) {
                 handleException(em);
@@ -3136,6 +3161,7 @@ public class JPADAO implements IDAO {
                 PersistentCMSComponent o = em.getReference(PersistentCMSComponent.class, component.getId());
                 em.remove(o);
                 commitTransaction(em);
+                cmsPageCache.invalidate();
                 return true;
             } catch (PersistenceException e) {
                 logger.error("Error deleting cms component", e);
@@ -3159,6 +3185,7 @@ public class JPADAO implements IDAO {
                 CMSContent o = em.getReference(CMSContent.class, content.getId());
                 em.remove(o);
                 commitTransaction(em);
+                cmsPageCache.invalidate();
                 return true;
             } catch (PersistenceException e) {
                 logger.error("Error deleting cms component", e);
@@ -3181,6 +3208,7 @@ public class JPADAO implements IDAO {
                 startTransaction(em);
                 em.persist(persistentCMSComponent);
                 commitTransaction(em);
+                cmsPageCache.invalidate();
                 return true;
             } catch (PersistenceException e) {
                 logger.error("Error adding cmsPage to database", e);
@@ -3202,6 +3230,7 @@ public class JPADAO implements IDAO {
                 startTransaction(em);
                 em.merge(persistentCMSComponent);
                 commitTransaction(em);
+                cmsPageCache.invalidate();
                 return true;
             } catch (PersistenceException | NullPointerException e) {
                 logger.error("Error saving page ", e);
@@ -3216,16 +3245,14 @@ public class JPADAO implements IDAO {
     /** {@inheritDoc} */
     @Override
     public PersistentCMSComponent getCMSComponent(Long id) throws DAOException {
-        synchronized (cmsRequestLock) {
-            preQuery();
-            EntityManager em = getEntityManager();
-            try {
-                return em.getReference(PersistentCMSComponent.class, id);
-            } catch (EntityNotFoundException e) {
-                return null;
-            } finally {
-                close(em);
-            }
+        preQuery();
+        EntityManager em = getEntityManager();
+        try {
+            return em.getReference(PersistentCMSComponent.class, id);
+        } catch (EntityNotFoundException e) {
+            return null;
+        } finally {
+            close(em);
         }
     }
 
@@ -3233,20 +3260,18 @@ public class JPADAO implements IDAO {
     @SuppressWarnings("unchecked")
     @Override
     public List<CMSMediaItem> getAllCMSMediaItems() throws DAOException {
-        synchronized (cmsRequestLock) {
-            preQuery();
-            EntityManager em = getEntityManager();
-            try {
-                Query q = em.createQuery("SELECT o FROM CMSMediaItem o");
-                q.setFlushMode(FlushModeType.COMMIT);
-                q.setHint(PARAM_STOREMODE, PARAM_STOREMODE_VALUE_REFRESH);
-                return q.getResultList();
-            } catch (PersistenceException e) {
-                logger.error(MSG_EXCEPTION_CMS, e.toString());
-                return new ArrayList<>();
-            } finally {
-                close(em);
-            }
+        preQuery();
+        EntityManager em = getEntityManager();
+        try {
+            Query q = em.createQuery("SELECT o FROM CMSMediaItem o");
+            q.setFlushMode(FlushModeType.COMMIT);
+            q.setHint(PARAM_STOREMODE, PARAM_STOREMODE_VALUE_REFRESH);
+            return q.getResultList();
+        } catch (PersistenceException e) {
+            logger.error(MSG_EXCEPTION_CMS, e.toString());
+            return new ArrayList<>();
+        } finally {
+            close(em);
         }
     }
 
@@ -3254,58 +3279,51 @@ public class JPADAO implements IDAO {
     @SuppressWarnings("unchecked")
     @Override
     public List<CMSMediaItem> getAllCMSCollectionItems() throws DAOException {
-        synchronized (cmsRequestLock) {
-            preQuery();
-            EntityManager em = getEntityManager();
-            try {
-                Query q = em.createQuery("SELECT o FROM CMSMediaItem o WHERE o.collection = true");
-                return q.getResultList();
-            } catch (PersistenceException e) {
-                logger.error(MSG_EXCEPTION_CMS, e.toString());
-                return new ArrayList<>();
-            } finally {
-                close(em);
-            }
+        preQuery();
+        EntityManager em = getEntityManager();
+        try {
+            Query q = em.createQuery("SELECT o FROM CMSMediaItem o WHERE o.collection = true");
+            return q.getResultList();
+        } catch (PersistenceException e) {
+            logger.error(MSG_EXCEPTION_CMS, e.toString());
+            return new ArrayList<>();
+        } finally {
+            close(em);
         }
     }
 
     /** {@inheritDoc} */
     @Override
     public CMSMediaItem getCMSMediaItemByFilename(String filename) throws DAOException {
-        synchronized (cmsRequestLock) {
-            preQuery();
-            EntityManager em = getEntityManager();
-            try {
-                Query q = em.createQuery("SELECT o FROM CMSMediaItem o WHERE o.fileName = :fileName");
-                q.setParameter("fileName", filename);
-                // q.setHint(PARAM_STOREMODE, PARAM_STOREMODE_VALUE_REFRESH);
-                return (CMSMediaItem) q.getSingleResult();
-            } catch (NoResultException e) {
-                //nothing found; no biggie
-                return null;
-            } catch (PersistenceException e) {
-                logger.error("Exception \"{}\" when trying to get CMS media item with filename '{}'", e.toString(), filename);
-                return null;
-            } finally {
-                close(em);
-            }
+        preQuery();
+        EntityManager em = getEntityManager();
+        try {
+            Query q = em.createQuery("SELECT o FROM CMSMediaItem o WHERE o.fileName = :fileName");
+            q.setParameter("fileName", filename);
+            // q.setHint(PARAM_STOREMODE, PARAM_STOREMODE_VALUE_REFRESH);
+            return (CMSMediaItem) q.getSingleResult();
+        } catch (NoResultException e) {
+            //nothing found; no biggie
+            return null;
+        } catch (PersistenceException e) {
+            logger.error("Exception \"{}\" when trying to get CMS media item with filename '{}'", e.toString(), filename);
+            return null;
+        } finally {
+            close(em);
         }
     }
 
     /** {@inheritDoc} */
     @Override
     public CMSMediaItem getCMSMediaItem(long id) throws DAOException {
-        synchronized (cmsRequestLock) {
-
-            preQuery();
-            EntityManager em = getEntityManager();
-            try {
-                return em.getReference(CMSMediaItem.class, id);
-            } catch (EntityNotFoundException e) {
-                return null;
-            } finally {
-                close(em);
-            }
+        preQuery();
+        EntityManager em = getEntityManager();
+        try {
+            return em.getReference(CMSMediaItem.class, id);
+        } catch (EntityNotFoundException e) {
+            return null;
+        } finally {
+            close(em);
         }
     }
 
@@ -3341,6 +3359,7 @@ public class JPADAO implements IDAO {
                 startTransaction(em);
                 em.merge(item);
                 commitTransaction(em);
+                cmsPageCache.invalidate();
                 return true;
             } catch (PersistenceException e) {
                 handleException(em);
@@ -3363,6 +3382,7 @@ public class JPADAO implements IDAO {
                 CMSMediaItem o = em.getReference(CMSMediaItem.class, item.getId());
                 em.remove(o);
                 commitTransaction(em);
+                cmsPageCache.invalidate();
                 return true;
             } catch (PersistenceException e) {
                 handleException(em);
@@ -3393,38 +3413,34 @@ public class JPADAO implements IDAO {
     @SuppressWarnings("unchecked")
     @Override
     public List<CMSNavigationItem> getAllTopCMSNavigationItems() throws DAOException {
-        synchronized (cmsRequestLock) {
-            preQuery();
-            EntityManager em = getEntityManager();
-            try {
-                Query q = em.createQuery("SELECT o FROM CMSNavigationItem o WHERE o.parentItem IS NULL");
-                q.setHint(PARAM_STOREMODE, PARAM_STOREMODE_VALUE_REFRESH);
-                q.setFlushMode(FlushModeType.COMMIT);
-                List<CMSNavigationItem> list = q.getResultList();
-                Collections.sort(list);
-                return list;
-            } catch (PersistenceException e) {
-                logger.error(MSG_EXCEPTION_CMS, e.toString());
-                return new ArrayList<>();
-            } finally {
-                close(em);
-            }
+        preQuery();
+        EntityManager em = getEntityManager();
+        try {
+            Query q = em.createQuery("SELECT o FROM CMSNavigationItem o WHERE o.parentItem IS NULL");
+            q.setHint(PARAM_STOREMODE, PARAM_STOREMODE_VALUE_REFRESH);
+            q.setFlushMode(FlushModeType.COMMIT);
+            List<CMSNavigationItem> list = q.getResultList();
+            Collections.sort(list);
+            return list;
+        } catch (PersistenceException e) {
+            logger.error(MSG_EXCEPTION_CMS, e.toString());
+            return new ArrayList<>();
+        } finally {
+            close(em);
         }
     }
 
     /** {@inheritDoc} */
     @Override
     public CMSNavigationItem getCMSNavigationItem(long id) throws DAOException {
-        synchronized (cmsRequestLock) {
-            preQuery();
-            EntityManager em = getEntityManager();
-            try {
-                return em.find(CMSNavigationItem.class, id);
-            } catch (EntityNotFoundException e) {
-                return null;
-            } finally {
-                close(em);
-            }
+        preQuery();
+        EntityManager em = getEntityManager();
+        try {
+            return em.find(CMSNavigationItem.class, id);
+        } catch (EntityNotFoundException e) {
+            return null;
+        } finally {
+            close(em);
         }
     }
 
@@ -3955,10 +3971,10 @@ public class JPADAO implements IDAO {
     }
 
     /**
-     * currently noop since no persistence entity manager is kept
+     * Discards cached CMS pages. No persistence entity manager is kept, so there is nothing else to clear.
      */
     public void clear() {
-        //noop
+        cmsPageCache.invalidate();
     }
 
     /** {@inheritDoc} */
@@ -4169,6 +4185,7 @@ public class JPADAO implements IDAO {
             startTransaction(em);
             em.persist(page);
             commitTransaction(em);
+            cmsPageCache.invalidate();
             return true;
         } catch (PersistenceException e) {
             handleException(em);
@@ -4187,6 +4204,7 @@ public class JPADAO implements IDAO {
             startTransaction(em);
             em.merge(page);
             commitTransaction(em);
+            cmsPageCache.invalidate();
             return true;
         } catch (PersistenceException e) {
             handleException(em);
@@ -4206,6 +4224,7 @@ public class JPADAO implements IDAO {
             CMSStaticPage o = em.getReference(CMSStaticPage.class, page.getId());
             em.remove(o);
             commitTransaction(em);
+            cmsPageCache.invalidate();
             return true;
         } catch (RollbackException | EntityNotFoundException e) {
             return false;
@@ -4274,16 +4293,14 @@ public class JPADAO implements IDAO {
     @Override
     @SuppressWarnings("unchecked")
     public List<CMSCollection> getCMSCollections(String solrField) throws DAOException {
-        synchronized (cmsRequestLock) {
-            preQuery();
-            EntityManager em = getEntityManager();
-            try {
-                Query q = em.createQuery("SELECT c FROM CMSCollection c WHERE c.solrField = :field");
-                q.setParameter("field", solrField);
-                return q.getResultList();
-            } finally {
-                close(em);
-            }
+        preQuery();
+        EntityManager em = getEntityManager();
+        try {
+            Query q = em.createQuery("SELECT c FROM CMSCollection c WHERE c.solrField = :field");
+            q.setParameter("field", solrField);
+            return q.getResultList();
+        } finally {
+            close(em);
         }
     }
 
@@ -4602,6 +4619,7 @@ public class JPADAO implements IDAO {
             startTransaction(em);
             em.merge(category);
             commitTransaction(em);
+            cmsPageCache.invalidate();
             return true;
         } catch (PersistenceException e) {
             handleException(em);
@@ -4625,6 +4643,7 @@ public class JPADAO implements IDAO {
             CMSCategory o = em.getReference(CMSCategory.class, category.getId());
             em.remove(o);
             commitTransaction(em);
+            cmsPageCache.invalidate();
             return true;
         } catch (PersistenceException e) {
             handleException(em);
@@ -4853,6 +4872,129 @@ public class JPADAO implements IDAO {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @should filter correctly
+     * @should page correctly
+     * @should throw IllegalArgumentException if sortField unknown
+     */
+    @Override
+    public List<CrowdsourcingAnnotation> getAnnotations(int first, int pageSize, String textQuery, List<String> motivations, List<Long> generators,
+            List<Long> creators, String targetPi, Integer targetPage, String sortField, boolean descending) throws DAOException {
+        if (StringUtils.isNotEmpty(sortField) && !CrowdsourcingAnnotation.VALID_COLUMNS_FOR_ORDER_BY.contains(sortField)) {
+            throw new IllegalArgumentException("Sorting field not allowed: " + sortField);
+        }
+        preQuery();
+        EntityManager em = getEntityManager();
+        try {
+            CriteriaBuilder cb = em.getCriteriaBuilder();
+            CriteriaQuery<CrowdsourcingAnnotation> cq = cb.createQuery(CrowdsourcingAnnotation.class);
+            Root<CrowdsourcingAnnotation> root = cq.from(CrowdsourcingAnnotation.class);
+            cq.select(root)
+                    .where(createAnnotationPredicates(cb, root, textQuery, motivations, generators, creators, targetPi, targetPage)
+                            .toArray(new Predicate[0]));
+            if (StringUtils.isNotEmpty(sortField)) {
+                cq.orderBy(descending ? cb.desc(root.get(sortField)) : cb.asc(root.get(sortField)));
+            }
+
+            return em.createQuery(cq).setFirstResult(first).setMaxResults(pageSize).getResultList();
+        } finally {
+            close(em);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @should return annotations following given id
+     */
+    @Override
+    public List<CrowdsourcingAnnotation> getAnnotationsAfterId(Long afterId, int pageSize, String textQuery, List<String> motivations,
+            List<Long> generators, List<Long> creators, String targetPi, Integer targetPage, boolean descending) throws DAOException {
+        preQuery();
+        EntityManager em = getEntityManager();
+        try {
+            CriteriaBuilder cb = em.getCriteriaBuilder();
+            CriteriaQuery<CrowdsourcingAnnotation> cq = cb.createQuery(CrowdsourcingAnnotation.class);
+            Root<CrowdsourcingAnnotation> root = cq.from(CrowdsourcingAnnotation.class);
+            List<Predicate> predicates = createAnnotationPredicates(cb, root, textQuery, motivations, generators, creators, targetPi, targetPage);
+            if (afterId != null) {
+                predicates.add(descending ? cb.lessThan(root.<Long> get("id"), afterId) : cb.greaterThan(root.<Long> get("id"), afterId));
+            }
+            cq.select(root)
+                    .where(predicates.toArray(new Predicate[0]))
+                    .orderBy(descending ? cb.desc(root.get("id")) : cb.asc(root.get("id")));
+
+            return em.createQuery(cq).setMaxResults(pageSize).getResultList();
+        } finally {
+            close(em);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @should return correct count
+     */
+    @Override
+    public long getAnnotationCount(String textQuery, List<String> motivations, List<Long> generators, List<Long> creators, String targetPi,
+            Integer targetPage) throws DAOException {
+        preQuery();
+        EntityManager em = getEntityManager();
+        try {
+            CriteriaBuilder cb = em.getCriteriaBuilder();
+            CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+            Root<CrowdsourcingAnnotation> root = cq.from(CrowdsourcingAnnotation.class);
+            cq.select(cb.count(root))
+                    .where(createAnnotationPredicates(cb, root, textQuery, motivations, generators, creators, targetPi, targetPage)
+                            .toArray(new Predicate[0]));
+
+            return em.createQuery(cq).getSingleResult();
+        } finally {
+            close(em);
+        }
+    }
+
+    /**
+     * Creates criteria predicates for the given {@link CrowdsourcingAnnotation} filters. Filters that are null or empty are skipped.
+     *
+     * @param cb
+     * @param root
+     * @param textQuery
+     * @param motivations
+     * @param generators
+     * @param creators
+     * @param targetPi
+     * @param targetPage
+     * @return Modifiable list of predicates
+     */
+    private static List<Predicate> createAnnotationPredicates(CriteriaBuilder cb, Root<CrowdsourcingAnnotation> root, String textQuery,
+            List<String> motivations, List<Long> generators, List<Long> creators, String targetPi, Integer targetPage) {
+        List<Predicate> ret = new ArrayList<>();
+        if (StringUtils.isNotBlank(textQuery)) {
+            String pattern = "%" + textQuery.toLowerCase().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+            ret.add(cb.like(cb.lower(root.<String> get("body")), pattern, '\\'));
+        }
+        if (motivations != null && !motivations.isEmpty()) {
+            ret.add(cb.lower(root.<String> get("motivation")).in(motivations.stream().map(String::toLowerCase).toList()));
+        }
+        if (generators != null && !generators.isEmpty()) {
+            ret.add(root.get("generatorId").in(generators));
+        }
+        if (creators != null && !creators.isEmpty()) {
+            ret.add(root.get("creatorId").in(creators));
+        }
+        if (StringUtils.isNotBlank(targetPi)) {
+            ret.add(cb.equal(root.get("targetPI"), targetPi));
+        }
+        if (targetPage != null) {
+            ret.add(cb.equal(root.get("targetPageOrder"), targetPage));
+        }
+
+        return ret;
+    }
+
     /** {@inheritDoc} */
     @SuppressWarnings("unchecked")
     @Override
@@ -6698,6 +6840,7 @@ public class JPADAO implements IDAO {
             startTransaction(em);
             em.merge(template);
             commitTransaction(em);
+            cmsPageCache.invalidate();
             return true;
         } catch (PersistenceException e) {
             handleException(em);
@@ -6717,6 +6860,7 @@ public class JPADAO implements IDAO {
             CMSPageTemplate o = em.getReference(CMSPageTemplate.class, template.getId());
             em.remove(o);
             commitTransaction(em);
+            cmsPageCache.invalidate();
             return true;
         } catch (PersistenceException e) {
             logger.error(e);
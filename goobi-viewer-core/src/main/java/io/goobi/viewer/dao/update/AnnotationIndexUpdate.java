@@ -0,0 +1,71 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.dao.update;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import io.goobi.viewer.dao.IDAO;
+import io.goobi.viewer.exceptions.DAOException;
+import io.goobi.viewer.model.annotation.CrowdsourcingAnnotation;
+import io.goobi.viewer.model.cms.pages.CMSTemplateManager;
+
+/**
+ * Adds the indexes used for filtering crowdsourcing annotations to existing annotations_crowdsourcing tables. New tables get them from the
+ * {@link CrowdsourcingAnnotation} table definition.
+ */
+public class AnnotationIndexUpdate implements IModelUpdate {
+
+    private static final String TABLE_NAME = "annotations_crowdsourcing";
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean update(IDAO dao, CMSTemplateManager templateManager) throws DAOException, SQLException {
+        if (!dao.tableExists(TABLE_NAME)) {
+            return false;
+        }
+
+        Map<String, String> indexes = new LinkedHashMap<>();
+        indexes.put(CrowdsourcingAnnotation.INDEX_TARGET, "target_pi, target_page");
+        indexes.put(CrowdsourcingAnnotation.INDEX_GENERATOR, "generator_id");
+        indexes.put(CrowdsourcingAnnotation.INDEX_CREATOR, "creator_id");
+
+        // Third column of SHOW INDEX is the index name
+        List<?> info = dao.getNativeQueryResults("SHOW INDEX FROM " + TABLE_NAME);
+        Set<String> existingIndexes = info.stream().map(o -> (String) ((Object[]) o)[2]).collect(Collectors.toSet());
+
+        int updates = 0;
+        for (Map.Entry<String, String> entry : indexes.entrySet()) {
+            if (!existingIndexes.contains(entry.getKey())) {
+                dao.executeUpdate("CREATE INDEX " + entry.getKey() + " ON " + TABLE_NAME + " (" + entry.getValue() + ")");
+                updates++;
+            }
+        }
+
+        return updates > 0;
+    }
+
+}
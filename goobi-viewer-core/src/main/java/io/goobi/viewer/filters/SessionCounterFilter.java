@@ -22,12 +22,6 @@
 package io.goobi.viewer.filters;
 
 import java.io.IOException;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.time.ZonedDateTime;
-import java.util.LinkedHashMap;
-import java.util.Map;
-import java.util.Optional;
 
 import javax.servlet.Filter;
 import javax.servlet.FilterChain;
@@ -38,22 +32,17 @@ import javax.servlet.ServletResponse;
 import javax.servlet.annotation.WebFilter;
 import javax.servlet.http.HttpServletRequest;
 
-import org.apache.logging.log4j.Logger;
-import org.apache.logging.log4j.LogManager;
-
 import io.goobi.viewer.controller.DataManager;
-import io.goobi.viewer.controller.DateTools;
+import io.goobi.viewer.controller.SessionTelemetry;
 
 /**
  * <p>
- * SessionCounterFilter class.
+ * Records each request of an existing session in {@link SessionTelemetry}. Never creates sessions.
  * </p>
  */
 @WebFilter
 public class SessionCounterFilter implements Filter {
 
-    private static final Logger logger = LogManager.getLogger(SessionCounterFilter.class);
-
     /** {@inheritDoc} */
     @Override
     public void init(FilterConfig arg0) throws ServletException {
@@ -62,34 +51,10 @@ public class SessionCounterFilter implements Filter {
 
     /** {@inheritDoc} */
     @Override
-    @SuppressWarnings({ "unchecked", "rawtypes" })
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain fc) throws IOException, ServletException {
-        // logger.trace("doFilter");
-        HttpServletRequest req = (HttpServletRequest) request;
-        String id = req.getSession().getId();
-        Map<String, String> metadataMap = DataManager.getInstance().getSessionMap().get(id);
-        ZonedDateTime now = LocalDateTime.now().atZone(ZoneId.systemDefault());
-        if (metadataMap == null) {
-            metadataMap = new LinkedHashMap<>();
-            DataManager.getInstance().getSessionMap().put(id, metadataMap);
-            metadataMap.put("id", id);
-            metadataMap.put("created", now.format(DateTools.FORMATTERJAVAUTILDATETOSTRING));
+        if (request instanceof HttpServletRequest req) {
+            DataManager.getInstance().getSessionTelemetry().recordRequest(req);
         }
-        metadataMap.put("address", req.getRemoteAddr());
-        metadataMap.put("x-forwarded-for", req.getHeader("x-forwarded-for"));
-        metadataMap.put("last request", now.format(DateTools.FORMATTERJAVAUTILDATETOSTRING));
-        metadataMap.put("previous request",
-                DateTools.getLocalDateTimeFromMillis(req.getSession().getLastAccessedTime(), false)
-                        .atZone(ZoneId.systemDefault())
-                        .format(DateTools.FORMATTERJAVAUTILDATETOSTRING));
-        metadataMap.put("timeout", String.valueOf(req.getSession().getMaxInactiveInterval()) + " s");
-
-        Optional<Map<Object, Map>> logicalViews =
-                Optional.ofNullable((Map) req.getSession().getAttribute("com.sun.faces.renderkit.ServerSideStateHelper.LogicalViewMap"));
-        Integer numberOfLogicalViews = logicalViews.map(map -> map.keySet().size()).orElse(0);
-        Integer numberOfTotalViews = logicalViews.map(map -> map.values().stream().mapToInt(value -> value.keySet().size()).sum()).orElse(0);
-        metadataMap.put("Logical Views stored in session", numberOfLogicalViews.toString());
-        metadataMap.put("Total views stored in session", numberOfTotalViews.toString());
 
         fc.doFilter(request, response); // continue
     }
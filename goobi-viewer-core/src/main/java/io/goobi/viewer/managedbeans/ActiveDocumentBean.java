@@ -109,9 +109,9 @@ import io.goobi.viewer.model.translations.language.Language;
 import io.goobi.viewer.model.viewer.PageOrientation;
 import io.goobi.viewer.model.viewer.PageType;
 import io.goobi.viewer.model.viewer.PhysicalElement;
+import io.goobi.viewer.model.viewer.RecordSnapshotCache;
 import io.goobi.viewer.model.viewer.StructElement;
 import io.goobi.viewer.model.viewer.ViewManager;
-import io.goobi.viewer.model.viewer.pageloader.AbstractPageLoader;
 import io.goobi.viewer.modules.IModule;
 import io.goobi.viewer.solr.SolrConstants;
 import io.goobi.viewer.solr.SolrConstants.DocType;
@@ -382,7 +382,13 @@ public class ActiveDocumentBean implements Serializable {
                     mayChangeHitIndex = true;
                 }
 
-                StructElement topStructElement = new StructElement(topDocumentIddoc);
+                // Record data that is the same for all users is shared between sessions
+                RecordSnapshotCache snapshotCache = DataManager.getInstance().getRecordSnapshotCache();
+                RecordSnapshotCache.Snapshot snapshot = snapshotCache.get(lastReceivedIdentifier, topDocumentIddoc);
+                if (snapshot == null) {
+                    snapshot = snapshotCache.create(new StructElement(topDocumentIddoc));
+                }
+                StructElement topStructElement = snapshot.getTopStructElement();
 
                 // Exit here if record is not found or has been deleted
                 if (!topStructElement.isExists()) {
@@ -437,7 +443,7 @@ public class ActiveDocumentBean implements Serializable {
 
                 }
 
-                viewManager = new ViewManager(topStructElement, AbstractPageLoader.create(topStructElement), topDocumentIddoc,
+                viewManager = new ViewManager(topStructElement, snapshot.createPageLoader(), topDocumentIddoc,
                         logid, topStructElement.getMetadataValue(SolrConstants.MIMETYPE), imageDelivery);
                 viewManager.setToc(createTOC());
 
@@ -707,6 +707,7 @@ public class AdminBean implements Serializable {
             }
         }
         setCurrentIpRange(null);
+        DataManager.getInstance().getAccessRulesManager().invalidate();
 
         return "pretty:adminIpRanges";
     }
@@ -721,6 +722,7 @@ public class AdminBean implements Serializable {
      */
     public void deleteIpRangeAction(IpRange ipRange) throws DAOException {
         if (DataManager.getInstance().getDao().deleteIpRange(ipRange)) {
+            DataManager.getInstance().getAccessRulesManager().invalidate();
             Messages.info(StringConstants.MSG_ADMIN_DELETED_SUCCESSFULLY);
         } else {
             Messages.error(StringConstants.MSG_ADMIN_DELETE_FAILURE);
@@ -313,6 +313,7 @@ public class AdminLicenseBean implements Serializable {
                 return "pretty:adminLicenseNew";
             }
         }
+        DataManager.getInstance().getAccessRulesManager().invalidate();
 
         return URL_PRETTY_ADMINLICENSES;
     }
@@ -332,6 +333,7 @@ public class AdminLicenseBean implements Serializable {
         }
 
         if (DataManager.getInstance().getDao().deleteLicenseType(licenseType)) {
+            DataManager.getInstance().getAccessRulesManager().invalidate();
             Messages.info(StringConstants.MSG_ADMIN_DELETED_SUCCESSFULLY);
 
         } else {
@@ -524,6 +526,7 @@ public class AdminLicenseBean implements Serializable {
             Messages.error(MSG_ADMIN_LICENSE_SAVE_FAILURE);
             error = true;
         }
+        DataManager.getInstance().getAccessRulesManager().invalidate();
 
         if (error) {
             if (currentLicense.getId() != null) {
@@ -566,6 +569,7 @@ public class AdminLicenseBean implements Serializable {
         }
 
         if (success) {
+            DataManager.getInstance().getAccessRulesManager().invalidate();
             Messages.info("license_deleteSuccess");
         } else {
             Messages.error("license_deleteFailure");
@@ -427,9 +427,8 @@ public class BrowseBean implements Serializable {
             String browsingMenuFieldForCurrentLanguage = getBrowsingMenuFieldForLanguage(locale.getLanguage());
             if (availableStringFilters.get(browsingMenuFieldForCurrentLanguage) == null) {
                 logger.trace("Collecting available filters for {}", browsingMenuFieldForCurrentLanguage);
-                int numRows = StringUtils.isNotEmpty(currentBmfc.getSortField()) ? SolrSearchIndex.MAX_HITS : 0;
-                terms = SearchHelper.getFilteredTerms(currentBmfc, "", useFilterQuery, 0, numRows, new BrowseTermComparator(locale),
-                        locale.getLanguage());
+                terms = SearchHelper.getFilteredTerms(currentBmfc, "", useFilterQuery, 0, SolrSearchIndex.MAX_HITS,
+                        new BrowseTermComparator(locale), locale.getLanguage());
                 if (availableStringFilters.get(browsingMenuFieldForCurrentLanguage) == null || filterQuery != null) {
                     logger.trace("Populating search term filters for field '{}'...", browsingMenuFieldForCurrentLanguage);
                     availableStringFilters.put(browsingMenuFieldForCurrentLanguage, new ArrayList<>());
@@ -493,15 +492,10 @@ public class BrowseBean implements Serializable {
 
             // Get terms for the current page
             logger.trace("Fetching terms for page {} ({} - {})", currentPage, start, end - 1);
-            terms = SearchHelper.getFilteredTerms(currentBmfc, currentStringFilter, useFilterQuery, 0, SolrSearchIndex.MAX_HITS,
+            terms = SearchHelper.getFilteredTerms(currentBmfc, currentStringFilter, useFilterQuery, start, end - start,
                     new BrowseTermComparator(locale), locale.getLanguage());
 
-            for (int i = start; i < end; ++i) {
-                if (i >= terms.size()) {
-                    //filtered queries may return less results than max (why? SearchHelper.getFilteredTermsCount should already account for filtering)
-                    break;
-                }
-                BrowseTerm term = terms.get(i);
+            for (BrowseTerm term : terms) {
                 Optional<String> translation = term.getTranslations() != null ? term.getTranslations().getValue(locale) : Optional.empty();
                 if (translation.isPresent()) {
                     // Use translated label, if present
@@ -509,7 +503,7 @@ public class BrowseBean implements Serializable {
                 } else {
                     browseTermList.add(term.getTerm());
                 }
-                browseTermHitCountList.add(terms.get(i).getHitCount());
+                browseTermHitCountList.add(term.getHitCount());
 
                 // Escape characters such as quotation marks
                 String escapedTerm = ClientUtils.escapeQueryChars(term.getTerm().intern());
@@ -1179,10 +1179,12 @@ public class CmsBean implements Serializable {
                     DataManager.getInstance().getDao().addStaticPage(page);
                 }
             } catch (DAOException e) {
+                DataManager.getInstance().getViewerRouteManager().invalidate();
                 Messages.error("cms_errorSavingStaticPages");
                 return;
             }
         }
+        DataManager.getInstance().getViewerRouteManager().invalidate();
         this.staticPages = null;
         Messages.info("cms_staticPagesSaved");
     }
@@ -198,6 +198,7 @@ public class CmsPageEditBean implements Serializable {
         } else {
             success = this.dao.addCMSPage(selectedPage);
         }
+        DataManager.getInstance().getViewerRouteManager().invalidate();
 
         if (saveAsTemplate) {
             success = saveTemplate(selectedPage, templateName, templateLockComponents);
@@ -306,6 +307,7 @@ public class CmsPageEditBean implements Serializable {
                 dao.deleteCMSComponent(persistentComponent);
             }
             if (this.dao.deleteCMSPage(page)) {
+                DataManager.getInstance().getViewerRouteManager().invalidate();
                 // Delete files matching content item IDs of the deleted page and re-index record
                 try {
                     if (page.deleteExportedTextFiles() > 0) {
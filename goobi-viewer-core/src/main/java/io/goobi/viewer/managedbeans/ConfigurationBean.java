@@ -1462,6 +1462,14 @@ public class ConfigurationBean implements Serializable {
         return DataManager.getInstance().getConfiguration().useHeatmapForFacetting();
     }
 
+    /**
+     * 
+     * @return Configured value
+     */
+    public boolean useTilesForFacetting() {
+        return DataManager.getInstance().getConfiguration().useTilesForFacetting();
+    }
+
     /**
      * 
      * @return Configured value
@@ -272,6 +272,7 @@ public class CrowdsourcingBean implements Serializable {
      */
     public String deleteCampaignAction(Campaign campaign) throws DAOException {
         if (campaign != null && dao.deleteCampaign(campaign)) {
+            DataManager.getInstance().getViewerRouteManager().invalidate();
             Messages.info("admin__crowdsoucing_campaign_deleteSuccess");
             lazyModelCampaigns.update();
         }
@@ -499,6 +500,7 @@ public class CrowdsourcingBean implements Serializable {
             success = dao.addCampaign(selectedCampaign);
         }
         if (success) {
+            DataManager.getInstance().getViewerRouteManager().invalidate();
             Messages.info("admin__crowdsourcing_campaign_save_success");
             setSelectedCampaign(selectedCampaign);
             lazyModelCampaigns.update();
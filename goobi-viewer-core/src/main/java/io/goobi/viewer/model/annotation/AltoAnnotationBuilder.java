@@ -136,15 +136,32 @@ public class AltoAnnotationBuilder {
      */
     public AbstractAnnotation createAnnotation(GeometricData element, String pi, Integer pageNo, IResource canvas, boolean urlOnlyTarget) {
         String id = Optional.ofNullable(element.getId()).orElse(buildId(element));
+        return createAnnotation(id, element.getContent(), element.getBounds(), pi, pageNo, canvas, urlOnlyTarget);
+    }
+
+    /**
+     * Creates an annotation for an ALTO element of which only the identifier, content and coordinates are known.
+     *
+     * @param id Element identifier; see {@link #buildId(String, Rectangle)} for elements without ID attribute
+     * @param content Text content of the element
+     * @param bounds Coordinates of the element
+     * @param pi
+     * @param pageNo
+     * @param canvas a {@link de.intranda.api.annotation.IResource} object.
+     * @param urlOnlyTarget a boolean.
+     * @return a {@link de.intranda.api.annotation.IAnnotation} object.
+     */
+    public AbstractAnnotation createAnnotation(String id, String content, Rectangle bounds, String pi, Integer pageNo, IResource canvas,
+            boolean urlOnlyTarget) {
         AbstractAnnotation anno;
         if ("oa".equalsIgnoreCase(format)) {
             anno = new OpenAnnotation(createAnnotationId(pi, pageNo, id));
-            anno.setBody(new TextualResource(element.getContent()));
+            anno.setBody(new TextualResource(content));
         } else {
             anno = new WebAnnotation(createAnnotationId(pi, pageNo, id));
-            anno.setBody(new de.intranda.api.annotation.wa.TextualResource(element.getContent()));
+            anno.setBody(new de.intranda.api.annotation.wa.TextualResource(content));
         }
-        anno.setTarget(createSpecificResource(canvas, element.getBounds(), urlOnlyTarget));
+        anno.setTarget(createSpecificResource(canvas, bounds, urlOnlyTarget));
         anno.setMotivation(Motivation.PAINTING);
         return anno;
     }
@@ -156,7 +173,18 @@ public class AltoAnnotationBuilder {
      * @return {@link String}
      */
     private static String buildId(GeometricData e) {
-        return e.getClass().getSimpleName() + "_" + e.getBounds().x + "_" + e.getBounds().y + "_" + e.getBounds().width + "_" + e.getBounds().height;
+        return buildId(e.getClass().getSimpleName(), e.getBounds());
+    }
+
+    /**
+     * Method to construct alto element id from element type and coordinates if no id attribute is available
+     * 
+     * @param elementType Simple class name of the element, e.g. <code>Word</code>
+     * @param bounds Coordinates of the element
+     * @return {@link String}
+     */
+    public static String buildId(String elementType, Rectangle bounds) {
+        return elementType + "_" + bounds.x + "_" + bounds.y + "_" + bounds.width + "_" + bounds.height;
     }
 
     /**
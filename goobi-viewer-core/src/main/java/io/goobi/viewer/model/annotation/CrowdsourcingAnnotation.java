@@ -26,6 +26,7 @@ import java.util.HashSet;
 import java.util.Set;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import de.intranda.api.annotation.AbstractAnnotation;
 import de.intranda.api.annotation.wa.WebAnnotation;
@@ -36,9 +37,16 @@ import de.intranda.api.annotation.wa.WebAnnotation;
  * @author florian
  */
 @Entity
-@Table(name = "annotations_crowdsourcing")
+@Table(name = "annotations_crowdsourcing",
+        indexes = { @Index(name = CrowdsourcingAnnotation.INDEX_TARGET, columnList = "target_pi, target_page"),
+                @Index(name = CrowdsourcingAnnotation.INDEX_GENERATOR, columnList = "generator_id"),
+                @Index(name = CrowdsourcingAnnotation.INDEX_CREATOR, columnList = "creator_id") })
 public class CrowdsourcingAnnotation extends PersistentAnnotation {
 
+    public static final String INDEX_TARGET = "index_annotations_crowdsourcing_target";
+    public static final String INDEX_GENERATOR = "index_annotations_crowdsourcing_generator";
+    public static final String INDEX_CREATOR = "index_annotations_crowdsourcing_creator";
+
     public static final Set<String> VALID_COLUMNS_FOR_ORDER_BY = new HashSet<>(Arrays.asList("id", "dateCreated", "dateModified"));
 
     /**
@@ -27,7 +27,6 @@ import io.goobi.viewer.controller.DataManager;
 import io.goobi.viewer.controller.IndexerTools;
 import io.goobi.viewer.exceptions.DAOException;
 import io.goobi.viewer.exceptions.IndexUnreachableException;
-import io.goobi.viewer.exceptions.PresentationException;
 import io.goobi.viewer.model.annotation.PersistentAnnotation;
 
 /**
@@ -49,11 +48,7 @@ public class SolrAnnotationDeleter implements AnnotationDeleter {
 
     protected void reindexTarget(String pi, Integer page) {
         if (page != null) {
-            try {
-                IndexerTools.reIndexPage(pi, page);
-            } catch (DAOException | PresentationException | IndexUnreachableException | IOException e) {
-                IndexerTools.triggerReIndexRecord(pi);
-            }
+            IndexerTools.triggerReIndexPage(pi, page);
         } else {
             IndexerTools.triggerReIndexRecord(pi);
         }
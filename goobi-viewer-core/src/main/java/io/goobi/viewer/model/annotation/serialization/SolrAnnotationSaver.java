@@ -29,13 +29,8 @@ import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.lang3.StringUtils;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
 
 import io.goobi.viewer.controller.IndexerTools;
-import io.goobi.viewer.exceptions.DAOException;
-import io.goobi.viewer.exceptions.IndexUnreachableException;
-import io.goobi.viewer.exceptions.PresentationException;
 import io.goobi.viewer.model.annotation.PersistentAnnotation;
 
 /**
@@ -44,8 +39,6 @@ import io.goobi.viewer.model.annotation.PersistentAnnotation;
  */
 public class SolrAnnotationSaver implements AnnotationSaver {
 
-    private static final Logger logger = LogManager.getLogger(SolrAnnotationSaver.class);
-
     @Override
     public void save(PersistentAnnotation... annotations) throws IOException {
 
@@ -62,12 +55,7 @@ public class SolrAnnotationSaver implements AnnotationSaver {
 
     protected void reindexTarget(Target target) {
         if (target.page != null) {
-            try {
-                IndexerTools.reIndexPage(target.pi, target.page);
-            } catch (DAOException | PresentationException | IndexUnreachableException | IOException e) {
-                logger.warn("Error reindexing single page. Try reindexing entire record");
-                IndexerTools.triggerReIndexRecord(target.pi);
-            }
+            IndexerTools.triggerReIndexPage(target.pi, target.page);
         } else {
             IndexerTools.triggerReIndexRecord(target.pi);
         }
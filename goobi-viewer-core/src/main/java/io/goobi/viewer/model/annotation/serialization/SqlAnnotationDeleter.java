@@ -61,6 +61,8 @@ public class SqlAnnotationDeleter implements AnnotationDeleter {
         } catch (DAOException e) {
             throw new IOException(e);
         }
+        // Cached IIIF manifests contain comments and annotations
+        DataManager.getInstance().getManifestCache().invalidate(annotation.getTargetPI());
     }
 
 }
@@ -21,9 +21,9 @@
  */
 package io.goobi.viewer.model.annotation.serialization;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Stream;
 
@@ -45,6 +45,8 @@ public class SqlAnnotationLister implements AnnotationLister<CrowdsourcingAnnota
     private static final Logger logger = LogManager.getLogger(SqlAnnotationLister.class);
 
     private final IDAO dao;
+    /** Position after the most recently returned page sorted by ID, used for keyset pagination of the following page */
+    private volatile PageCursor lastPage = null;
 
     public SqlAnnotationLister() throws DAOException {
         dao = DataManager.getInstance().getDao();
@@ -83,36 +85,43 @@ public class SqlAnnotationLister implements AnnotationLister<CrowdsourcingAnnota
         }
     }
 
-    /* (non-Javadoc)
-     * @see io.goobi.viewer.model.annotation.serialization.AnnotationLister#getAnnotations(int, int, java.lang.String, java.util.List,
-     * java.util.List, java.util.List, java.lang.String, java.lang.Integer, java.lang.String, boolean)
+    /**
+     * {@inheritDoc}
+     *
+     * Filtering, sorting and paging are done by the database. When sorted by ID and called for the page following the previously returned one,
+     * the page is loaded via keyset pagination. Since annotation bodies are stored as JSON, a textQuery is only used by the database to preselect
+     * annotations; these are then checked against their actual text content and paged here.
+     *
+     * @should filter by text content
+     * @should page in the database
+     * @should return consecutive pages sorted by id
      */
     @Override
     public List<CrowdsourcingAnnotation> getAnnotations(int firstIndex, int items, String textQuery, List<String> motivations, List<Long> generators,
             List<Long> creators, String targetPi, Integer targetPage, String sortField, boolean sortDescending) {
         try {
-            List<CrowdsourcingAnnotation> allAnnos = dao.getAllAnnotations(sortField, sortDescending);
-            Stream<CrowdsourcingAnnotation> stream = allAnnos.stream();
             if (StringUtils.isNotBlank(textQuery)) {
-                stream = stream.filter(a -> a.getContentString().toLowerCase().contains(textQuery.toLowerCase()));
-            }
-            if (motivations != null && !motivations.isEmpty()) {
-                stream = stream.filter(a -> a.getMotivation() != null)
-                        .filter(a -> motivations.stream().anyMatch(m -> a.getMotivation().equalsIgnoreCase(m)));
+                return getAnnotationsContainingText(textQuery, motivations, generators, creators, targetPi, targetPage, sortField, sortDescending)
+                        .skip(firstIndex)
+                        .limit(items)
+                        .toList();
             }
-            if (generators != null && !generators.isEmpty()) {
-                stream = stream.filter(a -> generators.stream().anyMatch(g -> Objects.equals(g, a.getGeneratorId())));
-            }
-            if (creators != null && !creators.isEmpty()) {
-                stream = stream.filter(a -> creators.stream().anyMatch(c -> Objects.equals(c, a.getCreatorId())));
-            }
-            if (StringUtils.isNotBlank(targetPi)) {
-                stream = stream.filter(a -> a.getTargetPI().equalsIgnoreCase(targetPi));
+
+            List<Object> filterKey = Arrays.asList(motivations, generators, creators, targetPi, targetPage, sortDescending);
+            boolean sortById = StringUtils.isEmpty(sortField) || "id".equals(sortField);
+            PageCursor cursor = this.lastPage;
+            List<CrowdsourcingAnnotation> ret;
+            if (sortById && cursor != null && cursor.nextIndex == firstIndex && cursor.filterKey.equals(filterKey)) {
+                ret = dao.getAnnotationsAfterId(cursor.lastId, items, null, motivations, generators, creators, targetPi, targetPage,
+                        sortDescending);
+            } else {
+                ret = dao.getAnnotations(firstIndex, items, null, motivations, generators, creators, targetPi, targetPage,
+                        sortById ? "id" : sortField, sortDescending);
             }
-            if (targetPage != null) {
-                stream = stream.filter(a -> targetPage.equals(a.getTargetPageOrder()));
+            if (sortById && !ret.isEmpty()) {
+                this.lastPage = new PageCursor(filterKey, firstIndex + ret.size(), ret.get(ret.size() - 1).getId());
             }
-            return stream.skip(firstIndex).limit(items).toList();
+            return ret;
         } catch (DAOException e) {
             logger.error("Error retrieving annotations: {}", e.toString());
             return Collections.emptyList();
@@ -127,7 +136,37 @@ public class SqlAnnotationLister implements AnnotationLister<CrowdsourcingAnnota
     @Override
     public long getAnnotationCount(String textQuery, List<String> motivations, List<Long> generators, List<Long> creators, String targetPi,
             Integer targetPage) {
-        return getAnnotations(0, Integer.MAX_VALUE, textQuery, motivations, generators, creators, targetPi, targetPage, "id", false).size();
+        try {
+            if (StringUtils.isNotBlank(textQuery)) {
+                return getAnnotationsContainingText(textQuery, motivations, generators, creators, targetPi, targetPage, "id", false).count();
+            }
+            return dao.getAnnotationCount(null, motivations, generators, creators, targetPi, targetPage);
+        } catch (DAOException e) {
+            logger.error("Error retrieving annotation count: {}", e.toString());
+            return 0;
+        }
+    }
+
+    /**
+     * Loads all annotations whose body contains the given text and keeps those whose text content contains it.
+     * 
+     * @param textQuery
+     * @param motivations
+     * @param generators
+     * @param creators
+     * @param targetPi
+     * @param targetPage
+     * @param sortField
+     * @param sortDescending
+     * @return {@link Stream} of matching annotations
+     * @throws DAOException
+     */
+    private Stream<CrowdsourcingAnnotation> getAnnotationsContainingText(String textQuery, List<String> motivations, List<Long> generators,
+            List<Long> creators, String targetPi, Integer targetPage, String sortField, boolean sortDescending) throws DAOException {
+        String text = textQuery.toLowerCase();
+        return dao.getAnnotations(0, Integer.MAX_VALUE, textQuery, motivations, generators, creators, targetPi, targetPage, sortField, sortDescending)
+                .stream()
+                .filter(a -> a.getContentString() != null && a.getContentString().toLowerCase().contains(text));
     }
 
     /* (non-Javadoc)
@@ -142,4 +181,19 @@ public class SqlAnnotationLister implements AnnotationLister<CrowdsourcingAnnota
         }
     }
 
+    /**
+     * Filters, index and ID following the last annotation of a returned page.
+     */
+    private static final class PageCursor {
+
+        private final List<Object> filterKey;
+        private final int nextIndex;
+        private final Long lastId;
+
+        private PageCursor(List<Object> filterKey, int nextIndex, Long lastId) {
+            this.filterKey = filterKey;
+            this.nextIndex = nextIndex;
+            this.lastId = lastId;
+        }
+    }
 }
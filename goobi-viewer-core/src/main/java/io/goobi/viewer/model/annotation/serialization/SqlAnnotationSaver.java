@@ -73,6 +73,8 @@ public class SqlAnnotationSaver implements AnnotationSaver {
             } else {
                 throw new IllegalArgumentException("Saving not implemented for class " + annotation.getClass());
             }
+            // Cached IIIF manifests contain comments and annotations
+            DataManager.getInstance().getManifestCache().invalidate(annotation.getTargetPI());
         }
     }
 
@@ -29,17 +29,10 @@ import static io.goobi.viewer.api.rest.v1.ApiUrls.RECORDS_RECORD;
 import java.net.URI;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
-
-import org.apache.solr.client.solrj.response.FacetField.Count;
-import org.apache.solr.client.solrj.response.QueryResponse;
-import org.apache.solr.common.SolrDocument;
-import org.apache.solr.common.SolrDocumentList;
 
 import de.intranda.api.iiif.discovery.Activity;
-import de.intranda.api.iiif.discovery.ActivityType;
 import de.intranda.api.iiif.discovery.OrderedCollection;
 import de.intranda.api.iiif.discovery.OrderedCollectionPage;
 import de.intranda.api.iiif.presentation.IPresentationModelElement;
@@ -50,29 +43,38 @@ import io.goobi.viewer.controller.DataManager;
 import io.goobi.viewer.controller.DateTools;
 import io.goobi.viewer.exceptions.IndexUnreachableException;
 import io.goobi.viewer.exceptions.PresentationException;
-import io.goobi.viewer.model.search.SearchHelper;
-import io.goobi.viewer.solr.SolrConstants;
 
 /**
  * Builder for both {@link de.intranda.api.iiif.discovery.OrderedCollection} and {@link de.intranda.api.iiif.discovery.OrderedCollectionPage} of
- * {@link Activity Acvitities} for the IIIF Discovery API.
+ * {@link Activity Acvitities} for the IIIF Discovery API. The activities are read from the {@link ActivityLog}, so the cost of building a page does
+ * not depend on its position within the collection.
  *
  * @author Florian Alpers
  */
 public class ActivityCollectionBuilder {
 
-    private static final String[] SOLR_FIELDS = { SolrConstants.PI, SolrConstants.DATEUPDATED, SolrConstants.DATECREATED, SolrConstants.DATEDELETED };
-    private static final String[] FACET_FIELDS = { SolrConstants.DATEUPDATED, SolrConstants.DATECREATED };
-    
-    private static final String QUERY_ISWORK = "ISWORK:true";
-
     private final int activitiesPerPage = DataManager.getInstance().getConfiguration().getIIIFDiscoveryAvtivitiesPerPage();
-    private Integer numActivities = null;
     private LocalDateTime startDate = null;
     private final AbstractApiUrlManager urls;
+    private final ActivityLog activityLog;
 
+    /**
+     * Creates a builder using the shared {@link ActivityLog} of the {@link DataManager}.
+     *
+     * @param apiUrlManager
+     */
     public ActivityCollectionBuilder(AbstractApiUrlManager apiUrlManager) {
+        this(apiUrlManager, DataManager.getInstance().getActivityLog());
+    }
+
+    /**
+     *
+     * @param apiUrlManager
+     * @param activityLog {@link ActivityLog} containing the activities
+     */
+    public ActivityCollectionBuilder(AbstractApiUrlManager apiUrlManager, ActivityLog activityLog) {
         this.urls = apiUrlManager;
+        this.activityLog = activityLog;
     }
 
     /**
@@ -102,9 +104,8 @@ public class ActivityCollectionBuilder {
      * @throws io.goobi.viewer.exceptions.IndexUnreachableException if any.
      */
     public OrderedCollectionPage<Activity> buildPage(int pageNo) throws PresentationException, IndexUnreachableException {
-
-        int first = pageNo * getActivitiesPerPage();
-        int last = first + getActivitiesPerPage() - 1;
+        activityLog.update();
+        int first = getFirstIndex() + pageNo * getActivitiesPerPage();
 
         OrderedCollectionPage<Activity> page = new OrderedCollectionPage<>(getPageURI(pageNo));
         OrderedCollection<Activity> parent = new OrderedCollection<>(getCollectionURI());
@@ -118,12 +119,7 @@ public class ActivityCollectionBuilder {
             page.setNext(next);
         }
 
-        List<Long> dates = getActivities(startDate, first, last);
-        Long start = dates.get(0);
-        Long end = dates.get(dates.size() - 1);
-        SolrDocumentList docs = getDocs(start, end);
-
-        page.setOrderedItems(buildItems(docs, start, end));
+        page.setOrderedItems(buildItems(pageNo < 0 ? Collections.emptyList() : activityLog.getEntries(first, getActivitiesPerPage())));
 
         return page;
 
@@ -140,8 +136,6 @@ public class ActivityCollectionBuilder {
      */
     public ActivityCollectionBuilder setStartDate(LocalDateTime startDate) throws PresentationException, IndexUnreachableException {
         this.startDate = startDate;
-        //reset numActivities because it is affected  by startDate
-        this.numActivities = null;
         return this;
     }
 
@@ -173,10 +167,8 @@ public class ActivityCollectionBuilder {
      * @throws io.goobi.viewer.exceptions.IndexUnreachableException if any.
      */
     public int getNumActivities() throws PresentationException, IndexUnreachableException {
-        if (numActivities == null) {
-            numActivities = getNumberOfActivities(getStartDate());
-        }
-        return numActivities;
+        activityLog.update();
+        return activityLog.size() - getFirstIndex();
     }
 
     /**
@@ -205,113 +197,36 @@ public class ActivityCollectionBuilder {
     }
 
     /**
-     * 
-     * @param docs
-     * @param startDate
-     * @param endDate
-     * @return List<Activity>
+     *
+     * @return Position of the first activity in the {@link ActivityLog} that belongs to this collection
      */
-    private List<Activity> buildItems(SolrDocumentList docs, Long startDate, Long endDate) {
-        List<Activity> activities = new ArrayList<>();
-        for (SolrDocument doc : docs) {
-
-            List<Long> updates = doc.getFieldValues(SolrConstants.DATEUPDATED)
-                    .stream()
-                    .map(o -> (Long) o)
-                    .filter(date -> date >= startDate && date <= endDate)
-                    .toList();
-            Long created = (Long) doc.getFieldValue(SolrConstants.DATECREATED);
-
-            Long deleted = null;
-            if (doc.containsKey(SolrConstants.DATEDELETED)) {
-                deleted = (Long) doc.getFieldValue(SolrConstants.DATEDELETED);
-            }
-            if (created >= startDate && created <= endDate) {
-                Activity createActivity = new Activity();
-                createActivity.setEndTime(DateTools.getLocalDateTimeFromMillis(created, false));
-                createActivity.setType(ActivityType.CREATE);
-                createActivity.setObject(createObject(doc));
-                activities.add(createActivity);
-            }
-            for (Long update : updates) {
-                if (!update.equals(created)) {
-                    Activity activity = new Activity();
-                    activity.setEndTime(DateTools.getLocalDateTimeFromMillis(update, false));
-                    activity.setType(update.equals(deleted) ? ActivityType.DELETE : ActivityType.UPDATE);
-                    activity.setObject(createObject(doc));
-                    activities.add(activity);
-                }
-            }
-
+    private int getFirstIndex() {
+        if (startDate == null) {
+            return 0;
         }
-        activities.sort((a1, a2) -> a1.getEndTime().compareTo(a2.getEndTime()));
-        return activities;
-    }
-
-    private IPresentationModelElement createObject(SolrDocument doc) {
-        String pi = (String) doc.getFieldValue(SolrConstants.PI);
-        URI uri = URI.create(this.urls.path(RECORDS_RECORD, RECORDS_MANIFEST).params(pi).build());
-        return new Manifest2(uri);
-    }
-
-    private static int getNumberOfActivities(LocalDateTime startDate) throws PresentationException, IndexUnreachableException {
-        String query = QUERY_ISWORK;
-        query += " " + SearchHelper.getAllSuffixes();
-        if (startDate != null) {
-            query += " AND (DATEUPDATED:[" + startDate + " TO*] OR DATECREATED:[" + startDate + " TO *])";
-        }
-        QueryResponse qr = DataManager.getInstance().getSearchIndex().searchFacetsAndStatistics(query, null, Arrays.asList(FACET_FIELDS), 1, false);
-        if (qr != null) {
-            Long count = qr.getFacetFields().stream().flatMap(field -> field.getValues().stream()).map(Count::getName).distinct().count();
-            return count.intValue();
-        }
-
-        return 0;
+        return activityLog.indexOf(DateTools.getMillisFromLocalDateTime(startDate, false));
     }
 
     /**
-     * Get all activity dates after startDate limited to the results between first and last; sorted chronologically ascending (earliest dates come
-     * first)
      *
-     * @param startDate
-     * @param first
-     * @param last
-     * @return List<Long>
-     * @throws PresentationException
-     * @throws IndexUnreachableException
+     * @param entries
+     * @return List<Activity>
      */
-    private static List<Long> getActivities(LocalDateTime startDate, int first, int last) throws PresentationException, IndexUnreachableException {
-        return getActivities(startDate).stream().skip(first).limit((long) last - first + 1).collect(Collectors.toList());
-    }
-
-    private static List<Long> getActivities(LocalDateTime startDate) throws PresentationException, IndexUnreachableException {
-        String query = QUERY_ISWORK;
-        query += " " + SearchHelper.getAllSuffixes();
-        if (startDate != null) {
-            query += " AND (DATEUPDATED:[" + startDate + " TO *] OR DATECREATED:[" + startDate + " TO *])";
+    private List<Activity> buildItems(List<ActivityLog.Entry> entries) {
+        List<Activity> activities = new ArrayList<>(entries.size());
+        for (ActivityLog.Entry entry : entries) {
+            Activity activity = new Activity();
+            activity.setEndTime(DateTools.getLocalDateTimeFromMillis(entry.getDate(), false));
+            activity.setType(entry.getType());
+            activity.setObject(createObject(entry.getPi()));
+            activities.add(activity);
         }
-        QueryResponse qr = DataManager.getInstance().getSearchIndex().searchFacetsAndStatistics(query, null, Arrays.asList(FACET_FIELDS), 1, false);
-        if (qr != null) {
-            return qr.getFacetFields()
-                    .stream()
-                    .flatMap(field -> field.getValues().stream())
-                    .map(Count::getName)
-                    .distinct()
-                    .map(Long::parseLong)
-                    .sorted()
-                    .collect(Collectors.toList());
-        }
-
-        return new ArrayList<>();
+        return activities;
     }
 
-    private static SolrDocumentList getDocs(Long startDate, Long endDate) throws PresentationException, IndexUnreachableException {
-        String query = QUERY_ISWORK;
-        query += " " + SearchHelper.getAllSuffixes();
-        if (startDate != null && endDate != null) {
-            query = "(" + query + ") AND (DATEUPDATED:[" + startDate + " TO " + endDate + "] OR DATECREATED:[" + startDate + " TO " + endDate + "])";
-        }
-        return DataManager.getInstance().getSearchIndex().search(query, Integer.MAX_VALUE, null, Arrays.asList(SOLR_FIELDS));
+    private IPresentationModelElement createObject(String pi) {
+        URI uri = URI.create(this.urls.path(RECORDS_RECORD, RECORDS_MANIFEST).params(pi).build());
+        return new Manifest2(uri);
     }
 
 }
@@ -0,0 +1,388 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.model.iiif.discovery;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.solr.common.SolrDocument;
+
+import de.intranda.api.iiif.discovery.ActivityType;
+import io.goobi.viewer.controller.DataManager;
+import io.goobi.viewer.exceptions.IndexUnreachableException;
+import io.goobi.viewer.exceptions.PresentationException;
+import io.goobi.viewer.model.search.SearchHelper;
+import io.goobi.viewer.model.security.IPrivilegeHolder;
+import io.goobi.viewer.model.viewer.StringPair;
+import io.goobi.viewer.solr.SolrConstants;
+import io.goobi.viewer.solr.SolrCursor;
+import io.goobi.viewer.solr.SolrSearchIndex;
+
+/**
+ * Log of all record {@link ActivityType activities} for the IIIF change discovery API, in chronological order. The log is built once from the
+ * <code>DATECREATED</code>, <code>DATEUPDATED</code> and <code>DATEDELETED</code> values of all records and then only extended: whenever the
+ * index generation has changed (or the log has been marked as outdated via {@link #invalidate()}), only records updated since the latest known
+ * activity are fetched and their new activities added. Entries are held in parallel arrays, so any range of entries can be accessed directly by
+ * its position, which makes every collection page equally cheap to build.
+ * <p>
+ * Activities of records that are seen for the first time during a catch-up (i.e. with an older creation date) are merged into place, so the log
+ * stays strictly chronological. This moves all later activities to higher positions.
+ * </p>
+ */
+public class ActivityLog {
+
+    private static final Logger logger = LogManager.getLogger(ActivityLog.class);
+
+    private static final String[] SOLR_FIELDS = { SolrConstants.PI, SolrConstants.DATEUPDATED, SolrConstants.DATECREATED, SolrConstants.DATEDELETED };
+    private static final String QUERY_ISWORK = "ISWORK:true";
+    private static final int BATCH_SIZE = 1000;
+    private static final int INITIAL_CAPACITY = 1024;
+    /** Maximum time between two catch-ups, for index updates that were not reported to the viewer */
+    private static final long MAX_AGE_MILLIS = Duration.ofMinutes(5).toMillis();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object catchUpLock = new Object();
+    /** Latest appended activity date per record identifier; only accessed while holding catchUpLock */
+    private final Map<String, Long> latestDates = new HashMap<>();
+    /** Latest activity dates collected during the current catch-up; only applied to latestDates once the catch-up has succeeded */
+    private final Map<String, Long> pendingLatestDates = new HashMap<>();
+    /** Shared record identifier instances */
+    private final Map<String, String> identifiers = new ConcurrentHashMap<>();
+
+    private final LongAdder catchUps = new LongAdder();
+    private final LongAdder appended = new LongAdder();
+
+    private long[] dates = new long[INITIAL_CAPACITY];
+    private String[] pis = new String[INITIAL_CAPACITY];
+    private ActivityType[] types = new ActivityType[INITIAL_CAPACITY];
+    private int size = 0;
+
+    private volatile boolean outdated = true;
+    private volatile long indexGeneration = -1;
+    private volatile long lastCatchUp = 0;
+    /** Latest activity date of all appended entries */
+    private long highWaterMark = -1;
+
+    /**
+     * Single activity of the log.
+     */
+    public static final class Entry {
+
+        private final long date;
+        private final String pi;
+        private final ActivityType type;
+
+        Entry(long date, String pi, ActivityType type) {
+            this.date = date;
+            this.pi = pi;
+            this.type = type;
+        }
+
+        /**
+         * @return Date of the activity in milliseconds
+         */
+        public long getDate() {
+            return date;
+        }
+
+        /**
+         * @return Identifier of the affected record
+         */
+        public String getPi() {
+            return pi;
+        }
+
+        /**
+         * @return the type
+         */
+        public ActivityType getType() {
+            return type;
+        }
+
+        @Override
+        public String toString() {
+            return type + " " + pi + " " + date;
+        }
+    }
+
+    /**
+     * Marks the log as outdated, so that the next access fetches new activities from the index. Called after a record has been (re-)indexed.
+     */
+    public void invalidate() {
+        outdated = true;
+    }
+
+    /**
+     * Appends activities from records that have been updated in the index since the last catch-up, if the index generation has changed, the log
+     * has been marked as outdated or the last catch-up is too long ago. The first call builds the log from all records.
+     *
+     * @return this
+     * @throws PresentationException
+     * @throws IndexUnreachableException
+     */
+    public ActivityLog update() throws PresentationException, IndexUnreachableException {
+        SolrSearchIndex searchIndex = DataManager.getInstance().getSearchIndex();
+        if (!isCatchUpNeeded(searchIndex.getIndexGeneration())) {
+            return this;
+        }
+        synchronized (catchUpLock) {
+            // Fetch generation first so that changes during the catch-up cause another one
+            long generation = searchIndex.getIndexGeneration();
+            if (!isCatchUpNeeded(generation)) {
+                return this;
+            }
+            outdated = false;
+            long start = System.currentTimeMillis();
+            List<Entry> entries = new ArrayList<>();
+            try {
+                String query = getQuery();
+                if (highWaterMark >= 0) {
+                    // Documents are updated in place, so records with new activities always have a recent DATEUPDATED value
+                    query = "(" + query + ") AND " + SolrConstants.DATEUPDATED + ":[" + highWaterMark + " TO *]";
+                }
+                SolrCursor cursor = searchIndex.searchWithCursor(query, BATCH_SIZE,
+                        Collections.singletonList(new StringPair(SolrConstants.IDDOC, "asc")), Arrays.asList(SOLR_FIELDS), null, null);
+                while (cursor.hasNext()) {
+                    for (SolrDocument doc : cursor.next().getResults()) {
+                        collectNewEntries(doc, entries);
+                    }
+                }
+            } catch (PresentationException | IndexUnreachableException e) {
+                pendingLatestDates.clear();
+                outdated = true;
+                throw e;
+            }
+            append(entries);
+            indexGeneration = generation;
+            lastCatchUp = System.currentTimeMillis();
+            catchUps.increment();
+            logger.debug("Activity log updated: {} new activities, {} in total, {} ms", entries.size(), size(), lastCatchUp - start);
+        }
+
+        return this;
+    }
+
+    /**
+     * The log is shared by all clients, so only records visible to anonymous clients are included, regardless of the current user.
+     *
+     * @return Query for all records whose activities may be listed
+     * @should exclude records not listed for anonymous users
+     */
+    static String getQuery() {
+        return QUERY_ISWORK + " " + SearchHelper.getUserIndependentSuffixes()
+                + SearchHelper.getAnonymousFilterQuerySuffix(null, Optional.empty(), IPrivilegeHolder.PRIV_LIST);
+    }
+
+    /**
+     *
+     * @param generation Current index generation
+     * @return true if new activities should be fetched from the index; false otherwise
+     */
+    private boolean isCatchUpNeeded(long generation) {
+        return outdated || generation != indexGeneration || System.currentTimeMillis() - lastCatchUp > MAX_AGE_MILLIS;
+    }
+
+    /**
+     * Adds all activities of the given record document that are newer than the latest activity already in the log for that record. Must be
+     * called while holding {@link #catchUpLock}; the collected activities must be passed to {@link #append(List)} afterwards.
+     *
+     * @param doc Record document
+     * @param entries List to add the new activities to
+     * @should add create update and delete activities
+     * @should skip activities already in log
+     */
+    void collectNewEntries(SolrDocument doc, List<Entry> entries) {
+        String pi = (String) doc.getFieldValue(SolrConstants.PI);
+        if (pi == null) {
+            return;
+        }
+        pi = identifiers.computeIfAbsent(pi, k -> k);
+        long latest = latestDates.getOrDefault(pi, Long.MIN_VALUE);
+        long newLatest = latest;
+
+        Long created = (Long) doc.getFieldValue(SolrConstants.DATECREATED);
+        Long deleted = (Long) doc.getFieldValue(SolrConstants.DATEDELETED);
+        if (created != null && created > latest) {
+            entries.add(new Entry(created, pi, ActivityType.CREATE));
+            newLatest = Math.max(newLatest, created);
+        }
+        Collection<Object> updates = doc.getFieldValues(SolrConstants.DATEUPDATED);
+        if (updates != null) {
+            for (Object o : updates) {
+                Long update = (Long) o;
+                if (update > latest && !update.equals(created)) {
+                    entries.add(new Entry(update, pi, update.equals(deleted) ? ActivityType.DELETE : ActivityType.UPDATE));
+                    newLatest = Math.max(newLatest, update);
+                }
+            }
+        }
+        if (newLatest > latest) {
+            pendingLatestDates.put(pi, newLatest);
+        }
+    }
+
+    /**
+     * Sorts the given entries chronologically and merges them into the log. Entries older than the latest activity in the log are inserted at
+     * their chronological position, after existing activities with the same date. Must be called while holding {@link #catchUpLock}.
+     *
+     * @param entries
+     * @should append entries in chronological order
+     * @should merge older entries into place
+     */
+    void append(List<Entry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        entries.sort(Comparator.comparingLong(Entry::getDate));
+        lock.writeLock().lock();
+        try {
+            int required = size + entries.size();
+            if (required > dates.length) {
+                int capacity = Math.max(required, dates.length * 2);
+                dates = Arrays.copyOf(dates, capacity);
+                pis = Arrays.copyOf(pis, capacity);
+                types = Arrays.copyOf(types, capacity);
+            }
+            // Merge from the end, so that only activities newer than the oldest new entry are moved
+            int i = size - 1;
+            int j = entries.size() - 1;
+            int k = required - 1;
+            while (j >= 0) {
+                Entry entry = entries.get(j);
+                if (i >= 0 && dates[i] > entry.date) {
+                    dates[k] = dates[i];
+                    pis[k] = pis[i];
+                    types[k] = types[i];
+                    i--;
+                } else {
+                    dates[k] = entry.date;
+                    pis[k] = entry.pi;
+                    types[k] = entry.type;
+                    j--;
+                }
+                k--;
+            }
+            size = required;
+            highWaterMark = Math.max(highWaterMark, dates[size - 1]);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        latestDates.putAll(pendingLatestDates);
+        pendingLatestDates.clear();
+        appended.add(entries.size());
+    }
+
+    /**
+     *
+     * @return Number of activities in the log
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the given range of activities.
+     *
+     * @param first Position of the first activity
+     * @param count Maximum number of activities to return
+     * @return Activities at positions first to first + count - 1; empty list if first is out of range
+     * @should return requested range
+     * @should return empty list if first out of range
+     */
+    public List<Entry> getEntries(int first, int count) {
+        lock.readLock().lock();
+        try {
+            if (first < 0 || first >= size || count < 1) {
+                return Collections.emptyList();
+            }
+            int last = (int) Math.min((long) first + count, size);
+            List<Entry> ret = new ArrayList<>(last - first);
+            for (int i = first; i < last; ++i) {
+                ret.add(new Entry(dates[i], pis[i], types[i]));
+            }
+            return ret;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the position of the first activity at or after the given date, i.e. the cursor from which to walk the log to get all activities since
+     * that date.
+     *
+     * @param date Date in milliseconds
+     * @return Position of the first activity at or after date; {@link #size()} if there is none
+     * @should return position of first activity at or after date
+     * @should return size if all activities older
+     */
+    public int indexOf(long date) {
+        lock.readLock().lock();
+        try {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (dates[mid] < date) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     *
+     * @return Size and update counts of the log
+     */
+    public Map<String, Long> getStatistics() {
+        Map<String, Long> ret = new HashMap<>();
+        ret.put("activities", (long) size());
+        ret.put("records", (long) identifiers.size());
+        ret.put("catchUps", catchUps.sum());
+        ret.put("appended", appended.sum());
+        ret.put("lastCatchUp", lastCatchUp);
+        return ret;
+    }
+}
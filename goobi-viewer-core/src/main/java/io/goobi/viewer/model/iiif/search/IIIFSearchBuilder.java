@@ -634,28 +634,63 @@ public class IIIFSearchBuilder {
 
         AnnotationResultList results = new AnnotationResultList();
 
+        // Only the small file name fields are fetched here; matching pages are then visited in order until the requested hits are complete
         SolrDocumentList docList = DataManager.getInstance()
                 .getSearchIndex()
                 .search(queryBuilder.toString(), SolrSearchIndex.MAX_HITS, getPageSortFields(), FULLTEXTFIELDLIST);
+        long hitCount = 0;
+        int pagesVisited = 0;
         for (SolrDocument doc : docList) {
+            if (hitCount >= (long) firstIndex + numHits) {
+                break;
+            }
+            pagesVisited++;
             Path altoFile = getPath(pi, SolrTools.getSingleFieldStringValue(doc, SolrConstants.FILENAME_ALTO));
             Path fulltextFile = getPath(pi, SolrTools.getSingleFieldStringValue(doc, SolrConstants.FILENAME_FULLTEXT));
             Integer pageNo = SolrTools.getAsInt(doc.getFieldValue(SolrConstants.ORDER));
             converter.setPageNo(pageNo);
             try {
                 if (altoFile != null && Files.exists(altoFile)) {
-                    results.add(converter.getAnnotationsFromAlto(altoFile, queryRegex));
+                    AnnotationResultList pageResults = converter.getAnnotationsFromAlto(altoFile, queryRegex, hitCount, firstIndex, numHits);
+                    results.add(pageResults);
+                    hitCount += pageResults.getNumHits();
                 } else if (fulltextFile != null && Files.exists(fulltextFile)) {
-                    String text = new String(Files.readAllBytes(fulltextFile), StandardCharsets.UTF_8.name());
-                    results.add(converter.getAnnotationsFromFulltext(text, pi, pageNo, queryRegex, results.getNumHits(), firstIndex, numHits));
+                    // Plain text pages always yield a single hit, so the file only needs to be read if that hit is requested
+                    if (hitCount >= firstIndex) {
+                        String text = new String(Files.readAllBytes(fulltextFile), StandardCharsets.UTF_8.name());
+                        results.add(converter.getAnnotationsFromFulltext(text, pi, pageNo, queryRegex, hitCount, firstIndex, numHits));
+                    }
+                    hitCount++;
                 }
             } catch (IOException | JDOMException e) {
                 logger.error("Error reading {}", fulltextFile, e);
             }
         }
+        results.setNumHits(getEstimatedHitCount(hitCount, pagesVisited, docList.size()));
+
         return results;
     }
 
+    /**
+     * Returns the total number of hits in all matching pages. If not all pages have been visited, the number of hits in the remaining pages is
+     * extrapolated from the visited ones, assuming at least one hit per page matched by Solr.
+     *
+     * @param hitCount Number of hits in the visited pages
+     * @param pagesVisited Number of visited pages
+     * @param pagesMatched Number of pages matched by Solr
+     * @return Exact number of hits if all pages have been visited; estimated number of hits otherwise
+     * @should return hit count if all pages visited
+     * @should extrapolate hit count from visited pages
+     */
+    static long getEstimatedHitCount(long hitCount, int pagesVisited, int pagesMatched) {
+        int remainingPages = pagesMatched - pagesVisited;
+        if (remainingPages <= 0 || pagesVisited == 0) {
+            return hitCount;
+        }
+        long remainingHits = Math.round((double) hitCount * remainingPages / pagesVisited);
+        return hitCount + Math.max(remainingPages, remainingHits);
+    }
+
     /**
      * Test if the given fieldName is included in the configuredFields or matches any of the contained wildcard fieldNames.
      * 
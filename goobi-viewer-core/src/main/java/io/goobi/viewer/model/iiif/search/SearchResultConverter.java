@@ -38,6 +38,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -80,6 +81,7 @@ import io.goobi.viewer.model.iiif.search.model.AnnotationResultList;
 import io.goobi.viewer.model.iiif.search.model.SearchTermList;
 import io.goobi.viewer.model.iiif.search.parser.AbstractSearchParser;
 import io.goobi.viewer.model.iiif.search.parser.AltoSearchParser;
+import io.goobi.viewer.model.iiif.search.parser.AltoWordIndex;
 import io.goobi.viewer.model.iiif.search.parser.SolrSearchParser;
 import io.goobi.viewer.solr.SolrConstants;
 import io.goobi.viewer.solr.SolrTools;
@@ -307,30 +309,85 @@ public class SearchResultConverter {
      * @throws IOException
      */
     public AnnotationResultList getAnnotationsFromAlto(Path path, String query) throws IOException, JDOMException {
+        return getAnnotationsFromAlto(path, query, 0, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Create annotations for the matches of the given query within the given alto file that fall into the requested range of overall hits. The
+     * number of hits in the returned result is always the total number of matches within the file, while hits and annotations are only created for
+     * matches within the range. Word coordinates are taken from a cached {@link AltoWordIndex} if possible, so files need not be parsed again for
+     * further queries or result pages.
+     *
+     * @param path
+     * @param query a regex; each match of the query within the alto document creates a {@link de.intranda.api.iiif.search.SearchHit} with one or more
+     *            annotations referencing alto word or line elements
+     * @param previousHitCount The number of hits already found in previous pages
+     * @param firstIndex The index of the first overall hit to be returned in the result itself
+     * @param numHits The maximal number of hits to be returned in the result itself
+     * @return A result list containing the number of all matches in the file and the hits within the requested range
+     * @throws JDOMException
+     * @throws IOException
+     * @should count all matches but only create hits within range
+     */
+    public AnnotationResultList getAnnotationsFromAlto(Path path, String query, long previousHitCount, int firstIndex, int numHits)
+            throws IOException, JDOMException {
         AnnotationResultList results = new AnnotationResultList();
+        AltoWordIndex index = AltoWordIndex.get(path);
+        if (index != null) {
+            List<int[]> matches = index.findMatches(query);
+            IResource canvas = null;
+            for (int i = 0; i < matches.size(); ++i) {
+                if (isInRange(previousHitCount + i, firstIndex, numHits)) {
+                    if (canvas == null) {
+                        canvas = createSimpleCanvasResource(getPi(), getPageNo());
+                    }
+                    results.add(convertAltoToHit(index, matches.get(i)[0], matches.get(i)[1], canvas));
+                }
+            }
+            results.setNumHits(matches.size());
+            return results;
+        }
+
         AltoSearchParser parser = new AltoSearchParser();
         AltoDocument doc = AltoDocument.getDocumentFromFile(path.toFile());
         List<Word> words = parser.getWords(doc);
+        long count = 0;
         if (!words.isEmpty()) {
             List<List<Word>> matches = parser.findWordMatches(words, query);
             for (List<Word> wordsHit : matches) {
-                SearchHit hit = convertAltoToHit(wordsHit);
-                results.add(hit);
+                if (isInRange(previousHitCount + count, firstIndex, numHits)) {
+                    results.add(convertAltoToHit(wordsHit));
+                }
+                count++;
             }
         } else {
             List<Line> lines = parser.getLines(doc);
             if (!lines.isEmpty()) {
                 Map<Range<Integer>, List<Line>> hits = parser.findLineMatches(lines, query);
                 for (Entry<Range<Integer>, List<Line>> entry : hits.entrySet()) {
-                    List<Line> containingLines = entry.getValue();
-                    SearchHit hit = createAltoHit(lines, entry.getKey(), containingLines);
-                    results.add(hit);
+                    if (isInRange(previousHitCount + count, firstIndex, numHits)) {
+                        List<Line> containingLines = entry.getValue();
+                        results.add(createAltoHit(lines, entry.getKey(), containingLines));
+                    }
+                    count++;
                 }
             }
         }
+        results.setNumHits(count);
         return results;
     }
 
+    /**
+     * 
+     * @param hitIndex Overall index of a hit
+     * @param firstIndex Index of the first requested hit
+     * @param numHits Number of requested hits
+     * @return true if hitIndex is within the requested range; false otherwise
+     */
+    private static boolean isInRange(long hitIndex, int firstIndex, int numHits) {
+        return hitIndex >= firstIndex && hitIndex < (long) firstIndex + numHits;
+    }
+
     /**
      * Create annotations for all matches of the given query within the given text file Returns only a partial result if the firstIndex is larger than
      * 0 and numHits is smaller than the total number of hits
@@ -406,7 +463,8 @@ public class SearchResultConverter {
      */
     public SearchHit convertAltoToHit(List<Word> altoElements) {
         SearchHit hit = new SearchHit();
-        hit.setAnnotations(new ArrayList<>(altoElements.stream().map(this::createAnnotation).toList()));
+        IResource canvas = createSimpleCanvasResource(getPi(), getPageNo());
+        hit.setAnnotations(new ArrayList<>(altoElements.stream().map(word -> createAnnotation(word, canvas)).toList()));
         hit.setMatch(altoElements.stream().map(Word::getSubsContent).collect(Collectors.joining(" ")));
 
         if (!altoElements.isEmpty()) {
@@ -422,6 +480,40 @@ public class SearchResultConverter {
         return hit;
     }
 
+    /**
+     * Convert a phrase of words from the given word index to a search hit, containing an annotation for each word of the phrase. The result is the
+     * same as that of {@link #convertAltoToHit(List)} for the corresponding ALTO word elements.
+     *
+     * @param index Word index of the page
+     * @param first Position of the first word of the phrase
+     * @param last Position of the last word of the phrase
+     * @param canvas Canvas resource of the page
+     * @return A hit of the combined words
+     */
+    SearchHit convertAltoToHit(AltoWordIndex index, int first, int last, IResource canvas) {
+        SearchHit hit = new SearchHit();
+        List<IAnnotation> annotations = new ArrayList<>(last - first + 1);
+        List<String> match = new ArrayList<>(last - first + 1);
+        for (int i = first; i <= last; ++i) {
+            Rectangle bounds = index.getBounds(i);
+            String id = Optional.ofNullable(index.getId(i)).orElse(AltoAnnotationBuilder.buildId(Word.class.getSimpleName(), bounds));
+            annotations.add(altoBuilder.createAnnotation(id, index.getContent(i), bounds, getPi(), getPageNo(), canvas, true));
+            match.add(index.getSubsContent(i));
+        }
+        hit.setAnnotations(annotations);
+        hit.setMatch(String.join(" ", match));
+
+        String before = index.getPrecedingText(first, MAX_TEXT_LENGTH);
+        String after = index.getSucceedingText(last, MAX_TEXT_LENGTH);
+        if (StringUtils.isNotBlank(before)) {
+            hit.setBefore(before);
+        }
+        if (StringUtils.isNotBlank(after)) {
+            hit.setAfter(after);
+        }
+        return hit;
+    }
+
     /**
      * Creates a {@link de.intranda.api.iiif.search.SearchHit} of the text within the given position within the given lines.
      *
@@ -452,7 +544,8 @@ public class SearchResultConverter {
             selector.setSuffix(after);
         }
         hit.setSelectors(Collections.singletonList(selector));
-        hit.setAnnotations(new ArrayList<>(containingLines.stream().map(this::createAnnotation).toList()));
+        IResource canvas = createSimpleCanvasResource(getPi(), getPageNo());
+        hit.setAnnotations(new ArrayList<>(containingLines.stream().map(line -> createAnnotation(line, canvas)).toList()));
         return hit;
     }
 
@@ -536,10 +629,11 @@ public class SearchResultConverter {
      * Create an annotation from an ALTO element
      *
      * @param altoElement The alto xml element
+     * @param canvas Canvas resource of the page containing the element
      * @return An annotation representing the element
      */
-    private IAnnotation createAnnotation(GeometricData altoElement) {
-        return altoBuilder.createAnnotation(altoElement, getPi(), getPageNo(), createSimpleCanvasResource(getPi(), getPageNo()), true);
+    private IAnnotation createAnnotation(GeometricData altoElement, IResource canvas) {
+        return altoBuilder.createAnnotation(altoElement, getPi(), getPageNo(), canvas, true);
     }
 
     /**
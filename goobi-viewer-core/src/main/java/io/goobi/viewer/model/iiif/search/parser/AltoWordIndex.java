@@ -0,0 +1,317 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.model.iiif.search.parser;
+
+import java.awt.Rectangle;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import io.goobi.viewer.controller.ALTOTools;
+import io.goobi.viewer.controller.BoundedCache;
+
+/**
+ * Compact index of all words of a single ALTO page, holding just the text, identifier, coordinates and line of each word. The index is built with a
+ * single streaming pass over the ALTO file instead of a full document tree and is cached per file, so that repeated searches within the same record
+ * neither re-read nor re-parse the page.
+ * <p>
+ * Only pages with pixel coordinates and at least one word can be indexed; all other pages must be handled by the {@link AltoSearchParser}.
+ * </p>
+ */
+public final class AltoWordIndex {
+
+    private static final Logger logger = LogManager.getLogger(AltoWordIndex.class);
+
+    private static final String ELEMENT_MEASUREMENT_UNIT = "MeasurementUnit";
+    private static final String ELEMENT_TEXTLINE = "TextLine";
+    private static final String ELEMENT_STRING = "String";
+    private static final String MEASUREMENT_UNIT_PIXEL = "pixel";
+    private static final int INITIAL_CAPACITY = 256;
+
+    private static final BoundedCache<String, AltoWordIndex> CACHE = new BoundedCache<>(1000, Duration.ofMinutes(30));
+
+    private final String[] ids;
+    private final String[] contents;
+    /** SUBS_CONTENT values of hyphenated words; null for all other words */
+    private final String[] subsContents;
+    /** HPOS, VPOS, WIDTH and HEIGHT of each word */
+    private final int[] coords;
+    private final int[] lines;
+
+    private AltoWordIndex(Builder builder) {
+        this.ids = Arrays.copyOf(builder.ids, builder.size);
+        this.contents = Arrays.copyOf(builder.contents, builder.size);
+        this.subsContents = Arrays.copyOf(builder.subsContents, builder.size);
+        this.coords = Arrays.copyOf(builder.coords, builder.size * 4);
+        this.lines = Arrays.copyOf(builder.lines, builder.size);
+    }
+
+    /**
+     * Returns the (cached) word index of the given ALTO file. The cache key includes the modification date and size of the file, so updated files
+     * are indexed anew.
+     *
+     * @param path ALTO file
+     * @return Word index of the file; null if the file contains no words or no pixel coordinates
+     * @throws IOException
+     */
+    public static AltoWordIndex get(Path path) throws IOException {
+        BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+        String key = path.toAbsolutePath() + "|" + attrs.lastModifiedTime().toMillis() + "|" + attrs.size();
+        AltoWordIndex ret = CACHE.get(key);
+        if (ret == null) {
+            try (InputStream is = Files.newInputStream(path)) {
+                ret = parse(is);
+            } catch (XMLStreamException e) {
+                logger.warn("Could not index ALTO file {}: {}", path, e.getMessage());
+                return null;
+            }
+            if (ret == null) {
+                // Nothing to cache; AltoSearchParser must handle this file
+                return null;
+            }
+            CACHE.put(key, ret);
+        }
+        return ret;
+    }
+
+    /**
+     * Reads all words from the given ALTO stream.
+     *
+     * @param is ALTO document
+     * @return Word index; null if the document contains no words or uses a measurement unit other than pixel
+     * @throws XMLStreamException
+     * @should index all words
+     * @should return null if measurement unit not pixel
+     * @should return null if no words
+     */
+    static AltoWordIndex parse(InputStream is) throws XMLStreamException {
+        Builder builder = new Builder();
+        XMLStreamReader parser = ALTOTools.createXmlParser(is);
+        try {
+            int line = -1;
+            while (parser.hasNext()) {
+                if (parser.next() == XMLStreamConstants.START_ELEMENT) {
+                    switch (parser.getLocalName()) {
+                        case ELEMENT_MEASUREMENT_UNIT:
+                            if (!MEASUREMENT_UNIT_PIXEL.equalsIgnoreCase(parser.getElementText().trim())) {
+                                return null;
+                            }
+                            break;
+                        case ELEMENT_TEXTLINE:
+                            line++;
+                            break;
+                        case ELEMENT_STRING:
+                            builder.add(parser, line);
+                            break;
+                        default:
+                            break;
+                    }
+                }
+            }
+        } finally {
+            parser.close();
+        }
+        if (builder.size == 0) {
+            return null;
+        }
+
+        return new AltoWordIndex(builder);
+    }
+
+    /**
+     * Finds all phrases of consecutive words matching the given regex, in the same way as {@link AltoSearchParser#findWordMatches(List, String)}.
+     *
+     * @param regex Regex that must match the complete (hyphenation resolved) content of a word
+     * @return List of matches, each containing the positions of the first and the last word of a phrase
+     * @should find phrases of consecutive matching words
+     */
+    public List<int[]> findMatches(String regex) {
+        Pattern pattern = Pattern.compile(regex);
+        List<int[]> ret = new ArrayList<>();
+        int i = 0;
+        while (i < size()) {
+            if (pattern.matcher(getSubsContent(i)).matches()) {
+                int last = i;
+                while (last + 1 < size() && pattern.matcher(getSubsContent(last + 1)).matches()) {
+                    last++;
+                }
+                ret.add(new int[] { i, last });
+                // The word following a phrase is known not to match
+                i = last + 2;
+            } else {
+                i++;
+            }
+        }
+        return ret;
+    }
+
+    /**
+     *
+     * @return Number of words on the page
+     */
+    public int size() {
+        return contents.length;
+    }
+
+    /**
+     *
+     * @param word Position of the word
+     * @return ID attribute of the word; may be null
+     */
+    public String getId(int word) {
+        return ids[word];
+    }
+
+    /**
+     *
+     * @param word Position of the word
+     * @return CONTENT attribute of the word
+     */
+    public String getContent(int word) {
+        return contents[word];
+    }
+
+    /**
+     *
+     * @param word Position of the word
+     * @return SUBS_CONTENT attribute of the word if it is hyphenated; CONTENT attribute otherwise
+     */
+    public String getSubsContent(int word) {
+        return subsContents[word] != null ? subsContents[word] : contents[word];
+    }
+
+    /**
+     *
+     * @param word Position of the word
+     * @return Coordinates of the word
+     */
+    public Rectangle getBounds(int word) {
+        return new Rectangle(coords[word * 4], coords[word * 4 + 1], coords[word * 4 + 2], coords[word * 4 + 3]);
+    }
+
+    /**
+     * Returns the text of the words preceding the given word on the same line, like {@link AltoSearchParser#getPrecedingText}.
+     *
+     * @param word Position of the word
+     * @param maxLength Length after which no further words are added
+     * @return Preceding text, followed by a space; empty string if the word is the first of its line
+     * @should return preceding words of same line
+     */
+    public String getPrecedingText(int word, int maxLength) {
+        String before = "";
+        for (int i = word - 1; i >= 0 && lines[i] == lines[word] && before.length() < maxLength; --i) {
+            before = getSubsContent(i) + " " + before;
+        }
+        return before;
+    }
+
+    /**
+     * Returns the text of the words succeeding the given word on the same line, like {@link AltoSearchParser#getSucceedingText}.
+     *
+     * @param word Position of the word
+     * @param maxLength Length after which no further words are added
+     * @return Succeeding text, preceded by a space; empty string if the word is the last of its line
+     * @should return succeeding words of same line
+     */
+    public String getSucceedingText(int word, int maxLength) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = word + 1; i < size() && lines[i] == lines[word] && sb.length() < maxLength; ++i) {
+            sb.append(' ').append(getSubsContent(i));
+        }
+        return sb.toString();
+    }
+
+    /**
+     *
+     * @return Hit and miss counts of the index cache
+     */
+    public static Map<String, Long> getStatistics() {
+        Map<String, Long> ret = new HashMap<>();
+        ret.put("size", (long) CACHE.size());
+        ret.put("hits", CACHE.getHits());
+        ret.put("misses", CACHE.getMisses());
+        return ret;
+    }
+
+    /**
+     * Collects words while parsing.
+     */
+    private static class Builder {
+
+        private String[] ids = new String[INITIAL_CAPACITY];
+        private String[] contents = new String[INITIAL_CAPACITY];
+        private String[] subsContents = new String[INITIAL_CAPACITY];
+        private int[] coords = new int[INITIAL_CAPACITY * 4];
+        private int[] lines = new int[INITIAL_CAPACITY];
+        private int size = 0;
+
+        private void add(XMLStreamReader parser, int line) {
+            if (size == contents.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                contents = Arrays.copyOf(contents, capacity);
+                subsContents = Arrays.copyOf(subsContents, capacity);
+                coords = Arrays.copyOf(coords, capacity * 4);
+                lines = Arrays.copyOf(lines, capacity);
+            }
+            ids[size] = parser.getAttributeValue(null, "ID");
+            contents[size] = StringUtils.defaultString(parser.getAttributeValue(null, "CONTENT"));
+            String subsContent = parser.getAttributeValue(null, "SUBS_CONTENT");
+            subsContents[size] = StringUtils.isNotBlank(subsContent) ? subsContent : null;
+            coords[size * 4] = getCoordinate(parser, "HPOS");
+            coords[size * 4 + 1] = getCoordinate(parser, "VPOS");
+            coords[size * 4 + 2] = getCoordinate(parser, "WIDTH");
+            coords[size * 4 + 3] = getCoordinate(parser, "HEIGHT");
+            lines[size] = line;
+            size++;
+        }
+
+        private static int getCoordinate(XMLStreamReader parser, String attribute) {
+            String value = parser.getAttributeValue(null, attribute);
+            if (StringUtils.isBlank(value)) {
+                return 0;
+            }
+            try {
+                return (int) Math.round(Double.parseDouble(value.trim()));
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+    }
+}
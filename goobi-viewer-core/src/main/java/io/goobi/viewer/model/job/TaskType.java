@@ -48,7 +48,9 @@ public enum TaskType {
     /** Delete a resouce previously downloaded by {@link #DOWNLOAD_EXTERNAL_RESOURCE} */
     DELETE_RESOURCE(""),
     /** Pull the git repository of the viewer theme if it exists in the configured location **/
-    PULL_THEME("0 */1 * * * ?");
+    PULL_THEME("0 */1 * * * ?"),
+    /** Write a record, a single page or a CMS page into the hotfolder for re-indexing **/
+    REINDEX_RECORD("");
 
     private final String defaultCronExpression;
 
@@ -25,9 +25,11 @@ package io.goobi.viewer.model.job.mq;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -113,7 +115,19 @@ public class PdfMessageHandler implements MessageHandler<MessageStatus> {
         return MessageStatus.FINISH;
     }
 
-    private static void createPdf(Dataset work, Optional<String> divId, Path pdfFile) throws IOException, ContentLibException {
+    private static void createPdf(Dataset work, Optional<String> divId, Path pdfFile)
+            throws IOException, ContentLibException, PresentationException, IndexUnreachableException {
+        if (DataManager.getInstance().getConfiguration().isAssemblePdfFromPrerenderedPages()) {
+            Optional<List<Path>> pageFiles = PrerenderedPdfAssembler.getPageFiles(work, divId);
+            if (pageFiles.isPresent()) {
+                logger.debug("Assembling {} from {} pre-rendered pages", pdfFile, pageFiles.get().size());
+                try (OutputStream os = Files.newOutputStream(pdfFile)) {
+                    PrerenderedPdfAssembler.concatenate(pageFiles.get(), os);
+                }
+                return;
+            }
+            logger.debug("Pre-rendered pages of {} incomplete, rendering PDF", work.getPi());
+        }
         try (FileOutputStream fos = new FileOutputStream(pdfFile.toFile())) {
             Map<String, String> params = new HashMap<>();
             params.put("metsFile", work.getMetadataFilePath().toString());
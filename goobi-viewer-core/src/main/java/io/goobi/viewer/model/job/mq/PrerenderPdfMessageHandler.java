@@ -26,11 +26,19 @@ import java.io.OutputStream;
 import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -40,6 +48,7 @@ import de.unigoettingen.sub.commons.contentlib.servlet.controller.GetPdfAction;
 import de.unigoettingen.sub.commons.contentlib.servlet.model.ContentServerConfiguration;
 import de.unigoettingen.sub.commons.contentlib.servlet.model.SinglePdfRequest;
 import de.unigoettingen.sub.commons.util.PathConverter;
+import io.goobi.viewer.controller.DataManager;
 import io.goobi.viewer.controller.FileTools;
 import io.goobi.viewer.controller.ProcessDataResolver;
 import io.goobi.viewer.controller.mq.MessageHandler;
@@ -57,17 +66,32 @@ public class PrerenderPdfMessageHandler implements MessageHandler<MessageStatus>
     private static final String MEDIA = "media";
     private static final String ALTO = "alto";
 
+    /** Pages of all messages are rendered on this executor, so that the configured number of threads is a global limit */
+    private static final String EXECUTOR_NAME = "pdf-prerender";
+    private static final int EXECUTOR_QUEUE_SIZE = 1000;
+
     private final ProcessDataResolver processDataResolver;
     private final ContentServerConfiguration contentServerConfiguration;
+    private final int threads;
 
     public PrerenderPdfMessageHandler() {
-        this.processDataResolver = new ProcessDataResolver();
-        this.contentServerConfiguration = ContentServerConfiguration.getInstance();
+        this(new ProcessDataResolver(), ContentServerConfiguration.getInstance(), DataManager.getInstance().getConfiguration().getPdfPrerenderThreads());
     }
 
     public PrerenderPdfMessageHandler(ProcessDataResolver processDataResolver, ContentServerConfiguration contentServerConfiguration) {
+        this(processDataResolver, contentServerConfiguration, 1);
+    }
+
+    /**
+     * 
+     * @param processDataResolver
+     * @param contentServerConfiguration
+     * @param threads Maximum number of pages to render in parallel, across all messages
+     */
+    public PrerenderPdfMessageHandler(ProcessDataResolver processDataResolver, ContentServerConfiguration contentServerConfiguration, int threads) {
         this.processDataResolver = processDataResolver;
         this.contentServerConfiguration = contentServerConfiguration;
+        this.threads = Math.max(1, threads);
     }
 
     @Override
@@ -98,14 +122,18 @@ public class PrerenderPdfMessageHandler implements MessageHandler<MessageStatus>
         Path altoFolder = dataFolders.get(ALTO);
         if (imageFolder != null && pdfFolder != null && Files.exists(imageFolder)) {
             List<Path> imageFiles = FileTools.listFiles(imageFolder, FileTools.IMAGE_NAME_FILTER);
-            List<Path> pdfFiles = FileTools.listFiles(pdfFolder, FileTools.PDF_NAME_FILTER);
             if (imageFiles.isEmpty()) {
                 logger.trace("No images in {}. Abandoning task", imageFolder);
-            } else if (imageFiles.size() == pdfFiles.size() && !force) {
+                return true;
+            }
+            List<Path> staleImageFiles = force ? imageFiles
+                    : imageFiles.stream().filter(imagePath -> isPdfFileStale(imagePath, getPdfPath(imagePath, pdfFolder), altoFolder)).toList();
+            if (staleImageFiles.isEmpty()) {
                 logger.trace("PDF files already exist. Abandoning task");
-            } else {
-                return createPdfFiles(configVariant, pdfFolder, altoFolder, imageFiles);
+                return true;
             }
+            logger.debug("Creating {} of {} PDF files for PI {}", staleImageFiles.size(), imageFiles.size(), pi);
+            return createPdfFiles(configVariant, pdfFolder, altoFolder, staleImageFiles);
         }
         return true;
     }
@@ -119,12 +147,32 @@ public class PrerenderPdfMessageHandler implements MessageHandler<MessageStatus>
                 return false;
             }
         }
-        for (Path imagePath : imageFiles) {
-            if (!createPdfFile(imagePath, pdfFolder, altoFolder, configVariant)) {
-                return false;
+        // Each message has at most as many pages in flight as there are threads, so that concurrent messages share the executor fairly and
+        // don't overflow its queue (in which case pages are rendered in the message thread)
+        ExecutorService executor =
+                DataManager.getInstance().getThreadPoolManager().getBoundedExecutor(EXECUTOR_NAME, threads, EXECUTOR_QUEUE_SIZE);
+        Deque<Future<Boolean>> running = new ArrayDeque<>(threads);
+        boolean success = true;
+        try {
+            for (Path imagePath : imageFiles) {
+                if (running.size() >= threads) {
+                    success &= Boolean.TRUE.equals(running.poll().get());
+                }
+                running.add(executor.submit(() -> createPdfFile(imagePath, pdfFolder, altoFolder, configVariant)));
+            }
+            while (!running.isEmpty()) {
+                success &= Boolean.TRUE.equals(running.poll().get());
             }
+            return success;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            logger.error("Failed to create pdf files. Reason: {}", e.getCause().toString());
+            return false;
+        } finally {
+            running.forEach(f -> f.cancel(true));
         }
-        return true;
     }
 
     private boolean createPdfFile(Path imagePath, Path pdfFolder, Path altoFolder, String configVariant) {
@@ -133,17 +181,66 @@ public class PrerenderPdfMessageHandler implements MessageHandler<MessageStatus>
                 "ignoreCache", "true",
                 "altoSource", Optional.ofNullable(altoFolder).map(f -> PathConverter.toURI(f.toAbsolutePath()).toString()).orElse(""),
                 "imageSource", PathConverter.toURI(imagePath.getParent().toAbsolutePath()).toString());
-        Path pdfPath = pdfFolder.resolve(FileTools.replaceExtension(imagePath.getFileName(), "pdf"));
-        try (OutputStream out = Files.newOutputStream(pdfPath, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
-            SinglePdfRequest request = new SinglePdfRequest(imagePath.toString(), params);
-            new GetPdfAction().writePdf(request, this.contentServerConfiguration, out);
+        Path pdfPath = getPdfPath(imagePath, pdfFolder);
+        // Write to a temporary file first, so that incomplete files are never taken for up to date pages
+        Path tempPath = pdfPath.resolveSibling(pdfPath.getFileName() + ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(tempPath, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                SinglePdfRequest request = new SinglePdfRequest(imagePath.toString(), params);
+                new GetPdfAction().writePdf(request, this.contentServerConfiguration, out);
+            }
+            Files.move(tempPath, pdfPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
         } catch (ContentLibException | IOException | URISyntaxException e) {
             logger.error("Failed to create pdf file {} from {}. Reason: {}", pdfPath, imagePath, e.toString());
+            FileUtils.deleteQuietly(tempPath.toFile());
             return false;
         }
         return true;
     }
 
+    /**
+     * 
+     * @param imagePath Image file
+     * @param pdfFolder Folder containing the single page PDF files
+     * @return Path of the single page PDF file for the given image
+     */
+    static Path getPdfPath(Path imagePath, Path pdfFolder) {
+        return pdfFolder.resolve(FileTools.replaceExtension(imagePath.getFileName(), PDF));
+    }
+
+    /**
+     * Checks whether the given single page PDF file must be (re-)created, i.e. if it doesn't exist yet or is older than the image file or the ALTO
+     * file of the page.
+     *
+     * @param imagePath Image file of the page
+     * @param pdfPath Single page PDF file of the page
+     * @param altoFolder ALTO folder of the record; may be null
+     * @return true if the PDF file is missing or outdated; false otherwise
+     * @should return true if pdf file missing
+     * @should return true if image file newer
+     * @should return true if alto file newer
+     * @should return false if pdf file up to date
+     */
+    static boolean isPdfFileStale(Path imagePath, Path pdfPath, Path altoFolder) {
+        try {
+            if (!Files.isRegularFile(pdfPath)) {
+                return true;
+            }
+            FileTime pdfTime = Files.getLastModifiedTime(pdfPath);
+            if (Files.getLastModifiedTime(imagePath).compareTo(pdfTime) > 0) {
+                return true;
+            }
+            if (altoFolder != null) {
+                Path altoPath = altoFolder.resolve(FileTools.replaceExtension(imagePath.getFileName(), "xml"));
+                return Files.isRegularFile(altoPath) && Files.getLastModifiedTime(altoPath).compareTo(pdfTime) > 0;
+            }
+            return false;
+        } catch (IOException e) {
+            logger.warn("Cannot check modification date of {}: {}", pdfPath, e.toString());
+            return true;
+        }
+    }
+
     @Override
     public String getMessageHandlerName() {
         return TaskType.PRERENDER_PDF.name();
@@ -0,0 +1,149 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.model.job.mq;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.SolrDocumentList;
+
+import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.pdf.PdfCopy;
+import com.lowagie.text.pdf.PdfReader;
+
+import io.goobi.viewer.controller.DataManager;
+import io.goobi.viewer.exceptions.IndexUnreachableException;
+import io.goobi.viewer.exceptions.PresentationException;
+import io.goobi.viewer.model.viewer.Dataset;
+import io.goobi.viewer.model.viewer.StringPair;
+import io.goobi.viewer.solr.SolrConstants;
+import io.goobi.viewer.solr.SolrSearchIndex;
+import io.goobi.viewer.solr.SolrTools;
+
+/**
+ * Assembles record and section PDF files by concatenating the single page PDF files created by {@link PrerenderPdfMessageHandler}, which is much
+ * cheaper than rendering all pages again. Assembled files contain neither a title page nor bookmarks.
+ */
+public final class PrerenderedPdfAssembler {
+
+    private static final Logger logger = LogManager.getLogger(PrerenderedPdfAssembler.class);
+
+    private PrerenderedPdfAssembler() {
+    }
+
+    /**
+     * Returns the pre-rendered single page PDF files of all pages of the given record or section, in page order.
+     *
+     * @param work Record data folders
+     * @param divId Optional logical ID of a section
+     * @return List of single page PDF files; empty optional if the PDF file of any page is missing or outdated
+     * @throws PresentationException
+     * @throws IndexUnreachableException
+     */
+    public static Optional<List<Path>> getPageFiles(Dataset work, Optional<String> divId) throws PresentationException, IndexUnreachableException {
+        if (work.getMediaFolderPath() == null || work.getPdfFolderPath() == null) {
+            return Optional.empty();
+        }
+        StringBuilder query = new StringBuilder();
+        query.append('+').append(SolrConstants.PI_TOPSTRUCT).append(':').append(work.getPi());
+        divId.ifPresent(id -> query.append(" +").append(SolrConstants.LOGID).append(':').append(id));
+        query.append(" +").append(SolrConstants.DOCTYPE).append(":PAGE");
+        SolrDocumentList docs = DataManager.getInstance()
+                .getSearchIndex()
+                .search(query.toString(), SolrSearchIndex.MAX_HITS, Collections.singletonList(new StringPair(SolrConstants.ORDER, "asc")),
+                        Arrays.asList(SolrConstants.ORDER, SolrConstants.FILENAME));
+        if (docs.isEmpty()) {
+            return Optional.empty();
+        }
+
+        List<Path> ret = new ArrayList<>(docs.size());
+        for (SolrDocument doc : docs) {
+            String fileName = SolrTools.getSingleFieldStringValue(doc, SolrConstants.FILENAME);
+            if (StringUtils.isBlank(fileName)) {
+                return Optional.empty();
+            }
+            Path imagePath = work.getMediaFolderPath().resolve(Path.of(fileName).getFileName());
+            Path pdfPath = PrerenderPdfMessageHandler.getPdfPath(imagePath, work.getPdfFolderPath());
+            if (!Files.isRegularFile(imagePath) || PrerenderPdfMessageHandler.isPdfFileStale(imagePath, pdfPath, work.getAltoFolderPath())) {
+                logger.trace("No up to date PDF file for page {} of {}", fileName, work.getPi());
+                return Optional.empty();
+            }
+            ret.add(pdfPath);
+        }
+
+        return Optional.of(ret);
+    }
+
+    /**
+     * Writes all pages of the given PDF files into a single PDF document.
+     *
+     * @param pdfFiles PDF files to concatenate, in order
+     * @param out Stream to write the resulting PDF document to
+     * @throws IOException
+     * @should concatenate all pages in order
+     */
+    public static void concatenate(List<Path> pdfFiles, OutputStream out) throws IOException {
+        if (pdfFiles == null || pdfFiles.isEmpty()) {
+            throw new IllegalArgumentException("pdfFiles may not be empty");
+        }
+        Document document = new Document();
+        try {
+            PdfCopy copy = new PdfCopy(document, out);
+            document.open();
+            for (Path pdfFile : pdfFiles) {
+                PdfReader reader = new PdfReader(pdfFile.toString());
+                try {
+                    for (int i = 1; i <= reader.getNumberOfPages(); ++i) {
+                        copy.addPage(copy.getImportedPage(reader, i));
+                    }
+                    copy.freeReader(reader);
+                } finally {
+                    reader.close();
+                }
+            }
+            document.close();
+        } catch (DocumentException e) {
+            throw new IOException("Failed to concatenate PDF files: " + e.getMessage(), e);
+        } finally {
+            if (document.isOpen()) {
+                // Only after an error
+                try {
+                    document.close();
+                } catch (RuntimeException e) {
+                    logger.trace(e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,386 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.model.maps;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.solr.client.solrj.response.json.HeatmapJsonFacet;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import io.goobi.viewer.controller.BoundedCache;
+import io.goobi.viewer.controller.DataManager;
+import io.goobi.viewer.controller.GeoCoordinateConverter;
+import io.goobi.viewer.exceptions.IndexUnreachableException;
+import io.goobi.viewer.exceptions.PresentationException;
+
+/**
+ * Delivers the geo features matching a query as GeoJSON map tiles, addressed like web map tiles by zoom level and x/y tile coordinates. At low zoom
+ * levels, or if a tile contains too many hits, the hits are aggregated into one cluster feature per cell of a Solr heatmap facet, so a map never
+ * has to load and render more than a bounded number of markers. Individual features are only returned at high zoom levels or for sparsely
+ * populated tiles, and even at high zoom levels a tile is clustered if it contains more than {@link #MAX_TILE_FEATURES} hits. Points belong to
+ * exactly one tile, while polygons are returned in every tile they intersect. Tiles are cached for a while, and cached tiles are discarded once
+ * the index has changed.
+ */
+public class GeoMapTileProvider {
+
+    private static final Logger logger = LogManager.getLogger(GeoMapTileProvider.class);
+
+    /** Highest supported zoom level */
+    public static final int MAX_ZOOM = 22;
+
+    /** Maximum number of hits in a tile for which individual features are returned at or above featureZoom */
+    static final int MAX_TILE_FEATURES = 2000;
+
+    private static final int CACHE_SIZE = 2000;
+    private static final Duration CACHE_TTL = Duration.ofMinutes(10);
+    /** Latitude of the northern edge of the web map tiles, minus a tolerance for rounding errors */
+    private static final double MAX_LATITUDE = getLatitude(0, 1) - 1E-9;
+    private static final String QUERY_EXCLUDE_POLYGONS = "-MD_GEOJSON_POLYGON:* -MD_GPS_POLYGON:*";
+
+    private final int featureZoom;
+    private final int maxFeatures;
+    private final BoundedCache<String, String> cache = new BoundedCache<>(CACHE_SIZE, CACHE_TTL);
+    private final LongAdder clusterTiles = new LongAdder();
+    private final LongAdder featureTiles = new LongAdder();
+
+    /**
+     * Single cell of a heatmap facet.
+     */
+    static final class Cell {
+
+        private final double minLng;
+        private final double minLat;
+        private final double maxLng;
+        private final double maxLat;
+        private final int count;
+
+        Cell(double minLng, double minLat, double maxLng, double maxLat, int count) {
+            this.minLng = minLng;
+            this.minLat = minLat;
+            this.maxLng = maxLng;
+            this.maxLat = maxLat;
+            this.count = count;
+        }
+
+        double getCenterLng() {
+            return (minLng + maxLng) / 2;
+        }
+
+        double getCenterLat() {
+            return (minLat + maxLat) / 2;
+        }
+
+        int getCount() {
+            return count;
+        }
+    }
+
+    /**
+     *
+     * @param featureZoom Zoom level from which on individual features are always returned
+     * @param maxFeatures Maximum number of hits in a tile below featureZoom for which individual features are returned instead of clusters
+     */
+    public GeoMapTileProvider(int featureZoom, int maxFeatures) {
+        this.featureZoom = featureZoom;
+        this.maxFeatures = maxFeatures;
+    }
+
+    /**
+     * Returns the given tile as a GeoJSON feature collection. Features with the property <code>cluster</code> represent the number of hits given in
+     * the property <code>count</code> within the area given in the property <code>bounds</code>.
+     *
+     * @param solrField Solr field containing the spatial coordinates
+     * @param zoom Zoom level
+     * @param x Tile column, counted from the west
+     * @param y Tile row, counted from the north
+     * @param query Query including all required filter suffixes
+     * @param facetQuery Optional filter query
+     * @param labelField Solr field to use as feature label
+     * @return GeoJSON feature collection as {@link String}
+     * @throws PresentationException
+     * @throws IndexUnreachableException
+     * @throws IllegalArgumentException if the tile coordinates are out of range
+     */
+    public String getTile(String solrField, int zoom, int x, int y, String query, String facetQuery, String labelField)
+            throws PresentationException, IndexUnreachableException {
+        double[] bounds = getTileBounds(zoom, x, y);
+        long indexGeneration = DataManager.getInstance().getSearchIndex().getIndexGeneration();
+        String key = new StringBuilder().append(indexGeneration)
+                .append('|')
+                .append(solrField)
+                .append('|')
+                .append(zoom)
+                .append('/')
+                .append(x)
+                .append('/')
+                .append(y)
+                .append('|')
+                .append(query)
+                .append('|')
+                .append(facetQuery)
+                .append('|')
+                .append(labelField)
+                .toString();
+        String ret = cache.get(key);
+        if (ret == null) {
+            ret = buildTile(solrField, zoom, x, y, bounds, query, facetQuery, labelField).toString();
+            cache.put(key, ret);
+            // Tiles from older index generations can never be requested again
+            if (cache.size() == CACHE_SIZE) {
+                String prefix = indexGeneration + "|";
+                cache.removeIf(k -> !k.startsWith(prefix));
+            }
+        }
+
+        return ret;
+    }
+
+    private JSONObject buildTile(String solrField, int zoom, int x, int y, double[] bounds, String query, String facetQuery, String labelField)
+            throws PresentationException, IndexUnreachableException {
+        String region = getWktRegion(bounds);
+        HeatmapJsonFacet heatmap = DataManager.getInstance()
+                .getSearchIndex()
+                .getHeatMapFacet(solrField, region, getHeatmapQuery(query), facetQuery, null);
+        List<Cell> cells = getCells(heatmap, bounds);
+        int count = cells.stream().mapToInt(Cell::getCount).sum();
+
+        JSONObject ret = new JSONObject();
+        ret.put("type", "FeatureCollection");
+        ret.put("zoom", zoom);
+        ret.put("x", x);
+        ret.put("y", y);
+        ret.put("count", count);
+        JSONArray features = new JSONArray();
+        int featureLimit = getFeatureLimit(zoom);
+        boolean clustered = count > featureLimit;
+        if (clustered) {
+            for (Cell cell : cells) {
+                features.put(createClusterFeature(cell));
+            }
+            clusterTiles.increment();
+        } else {
+            // Polygons are not part of the heatmap count, so the tile may contain features even if the count is zero
+            List<String> filterQueries = new ArrayList<>();
+            if (StringUtils.isNotBlank(facetQuery)) {
+                filterQueries.add(facetQuery);
+            }
+            filterQueries.add(solrField + ":" + region);
+            List<String> coordinateFields = DataManager.getInstance().getConfiguration().getGeoMapMarkerFields();
+            // Limit the docs as well, since polygons are not part of the heatmap count
+            for (GeoMapFeature feature : new GeoCoordinateConverter().getFeaturesFromSolrQuery(query, filterQueries, coordinateFields, labelField,
+                    false, featureLimit)) {
+                JSONObject json = feature.getJsonObject();
+                if (isInTile(json, bounds)) {
+                    features.put(json);
+                }
+            }
+            featureTiles.increment();
+        }
+        ret.put("clustered", clustered);
+        ret.put("features", features);
+        logger.trace("Tile {}/{}/{}: {} hits, {} features", zoom, x, y, count, features.length());
+
+        return ret;
+    }
+
+    /**
+     * 
+     * @param zoom
+     * @return Maximum number of hits for which a tile at the given zoom level contains individual features instead of clusters
+     * @should return max features below feature zoom
+     * @should return hard limit from feature zoom on
+     */
+    int getFeatureLimit(int zoom) {
+        if (zoom < featureZoom) {
+            return maxFeatures;
+        }
+        return Math.max(maxFeatures, MAX_TILE_FEATURES);
+    }
+
+    /**
+     * Returns the area of the given web map tile.
+     *
+     * @param zoom
+     * @param x
+     * @param y
+     * @return Array of west longitude, south latitude, east longitude, north latitude
+     * @should return whole world for zoom zero
+     * @should return correct bounds
+     * @should throw IllegalArgumentException if tile out of range
+     */
+    static double[] getTileBounds(int zoom, int x, int y) {
+        if (zoom < 0 || zoom > MAX_ZOOM) {
+            throw new IllegalArgumentException("Zoom level out of range: " + zoom);
+        }
+        int tiles = 1 << zoom;
+        if (x < 0 || x >= tiles || y < 0 || y >= tiles) {
+            throw new IllegalArgumentException("Tile out of range: " + zoom + "/" + x + "/" + y);
+        }
+        return new double[] { getLongitude(x, tiles), getLatitude(y + 1, tiles), getLongitude(x + 1, tiles), getLatitude(y, tiles) };
+    }
+
+    private static double getLongitude(int x, int tiles) {
+        return x * 360.0 / tiles - 180;
+    }
+
+    private static double getLatitude(int y, int tiles) {
+        return Math.toDegrees(Math.atan(Math.sinh(Math.PI * (1 - 2.0 * y / tiles))));
+    }
+
+    /**
+     * Returns a region query for the given bounds. Regions of tiles at the northern or southern edge of the map extend to the poles.
+     *
+     * @param bounds
+     * @return Region query for the given bounds
+     * @should extend edge tiles to poles
+     */
+    static String getWktRegion(double[] bounds) {
+        double minLat = bounds[1] <= -MAX_LATITUDE ? -90 : bounds[1];
+        double maxLat = bounds[3] >= MAX_LATITUDE ? 90 : bounds[3];
+        return "[\"" + bounds[0] + " " + minLat + "\" TO \"" + bounds[2] + " " + maxLat + "\"]";
+    }
+
+    /**
+     * Excludes polygons from the given query, since they would count as hits in every heatmap cell they cover.
+     *
+     * @param query
+     * @return Query for the heatmap
+     */
+    static String getHeatmapQuery(String query) {
+        if (query.startsWith("{!join")) {
+            if (query.endsWith(")")) {
+                return query.substring(0, query.length() - 1) + " " + QUERY_EXCLUDE_POLYGONS + ")";
+            }
+            return query + " " + QUERY_EXCLUDE_POLYGONS;
+        }
+        return "+(" + query + ") +(" + QUERY_EXCLUDE_POLYGONS + " *:*)";
+    }
+
+    /**
+     * Returns all non-empty cells of the given heatmap whose center lies within the given bounds. Heatmap cells may extend beyond the requested
+     * region, so cells are assigned to the tile containing their center to avoid counting them in several tiles.
+     *
+     * @param heatmap
+     * @param bounds
+     * @return List of {@link Cell}s
+     */
+    static List<Cell> getCells(HeatmapJsonFacet heatmap, double[] bounds) {
+        List<Cell> ret = new ArrayList<>();
+        if (heatmap == null || heatmap.getCountGrid() == null) {
+            return ret;
+        }
+        double cellWidth = (heatmap.getMaxX() - heatmap.getMinX()) / heatmap.getNumColumns();
+        double cellHeight = (heatmap.getMaxY() - heatmap.getMinY()) / heatmap.getNumRows();
+        List<List<Integer>> grid = heatmap.getCountGrid();
+        for (int row = 0; row < heatmap.getNumRows(); row++) {
+            List<Integer> gridRow = grid.get(row);
+            if (gridRow == null) {
+                continue;
+            }
+            // Rows are ordered from north to south
+            double maxLat = heatmap.getMaxY() - row * cellHeight;
+            for (int column = 0; column < gridRow.size(); column++) {
+                Integer count = gridRow.get(column);
+                if (count == null || count == 0) {
+                    continue;
+                }
+                double minLng = heatmap.getMinX() + column * cellWidth;
+                Cell cell = new Cell(minLng, maxLat - cellHeight, minLng + cellWidth, maxLat, count);
+                if (contains(bounds, cell.getCenterLng(), cell.getCenterLat())) {
+                    ret.add(cell);
+                }
+            }
+        }
+
+        return ret;
+    }
+
+    private static JSONObject createClusterFeature(Cell cell) {
+        JSONObject geometry = new JSONObject();
+        geometry.put("type", "Point");
+        geometry.put("coordinates", new JSONArray().put(cell.getCenterLng()).put(cell.getCenterLat()));
+        JSONObject properties = new JSONObject();
+        properties.put("cluster", true);
+        properties.put("count", cell.getCount());
+        properties.put("bounds", new JSONArray().put(cell.minLng).put(cell.minLat).put(cell.maxLng).put(cell.maxLat));
+        JSONObject ret = new JSONObject();
+        ret.put("type", "Feature");
+        ret.put("geometry", geometry);
+        ret.put("properties", properties);
+        return ret;
+    }
+
+    /**
+     * Checks whether the given feature belongs to the tile with the given bounds. Points belong to the tile containing them, other geometries to
+     * every tile they intersect.
+     *
+     * @param feature GeoJSON feature
+     * @param bounds
+     * @return true if the feature should be included in the tile; false otherwise
+     * @should return true for point within bounds
+     * @should return false for point outside bounds
+     * @should return true for polygons
+     */
+    static boolean isInTile(JSONObject feature, double[] bounds) {
+        JSONObject geometry = feature.optJSONObject("geometry");
+        if (geometry == null || !"Point".equals(geometry.optString("type"))) {
+            return true;
+        }
+        JSONArray coordinates = geometry.optJSONArray("coordinates");
+        if (coordinates == null || coordinates.length() < 2) {
+            return true;
+        }
+        return contains(bounds, coordinates.optDouble(0), coordinates.optDouble(1));
+    }
+
+    /**
+     * Bounds include their western and southern edges but not their eastern and northern edges, so that each point belongs to exactly one tile.
+     * Tiles at the edges of the map also contain all points beyond these edges.
+     */
+    private static boolean contains(double[] bounds, double lng, double lat) {
+        return (lng >= bounds[0] || bounds[0] <= -180) && (lng < bounds[2] || bounds[2] >= 180) && (lat >= bounds[1] || bounds[1] <= -MAX_LATITUDE)
+                && (lat < bounds[3] || bounds[3] >= MAX_LATITUDE);
+    }
+
+    /**
+     *
+     * @return Cache and tile type counts
+     */
+    public Map<String, Long> getStatistics() {
+        Map<String, Long> ret = new HashMap<>();
+        ret.put("hits", cache.getHits());
+        ret.put("misses", cache.getMisses());
+        ret.put("size", (long) cache.size());
+        ret.put("clusterTiles", clusterTiles.sum());
+        ret.put("featureTiles", featureTiles.sum());
+        return ret;
+    }
+}
@@ -0,0 +1,276 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.model.search;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import io.goobi.viewer.controller.BoundedCache;
+import io.goobi.viewer.controller.DataManager;
+
+/**
+ * Search terms prepared for matching against full-texts and metadata values. Preparing the terms (stopword removal, fuzzy term parsing, pattern
+ * compilation) only depends on the terms themselves, so instances are cached and shared by all hits and fields of a result page.
+ */
+final class CompiledSearchTerms {
+
+    private static final Logger logger = LogManager.getLogger(CompiledSearchTerms.class);
+
+    private static final BoundedCache<String, CompiledSearchTerms> CACHE = new BoundedCache<>(1000, Duration.ofMinutes(10));
+
+    /** Character that cannot occur in search terms, used to join terms into a cache key. */
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    enum MatchType {
+        FUZZY,
+        PROXIMITY,
+        REGULAR;
+    }
+
+    /**
+     * Search term for finding full-text fragments.
+     */
+    static final class FragmentTerm {
+
+        private final String term;
+        private final MatchType type;
+        private final Pattern pattern;
+        private final FuzzySearchTerm fuzzyTerm;
+
+        private FragmentTerm(String term, MatchType type, Pattern pattern, FuzzySearchTerm fuzzyTerm) {
+            this.term = term;
+            this.type = type;
+            this.pattern = pattern;
+            this.fuzzyTerm = fuzzyTerm;
+        }
+
+        /**
+         * @return the term
+         */
+        String getTerm() {
+            return term;
+        }
+
+        /**
+         * @return the type
+         */
+        MatchType getType() {
+            return type;
+        }
+
+        /**
+         * @return Pattern matching the term in lower case text; null for fuzzy terms
+         */
+        Pattern getPattern() {
+            return pattern;
+        }
+
+        /**
+         * @return the fuzzyTerm; null for non-fuzzy terms
+         */
+        FuzzySearchTerm getFuzzyTerm() {
+            return fuzzyTerm;
+        }
+    }
+
+    /**
+     * Search term for highlighting.
+     */
+    static final class HighlightingTerm {
+
+        private final String term;
+        private final String normalizedTerm;
+        private final int maxDistance;
+
+        private HighlightingTerm(String term, String normalizedTerm, int maxDistance) {
+            this.term = term;
+            this.normalizedTerm = normalizedTerm;
+            this.maxDistance = maxDistance;
+        }
+
+        /**
+         * @return the term
+         */
+        String getTerm() {
+            return term;
+        }
+
+        /**
+         * @return the term normalized via {@link SearchHelper#normalizeString(String)}
+         */
+        String getNormalizedTerm() {
+            return normalizedTerm;
+        }
+
+        /**
+         * @return the maxDistance
+         */
+        int getMaxDistance() {
+            return maxDistance;
+        }
+    }
+
+    private final List<FragmentTerm> fragmentTerms;
+    private final List<HighlightingTerm> highlightingTerms;
+
+    /**
+     * 
+     * @param terms
+     * @param proximitySearchDistance
+     */
+    private CompiledSearchTerms(Set<String> terms, int proximitySearchDistance) {
+        this.fragmentTerms = Collections.unmodifiableList(compileFragmentTerms(terms, proximitySearchDistance));
+        this.highlightingTerms = Collections.unmodifiableList(compileHighlightingTerms(terms));
+    }
+
+    /**
+     * Returns the compiled version of the given terms, creating it if necessary.
+     *
+     * @param terms Search terms
+     * @param proximitySearchDistance
+     * @return {@link CompiledSearchTerms}
+     * @should return same instance for equal terms
+     * @should keep term order
+     */
+    static CompiledSearchTerms get(Set<String> terms, int proximitySearchDistance) {
+        StringBuilder sbKey = new StringBuilder().append(proximitySearchDistance);
+        for (String term : terms) {
+            sbKey.append(KEY_SEPARATOR).append(term);
+        }
+        String key = sbKey.toString();
+        CompiledSearchTerms ret = CACHE.get(key);
+        if (ret == null) {
+            ret = new CompiledSearchTerms(terms, proximitySearchDistance);
+            CACHE.put(key, ret);
+        }
+
+        return ret;
+    }
+
+    /**
+     * 
+     * @param terms
+     * @param proximitySearchDistance
+     * @return List of {@link FragmentTerm}s
+     */
+    private static List<FragmentTerm> compileFragmentTerms(Set<String> terms, int proximitySearchDistance) {
+        List<FragmentTerm> ret = new ArrayList<>(terms.size());
+        for (final String term : terms) {
+            if (term.length() == 0) {
+                continue;
+            }
+            String searchTerm = SearchHelper.removeTruncation(term);
+            // Stopwords do not get pre-filtered out when doing a phrase search
+            if (searchTerm.contains(" ")) {
+                for (String stopword : DataManager.getInstance().getConfiguration().getStopwords()) {
+                    if (searchTerm.startsWith(stopword + " ") || searchTerm.endsWith(" " + stopword)) {
+                        logger.trace("filtered out stopword '{}' from term '{}'", stopword, searchTerm);
+                        searchTerm = searchTerm.replace(stopword, "").trim();
+                    }
+                }
+            }
+            if (searchTerm.length() > 1 && searchTerm.endsWith("*") || searchTerm.endsWith("?")) {
+                searchTerm = searchTerm.substring(0, searchTerm.length() - 1);
+            }
+            if (searchTerm.isEmpty()) {
+                continue;
+            }
+            if (searchTerm.length() > 1 && searchTerm.charAt(0) == '*' || searchTerm.charAt(0) == '?') {
+                searchTerm = searchTerm.substring(1);
+            }
+            // Terms with inner wildcards cannot be matched; no further terms are checked after such a term
+            if (searchTerm.contains("*") || searchTerm.contains("?")) {
+                break;
+            }
+            if (FuzzySearchTerm.isFuzzyTerm(searchTerm)) {
+                ret.add(new FragmentTerm(searchTerm, MatchType.FUZZY, null, new FuzzySearchTerm(searchTerm)));
+            } else if (proximitySearchDistance > 0 && searchTerm.contains(" ")) {
+                String regex = SearchHelper.buildProximitySearchRegexPattern(searchTerm, proximitySearchDistance);
+                if (regex != null) {
+                    ret.add(new FragmentTerm(searchTerm, MatchType.PROXIMITY, Pattern.compile(regex), null));
+                }
+            } else {
+                ret.add(new FragmentTerm(searchTerm, MatchType.REGULAR, compileRegularTermPattern(searchTerm), null));
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * 
+     * @param searchTerm
+     * @return Compiled pattern for searchTerm in lower case
+     */
+    private static Pattern compileRegularTermPattern(String searchTerm) {
+        try {
+            return Pattern.compile(searchTerm.toLowerCase());
+        } catch (PatternSyntaxException e) {
+            // Match the term literally if it contains unbalanced special characters
+            return Pattern.compile(Pattern.quote(searchTerm.toLowerCase()));
+        }
+    }
+
+    /**
+     * 
+     * @param terms
+     * @return List of {@link HighlightingTerm}s
+     */
+    private static List<HighlightingTerm> compileHighlightingTerms(Set<String> terms) {
+        List<HighlightingTerm> ret = new ArrayList<>(terms.size());
+        for (final String t : terms) {
+            //remove fuzzy search suffix
+            FuzzySearchTerm fuzzyTerm = new FuzzySearchTerm(t);
+            String term = fuzzyTerm.getTerm();
+            // Highlighting single-character terms can take a long time, so skip them
+            if (term.length() < 2) {
+                continue;
+            }
+            term = SearchHelper.removeTruncation(term);
+            ret.add(new HighlightingTerm(term, SearchHelper.normalizeString(term), fuzzyTerm.getMaxDistance()));
+        }
+
+        return ret;
+    }
+
+    /**
+     * @return the fragmentTerms
+     */
+    List<FragmentTerm> getFragmentTerms() {
+        return fragmentTerms;
+    }
+
+    /**
+     * @return the highlightingTerms
+     */
+    List<HighlightingTerm> getHighlightingTerms() {
+        return highlightingTerms;
+    }
+}
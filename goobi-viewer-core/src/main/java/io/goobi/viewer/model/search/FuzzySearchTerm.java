@@ -21,6 +21,8 @@
  */
 package io.goobi.viewer.model.search;
 
+import java.util.regex.Pattern;
+
 import org.apache.commons.lang3.StringUtils;
 
 import io.goobi.viewer.controller.DamerauLevenshtein;
@@ -61,11 +63,17 @@ public class FuzzySearchTerm {
      */
     public static final String WORD_SURROUNDED_BY_OTHER_CHARACTERS = NOT_WORD_PATTERN + "(" + WORD_PATTERN + ")" + NOT_WORD_PATTERN;
 
+    private static final Pattern PATTERN_FUZZY_TERM = Pattern.compile("[*]{0,1}" + WORD_PATTERN + "[*]{0,1}~\\d");
+    private static final Pattern PATTERN_WORD_SURROUNDED_BY_OTHER_CHARACTERS = Pattern.compile(WORD_SURROUNDED_BY_OTHER_CHARACTERS);
+    private static final Pattern PATTERN_HYPHENATION = Pattern.compile("[⸗¬-]");
+
     private final String fullTerm;
     private final String term;
     private final boolean wildcardFront;
     private final boolean wildcardBack;
     private final int maxDistance;
+    /** Cleaned-up term, as compared against words in {@link #matches(String)} */
+    private final String cleanedTerm;
 
     public FuzzySearchTerm(String term) {
         this.fullTerm = term;
@@ -82,6 +90,7 @@ public class FuzzySearchTerm {
             wildcardBack = this.fullTerm.endsWith("*");
         }
         wildcardFront = this.fullTerm.startsWith("*");
+        cleanedTerm = cleanup(this.term);
     }
 
     public String getFullTerm() {
@@ -105,7 +114,7 @@ public class FuzzySearchTerm {
     }
 
     public static boolean isFuzzyTerm(String term) {
-        return term.matches("[*]{0,1}" + WORD_PATTERN + "[*]{0,1}~\\d");
+        return PATTERN_FUZZY_TERM.matcher(term).matches();
     }
 
     /**
@@ -116,22 +125,20 @@ public class FuzzySearchTerm {
      */
     public boolean matches(final String text) {
         String t = cleanup(text);
-        String termToMatch = cleanup(this.term);
+        String termToMatch = this.cleanedTerm;
         if ((wildcardFront || wildcardBack) && t.length() >= termToMatch.length() - this.maxDistance) {
             for (int pos = 0; pos < t.length() - (termToMatch.length() - this.maxDistance); pos++) {
                 for (int length = termToMatch.length() - this.maxDistance; length <= Math.min(t.length() - pos,
                         termToMatch.length() + maxDistance); length++) {
                     String subString = t.substring(pos, pos + length);
-                    int distance = new DamerauLevenshtein(subString, termToMatch).getSimilarity();
-                    if (distance <= maxDistance) {
+                    if (DamerauLevenshtein.isWithinDistance(subString, termToMatch, maxDistance)) {
                         return true;
                     }
                 }
             }
             return false;
         } else if (Math.abs(t.length() - termToMatch.length()) <= this.maxDistance) {
-            int distance = new DamerauLevenshtein(t, termToMatch).getSimilarity();
-            return distance <= maxDistance;
+            return DamerauLevenshtein.isWithinDistance(t, termToMatch, maxDistance);
         } else {
             return false;
         }
@@ -149,8 +156,8 @@ public class FuzzySearchTerm {
             ret = StringTools.removeDiacriticalMarks(ret);
             ret = StringTools.replaceCharacterVariants(ret);
             ret = ret.toLowerCase();
-            ret =
-                    ret.replaceAll(WORD_SURROUNDED_BY_OTHER_CHARACTERS, "$1"); //NOSONAR removes anything before and after the word, backtracking save
+            ret = PATTERN_WORD_SURROUNDED_BY_OTHER_CHARACTERS.matcher(ret)
+                    .replaceAll("$1"); //NOSONAR removes anything before and after the word, backtracking save
         }
 
         return ret;
@@ -162,7 +169,7 @@ public class FuzzySearchTerm {
      * @return Cleaned-up text
      */
     private static String cleanHyphenations(String text) {
-        return text.replaceAll("[⸗¬-]", "");
+        return PATTERN_HYPHENATION.matcher(text).replaceAll("");
     }
 
     public static int calculateOptimalDistance(String term) {
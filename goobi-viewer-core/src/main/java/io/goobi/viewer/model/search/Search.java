@@ -36,6 +36,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -171,6 +172,9 @@ public class Search implements Serializable {
     /** Metadata configuration list type (default is "searchHit") */
     @Transient
     private String metadataListType = Configuration.METADATA_LIST_TYPE_SEARCH_HIT;
+    /** Time in milliseconds spent in each query phase of the last execution */
+    @Transient
+    private Map<String, Long> queryTimings = Collections.emptyMap();
 
     /**
      * Empty constructor for JPA.
@@ -375,41 +379,106 @@ public class Search implements Serializable {
                 SearchHelper.buildFinalQuery(currentQuery + subElementQueryFilterSuffix, true, aggregationType);
         logger.debug("Final main query: {}", finalQuery);
 
-        // Search without active facets to determine range facets min/max
-        populateRanges(finalQuery, facets, resultGroups.size() == 1 ? resultGroups.get(0) : null, params);
-        // Search without active facets to populate unfiltered facets
-        populateUnfilteredFacets(finalQuery, facets, resultGroups.size() == 1 ? resultGroups.get(0) : null, params, locale);
+        // The facet, range and hit count queries don't depend on each other and are dispatched concurrently. The hits are loaded in the calling
+        // thread in the meantime, since loading them requires the request context.
+        SearchQueryDispatcher dispatcher = SearchQueryDispatcher.create();
+        try {
+            SearchResultGroup filterResultGroup = resultGroups.size() == 1 ? resultGroups.get(0) : null;
+            // Search without active facets to determine range facets min/max
+            List<String> rangeFacetFields = DataManager.getInstance().getConfiguration().getRangeFacetFields();
+            Future<QueryResponse> rangesResponse = submitRangesQuery(dispatcher, finalQuery, facets, rangeFacetFields, filterResultGroup, params);
+            // Search without active facets to populate unfiltered facets
+            List<String> unfilteredFacetFields = getUnfilteredFacetFields();
+            Future<QueryResponse> unfilteredFacetsResponse =
+                    submitUnfilteredFacetsQuery(dispatcher, finalQuery, unfilteredFacetFields, filterResultGroup, params);
+
+            logger.trace("result groups: {}", this.resultGroups.size());
+            List<ResultGroupQueries> allResultGroupQueries = new ArrayList<>(this.resultGroups.size());
+            for (SearchResultGroup resultGroup : this.resultGroups) {
+                allResultGroupQueries.add(submitResultGroupQueries(dispatcher, resultGroup, currentQuery, finalQuery, subElementQueryFilterSuffix,
+                        activeFacetFilterQueries, params, facets, locale));
+            }
+
+            for (int i = 0; i < allResultGroupQueries.size(); ++i) {
+                ResultGroupQueries resultGroupQueries = allResultGroupQueries.get(i);
+                // Load hits for the current page while the count and facet queries are still running
+                int useHitsPerPage = getHitsPerPage(resultGroupQueries.resultGroup, hitsPerPage);
+                if (page <= 0) {
+                    page = 1;
+                }
+                int from = (page - 1) * useHitsPerPage;
+                List<SearchHit> foundHits =
+                        searchHits(dispatcher, resultGroupQueries, finalQuery, from, useHitsPerPage, searchTerms, keepSolrDoc, aggregationType);
+
+                if (i == 0) {
+                    populateRanges(dispatcher.await(rangesResponse), facets, rangeFacetFields);
+                    populateUnfilteredFacets(dispatcher.await(unfilteredFacetsResponse), facets, unfilteredFacetFields, locale);
+                }
 
-        logger.trace("result groups: {}", this.resultGroups.size());
-        for (SearchResultGroup resultGroup : this.resultGroups) {
-            searchResultGroup(resultGroup, currentQuery, finalQuery, subElementQueryFilterSuffix, activeFacetFilterQueries, params, searchTerms,
-                    facets, hitsPerPage, locale, keepSolrDoc, aggregationType);
+                searchResultGroup(dispatcher, resultGroupQueries, facets, locale);
+                if (resultGroupQueries.resultGroup.getHitsCount() == 0) {
+                    continue;
+                }
+
+                int lastPage = getLastPage(useHitsPerPage);
+                if (page > lastPage) {
+                    page = lastPage;
+                    // Requested page is out of range, load the hits for the last page instead
+                    if ((page - 1) * useHitsPerPage != from) {
+                        foundHits = searchHits(dispatcher, resultGroupQueries, finalQuery, (page - 1) * useHitsPerPage, useHitsPerPage, searchTerms,
+                                keepSolrDoc, aggregationType);
+                    }
+                }
+                resultGroupQueries.resultGroup.getHits().addAll(foundHits);
+            }
+        } finally {
+            dispatcher.cancelAll();
+            queryTimings = dispatcher.getTimings();
+            logger.debug("Search query timings (ms): {}", queryTimings);
+        }
+    }
+
+    /**
+     * Queries submitted for a single result group, along with the parameters required for the hit query.
+     */
+    private static class ResultGroupQueries {
+
+        private final SearchResultGroup resultGroup;
+        private final List<String> allFilterQueries;
+        private final Map<String, String> params;
+        private Future<QueryResponse> subElementFacetsResponse;
+        private Future<QueryResponse> hitCountResponse;
+
+        /**
+         * 
+         * @param resultGroup
+         * @param allFilterQueries
+         * @param params
+         */
+        ResultGroupQueries(SearchResultGroup resultGroup, List<String> allFilterQueries, Map<String, String> params) {
+            this.resultGroup = resultGroup;
+            this.allFilterQueries = allFilterQueries;
+            this.params = params;
         }
     }
 
     /**
+     * Submits the child element facet query and the hit count + facet query for the given result group.
      * 
+     * @param dispatcher
      * @param resultGroup
      * @param currentQuery
      * @param finalQuery
      * @param subElementQueryFilterSuffix
      * @param activeFacetFilterQueries
      * @param params
-     * @param searchTerms
      * @param facets
-     * @param hitsPerPage
      * @param locale
-     * @param keepSolrDoc
-     * @param aggregationType
-     * @throws PresentationException
-     * @throws IndexUnreachableException
-     * @throws DAOException
-     * @throws ViewerConfigurationException
+     * @return {@link ResultGroupQueries}
      */
-    void searchResultGroup(SearchResultGroup resultGroup, String currentQuery, String finalQuery, String subElementQueryFilterSuffix,
-            List<String> activeFacetFilterQueries, Map<String, String> params, Map<String, Set<String>> searchTerms, SearchFacets facets,
-            final int hitsPerPage, Locale locale, boolean keepSolrDoc, SearchAggregationType aggregationType)
-            throws PresentationException, IndexUnreachableException, DAOException, ViewerConfigurationException {
+    private ResultGroupQueries submitResultGroupQueries(SearchQueryDispatcher dispatcher, SearchResultGroup resultGroup, String currentQuery,
+            String finalQuery, String subElementQueryFilterSuffix, List<String> activeFacetFilterQueries, Map<String, String> params,
+            SearchFacets facets, Locale locale) {
         logger.trace("Result group: {}", resultGroup.getName());
 
         // Remove previous results
@@ -446,18 +515,77 @@ public class Search implements Serializable {
             allFilterQueries.add(resultGroup.getQuery());
         }
 
+        // The base params are shared by concurrently running queries and must not be modified
+        ResultGroupQueries ret = new ResultGroupQueries(resultGroup, allFilterQueries, new HashMap<>(params));
+
         // Extra search for child element facet values
-        if (!facets.getConfiguredSubelementFacetFields().isEmpty()) {
+        List<String> subElementFacetFields = facets.getConfiguredSubelementFacetFields();
+        if (!subElementFacetFields.isEmpty()) {
             String extraQuery =
                     new StringBuilder().append(SearchHelper.buildFinalQuery(currentQuery, false, SearchAggregationType.NO_AGGREGATION))
                             .append(subElementQueryFilterSuffix)
                             .toString();
             logger.trace("extra query: {}", extraQuery);
-            QueryResponse resp = DataManager.getInstance()
+            ret.subElementFacetsResponse = dispatcher.submit(SearchQueryDispatcher.PHASE_SUBELEMENT_FACETS, () -> DataManager.getInstance()
                     .getSearchIndex()
-                    .search(extraQuery, 0, 0, null, facets.getConfiguredSubelementFacetFields(),
-                            Collections.singletonList(SolrConstants.IDDOC),
-                            allFilterQueries, params);
+                    .search(extraQuery, 0, 0, null, subElementFacetFields, Collections.singletonList(SolrConstants.IDDOC), allFilterQueries,
+                            params));
+            // Child element facets are collected from the extra search
+            allFacetFields.removeAll(subElementFacetFields);
+        }
+
+        List<String> fieldList = Arrays.asList(SolrConstants.IDDOC);
+        int maxResults = 0;
+        if (facets.getGeoFacetting().isActive()) {
+            fieldList = Arrays.asList(SolrConstants.IDDOC, SolrConstants.WKT_COORDS, SolrConstants.LABEL, SolrConstants.PI_TOPSTRUCT,
+                    SolrConstants.ISANCHOR, SolrConstants.DOCSTRCT, SolrConstants.DOCTYPE, SolrConstants.BOOL_IMAGEAVAILABLE,
+                    SolrConstants.MIMETYPE);
+            // Heatmap and tiles are loaded by the map itself
+            boolean loadedByMap = DataManager.getInstance().getConfiguration().useHeatmapForFacetting()
+                    || DataManager.getInstance().getConfiguration().useTilesForFacetting();
+            maxResults = loadedByMap ? 0 : 100000; // limit max docs to avoid OOM
+        }
+
+        // Search for hit count + facets
+        final List<String> useFieldList = fieldList;
+        final int useMaxResults = maxResults;
+        ret.hitCountResponse = dispatcher.submit(SearchQueryDispatcher.PHASE_HIT_COUNT, () -> DataManager.getInstance()
+                .getSearchIndex()
+                .search(finalQuery, 0, useMaxResults, null, allFacetFields, useFieldList, allFilterQueries, params));
+
+        // Expand query (child hits)
+        String useExpandQuery = "";
+        if (StringUtils.isNotEmpty(expandQuery)) {
+            // Search for child hits only if initial search query is not empty (empty query means collection listing)
+            useExpandQuery = expandQuery + subElementQueryFilterSuffix;
+        } else if (!allFilterQueries.isEmpty() && DataManager.getInstance().getConfiguration().isUseFacetsAsExpandQuery()) {
+            // If explicitly configured to use facets for expand query to produce child hits
+            useExpandQuery = SearchHelper.buildExpandQueryFromFacets(allFilterQueries,
+                    DataManager.getInstance().getConfiguration().getAllowedFacetsForExpandQuery());
+        }
+        if (StringUtils.isNotEmpty(useExpandQuery)) {
+            logger.trace("Expand query: {}", useExpandQuery);
+            ret.params.putAll(SearchHelper.getExpandQueryParams(useExpandQuery));
+        }
+
+        return ret;
+    }
+
+    /**
+     * Collects the child element facets, hit count and facets for the given result group from the submitted queries.
+     * 
+     * @param dispatcher
+     * @param resultGroupQueries
+     * @param facets
+     * @param locale
+     * @throws PresentationException
+     * @throws IndexUnreachableException
+     */
+    private void searchResultGroup(SearchQueryDispatcher dispatcher, ResultGroupQueries resultGroupQueries, SearchFacets facets, Locale locale)
+            throws PresentationException, IndexUnreachableException {
+        SearchResultGroup resultGroup = resultGroupQueries.resultGroup;
+        if (resultGroupQueries.subElementFacetsResponse != null) {
+            QueryResponse resp = dispatcher.await(resultGroupQueries.subElementFacetsResponse);
             if (resp != null && resp.getFacetFields() != null) {
                 // logger.trace("hits: {}", resp.getResults().getNumFound()); //NOSONAR Debug
                 for (FacetField facetField : resp.getFacetFields()) {
@@ -481,25 +609,12 @@ public class Search implements Serializable {
                                                             .contains(fieldName),
                                                     DataManager.getInstance().getConfiguration().getGroupToLengthForFacetField(fieldName),
                                                     locale, facets.getLabelMap()));
-                    allFacetFields.remove(facetField.getName());
                 }
             }
-
-        }
-
-        List<String> fieldList = Arrays.asList(SolrConstants.IDDOC);
-        int maxResults = 0;
-        if (facets.getGeoFacetting().isActive()) {
-            fieldList = Arrays.asList(SolrConstants.IDDOC, SolrConstants.WKT_COORDS, SolrConstants.LABEL, SolrConstants.PI_TOPSTRUCT,
-                    SolrConstants.ISANCHOR, SolrConstants.DOCSTRCT, SolrConstants.DOCTYPE, SolrConstants.BOOL_IMAGEAVAILABLE,
-                    SolrConstants.MIMETYPE);
-            maxResults = DataManager.getInstance().getConfiguration().useHeatmapForFacetting() ? 0 : 100000; // limit max docs to avoid OOM
         }
 
-        // Search for hit count + facets
-        QueryResponse resp = DataManager.getInstance()
-                .getSearchIndex()
-                .search(finalQuery, 0, maxResults, null, allFacetFields, fieldList, allFilterQueries, params);
+        // Hit count + facets
+        QueryResponse resp = dispatcher.await(resultGroupQueries.hitCountResponse);
         if (resp.getResults() != null) {
             resultGroup.setHitsCount(resp.getResults().getNumFound());
             logger.trace("Pre-grouping search hits: {}", resultGroup.getHitsCount());
@@ -556,69 +671,78 @@ public class Search implements Serializable {
                                         facets.getLabelMap()));
             }
         }
+    }
 
+    /**
+     * 
+     * @param resultGroup
+     * @param hitsPerPage
+     * @return Number of hits to display for the given result group
+     */
+    private int getHitsPerPage(SearchResultGroup resultGroup, int hitsPerPage) {
         // If this is a group preview, use the group's configured hit count instead of paginator hits per page
-        int useHitsPerPage = hitsPerPage;
-        if (resultGroups.size() > 1 && resultGroup.getPreviewHitCount() > 0 && resultGroup.getPreviewHitCount() < useHitsPerPage) {
-            useHitsPerPage = resultGroup.getPreviewHitCount();
-        }
-
-        int lastPage = getLastPage(useHitsPerPage);
-        if (page <= 0) {
-            page = 1;
-        } else if (page > lastPage) {
-            page = lastPage;
+        if (resultGroups.size() > 1 && resultGroup.getPreviewHitCount() > 0 && resultGroup.getPreviewHitCount() < hitsPerPage) {
+            return resultGroup.getPreviewHitCount();
         }
 
-        // Hits for the current page
-        int from = (page - 1) * useHitsPerPage;
-
-        // Expand query (child hits)
-        String useExpandQuery = "";
-        if (StringUtils.isNotEmpty(expandQuery)) {
-            // Search for child hits only if initial search query is not empty (empty query means collection listing)
-            useExpandQuery = expandQuery + subElementQueryFilterSuffix;
-        } else if (!allFilterQueries.isEmpty() && DataManager.getInstance().getConfiguration().isUseFacetsAsExpandQuery()) {
-            // If explicitly configured to use facets for expand query to produce child hits
-            useExpandQuery = SearchHelper.buildExpandQueryFromFacets(allFilterQueries,
-                    DataManager.getInstance().getConfiguration().getAllowedFacetsForExpandQuery());
-        }
-        if (StringUtils.isNotEmpty(useExpandQuery)) {
-            logger.trace("Expand query: {}", useExpandQuery);
-            params.putAll(SearchHelper.getExpandQueryParams(useExpandQuery));
-        }
+        return hitsPerPage;
+    }
 
-        List<StringPair> useSortFields = getAllSortFields();
-        List<SearchHit> foundHits = Collections.emptyList();
-        // Actual hits for listing
-        if (SearchAggregationType.AGGREGATE_TO_TOPSTRUCT.equals(aggregationType)) {
-            foundHits = SearchHelper.searchWithAggregation(finalQuery, from,
-                    useHitsPerPage, useSortFields, null, allFilterQueries, params,
-                    searchTerms, null, metadataListType, BeanUtils.getLocale(), keepSolrDoc, proximitySearchDistance);
-        } else if (SearchAggregationType.NO_AGGREGATION.equals(aggregationType)) {
-            foundHits = SearchHelper.searchWithFulltext(finalQuery, from, useHitsPerPage, useSortFields, null, allFilterQueries, params,
-                    searchTerms, null, BeanUtils.getLocale(), BeanUtils.getRequest(), keepSolrDoc, proximitySearchDistance);
+    /**
+     * Loads the actual hits for listing in the calling thread.
+     * 
+     * @param dispatcher
+     * @param resultGroupQueries
+     * @param finalQuery
+     * @param from
+     * @param hitsPerPage
+     * @param searchTerms
+     * @param keepSolrDoc
+     * @param aggregationType
+     * @return List<SearchHit>
+     * @throws PresentationException
+     * @throws IndexUnreachableException
+     * @throws DAOException
+     * @throws ViewerConfigurationException
+     */
+    private List<SearchHit> searchHits(SearchQueryDispatcher dispatcher, ResultGroupQueries resultGroupQueries, String finalQuery, int from,
+            int hitsPerPage, Map<String, Set<String>> searchTerms, boolean keepSolrDoc, SearchAggregationType aggregationType)
+            throws PresentationException, IndexUnreachableException, DAOException, ViewerConfigurationException {
+        long start = System.nanoTime();
+        try {
+            List<StringPair> useSortFields = getAllSortFields();
+            if (SearchAggregationType.AGGREGATE_TO_TOPSTRUCT.equals(aggregationType)) {
+                return SearchHelper.searchWithAggregation(finalQuery, from, hitsPerPage, useSortFields, null, resultGroupQueries.allFilterQueries,
+                        resultGroupQueries.params, searchTerms, null, metadataListType, BeanUtils.getLocale(), keepSolrDoc, proximitySearchDistance);
+            } else if (SearchAggregationType.NO_AGGREGATION.equals(aggregationType)) {
+                return SearchHelper.searchWithFulltext(finalQuery, from, hitsPerPage, useSortFields, null, resultGroupQueries.allFilterQueries,
+                        resultGroupQueries.params, searchTerms, null, BeanUtils.getLocale(), BeanUtils.getRequest(), keepSolrDoc,
+                        proximitySearchDistance);
+            }
+            return Collections.emptyList();
+        } finally {
+            dispatcher.recordTiming(SearchQueryDispatcher.PHASE_HITS, start);
         }
-
-        resultGroup.getHits().addAll(foundHits);
     }
 
     /**
-     * Populates slider ranges for ranged facets.
+     * Submits the query for the slider ranges of ranged facets.
      * 
+     * @param dispatcher
      * @param finalQuery
      * @param facets
+     * @param rangeFacetFields
      * @param resultGroup Active result group for optional filtering
      * @param params
-     * @throws PresentationException
-     * @throws IndexUnreachableException
+     * @return {@link Future} for the query response; null if no range facet fields are configured
      */
-    private void populateRanges(String finalQuery, SearchFacets facets, SearchResultGroup resultGroup, Map<String, String> params)
-            throws PresentationException, IndexUnreachableException {
-        logger.trace("populateRanges");
-        List<String> rangeFacetFields = DataManager.getInstance().getConfiguration().getRangeFacetFields();
-        List<String> activeFilterQueries = facets.generateFacetFilterQueries(false);
+    private Future<QueryResponse> submitRangesQuery(SearchQueryDispatcher dispatcher, String finalQuery, SearchFacets facets,
+            List<String> rangeFacetFields, SearchResultGroup resultGroup, Map<String, String> params) {
+        if (rangeFacetFields.isEmpty()) {
+            return null;
+        }
 
+        List<String> activeFilterQueries = facets.generateFacetFilterQueries(false);
         if (StringUtils.isNotEmpty(customFilterQuery)) {
             activeFilterQueries.add(customFilterQuery);
         }
@@ -626,9 +750,20 @@ public class Search implements Serializable {
             activeFilterQueries.add(resultGroup.getQuery());
         }
 
-        QueryResponse resp = DataManager.getInstance()
+        return dispatcher.submit(SearchQueryDispatcher.PHASE_RANGES, () -> DataManager.getInstance()
                 .getSearchIndex()
-                .search(finalQuery, 0, 0, null, rangeFacetFields, Collections.singletonList(SolrConstants.IDDOC), activeFilterQueries, params);
+                .search(finalQuery, 0, 0, null, rangeFacetFields, Collections.singletonList(SolrConstants.IDDOC), activeFilterQueries, params));
+    }
+
+    /**
+     * Populates slider ranges for ranged facets.
+     * 
+     * @param resp Response of the ranges query
+     * @param facets
+     * @param rangeFacetFields
+     */
+    private static void populateRanges(QueryResponse resp, SearchFacets facets, List<String> rangeFacetFields) {
+        logger.trace("populateRanges");
         if (resp == null || resp.getFacetFields() == null) {
             logger.trace("No facet fields");
             return;
@@ -658,26 +793,36 @@ public class Search implements Serializable {
     }
 
     /**
-     * Populates facets that are applied to a raw, unfiltered search, such as total slider range and permanently displayed facets.
      * 
-     * @param finalQuery
-     * @param facets
-     * @param resultGroup
-     * @param params
-     * @param locale
-     * @throws PresentationException
-     * @throws IndexUnreachableException
+     * @return Facet fields with alwaysApplyToUnfilteredHits=true
      */
-    private void populateUnfilteredFacets(String finalQuery, SearchFacets facets, SearchResultGroup resultGroup, Map<String, String> params,
-            Locale locale) throws PresentationException, IndexUnreachableException {
-        List<String> unfilteredFacetFields = new ArrayList<>();
-        // Collect facet fields with alwaysApplyToUnfilteredHits=true
+    private static List<String> getUnfilteredFacetFields() {
+        List<String> ret = new ArrayList<>();
         for (String field : DataManager.getInstance().getConfiguration().getAllFacetFields()) {
             if (DataManager.getInstance().getConfiguration().isAlwaysApplyFacetFieldToUnfilteredHits(field)) {
-                unfilteredFacetFields.add(SearchHelper.facetifyField(field));
+                ret.add(SearchHelper.facetifyField(field));
             }
         }
 
+        return ret;
+    }
+
+    /**
+     * Submits the query for facets that are applied to a raw, unfiltered search.
+     * 
+     * @param dispatcher
+     * @param finalQuery
+     * @param unfilteredFacetFields
+     * @param resultGroup
+     * @param params
+     * @return {@link Future} for the query response; null if no such facet fields are configured
+     */
+    private Future<QueryResponse> submitUnfilteredFacetsQuery(SearchQueryDispatcher dispatcher, String finalQuery, List<String> unfilteredFacetFields,
+            SearchResultGroup resultGroup, Map<String, String> params) {
+        if (unfilteredFacetFields.isEmpty()) {
+            return null;
+        }
+
         List<String> activeFilterQueries = new ArrayList<>(2);
         if (StringUtils.isNotEmpty(customFilterQuery)) {
             activeFilterQueries.add(customFilterQuery);
@@ -687,10 +832,21 @@ public class Search implements Serializable {
         }
 
         logger.trace("final query: {}", finalQuery);
-        QueryResponse resp = DataManager.getInstance()
+        return dispatcher.submit(SearchQueryDispatcher.PHASE_UNFILTERED_FACETS, () -> DataManager.getInstance()
                 .getSearchIndex()
                 .search(finalQuery, 0, 0, null, unfilteredFacetFields, Collections.singletonList(SolrConstants.IDDOC), activeFilterQueries,
-                        params);
+                        params));
+    }
+
+    /**
+     * Populates facets that are applied to a raw, unfiltered search, such as total slider range and permanently displayed facets.
+     * 
+     * @param resp Response of the unfiltered facets query
+     * @param facets
+     * @param unfilteredFacetFields
+     * @param locale
+     */
+    private static void populateUnfilteredFacets(QueryResponse resp, SearchFacets facets, List<String> unfilteredFacetFields, Locale locale) {
         if (resp == null || resp.getFacetFields() == null) {
             return;
         }
@@ -1398,4 +1554,11 @@ public class Search implements Serializable {
     public void setMetadataListType(String metadataListType) {
         this.metadataListType = metadataListType;
     }
+
+    /**
+     * @return Time in milliseconds spent in each query phase of the last execution
+     */
+    public Map<String, Long> getQueryTimings() {
+        return queryTimings;
+    }
 }
@@ -41,6 +41,7 @@ import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -70,6 +71,7 @@ import org.apache.solr.common.SolrDocumentList;
 import org.apache.solr.common.params.ExpandParams;
 import org.jsoup.Jsoup;
 
+import io.goobi.viewer.controller.BoundedCache;
 import io.goobi.viewer.controller.Configuration;
 import io.goobi.viewer.controller.DamerauLevenshtein;
 import io.goobi.viewer.controller.DataFileTools;
@@ -96,6 +98,7 @@ import io.goobi.viewer.model.security.clients.ClientApplicationManager;
 import io.goobi.viewer.model.security.user.User;
 import io.goobi.viewer.model.termbrowsing.BrowseTerm;
 import io.goobi.viewer.model.termbrowsing.BrowseTermComparator;
+import io.goobi.viewer.model.termbrowsing.BrowseTermIndex;
 import io.goobi.viewer.model.termbrowsing.BrowsingMenuFieldConfig;
 import io.goobi.viewer.model.translations.language.LocaleComparator;
 import io.goobi.viewer.model.viewer.PageType;
@@ -103,6 +106,7 @@ import io.goobi.viewer.model.viewer.StringPair;
 import io.goobi.viewer.servlets.IdentifierResolver;
 import io.goobi.viewer.solr.SolrConstants;
 import io.goobi.viewer.solr.SolrConstants.DocType;
+import io.goobi.viewer.solr.SolrCursor;
 import io.goobi.viewer.solr.SolrSearchIndex;
 import io.goobi.viewer.solr.SolrTools;
 
@@ -154,8 +158,30 @@ public final class SearchHelper {
 
     private static final Object LOCK = new Object();
 
+    /** Number of search hits fetched from the index per request during Excel export. */
+    private static final int EXCEL_EXPORT_BATCH_SIZE = 100;
+    /** Number of docs fetched from the index per request while building a browsing term index. */
+    private static final int BROWSE_TERM_INDEX_BATCH_SIZE = 1000;
+
+    /** Maximum total number of terms held by all cached browsing term indexes. */
+    private static final long BROWSE_TERM_INDEX_MAX_TERMS = 1_000_000;
+
+    /** Browsing term indexes, keyed by field configuration, language, filter query and access conditions filter. */
+    private static final BoundedCache<String, BrowseTermIndex> BROWSE_TERM_INDEXES =
+            new BoundedCache<>(100, null, BROWSE_TERM_INDEX_MAX_TERMS, BrowseTermIndex::size);
+    /** Striped locks for the initial build of browsing term indexes. */
+    private static final Object[] BROWSE_TERM_INDEX_LOCKS = new Object[32];
+    /** Keys of browsing term indexes currently being rebuilt in the background. */
+    private static final Set<String> BROWSE_TERM_INDEX_REFRESHES = ConcurrentHashMap.newKeySet();
+
     private static final Random RANDOM = new SecureRandom();
 
+    static {
+        for (int i = 0; i < BROWSE_TERM_INDEX_LOCKS.length; ++i) {
+            BROWSE_TERM_INDEX_LOCKS[i] = new Object();
+        }
+    }
+
     /** Regex pattern for negations in brackets */
     private static final Pattern PATTERN_NOT_BRACKETS = Pattern.compile("NOT\\([^()]*\\)");
     /** Regex pattern for negations not followed by brackets */
@@ -171,6 +197,10 @@ public final class SearchHelper {
     /** Constant <code>PATTERN_HYPHEN_LINK</code> */
     private static final Pattern PATTERN_HYPHEN_LINK = Pattern.compile("(<a (?:(?!<\\/a>).)*<\\/a>)");
 
+    private static final Pattern PATTERN_WORD = Pattern.compile(FuzzySearchTerm.WORD_PATTERN);
+
+    private static final Pattern PATTERN_WORD_CHARACTERS = Pattern.compile("[\\w-]+");
+
     //No danger of catastrophic backtracking, because the ':' separator is not matched by \w
     private static final Pattern PATTERN_FACET_STRING = Pattern.compile("(\\w+:\\w+);;"); //NOSONAR
 
@@ -271,6 +301,7 @@ public final class SearchHelper {
         int count = first;
         ThumbnailHandler thumbs = BeanUtils.getImageDeliveryBean().getThumbs();
         SearchHitFactory factory = new SearchHitFactory(searchTerms, sortFields, exportFields, proximitySearchDistance, thumbs, locale);
+        factory.prefetchAncestors(resp.getResults());
         for (SolrDocument doc : resp.getResults()) {
             logger.trace("result iddoc: {}", doc.getFieldValue(SolrConstants.IDDOC));
             String fulltext = null;
@@ -361,6 +392,31 @@ public final class SearchHelper {
         logger.trace("hitsPerPage: {}", rows);
         QueryResponse resp =
                 DataManager.getInstance().getSearchIndex().search(query, first, rows, sortFields, null, resultFields, filterQueries, params);
+        return createSearchHits(resp, first, sortFields, searchTerms, exportFields, additionalMetadataListType, locale, keepSolrDoc,
+                proximitySearchDistance);
+    }
+
+    /**
+     * Creates aggregated search hits from the given Solr response.
+     *
+     * @param resp Solr response
+     * @param first Index of the first document in resp within the whole result set
+     * @param sortFields
+     * @param searchTerms
+     * @param exportFields
+     * @param additionalMetadataListType
+     * @param locale
+     * @param keepSolrDoc
+     * @param proximitySearchDistance
+     * @return List of search hits
+     * @throws PresentationException
+     * @throws IndexUnreachableException
+     * @throws DAOException
+     * @throws ViewerConfigurationException
+     */
+    private static List<SearchHit> createSearchHits(QueryResponse resp, int first, List<StringPair> sortFields,
+            Map<String, Set<String>> searchTerms, List<String> exportFields, String additionalMetadataListType, Locale locale, boolean keepSolrDoc,
+            int proximitySearchDistance) throws PresentationException, IndexUnreachableException, DAOException, ViewerConfigurationException {
         if (resp.getResults() == null) {
             return new ArrayList<>();
         }
@@ -372,9 +428,14 @@ public final class SearchHelper {
         if (StringUtils.isNotBlank(additionalMetadataListType)) {
             factory.setAdditionalMetadataListType(additionalMetadataListType);
         }
+        // Load anchors of all volume hits on this page at once
+        factory.prefetchAncestors(resp.getResults());
 
         int count = first;
         Map<String, SolrDocumentList> childDocsMap = resp.getExpandedResults();
+        // TEI full-texts for all hits are loaded concurrently and added once all hits have been created
+        long deadline = System.currentTimeMillis() + DataManager.getInstance().getConfiguration().getFulltextLoadingTimeout();
+        List<Runnable> fulltextChildTasks = new ArrayList<>();
         for (SolrDocument doc : resp.getResults()) {
             // logger.trace("result iddoc: {}", doc.getFieldValue(SolrConstants.IDDOC));
 
@@ -386,7 +447,10 @@ public final class SearchHelper {
             }
             ret.add(hit);
             hit.addCMSPageChildren();
-            hit.addFulltextChild(doc, locale != null ? locale.getLanguage() : null);
+            Future<List<String>> fragments = hit.loadFulltextFragments(doc, locale != null ? locale.getLanguage() : null);
+            if (fragments != null) {
+                fulltextChildTasks.add(() -> hit.addFulltextChild(fragments, doc, deadline));
+            }
             // logger.trace("Added search hit {}", hit.getBrowseElement().getLabel());
             // Collect Solr docs of child hits
             String pi = (String) doc.getFieldValue(SolrConstants.PI);
@@ -408,6 +472,9 @@ public final class SearchHelper {
             }
             hit.setHitNumber(++count);
         }
+        for (Runnable task : fulltextChildTasks) {
+            task.run();
+        }
         logger.trace("Return {} search hits", ret.size());
         return ret;
     }
@@ -514,6 +581,35 @@ public final class SearchHelper {
      */
     public static String getAllSuffixes(HttpServletRequest request, boolean addStaticQuerySuffix, boolean addCollectionBlacklistSuffix,
             String privilege) {
+        StringBuilder sbSuffix = new StringBuilder(getUserIndependentSuffixes(addStaticQuerySuffix, addCollectionBlacklistSuffix));
+        String filterQuerySuffix = getFilterQuerySuffix(request, privilege);
+        // logger.trace("filterQuerySuffix: {}", filterQuerySuffix);
+        if (filterQuerySuffix != null) {
+            sbSuffix.append(filterQuerySuffix);
+        }
+
+        return sbSuffix.toString();
+    }
+
+    /**
+     * Returns the static query suffix and the collection blacklist suffix, but never the access conditions filter of the current user. Use for
+     * queries whose results are shared between users, combined with an explicitly resolved access conditions filter where required.
+     *
+     * @return Suffixes that don't depend on the current request
+     * @should add static suffix
+     * @should add collection blacklist suffix
+     */
+    public static String getUserIndependentSuffixes() {
+        return getUserIndependentSuffixes(true, true);
+    }
+
+    /**
+     * 
+     * @param addStaticQuerySuffix
+     * @param addCollectionBlacklistSuffix
+     * @return Requested suffixes that don't depend on the current request
+     */
+    private static String getUserIndependentSuffixes(boolean addStaticQuerySuffix, boolean addCollectionBlacklistSuffix) {
         StringBuilder sbSuffix = new StringBuilder("");
         if (addStaticQuerySuffix && StringUtils.isNotBlank(DataManager.getInstance().getConfiguration().getStaticQuerySuffix())) {
             String staticSuffix = DataManager.getInstance().getConfiguration().getStaticQuerySuffix();
@@ -525,11 +621,6 @@ public final class SearchHelper {
         if (addCollectionBlacklistSuffix) {
             sbSuffix.append(getCollectionBlacklistFilterSuffix(SolrConstants.DC));
         }
-        String filterQuerySuffix = getFilterQuerySuffix(request, privilege);
-        // logger.trace("filterQuerySuffix: {}", filterQuerySuffix);
-        if (filterQuerySuffix != null) {
-            sbSuffix.append(filterQuerySuffix);
-        }
 
         return sbSuffix.toString();
     }
@@ -1183,6 +1274,31 @@ public final class SearchHelper {
         return query.toString();
     }
 
+    /**
+     * Constructs the search query filter suffix for a user who is not logged in. If the license types cannot be loaded, access is limited to open
+     * access records.
+     *
+     * @param ipAddress IP address of the client; may be null
+     * @param client
+     * @param privilege Privilege to check
+     * @return Filter query suffix for an anonymous user
+     * @should limit to open access for anonymous user
+     */
+    public static String getAnonymousFilterQuerySuffix(String ipAddress, Optional<ClientApplication> client, String privilege) {
+        List<LicenseType> licenseTypes = Collections.emptyList();
+        try {
+            licenseTypes = DataManager.getInstance().getDao().getRecordLicenseTypes();
+        } catch (DAOException e) {
+            logger.error("Could not load license types, limiting to open access: {}", e.getMessage());
+        }
+        try {
+            return getPersonalFilterQuerySuffix(licenseTypes, null, ipAddress, client, privilege);
+        } catch (IndexUnreachableException | PresentationException | DAOException e) {
+            logger.error("Could not build filter query suffix, limiting to open access: {}", e.getMessage());
+            return " +(" + SolrConstants.ACCESSCONDITION + ":\"" + SolrConstants.OPEN_ACCESS_VALUE + "\")";
+        }
+    }
+
     /**
      * 
      * @return Solr query for the moving wall date range
@@ -1221,38 +1337,17 @@ public final class SearchHelper {
         String fulltext = Jsoup.parse(inFulltext).text();
         List<String> ret = new ArrayList<>();
         if (searchTerms != null && !searchTerms.isEmpty()) {
-            for (final String term : searchTerms) {
-                if (term.length() == 0) {
-                    continue;
-                }
-                String searchTerm = SearchHelper.removeTruncation(term);
+            String lowerCaseFulltext = fulltext.toLowerCase();
+            for (CompiledSearchTerms.FragmentTerm fragmentTerm : CompiledSearchTerms.get(searchTerms, proximitySearchDistance).getFragmentTerms()) {
+                String searchTerm = fragmentTerm.getTerm();
                 // logger.trace("term: {}", searchTerm); //NOSONAR Debug
-                // Stopwords do not get pre-filtered out when doing a phrase search
-                if (searchTerm.contains(" ")) {
-                    for (String stopword : DataManager.getInstance().getConfiguration().getStopwords()) {
-                        if (searchTerm.startsWith(stopword + " ") || searchTerm.endsWith(" " + stopword)) {
-                            logger.trace("filtered out stopword '{}' from term '{}'", stopword, searchTerm);
-                            searchTerm = searchTerm.replace(stopword, "").trim();
-                        }
-                    }
-                }
-                if (searchTerm.length() > 1 && searchTerm.endsWith("*") || searchTerm.endsWith("?")) {
-                    searchTerm = searchTerm.substring(0, searchTerm.length() - 1);
-                }
-                if (searchTerm.length() > 1 && searchTerm.charAt(0) == '*' || searchTerm.charAt(0) == '?') {
-                    searchTerm = searchTerm.substring(1);
-                }
-                if (searchTerm.contains("*") || searchTerm.contains("?")) {
-                    break;
-                }
-                if (FuzzySearchTerm.isFuzzyTerm(searchTerm)) {
+                if (fragmentTerm.getType() == CompiledSearchTerms.MatchType.FUZZY) {
                     // Fuzzy search
-                    FuzzySearchTerm fuzzySearchTerm = new FuzzySearchTerm(searchTerm);
-                    Matcher m = Pattern.compile(FuzzySearchTerm.WORD_PATTERN).matcher(fulltext.toLowerCase());
+                    Matcher m = PATTERN_WORD.matcher(lowerCaseFulltext);
                     int lastIndex = -1;
                     while (m.find()) {
                         String word = m.group();
-                        if (fuzzySearchTerm.matches(word)) {
+                        if (fragmentTerm.getFuzzyTerm().matches(word)) {
                             if (lastIndex != -1 && m.start() <= lastIndex + searchTerm.length()) {
                                 continue;
                             }
@@ -1262,28 +1357,25 @@ public final class SearchHelper {
                             }
                         }
                     }
-                } else if (proximitySearchDistance > 0 && searchTerm.contains(" ")) {
+                } else if (fragmentTerm.getType() == CompiledSearchTerms.MatchType.PROXIMITY) {
                     // Proximity search
-                    String regex = buildProximitySearchRegexPattern(searchTerm, proximitySearchDistance);
-                    if (regex != null) {
-                        Matcher m = Pattern.compile(regex).matcher(fulltext.toLowerCase());
-                        // logger.trace(fulltext.toLowerCase());
-                        int lastIndex = -1;
-                        while (m.find()) {
-                            // Skip match if it follows right after the last match
-                            if (lastIndex != -1 && m.start() <= lastIndex + searchTerm.length()) {
-                                continue;
-                            }
-                            String fragment = fulltext.substring(m.start(), m.end());
-                            logger.trace("fragment: {}", fragment);
-                            lastIndex = createFulltextFragment(m, fulltext, fragment, targetFragmentLength, ret);
-                            if (firstMatchOnly) {
-                                break;
-                            }
+                    Matcher m = fragmentTerm.getPattern().matcher(lowerCaseFulltext);
+                    // logger.trace(fulltext.toLowerCase());
+                    int lastIndex = -1;
+                    while (m.find()) {
+                        // Skip match if it follows right after the last match
+                        if (lastIndex != -1 && m.start() <= lastIndex + searchTerm.length()) {
+                            continue;
+                        }
+                        String fragment = fulltext.substring(m.start(), m.end());
+                        logger.trace("fragment: {}", fragment);
+                        lastIndex = createFulltextFragment(m, fulltext, fragment, targetFragmentLength, ret);
+                        if (firstMatchOnly) {
+                            break;
                         }
                     }
                 } else {
-                    Matcher m = Pattern.compile(searchTerm.toLowerCase()).matcher(fulltext.toLowerCase());
+                    Matcher m = fragmentTerm.getPattern().matcher(lowerCaseFulltext);
                     int lastIndex = -1;
                     while (m.find()) {
                         // Skip match if it follows right after the last match
@@ -1445,19 +1537,13 @@ public final class SearchHelper {
         }
 
         String highlightedValue = phrase;
-        for (final String t : terms) {
-            //remove fuzzy search suffix
-            FuzzySearchTerm fuzzyTerm = new FuzzySearchTerm(t);
-            String term = fuzzyTerm.getTerm();
-            // Highlighting single-character terms can take a long time, so skip them
-            if (term.length() < 2) {
-                continue;
+        String normalizedPhrase = null;
+        for (CompiledSearchTerms.HighlightingTerm term : CompiledSearchTerms.get(terms, 0).getHighlightingTerms()) {
+            if (normalizedPhrase == null) {
+                normalizedPhrase = normalizeString(phrase);
             }
-            term = SearchHelper.removeTruncation(term);
-            String normalizedPhrase = normalizeString(phrase);
-            String normalizedTerm = normalizeString(term);
-            if (contains(normalizedPhrase, normalizedTerm, fuzzyTerm.getMaxDistance())) {
-                highlightedValue = SearchHelper.applyHighlightingToPhrase(highlightedValue, term);
+            if (contains(normalizedPhrase, term.getNormalizedTerm(), term.getMaxDistance())) {
+                highlightedValue = SearchHelper.applyHighlightingToPhrase(highlightedValue, term.getTerm());
                 // logger.trace("highlighted value: {}", highlightedValue);
             }
         }
@@ -1476,14 +1562,10 @@ public final class SearchHelper {
      */
     public static boolean contains(String phrase, String term, int maxDistance) {
         if (maxDistance > 0 && StringUtils.isNoneBlank(phrase, term)) {
-            Matcher matcher = Pattern.compile("[\\w-]+").matcher(phrase);
+            Matcher matcher = PATTERN_WORD_CHARACTERS.matcher(phrase);
             while (matcher.find()) {
-                String word = matcher.group();
-                if (Math.abs(word.length() - term.length()) <= maxDistance) {
-                    int distance = new DamerauLevenshtein(word, term).getSimilarity();
-                    if (distance <= maxDistance) {
-                        return true;
-                    }
+                if (DamerauLevenshtein.isWithinDistance(matcher.group(), term, maxDistance)) {
+                    return true;
                 }
             }
             return false;
@@ -1516,20 +1598,25 @@ public final class SearchHelper {
             return phrase;
         }
 
-        StringBuilder sb = new StringBuilder();
         String normalizedPhrase = normalizeString(phrase);
         String normalizedTerm = normalizeString(term);
         int startIndex = normalizedPhrase.indexOf(normalizedTerm);
         if (startIndex == -1) {
             return phrase;
         }
-        int endIndex = startIndex + term.length();
-        String before = phrase.substring(0, startIndex);
-        String highlightedTerm = applyHighlightingToTerm(phrase.substring(startIndex, endIndex));
-        // logger.trace("highlighted term: {}", highlightedTerm);
-        String after = phrase.substring(endIndex);
 
-        return sb.append(applyHighlightingToPhrase(before, term)).append(highlightedTerm).append(applyHighlightingToPhrase(after, term)).toString();
+        // Single pass over all occurrences; positions in the normalized phrase correspond to those in the original phrase
+        StringBuilder sb = new StringBuilder(phrase.length() + 2 * PLACEHOLDER_HIGHLIGHTING_START.length());
+        int index = 0;
+        while (startIndex != -1 && startIndex < phrase.length()) {
+            int endIndex = Math.min(startIndex + term.length(), phrase.length());
+            sb.append(phrase, index, startIndex).append(applyHighlightingToTerm(phrase.substring(startIndex, endIndex)));
+            // logger.trace("highlighted term: {}", phrase.substring(startIndex, endIndex));
+            index = endIndex;
+            startIndex = normalizedPhrase.indexOf(normalizedTerm, endIndex);
+        }
+
+        return sb.append(phrase.substring(index)).toString();
     }
 
     /**
@@ -1764,42 +1851,25 @@ public final class SearchHelper {
         if (logger.isTraceEnabled()) {
             logger.trace("getFilteredTermsCount: {} ({})", bmfc.getFieldForLanguage(language), startsWith);
         }
-        List<StringPair> sortFields =
-                StringUtils.isEmpty(bmfc.getSortField()) ? null : Collections.singletonList(new StringPair(bmfc.getSortField(), "asc"));
-        QueryResponse resp = getFilteredTermsFromIndex(bmfc, startsWith, filterQuery, sortFields, 0, SolrSearchIndex.MAX_HITS, language);
-        logger.trace("getFilteredTermsCount hits: {}", resp.getResults().getNumFound());
-
         if (bmfc.getField() == null) {
             return 0;
         }
 
-        int ret = 0;
-        String facetField =
-                StringUtils.isNotEmpty(bmfc.getSortField()) ? SearchHelper.facetifyField(bmfc.getSortField())
-                        : SearchHelper.facetifyField(bmfc.getFieldForLanguage(language));
-        if (resp.getFacetField(facetField) != null) {
-            for (Count count : resp.getFacetField(facetField).getValues()) {
-                if (count.getCount() == 0
-                        || (StringUtils.isNotEmpty(startsWith) && !StringUtils.startsWithIgnoreCase(count.getName(), startsWith.toLowerCase()))) {
-                    continue;
-                }
-                ret++;
-            }
-        }
+        int ret = getBrowseTermIndex(bmfc, filterQuery, language).getCount(startsWith);
         logger.debug("getFilteredTermsCount result: {}", ret);
         return ret;
     }
 
     /**
-     * Returns a list of index terms for the given field name. This method uses the slower doc search instead of term search, but can be filtered with
-     * a query.
+     * Returns a list of index terms for the given field name. Terms are served from a cached {@link BrowseTermIndex}, which is built once per index
+     * generation (using the slower doc search instead of term search, so that it can be filtered with a query).
      *
      * @param bmfc a {@link io.goobi.viewer.model.termbrowsing.BrowsingMenuFieldConfig} object.
      * @param startsWith a {@link java.lang.String} object.
      * @param filterQuery a {@link java.lang.String} object.
-     * @param start
-     * @param rows
-     * @param comparator a {@link java.util.Comparator} object.
+     * @param start Offset of the first returned term
+     * @param rows Maximum number of returned terms
+     * @param comparator Optional comparator; if null or a {@link BrowseTermComparator}, the order of the cached index is kept
      * @param language Language for language-specific fields
      * @return a {@link java.util.List} object.
      * @throws io.goobi.viewer.exceptions.PresentationException if any.
@@ -1815,107 +1885,183 @@ public final class SearchHelper {
         if (logger.isTraceEnabled()) {
             logger.trace("getFilteredTerms: {}", bmfc.getFieldForLanguage(language));
         }
-        List<BrowseTerm> ret = new ArrayList<>();
-        ConcurrentMap<String, BrowseTerm> terms = new ConcurrentHashMap<>();
+        List<BrowseTerm> ret = getBrowseTermIndex(bmfc, filterQuery, language).getTerms(startsWith, start, rows);
+        if (comparator != null && !(comparator instanceof BrowseTermComparator)) {
+            ret = new ArrayList<>(ret);
+            Collections.sort(ret, comparator);
+        }
 
-        // If only browsing top level documents, use faceting for faster performance
-        int returnRows = rows;
-        if (bmfc.isRecordsAndAnchorsOnly()) {
-            returnRows = 0;
+        logger.debug("getFilteredTerms end: {} terms found.", ret.size());
+        return ret;
+    }
+
+    /**
+     * Returns the cached term index for the given field configuration. If no index exists yet, it is built in the current thread. If the index
+     * is outdated (the index generation has changed or the maximum age is exceeded), it is still returned while a new index is being built in
+     * the background. The access conditions filter of the current user is resolved here and is part of the cache key, so that indexes are only
+     * shared between users with the same access.
+     *
+     * @param bmfc
+     * @param filterQuery
+     * @param language
+     * @return {@link BrowseTermIndex}
+     * @throws PresentationException
+     * @throws IndexUnreachableException
+     * @should return same index for same field and filter query
+     * @should rebuild index after index generation has changed
+     * @should use separate indexes for different access conditions filters
+     */
+    static BrowseTermIndex getBrowseTermIndex(BrowsingMenuFieldConfig bmfc, String filterQuery, String language)
+            throws PresentationException, IndexUnreachableException {
+        // Resolve while still in the request thread; background rebuilds have no access to the request
+        String accessSuffix = StringUtils.defaultString(getFilterQuerySuffix(null, IPrivilegeHolder.PRIV_LIST));
+        return getBrowseTermIndex(bmfc, filterQuery, language, accessSuffix);
+    }
+
+    /**
+     * 
+     * @param bmfc
+     * @param filterQuery
+     * @param language
+     * @param accessSuffix Access conditions filter query suffix to apply
+     * @return {@link BrowseTermIndex}
+     * @throws PresentationException
+     * @throws IndexUnreachableException
+     */
+    static BrowseTermIndex getBrowseTermIndex(BrowsingMenuFieldConfig bmfc, String filterQuery, String language, String accessSuffix)
+            throws PresentationException, IndexUnreachableException {
+        String key = String.join("|", bmfc.getFieldForLanguage(language), String.valueOf(bmfc.getSortField()), String.valueOf(language),
+                String.valueOf(bmfc.isRecordsAndAnchorsOnly()), String.valueOf(filterQuery), String.valueOf(bmfc.getFilterQueries()), accessSuffix);
+        BrowseTermIndex ret = BROWSE_TERM_INDEXES.get(key);
+        if (ret == null) {
+            synchronized (BROWSE_TERM_INDEX_LOCKS[Math.floorMod(key.hashCode(), BROWSE_TERM_INDEX_LOCKS.length)]) {
+                // Another thread may have built the index by now
+                ret = BROWSE_TERM_INDEXES.get(key);
+                if (ret == null) {
+                    ret = buildBrowseTermIndex(bmfc, filterQuery, language, accessSuffix);
+                    BROWSE_TERM_INDEXES.put(key, ret);
+                }
+            }
+        } else if (isBrowseTermIndexOutdated(ret) && BROWSE_TERM_INDEX_REFRESHES.add(key)) {
+            logger.debug("Browsing term index outdated, rebuilding: {}", key);
+            DataManager.getInstance().getThreadPoolManager().getBoundedExecutor("browse-term-index", 2, 50).execute(() -> {
+                try {
+                    BROWSE_TERM_INDEXES.put(key, buildBrowseTermIndex(bmfc, filterQuery, language, accessSuffix));
+                } catch (PresentationException | IndexUnreachableException e) {
+                    logger.error("Could not rebuild browsing term index: {}", e.getMessage());
+                } finally {
+                    BROWSE_TERM_INDEX_REFRESHES.remove(key);
+                }
+            });
         }
 
+        return ret;
+    }
+
+    /**
+     * 
+     * @param index
+     * @return true if the index generation has changed since the given index was built or its maximum age is exceeded; false otherwise
+     */
+    private static boolean isBrowseTermIndexOutdated(BrowseTermIndex index) {
+        if (index.getIndexGeneration() != DataManager.getInstance().getSearchIndex().getIndexGeneration()) {
+            return true;
+        }
+        long maxAge = DataManager.getInstance().getConfiguration().getBrowsingMenuIndexMaxAge() * 60000L;
+        return maxAge > 0 && System.currentTimeMillis() - index.getCreated() > maxAge;
+    }
+
+    /**
+     * Collects all terms of the given field configuration from the index and sorts them.
+     * 
+     * @param bmfc
+     * @param filterQuery
+     * @param language
+     * @param accessSuffix Access conditions filter query suffix to apply
+     * @return New {@link BrowseTermIndex}
+     * @throws PresentationException
+     * @throws IndexUnreachableException
+     */
+    private static BrowseTermIndex buildBrowseTermIndex(BrowsingMenuFieldConfig bmfc, String filterQuery, String language, String accessSuffix)
+            throws PresentationException, IndexUnreachableException {
+        // Fetch generation first so that changes during the build cause another rebuild
+        long indexGeneration = DataManager.getInstance().getSearchIndex().getIndexGeneration();
+        long startTime = System.currentTimeMillis();
+        Collection<BrowseTerm> terms = collectBrowseTerms(bmfc, filterQuery, language, accessSuffix);
+        // PI lists are only needed for counting while collecting
+        for (BrowseTerm term : terms) {
+            term.getPiList().clear();
+        }
+        BrowseTermIndex ret = new BrowseTermIndex(terms, new BrowseTermComparator(language != null ? Locale.forLanguageTag(language) : null),
+                DataManager.getInstance().getConfiguration().getBrowsingMenuSortingIgnoreLeadingChars(), indexGeneration);
+        logger.info("Browsing term index for {} built: {} terms in {} ms", bmfc.getFieldForLanguage(language), ret.size(),
+                System.currentTimeMillis() - startTime);
+        return ret;
+    }
+
+    /**
+     * Collects all terms of the given field configuration from the index. Faceting is used if only browsing top level documents or if the doc
+     * count exceeds the configured threshold (and no sort field is configured). Otherwise all docs are read in batches.
+     * 
+     * @param bmfc
+     * @param filterQuery
+     * @param language
+     * @param accessSuffix Access conditions filter query suffix to apply
+     * @return Collected terms
+     * @throws PresentationException
+     * @throws IndexUnreachableException
+     */
+    private static Collection<BrowseTerm> collectBrowseTerms(BrowsingMenuFieldConfig bmfc, String filterQuery, String language,
+            String accessSuffix) throws PresentationException, IndexUnreachableException {
+        ConcurrentMap<String, BrowseTerm> terms = new ConcurrentHashMap<>();
         List<StringPair> sortFields =
                 StringUtils.isEmpty(bmfc.getSortField()) ? null : Collections.singletonList(new StringPair(bmfc.getSortField(), "asc"));
-        QueryResponse resp = getFilteredTermsFromIndex(bmfc, startsWith, filterQuery, sortFields, start, returnRows, language);
-        logger.debug("getFilteredTerms hits: {}", resp.getResults().getNumFound());
-        if ("0-9".equals(startsWith)) {
-            // TODO Is this still necessary?
-            // Numerical filtering
-            Pattern p = Pattern.compile("[\\d]");
-            // Use hits (if sorting field is provided)
-            for (SolrDocument doc : resp.getResults()) {
-                Collection<Object> termList = doc.getFieldValues(bmfc.getFieldForLanguage(language));
-                String sortTerm = (String) doc.getFieldValue(bmfc.getSortField());
-                Set<String> usedTermsInCurrentDoc = new HashSet<>();
-                for (Object o : termList) {
-                    String term = String.valueOf(o);
-                    // Only add to hit count if the same string is not in the same doc
-                    if (usedTermsInCurrentDoc.contains(term)) {
+        String query = buildFilteredTermsQuery(bmfc, language, accessSuffix);
+        List<String> filterQueries = getFilteredTermsFilterQueries(bmfc, filterQuery);
+
+        boolean useFacets = bmfc.isRecordsAndAnchorsOnly();
+        if (!useFacets && StringUtils.isEmpty(bmfc.getSortField())) {
+            long hitCount = DataManager.getInstance().getSearchIndex().getHitCount(query, filterQueries);
+            useFacets = hitCount > DataManager.getInstance().getConfiguration().getBrowsingMenuIndexSizeThreshold();
+        }
+
+        if (useFacets) {
+            QueryResponse resp = getFilteredTermsFromIndex(bmfc, "", filterQuery, sortFields, 0, 0, language, accessSuffix);
+            String useField = null;
+            String facetSortField = StringUtils.isNotEmpty(bmfc.getSortField()) ? SearchHelper.facetifyField(bmfc.getSortField()) : null;
+            String facetMainField = SearchHelper.facetifyField(bmfc.getFieldForLanguage(language));
+            if (facetSortField != null && resp.getFacetField(facetSortField) != null) {
+                // Prefer facets from sort field
+                useField = facetSortField;
+            } else if (resp.getFacetField(facetMainField) != null) {
+                // main field fallback
+                useField = facetMainField;
+            }
+            if (useField != null) {
+                for (Count count : resp.getFacetField(useField).getValues()) {
+                    if (count.getCount() == 0) {
                         continue;
                     }
-                    String termStart = term;
-                    if (termStart.length() > 1) {
-                        termStart = term.substring(0, 1);
-                    }
-                    String compareTerm = termStart;
-                    if (StringUtils.isNotEmpty(sortTerm)) {
-                        compareTerm = sortTerm;
-                    }
-                    Matcher m = p.matcher(compareTerm);
-                    if (m.find()) {
-                        BrowseTerm browseTerm = terms.get(term);
-                        if (browseTerm == null) {
-                            browseTerm = new BrowseTerm(term, sortTerm, bmfc.isTranslate() ? ViewerResourceBundle.getTranslations(term) : null);
-                            terms.put(term, browseTerm);
-                        }
-                        sortTerm = null; // only use the sort term for the first term
-                        browseTerm.addToHitCount(1);
-                        usedTermsInCurrentDoc.add(term);
-                    }
+                    terms.put(count.getName(),
+                            new BrowseTerm(count.getName(), null, bmfc.isTranslate() ? ViewerResourceBundle.getTranslations(count.getName()) : null)
+                                    .setHitCount(count.getCount()));
                 }
             }
         } else {
-            String facetMainField = SearchHelper.facetifyField(bmfc.getFieldForLanguage(language));
-            String facetSortField = null;
-            if (StringUtils.isNotEmpty(bmfc.getSortField())) {
-                facetSortField = SearchHelper.facetifyField(bmfc.getSortField());
-            }
-            if (resp.getResults().isEmpty()) {
-                // If only browsing records and anchors, use faceting
-                String useField = null;
-                if (resp.getFacetField(facetSortField) != null) {
-                    // Prefer facets from sort field
-                    useField = facetSortField;
-                } else if (resp.getFacetField(facetMainField) != null) {
-                    // main field fallback
-                    useField = facetMainField;
-                }
-                if (useField != null) {
-                    for (Count count : resp.getFacetField(useField).getValues()) {
-                        if (StringUtils.isNotEmpty(startsWith) && !"-".equals(startsWith)
-                                && !StringUtils.startsWithIgnoreCase(count.getName(), startsWith)) {
-                            // logger.trace("Skipping term: {}, compareTerm: {}, sortTerm: {}, translate: {}",
-                            // term, compareTerm, sortTerm, bmfc.isTranslate());
-                            continue;
-                        }
-                        terms.put(count.getName(),
-                                new BrowseTerm(count.getName(), null,
-                                        bmfc.isTranslate() ? ViewerResourceBundle.getTranslations(count.getName()) : null)
-                                                .setHitCount(count.getCount()));
-                    }
-                }
-            } else {
-                // Without filtering or using alphabetical filtering
-                // Parallel processing of hits (if sorting field is provided), requires compiler level 1.8
-                //                ((List<SolrDocument>) resp.getResults()).parallelStream()
-                //                        .forEach(doc -> processSolrResult(doc, bmfc, startsWith, terms, true, language));
-
-                // Sequential processing (doesn't break the sorting done by Solr)
-                for (SolrDocument doc : resp.getResults()) {
-                    processSolrResult(doc, bmfc, startsWith, terms, true, language);
+            // Sequential processing (doesn't break the sorting done by Solr)
+            SolrCursor cursor = DataManager.getInstance()
+                    .getSearchIndex()
+                    .searchWithCursor(query, BROWSE_TERM_INDEX_BATCH_SIZE, sortFields, getFilteredTermsFieldList(bmfc, language), filterQueries,
+                            null);
+            while (cursor.hasNext()) {
+                for (SolrDocument doc : cursor.next().getResults()) {
+                    processSolrResult(doc, bmfc, null, terms, true, language);
                 }
             }
+            logger.debug("collectBrowseTerms: {} docs read", cursor.getFetched());
         }
 
-        if (!terms.isEmpty()) {
-            ret = new ArrayList<>(terms.values());
-            if (comparator != null) {
-                Collections.sort(ret, comparator);
-            }
-        }
-
-        logger.debug("getFilteredTerms end: {} terms found.", ret.size());
-        return ret;
+        return terms.values();
     }
 
     /**
@@ -1935,39 +2081,30 @@ public final class SearchHelper {
      */
     static QueryResponse getFilteredTermsFromIndex(BrowsingMenuFieldConfig bmfc, String startsWith, String filterQuery, List<StringPair> sortFields,
             int start, int rows, String language) throws PresentationException, IndexUnreachableException {
-        List<String> fields = new ArrayList<>(3);
-        fields.add(SolrConstants.PI_TOPSTRUCT);
-        fields.add(bmfc.getFieldForLanguage(language));
-
-        StringBuilder sbQuery = new StringBuilder();
-        sbQuery.append('+');
-        // Only search via the sorting field if not doing a wildcard search
-        // TODO language-specific sort field
-        if (StringUtils.isNotEmpty(bmfc.getSortField())) {
-            sbQuery.append(bmfc.getSortField());
-            fields.add(bmfc.getSortField());
-            fields.add(SearchHelper.facetifyField(bmfc.getSortField()));
-            fields.add(SearchHelper.facetifyField(bmfc.getFieldForLanguage(language)));
-        } else {
-            sbQuery.append(bmfc.getFieldForLanguage(language));
-        }
-        sbQuery.append(":[* TO *] ");
-        if (bmfc.isRecordsAndAnchorsOnly()) {
-            sbQuery.append(ALL_RECORDS_QUERY);
-        }
-
-        List<String> filterQueries = new ArrayList<>();
-        if (StringUtils.isNotEmpty(filterQuery)) {
-            filterQueries.add(filterQuery);
-        }
-
-        // Add configured filter queries
-        if (!bmfc.getFilterQueries().isEmpty()) {
-            filterQueries.addAll(bmfc.getFilterQueries());
-        }
+        return getFilteredTermsFromIndex(bmfc, startsWith, filterQuery, sortFields, start, rows, language,
+                StringUtils.defaultString(getFilterQuerySuffix(null, IPrivilegeHolder.PRIV_LIST)));
+    }
 
-        // logger.trace("getFilteredTermsFromIndex startsWith: {}", startsWith); //NOSONAR Debug
-        String query = buildFinalQuery(sbQuery.toString(), false, SearchAggregationType.NO_AGGREGATION);
+    /**
+     *
+     * @param bmfc
+     * @param startsWith
+     * @param filterQuery
+     * @param sortFields
+     * @param start
+     * @param rows
+     * @param language
+     * @param accessSuffix Access conditions filter query suffix to apply
+     * @return {@link QueryResponse}
+     * @throws PresentationException
+     * @throws IndexUnreachableException
+     */
+    private static QueryResponse getFilteredTermsFromIndex(BrowsingMenuFieldConfig bmfc, String startsWith, String filterQuery,
+            List<StringPair> sortFields, int start, int rows, String language, String accessSuffix)
+            throws PresentationException, IndexUnreachableException {
+        List<String> fields = getFilteredTermsFieldList(bmfc, language);
+        List<String> filterQueries = getFilteredTermsFilterQueries(bmfc, filterQuery);
+        String query = buildFilteredTermsQuery(bmfc, language, accessSuffix);
         logger.trace("getFilteredTermsFromIndex query: {}", query);
         if (logger.isTraceEnabled()) {
             for (String fq : filterQueries) {
@@ -1997,6 +2134,70 @@ public final class SearchHelper {
         return DataManager.getInstance().getSearchIndex().search(query, start, rows, sortFields, facetFields, fields, filterQueries, params);
     }
 
+    /**
+     * 
+     * @param bmfc
+     * @param language
+     * @param accessSuffix Access conditions filter query suffix; used instead of the one from the current session
+     * @return Final query for all docs containing the given field
+     */
+    private static String buildFilteredTermsQuery(BrowsingMenuFieldConfig bmfc, String language, String accessSuffix) {
+        StringBuilder sbQuery = new StringBuilder();
+        sbQuery.append('+');
+        // Only search via the sorting field if not doing a wildcard search
+        // TODO language-specific sort field
+        if (StringUtils.isNotEmpty(bmfc.getSortField())) {
+            sbQuery.append(bmfc.getSortField());
+        } else {
+            sbQuery.append(bmfc.getFieldForLanguage(language));
+        }
+        sbQuery.append(":[* TO *] ");
+        if (bmfc.isRecordsAndAnchorsOnly()) {
+            sbQuery.append(ALL_RECORDS_QUERY);
+        }
+
+        return "+(" + sbQuery.toString() + ")" + getUserIndependentSuffixes() + accessSuffix;
+    }
+
+    /**
+     * 
+     * @param bmfc
+     * @param filterQuery
+     * @return Given filter query and filter queries configured for the given field
+     */
+    private static List<String> getFilteredTermsFilterQueries(BrowsingMenuFieldConfig bmfc, String filterQuery) {
+        List<String> ret = new ArrayList<>();
+        if (StringUtils.isNotEmpty(filterQuery)) {
+            ret.add(filterQuery);
+        }
+
+        // Add configured filter queries
+        if (!bmfc.getFilterQueries().isEmpty()) {
+            ret.addAll(bmfc.getFilterQueries());
+        }
+
+        return ret;
+    }
+
+    /**
+     * 
+     * @param bmfc
+     * @param language
+     * @return Fields to return for browsing term docs
+     */
+    private static List<String> getFilteredTermsFieldList(BrowsingMenuFieldConfig bmfc, String language) {
+        List<String> ret = new ArrayList<>(5);
+        ret.add(SolrConstants.PI_TOPSTRUCT);
+        ret.add(bmfc.getFieldForLanguage(language));
+        if (StringUtils.isNotEmpty(bmfc.getSortField())) {
+            ret.add(bmfc.getSortField());
+            ret.add(SearchHelper.facetifyField(bmfc.getSortField()));
+            ret.add(SearchHelper.facetifyField(bmfc.getFieldForLanguage(language)));
+        }
+
+        return ret;
+    }
+
     /**
      * Extracts terms from the given Solr document and adds them to the terms map, if applicable. Can be executed in parallel, provided
      * <code>terms</code> and <code>usedTerms</code> are synchronized.
@@ -3146,7 +3347,8 @@ public final class SearchHelper {
     /**
      * @param request
      * @param privilege Privilege to check (Connector checks a different privilege)
-     * @return Filter query suffix string from the HTTP session
+     * @return Filter query suffix string from the HTTP session; suffix for an anonymous user if the request has no session
+     * @should return anonymous suffix for request without session
      */
     static String getFilterQuerySuffix(final HttpServletRequest request, String privilege) {
         HttpServletRequest req = request;
@@ -3158,7 +3360,9 @@ public final class SearchHelper {
         }
         HttpSession session = req.getSession(false);
         if (session == null) {
-            return null;
+            // Requests without a session (e.g. API clients without cookies) are treated as anonymous; computed per request since there is nowhere
+            // to store it. Client applications are only identified via the session.
+            return getAnonymousFilterQuerySuffix(NetTools.getIpAddress(req), Optional.empty(), privilege);
         }
 
         String ret = (String) session.getAttribute(PARAM_NAME_FILTER_QUERY_SUFFIX);
@@ -3236,20 +3440,17 @@ public final class SearchHelper {
         for (ExportFieldConfiguration field : exportFields) {
             exportFieldNames.add(field.getField());
         }
-        long totalHits = DataManager.getInstance().getSearchIndex().getHitCount(finalQuery, filterQueries);
-        int batchSize = 100;
-        int totalBatches = (int) Math.ceil((double) totalHits / batchSize);
-        for (int i = 0; i < totalBatches; ++i) {
-            int first = i * batchSize;
-            int max = first + batchSize - 1;
-            if (max > totalHits) {
-                max = (int) (totalHits - 1);
-                batchSize = (int) (totalHits - first);
-            }
-            logger.trace("Fetching search hits {}-{} out of {}", first, max, totalHits);
-            List<SearchHit> batch =
-                    searchWithAggregation(finalQuery, first, batchSize, sortFields, null, filterQueries, params, searchTerms, exportFieldNames,
-                            Configuration.METADATA_LIST_TYPE_SEARCH_HIT, locale, false, proximitySearchDistance);
+        // Use a cursor so that deep pages cost the same as the first one
+        SolrCursor cursor = DataManager.getInstance()
+                .getSearchIndex()
+                .searchWithCursor(finalQuery, EXCEL_EXPORT_BATCH_SIZE, sortFields, null, filterQueries, params);
+        int first = 0;
+        while (cursor.hasNext()) {
+            QueryResponse resp = cursor.next();
+            List<SearchHit> batch = createSearchHits(resp, first, sortFields, searchTerms, exportFieldNames,
+                    Configuration.METADATA_LIST_TYPE_SEARCH_HIT, locale, false, proximitySearchDistance);
+            logger.trace("Fetched search hits {}-{} out of {}", first, first + batch.size() - 1, cursor.getNumFound());
+            first += batch.size();
 
             for (SearchHit hit : batch) {
                 // Create row
@@ -35,6 +35,8 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import javax.servlet.http.HttpServletRequest;
@@ -45,7 +47,6 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.solr.common.SolrDocument;
 import org.apache.solr.common.SolrDocumentList;
-import org.jdom2.JDOMException;
 import org.jsoup.Jsoup;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -293,12 +294,28 @@ public class SearchHit implements Comparable<SearchHit> {
      */
     public void addFulltextChild(SolrDocument doc, final String language)
             throws IndexUnreachableException, DAOException, ViewerConfigurationException {
+        Future<List<String>> fragments = loadFulltextFragments(doc, language);
+        if (fragments != null) {
+            addFulltextChild(fragments, doc, System.currentTimeMillis() + DataManager.getInstance().getConfiguration().getFulltextLoadingTimeout());
+        }
+    }
+
+    /**
+     * Checks access to the TEI full-text of the given doc in the calling thread and then loads and fragments the full-text in the background.
+     *
+     * @param doc Solr page doc
+     * @param language
+     * @return {@link Future} for the list of full-text fragments containing search terms; null if there is no accessible TEI full-text
+     * @throws IndexUnreachableException
+     * @throws DAOException
+     */
+    Future<List<String>> loadFulltextFragments(SolrDocument doc, final String language) throws IndexUnreachableException, DAOException {
         if (doc == null) {
             throw new IllegalArgumentException("doc may not be null");
         }
 
         if (searchTerms == null || !searchTerms.containsKey(SolrConstants.FULLTEXT)) {
-            return;
+            return null;
         }
 
         String lang = language;
@@ -312,43 +329,66 @@ public class SearchHit implements Comparable<SearchHit> {
             teiFilename = (String) doc.getFirstValue(SolrConstants.FILENAME_TEI);
         }
         if (StringUtils.isEmpty(teiFilename)) {
-            return;
+            return null;
         }
 
-        try {
-            String fulltext = null;
-            if (BeanUtils.getRequest() != null
-                    && AccessConditionUtils.checkAccess(BeanUtils.getRequest(), "text", browseElement.getPi(), teiFilename, false).isGranted()) {
-                fulltext = DataFileTools.loadTei((String) doc.getFieldValue(SolrConstants.PI), lang);
+        // Access check requires the request context, so it must not be done in the loading thread
+        if (BeanUtils.getRequest() == null
+                || !AccessConditionUtils.checkAccess(BeanUtils.getRequest(), "text", browseElement.getPi(), teiFilename, false).isGranted()) {
+            return null;
+        }
+
+        String pi = (String) doc.getFieldValue(SolrConstants.PI);
+        String teiLanguage = lang;
+        Set<String> fulltextTerms = searchTerms.get(SolrConstants.FULLTEXT);
+        int fragmentLength = DataManager.getInstance().getConfiguration().getFulltextFragmentLength();
+        return SearchHitFulltextLoader.submit(() -> {
+            String fulltext = SearchHitFulltextLoader.load(() -> DataFileTools.loadTei(pi, teiLanguage));
+            if (fulltext == null) {
+                return null;
             }
-            if (fulltext != null) {
-                fulltext = TEITools.getTeiFulltext(fulltext);
-                fulltext = Jsoup.parse(fulltext).text();
+            String text = Jsoup.parse(TEITools.getTeiFulltext(fulltext)).text();
+            // logger.trace(text); //NOSONAR Sometimes used for debugging
+            return SearchHitFulltextLoader
+                    .fragment(() -> SearchHelper.truncateFulltext(fulltextTerms, text, fragmentLength, false, false, proximitySearchDistance));
+        });
+    }
+
+    /**
+     * Creates a child hit element for TEI full-texts from the given fragments, once they have been loaded.
+     *
+     * @param fragments Full-text fragments as returned by {@link #loadFulltextFragments(SolrDocument, String)}
+     * @param doc Solr page doc
+     * @param deadline Point in time after which to stop waiting for the fragments
+     */
+    void addFulltextChild(Future<List<String>> fragments, SolrDocument doc, long deadline) {
+        List<String> fulltextFragments;
+        try {
+            fulltextFragments = SearchHitFulltextLoader.await(fragments, deadline);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof FileNotFoundException) {
+                logger.error(e.getCause().getMessage());
+            } else {
+                logger.error(e.getMessage(), e.getCause());
             }
-            // logger.trace(fulltext); //NOSONAR Sometimes used for debugging
-            List<String> fulltextFragments = fulltext == null ? null : SearchHelper.truncateFulltext(searchTerms.get(SolrConstants.FULLTEXT),
-                    fulltext, DataManager.getInstance().getConfiguration().getFulltextFragmentLength(), false, false, proximitySearchDistance);
-
-            int count = 0;
-            if (fulltextFragments != null && !fulltextFragments.isEmpty()) {
-                SearchHit hit = new SearchHit(HitType.PAGE,
-                        new BrowseElement(browseElement.getPi(), 1, ViewerResourceBundle.getTranslation("TEI", locale), null, locale, null, null),
-                        doc, searchTerms, locale, factory);
-                for (String fragment : fulltextFragments) {
-                    hit.getChildren()
-                            .add(new SearchHit(HitType.PAGE, new BrowseElement(browseElement.getPi(), 1, "TEI", fragment, locale, null, null), doc,
-                                    searchTerms, locale, factory));
-                    count++;
-                }
-                children.add(hit);
-                // logger.trace("Added {} fragments", count); //NOSONAR Sometimes used for debugging
-                int oldCount = hit.getHitTypeCounts().get(HitType.PAGE) != null ? hit.getHitTypeCounts().get(HitType.PAGE) : 0;
-                hitTypeCounts.put(HitType.PAGE, oldCount + count);
+            return;
+        }
+
+        int count = 0;
+        if (fulltextFragments != null && !fulltextFragments.isEmpty()) {
+            SearchHit hit = new SearchHit(HitType.PAGE,
+                    new BrowseElement(browseElement.getPi(), 1, ViewerResourceBundle.getTranslation("TEI", locale), null, locale, null, null),
+                    doc, searchTerms, locale, factory);
+            for (String fragment : fulltextFragments) {
+                hit.getChildren()
+                        .add(new SearchHit(HitType.PAGE, new BrowseElement(browseElement.getPi(), 1, "TEI", fragment, locale, null, null), doc,
+                                searchTerms, locale, factory));
+                count++;
             }
-        } catch (FileNotFoundException e) {
-            logger.error(e.getMessage());
-        } catch (IOException | JDOMException e) {
-            logger.error(e.getMessage(), e);
+            children.add(hit);
+            // logger.trace("Added {} fragments", count); //NOSONAR Sometimes used for debugging
+            int oldCount = hitTypeCounts.get(HitType.PAGE) != null ? hitTypeCounts.get(HitType.PAGE) : 0;
+            hitTypeCounts.put(HitType.PAGE, oldCount + count);
         }
     }
 
@@ -384,8 +424,12 @@ public class SearchHit implements Comparable<SearchHit> {
         }
         int childDocIndex = skip;
         int hitCount = getHitCount();
+        // Start loading the full-texts of the page hits that are about to be populated, so that all files are read concurrently
+        Map<Integer, Future<String>> fulltexts = loadFulltexts(request, pi, skip, Math.min(childDocs.size(), skip + num));
+        long deadline = System.currentTimeMillis() + DataManager.getInstance().getConfiguration().getFulltextLoadingTimeout();
         while (childDocIndex < childDocs.size() && hitsPopulated < Math.min(hitCount, num + skip)) {
             SolrDocument childDoc = childDocs.get(childDocIndex);
+            Future<String> loadedFulltext = fulltexts.get(childDocIndex);
             childDocIndex++;
             String fulltext = null;
             DocType docType = DocType.getByName((String) childDoc.getFieldValue(SolrConstants.DOCTYPE));
@@ -394,7 +438,8 @@ public class SearchHit implements Comparable<SearchHit> {
                 switch (docType) {
                     case PAGE: //NOSONAR, no break on purpose to run through all cases
                         try {
-                            fulltext = getFulltext(request, pi, childDoc);
+                            fulltext = loadedFulltext != null ? getFulltext(loadedFulltext, pi, childDoc, deadline)
+                                    : getFulltext(request, pi, childDoc);
                         } catch (AccessDeniedException e) {
                             acccessDeniedType = true;
                         } catch (PresentationException | FileNotFoundException e) {
@@ -427,12 +472,82 @@ public class SearchHit implements Comparable<SearchHit> {
             }
         }
 
+        // Do not keep loading full-texts that were not needed after all
+        for (Future<String> future : fulltexts.values()) {
+            future.cancel(true);
+        }
+
         if (childDocs.isEmpty()) {
             ownerDocs.clear();
             ownerHits.clear();
         }
     }
 
+    /**
+     * Starts loading the full-texts of all page docs in the given range of child docs in the background. Access permissions are checked in the
+     * calling thread; pages without access are left out of the returned map.
+     *
+     * @param request
+     * @param pi
+     * @param fromIndex Index of the first child doc (inclusive)
+     * @param toIndex Index of the last child doc (exclusive)
+     * @return Map with the child doc index as key and the loading task as value
+     */
+    private Map<Integer, Future<String>> loadFulltexts(HttpServletRequest request, String pi, int fromIndex, int toIndex) {
+        Map<Integer, Future<String>> ret = new HashMap<>();
+        // The loading tasks may outlive the request, so only pass on plain values
+        String contextPath = request != null ? request.getContextPath() : null;
+        for (int i = fromIndex; i < toIndex; ++i) {
+            SolrDocument childDoc = childDocs.get(i);
+            if (!DocType.PAGE.name().equals(childDoc.getFieldValue(SolrConstants.DOCTYPE))) {
+                continue;
+            }
+            String altoFilename = (String) childDoc.getFirstValue(SolrConstants.FILENAME_ALTO);
+            String plaintextFilename = (String) childDoc.getFirstValue(SolrConstants.FILENAME_FULLTEXT);
+            try {
+                if (StringUtils.isNotBlank(plaintextFilename)) {
+                    if (AccessConditionUtils.checkAccess(request, "text", pi, plaintextFilename, false).isGranted()) {
+                        ret.put(i, SearchHitFulltextLoader
+                                .submit(() -> SearchHitFulltextLoader.load(() -> DataFileTools.loadFulltext(null, plaintextFilename, false, contextPath))));
+                    }
+                } else if (StringUtils.isNotBlank(altoFilename)
+                        && AccessConditionUtils.checkAccess(request, "text", pi, altoFilename, false).isGranted()) {
+                    ret.put(i, SearchHitFulltextLoader
+                            .submit(() -> SearchHitFulltextLoader.load(() -> DataFileTools.loadFulltext(altoFilename, null, false, contextPath))));
+                }
+            } catch (IndexUnreachableException | DAOException e) {
+                // Leave it to getFulltext() to report errors for this page
+                logger.warn(e.getMessage());
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * Waits for the given loading task until the deadline has passed.
+     *
+     * @param loadedFulltext Loading task
+     * @param pi
+     * @param childDoc
+     * @param deadline Point in time after which to stop waiting
+     * @return Full-text for this search hit; null if it could not be loaded in time
+     * @throws FileNotFoundException If the fulltext resource is not found
+     * @throws PresentationException If an internal error occurs when trying to retrieve the fulltext resource
+     */
+    private static String getFulltext(Future<String> loadedFulltext, String pi, SolrDocument childDoc, long deadline)
+            throws FileNotFoundException, PresentationException {
+        try {
+            return SearchHitFulltextLoader.await(loadedFulltext, deadline);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof FileNotFoundException fnfe) {
+                throw fnfe;
+            }
+            throw new PresentationException("Error reading fulltext for " + pi + ", page " + childDoc.getFirstValue(SolrConstants.ORDER),
+                    e.getCause());
+        }
+    }
+
     public void handleMetadataHit(SolrDocument childDoc, String fulltext, DocType docType, boolean acccessDeniedType)
             throws IndexUnreachableException, PresentationException {
         String ownerIddoc = (String) childDoc.getFieldValue(SolrConstants.IDDOC_OWNER);
@@ -22,6 +22,7 @@
 package io.goobi.viewer.model.search;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -40,6 +41,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.SolrDocumentList;
 
 import io.goobi.viewer.controller.Configuration;
 import io.goobi.viewer.controller.DataManager;
@@ -60,6 +62,8 @@ public class SearchHitFactory {
 
     private static final Logger logger = LogManager.getLogger(SearchHitFactory.class);
 
+    private static final Pattern PATTERN_WORD = Pattern.compile(FuzzySearchTerm.WORD_PATTERN);
+
     private Map<String, Set<String>> searchTerms;
     private String additionalMetadataListType;
     private List<String> exportFields;
@@ -78,6 +82,8 @@ public class SearchHitFactory {
 
     private ThumbnailHandler thumbnailHandler;
     private Locale locale;
+    /** Ancestor documents of the hits created by this factory, by IDDOC; null values mark documents that could not be found */
+    private final Map<Long, SolrDocument> ancestorDocs = new HashMap<>();
 
     /**
      * 
@@ -98,6 +104,90 @@ public class SearchHitFactory {
         this.locale = locale;
     }
 
+    /**
+     * Loads the documents of all ancestors (parents, their parents and so on) of the given documents that haven't been loaded yet. Each hierarchy
+     * level is loaded with a single query, so the ancestors of a whole page of hits only cost a few queries instead of one per hit and level.
+     *
+     * @param docs Hit documents (or their owner documents)
+     * @throws PresentationException
+     * @throws IndexUnreachableException
+     * @should load ancestors of all levels
+     */
+    public void prefetchAncestors(Collection<SolrDocument> docs) throws PresentationException, IndexUnreachableException {
+        Set<Long> iddocs = getUnknownParentIddocs(docs);
+        while (!iddocs.isEmpty()) {
+            logger.trace("Loading {} ancestor documents", iddocs.size());
+            SolrDocumentList result = DataManager.getInstance()
+                    .getSearchIndex()
+                    .search(iddocs.stream()
+                            .map(String::valueOf)
+                            .collect(Collectors.joining(" ", SolrConstants.IDDOC + ":(", ")")), iddocs.size(), null, null);
+            for (Long iddoc : iddocs) {
+                ancestorDocs.put(iddoc, null);
+            }
+            for (SolrDocument ancestorDoc : result) {
+                Long iddoc = getIddoc(ancestorDoc, SolrConstants.IDDOC);
+                if (iddoc != null) {
+                    ancestorDocs.put(iddoc, ancestorDoc);
+                }
+            }
+            iddocs = getUnknownParentIddocs(result);
+        }
+    }
+
+    /**
+     * Sets the parent chain of the given element from the prefetched ancestor documents, as far as they are available. Parents that have not been
+     * prefetched are loaded by the element itself when needed.
+     *
+     * @param se Hit element
+     * @throws IndexUnreachableException
+     */
+    void attachAncestors(StructElement se) throws IndexUnreachableException {
+        StructElement current = se;
+        Long parentIddoc = current.getParentLuceneId();
+        while (parentIddoc != null && ancestorDocs.get(parentIddoc) != null) {
+            StructElement parent = new StructElement(parentIddoc, ancestorDocs.get(parentIddoc));
+            current.setParent(parent);
+            current = parent;
+            parentIddoc = current.getParentLuceneId();
+        }
+    }
+
+    /**
+     * 
+     * @param docs
+     * @return IDDOC_PARENT values of the given documents that have not been loaded yet
+     */
+    private Set<Long> getUnknownParentIddocs(Collection<SolrDocument> docs) {
+        Set<Long> ret = new HashSet<>();
+        for (SolrDocument doc : docs) {
+            Long iddoc = getIddoc(doc, SolrConstants.IDDOC_PARENT);
+            if (iddoc != null && !ancestorDocs.containsKey(iddoc)) {
+                ret.add(iddoc);
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * 
+     * @param doc
+     * @param field
+     * @return Value of the given IDDOC field as a {@link Long}; null if not available
+     */
+    private static Long getIddoc(SolrDocument doc, String field) {
+        String value = SolrTools.getSingleFieldStringValue(doc, field);
+        if (StringUtils.isBlank(value)) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            logger.error("Malformed {} value: {}", field, value);
+            return null;
+        }
+    }
+
     /**
      * <p>
      * createSearchHit.
@@ -121,7 +211,10 @@ public class SearchHitFactory {
                 (fulltext == null || searchTerms == null) ? null
                         : SearchHelper.truncateFulltext(searchTerms.get(SolrConstants.FULLTEXT), fulltext,
                                 DataManager.getInstance().getConfiguration().getFulltextFragmentLength(), true, true, proximitySearchDistance);
+        // Parents of hits from the same page or record are usually already known
+        prefetchAncestors(ownerDoc != null ? Arrays.asList(doc, ownerDoc) : Collections.singletonList(doc));
         StructElement se = new StructElement(Long.valueOf((String) doc.getFieldValue(SolrConstants.IDDOC)), doc, ownerDoc);
+        attachAncestors(se);
         String docstructType = se.getDocStructType();
         if (DocType.METADATA.name().equals(se.getMetadataValue(SolrConstants.DOCTYPE))) {
             docstructType = DocType.METADATA.name();
@@ -259,7 +352,7 @@ public class SearchHitFactory {
                 term = StringTools.removeDiacriticalMarks(term);
                 if (FuzzySearchTerm.isFuzzyTerm(term)) {
                     FuzzySearchTerm fuzzy = new FuzzySearchTerm(term);
-                    Matcher m = Pattern.compile(FuzzySearchTerm.WORD_PATTERN).matcher(foundValues);
+                    Matcher m = PATTERN_WORD.matcher(foundValues);
                     while (m.find()) {
                         String word = m.group();
                         if (fuzzy.matches(word)) {
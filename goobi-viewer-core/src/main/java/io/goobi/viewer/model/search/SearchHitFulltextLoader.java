@@ -0,0 +1,149 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.model.search;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import io.goobi.viewer.controller.DataManager;
+
+/**
+ * Loads full-texts for search hits on a dedicated, bounded thread pool, so that the files for all hits of a result page are read concurrently instead of one
+ * after the other. Also keeps track of the time spent loading and fragmenting full-texts.
+ */
+public final class SearchHitFulltextLoader {
+
+    private static final Logger logger = LogManager.getLogger(SearchHitFulltextLoader.class);
+
+    /** Name of the dedicated executor in {@link io.goobi.viewer.controller.ThreadPoolManager} */
+    private static final String EXECUTOR_NAME = "fulltext-loader";
+    private static final int EXECUTOR_THREADS = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+    private static final int EXECUTOR_QUEUE_SIZE = 256;
+
+    private static final LongAdder LOADED = new LongAdder();
+    private static final LongAdder TIMEOUTS = new LongAdder();
+    private static final LongAdder LOADING_NANOS = new LongAdder();
+    private static final LongAdder FRAGMENTING_NANOS = new LongAdder();
+
+    private SearchHitFulltextLoader() {
+    }
+
+    /**
+     * Submits the given task to the full-text loading pool. If the pool does not accept any more tasks, the task is executed in the calling thread.
+     * Tasks may still run after the request has been completed, so they must not use the request or any values bound to it.
+     *
+     * @param task Loading task
+     * @return {@link Future} for the result of the task
+     */
+    static <T> Future<T> submit(Callable<T> task) {
+        return DataManager.getInstance()
+                .getThreadPoolManager()
+                .getBoundedExecutor(EXECUTOR_NAME, EXECUTOR_THREADS, EXECUTOR_QUEUE_SIZE)
+                .submit(task);
+    }
+
+    /**
+     * Runs the given full-text loading code and adds the elapsed time to the statistics.
+     *
+     * @param loader Loading code
+     * @return Result of loader
+     * @throws Exception any exception thrown by loader
+     */
+    static <T> T load(Callable<T> loader) throws Exception {
+        long start = System.nanoTime();
+        try {
+            return loader.call();
+        } finally {
+            LOADING_NANOS.add(System.nanoTime() - start);
+            LOADED.increment();
+        }
+    }
+
+    /**
+     * Waits for the result of the given task until the given deadline has passed. If the task has not completed by then, it is cancelled.
+     *
+     * @param future Task to wait for
+     * @param deadline Point in time (as returned by {@link System#currentTimeMillis()}) after which to stop waiting
+     * @return Result of the task; null if the deadline has passed
+     * @throws ExecutionException if the task threw an exception
+     * @should return result if completed in time
+     * @should return null and cancel task if deadline passed
+     * @should throw ExecutionException if task failed
+     */
+    static <T> T await(Future<T> future, long deadline) throws ExecutionException {
+        if (future == null) {
+            return null;
+        }
+        try {
+            return future.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | CancellationException e) {
+            future.cancel(true);
+            TIMEOUTS.increment();
+            logger.warn("Full-text could not be loaded in time.");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+        }
+
+        return null;
+    }
+
+    /**
+     * Runs the given full-text fragmentation and adds the elapsed time to the statistics.
+     *
+     * @param fragmenter Fragmenting code
+     * @return Result of fragmenter
+     */
+    static <T> T fragment(Supplier<T> fragmenter) {
+        long start = System.nanoTime();
+        try {
+            return fragmenter.get();
+        } finally {
+            FRAGMENTING_NANOS.add(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 
+     * @return Map containing the number of loaded full-texts, the number of timeouts and the total time in milliseconds spent loading and fragmenting
+     *         full-texts
+     */
+    public static Map<String, Long> getStatistics() {
+        Map<String, Long> ret = new LinkedHashMap<>(4);
+        ret.put("loaded", LOADED.sum());
+        ret.put("timeouts", TIMEOUTS.sum());
+        ret.put("loadingMillis", TimeUnit.NANOSECONDS.toMillis(LOADING_NANOS.sum()));
+        ret.put("fragmentingMillis", TimeUnit.NANOSECONDS.toMillis(FRAGMENTING_NANOS.sum()));
+        return ret;
+    }
+}
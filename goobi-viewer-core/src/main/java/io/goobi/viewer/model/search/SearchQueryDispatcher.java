@@ -0,0 +1,257 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.model.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import io.goobi.viewer.controller.DataManager;
+import io.goobi.viewer.exceptions.IndexUnreachableException;
+import io.goobi.viewer.exceptions.PresentationException;
+
+/**
+ * Runs the independent Solr queries of a single search on a dedicated, bounded thread pool, with no more than a given number of them at the same time. All
+ * queries share one deadline; if a query fails or the deadline passes, the remaining queries are cancelled. The time spent in each query phase is
+ * recorded per search and in total.
+ */
+public class SearchQueryDispatcher {
+
+    private static final Logger logger = LogManager.getLogger(SearchQueryDispatcher.class);
+
+    public static final String PHASE_RANGES = "ranges";
+    public static final String PHASE_UNFILTERED_FACETS = "unfilteredFacets";
+    public static final String PHASE_SUBELEMENT_FACETS = "subElementFacets";
+    public static final String PHASE_HIT_COUNT = "hitCount";
+    public static final String PHASE_HITS = "hits";
+
+    /** Name of the dedicated executor in {@link io.goobi.viewer.controller.ThreadPoolManager} */
+    private static final String EXECUTOR_NAME = "search-queries";
+    private static final int EXECUTOR_THREADS = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+    private static final int EXECUTOR_QUEUE_SIZE = 200;
+
+    private static final Map<String, LongAdder> PHASE_COUNTS = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> PHASE_NANOS = new ConcurrentHashMap<>();
+    private static final LongAdder TIMEOUTS = new LongAdder();
+
+    private final int maxConcurrency;
+    private final long deadline;
+    /** Submitted queries that are not running yet. */
+    private final Deque<FutureTask<?>> pending = new ArrayDeque<>();
+    private final List<FutureTask<?>> tasks = new ArrayList<>();
+    private final Map<String, Long> timings = new ConcurrentHashMap<>();
+    private int running = 0;
+
+    /**
+     * 
+     * @param maxConcurrency Maximum number of queries running at the same time
+     * @param timeout Time in milliseconds after which waiting for queries is abandoned
+     */
+    public SearchQueryDispatcher(int maxConcurrency, long timeout) {
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.deadline = System.currentTimeMillis() + timeout;
+    }
+
+    /**
+     * Creates a dispatcher with the configured concurrency and timeout.
+     * 
+     * @return New {@link SearchQueryDispatcher}
+     */
+    public static SearchQueryDispatcher create() {
+        return new SearchQueryDispatcher(DataManager.getInstance().getConfiguration().getSearchQueriesMaxConcurrency(),
+                TimeUnit.SECONDS.toMillis(DataManager.getInstance().getConfiguration().getSearchQueriesTimeout()));
+    }
+
+    /**
+     * Submits the given query for execution. The query must not access any request-bound or otherwise non-thread-safe state.
+     * 
+     * @param phase Name of the query phase for the timing statistics
+     * @param query Query to execute
+     * @return {@link Future} for the query result
+     * @should execute query
+     * @should not run more queries than max concurrency at the same time
+     */
+    public <T> Future<T> submit(String phase, Callable<T> query) {
+        FutureTask<T> task = new FutureTask<>(() -> {
+            long start = System.nanoTime();
+            try {
+                return query.call();
+            } finally {
+                recordTiming(phase, start);
+            }
+        });
+        synchronized (this) {
+            tasks.add(task);
+            pending.add(task);
+        }
+        dispatch();
+
+        return task;
+    }
+
+    /**
+     * Starts pending queries as long as fewer than the maximum number of queries are running. If the queue of the thread pool is full, the query
+     * is executed in the calling thread.
+     */
+    private void dispatch() {
+        while (true) {
+            FutureTask<?> task;
+            synchronized (this) {
+                if (running >= maxConcurrency || pending.isEmpty()) {
+                    return;
+                }
+                task = pending.poll();
+                running++;
+            }
+            Runnable runnable = () -> {
+                try {
+                    task.run();
+                } finally {
+                    synchronized (this) {
+                        running--;
+                    }
+                    dispatch();
+                }
+            };
+            DataManager.getInstance()
+                    .getThreadPoolManager()
+                    .getBoundedExecutor(EXECUTOR_NAME, EXECUTOR_THREADS, EXECUTOR_QUEUE_SIZE)
+                    .execute(runnable);
+        }
+    }
+
+    /**
+     * Waits for the result of the given query until the shared deadline. A dispatched query that is still waiting for a free thread in the pool is
+     * executed in the calling thread instead. If the query fails or the deadline passes, all other queries are cancelled.
+     * 
+     * @param future Query to wait for; may be null
+     * @return Query result; null if future is null
+     * @throws PresentationException if the query failed
+     * @throws IndexUnreachableException if the query failed due to an unreachable index or did not complete in time
+     * @should return query result
+     * @should rethrow query exception and cancel other queries
+     * @should throw IndexUnreachableException and cancel queries if deadline passed
+     */
+    public <T> T await(Future<T> future) throws PresentationException, IndexUnreachableException {
+        if (future == null) {
+            return null;
+        }
+        boolean dispatched;
+        synchronized (this) {
+            dispatched = !pending.contains(future);
+        }
+        if (dispatched && future instanceof FutureTask<T> task) {
+            // If the thread pool hasn't picked up the query yet, execute it here; does nothing if it is already running or done
+            task.run();
+        }
+        try {
+            return future.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | CancellationException e) {
+            cancelAll();
+            TIMEOUTS.increment();
+            throw new IndexUnreachableException("Search queries did not complete in time.");
+        } catch (InterruptedException e) {
+            cancelAll();
+            Thread.currentThread().interrupt();
+            throw new IndexUnreachableException("Interrupted while waiting for search queries.");
+        } catch (ExecutionException e) {
+            cancelAll();
+            Throwable cause = e.getCause();
+            if (cause instanceof PresentationException pe) {
+                throw pe;
+            }
+            if (cause instanceof IndexUnreachableException iue) {
+                throw iue;
+            }
+            if (cause instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new PresentationException(cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Cancels all queries that have not completed yet.
+     */
+    public void cancelAll() {
+        List<FutureTask<?>> toCancel;
+        synchronized (this) {
+            pending.clear();
+            toCancel = new ArrayList<>(tasks);
+        }
+        for (FutureTask<?> task : toCancel) {
+            task.cancel(true);
+        }
+    }
+
+    /**
+     * Adds the time elapsed since the given start to the given phase.
+     * 
+     * @param phase Name of the query phase
+     * @param startNanos Start time as returned by {@link System#nanoTime()}
+     */
+    public void recordTiming(String phase, long startNanos) {
+        long nanos = System.nanoTime() - startNanos;
+        timings.merge(phase, TimeUnit.NANOSECONDS.toMillis(nanos), Long::sum);
+        PHASE_NANOS.computeIfAbsent(phase, k -> new LongAdder()).add(nanos);
+        PHASE_COUNTS.computeIfAbsent(phase, k -> new LongAdder()).increment();
+    }
+
+    /**
+     * 
+     * @return Map containing the time in milliseconds spent in each query phase of this search
+     */
+    public Map<String, Long> getTimings() {
+        return Collections.unmodifiableMap(timings);
+    }
+
+    /**
+     * 
+     * @return Map containing the number of executed queries and the total time in milliseconds per query phase, and the number of timeouts
+     */
+    public static Map<String, Long> getStatistics() {
+        Map<String, Long> ret = new LinkedHashMap<>();
+        for (Map.Entry<String, LongAdder> entry : PHASE_COUNTS.entrySet()) {
+            ret.put(entry.getKey() + ".queries", entry.getValue().sum());
+            LongAdder nanos = PHASE_NANOS.get(entry.getKey());
+            ret.put(entry.getKey() + ".millis", nanos != null ? TimeUnit.NANOSECONDS.toMillis(nanos.sum()) : 0);
+        }
+        ret.put("timeouts", TIMEOUTS.sum());
+        return ret;
+    }
+}
@@ -28,6 +28,7 @@ import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -60,6 +61,7 @@ import io.goobi.viewer.exceptions.RecordNotFoundException;
 import io.goobi.viewer.managedbeans.UserBean;
 import io.goobi.viewer.managedbeans.utils.BeanUtils;
 import io.goobi.viewer.model.search.SearchHelper;
+import io.goobi.viewer.model.security.AccessRulesManager.CachedDecision;
 import io.goobi.viewer.model.security.clients.ClientApplication;
 import io.goobi.viewer.model.security.clients.ClientApplicationManager;
 import io.goobi.viewer.model.security.user.IpRange;
@@ -80,6 +82,9 @@ public final class AccessConditionUtils {
 
     private static final Logger logger = LogManager.getLogger(AccessConditionUtils.class);
 
+    /** Maximum number of records whose access conditions are loaded with a single query */
+    private static final int BULK_QUERY_SIZE = 500;
+
     /**
      * Private constructor to prevent instantiation.
      */
@@ -308,7 +313,7 @@ public final class AccessConditionUtils {
             Map<String, AccessPermission> ret = new HashMap<>(requiredAccessConditions.size());
             for (Entry<String, Set<String>> entry : requiredAccessConditions.entrySet()) {
                 Set<String> pageAccessConditions = entry.getValue();
-                AccessPermission access = checkAccessPermission(DataManager.getInstance().getDao().getRecordLicenseTypes(), pageAccessConditions,
+                AccessPermission access = checkAccessPermission(DataManager.getInstance().getAccessRulesManager().getRecordLicenseTypes(), pageAccessConditions,
                         privilegeName, user, NetTools.getIpAddress(request), ClientApplicationManager.getClientFromRequest(request), query);
                 ret.put(entry.getKey(), access);
             }
@@ -344,7 +349,7 @@ public final class AccessConditionUtils {
                     user = userBean.getUser();
                 }
             }
-            return checkAccessPermission(DataManager.getInstance().getDao().getRecordLicenseTypes(), page.getAccessConditions(),
+            return checkAccessPermission(DataManager.getInstance().getAccessRulesManager().getRecordLicenseTypes(), page.getAccessConditions(),
                     privilegeName, user, NetTools.getIpAddress(request), ClientApplicationManager.getClientFromRequest(request), query);
         } catch (PresentationException e) {
             logger.debug(e.getMessage());
@@ -420,6 +425,108 @@ public final class AccessConditionUtils {
         }
     }
 
+    /**
+     * Checks whether the current user has the given access permission to each of the records with the given identifiers, with the same outcome as
+     * {@link #checkAccessPermissionByIdentifierAndLogId(String, String, String, HttpServletRequest)} without a LOGID. Outcomes already stored in
+     * the user session are reused. The access conditions of all other records are loaded with a single query per {@value #BULK_QUERY_SIZE}
+     * records, and the user, IP address and client are determined only once.
+     *
+     * @param identifiers Record identifiers to check
+     * @param privilegeName Particular privilege for which to check the permission
+     * @param request a {@link javax.servlet.http.HttpServletRequest} object.
+     * @return Map containing the permission for each identifier; identifiers of records not found in the index are missing; identifiers that
+     *         could not be checked due to a query error are denied
+     * @throws IndexUnreachableException
+     * @throws DAOException
+     * @should return permissions for all records
+     * @should skip records not found
+     * @should deny unresolved records if query fails
+     */
+    public static Map<String, AccessPermission> checkAccessPermissionByIdentifiers(Collection<String> identifiers, String privilegeName,
+            HttpServletRequest request) throws IndexUnreachableException, DAOException {
+        Map<String, AccessPermission> ret = new HashMap<>(identifiers.size());
+        Set<String> toLoadSet = new LinkedHashSet<>();
+        for (String identifier : identifiers) {
+            if (StringUtils.isEmpty(identifier) || ret.containsKey(identifier)) {
+                continue;
+            }
+            AccessPermission permission =
+                    (AccessPermission) getSessionPermission(IPrivilegeHolder.PREFIX_PRIV + privilegeName + "_" + identifier + "_" + null, request);
+            if (permission != null) {
+                ret.put(identifier, permission);
+            } else {
+                toLoadSet.add(identifier);
+            }
+        }
+        if (toLoadSet.isEmpty()) {
+            return ret;
+        }
+        List<String> toLoad = new ArrayList<>(toLoadSet);
+
+        User user = getUser(request);
+        String remoteAddress = NetTools.getIpAddress(request);
+        Optional<ClientApplication> client = ClientApplicationManager.getClientFromRequest(request);
+        List<LicenseType> licenseTypes = DataManager.getInstance().getAccessRulesManager().getRecordLicenseTypes();
+        try {
+            for (int i = 0; i < toLoad.size(); i += BULK_QUERY_SIZE) {
+                List<String> batch = toLoad.subList(i, Math.min(i + BULK_QUERY_SIZE, toLoad.size()));
+                StringBuilder sbQuery = new StringBuilder("+").append(SolrConstants.PI).append(":(");
+                for (String identifier : batch) {
+                    sbQuery.append(ClientUtils.escapeQueryChars(identifier)).append(' ');
+                }
+                sbQuery.append(')');
+                SolrDocumentList results = DataManager.getInstance()
+                        .getSearchIndex()
+                        .search(sbQuery.toString(), batch.size(), null, Arrays.asList(SolrConstants.PI, SolrConstants.ACCESSCONDITION));
+                for (SolrDocument doc : results) {
+                    String identifier = (String) doc.getFieldValue(SolrConstants.PI);
+                    Set<String> requiredAccessConditions = new HashSet<>();
+                    Collection<Object> accessConditions = doc.getFieldValues(SolrConstants.ACCESSCONDITION);
+                    if (accessConditions != null) {
+                        for (Object accessCondition : accessConditions) {
+                            requiredAccessConditions.add((String) accessCondition);
+                        }
+                    }
+                    // Same query as for single records, since license types may depend on it
+                    String query = new StringBuilder("+").append(SolrConstants.PI).append(':').append(identifier).toString();
+                    AccessPermission permission =
+                            checkAccessPermission(licenseTypes, requiredAccessConditions, privilegeName, user, remoteAddress, client, query);
+                    addSessionPermission(IPrivilegeHolder.PREFIX_PRIV + privilegeName + "_" + identifier + "_" + null, permission, request);
+                    ret.put(identifier, permission);
+                }
+            }
+        } catch (PresentationException e) {
+            logger.debug(StringConstants.LOG_PRESENTATION_EXCEPTION_THROWN_HERE, e.getMessage());
+            // Deny the remaining records, but don't store that in the session
+            for (String identifier : toLoad) {
+                ret.putIfAbsent(identifier, AccessPermission.denied());
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * Returns the user logged in via the given request or, if there is none, the user of the current session bean.
+     *
+     * @param request
+     * @return Current {@link User}; null if not logged in or not determinable from the current thread
+     */
+    private static User getUser(HttpServletRequest request) {
+        User ret = BeanUtils.getUserFromRequest(request);
+        if (ret == null) {
+            UserBean userBean = BeanUtils.getUserBean();
+            if (userBean != null) {
+                try {
+                    ret = userBean.getUser();
+                } catch (ContextNotActiveException e) {
+                    logger.trace("Cannot access bean method from different thread: UserBean.getUser()");
+                }
+            }
+        }
+        return ret;
+    }
+
     /**
      *
      * @param doc
@@ -448,18 +555,8 @@ public final class AccessConditionUtils {
                 }
             }
 
-            User user = BeanUtils.getUserFromRequest(request);
-            if (user == null) {
-                UserBean userBean = BeanUtils.getUserBean();
-                if (userBean != null) {
-                    try {
-                        user = userBean.getUser();
-                    } catch (ContextNotActiveException e) {
-                        logger.trace("Cannot access bean method from different thread: UserBean.getUser()");
-                    }
-                }
-            }
-            return checkAccessPermission(DataManager.getInstance().getDao().getRecordLicenseTypes(), requiredAccessConditions,
+            User user = getUser(request);
+            return checkAccessPermission(DataManager.getInstance().getAccessRulesManager().getRecordLicenseTypes(), requiredAccessConditions,
                     privilegeName, user, NetTools.getIpAddress(request), ClientApplicationManager.getClientFromRequest(request), originalQuery);
         } catch (PresentationException e) {
             logger.debug(StringConstants.LOG_PRESENTATION_EXCEPTION_THROWN_HERE, e.getMessage());
@@ -517,7 +614,7 @@ public final class AccessConditionUtils {
                     }
 
                     //                    long start = System.nanoTime();
-                    List<LicenseType> nonOpenAccessLicenseTypes = DataManager.getInstance().getDao().getRecordLicenseTypes();
+                    List<LicenseType> nonOpenAccessLicenseTypes = DataManager.getInstance().getAccessRulesManager().getRecordLicenseTypes();
                     for (SolrDocument doc : results) {
                         Set<String> requiredAccessConditions = new HashSet<>();
                         Collection<Object> fieldsAccessConddition = doc.getFieldValues(SolrConstants.ACCESSCONDITION);
@@ -647,7 +744,7 @@ public final class AccessConditionUtils {
                     user = userBean.getUser();
                 }
             }
-            return checkAccessPermission(DataManager.getInstance().getDao().getRecordLicenseTypes(), requiredAccessConditions,
+            return checkAccessPermission(DataManager.getInstance().getAccessRulesManager().getRecordLicenseTypes(), requiredAccessConditions,
                     privilegeName, user, NetTools.getIpAddress(request), ClientApplicationManager.getClientFromRequest(request), query);
         } catch (PresentationException e) {
             logger.debug(StringConstants.LOG_PRESENTATION_EXCEPTION_THROWN_HERE, e.getMessage());
@@ -678,7 +775,7 @@ public final class AccessConditionUtils {
                 user = userBean.getUser();
             }
         }
-        return checkAccessPermission(DataManager.getInstance().getDao().getRecordLicenseTypes(), requiredAccessConditions, privilegeName, user,
+        return checkAccessPermission(DataManager.getInstance().getAccessRulesManager().getRecordLicenseTypes(), requiredAccessConditions, privilegeName, user,
                 NetTools.getIpAddress(request), ClientApplicationManager.getClientFromRequest(request), query);
     }
 
@@ -853,21 +950,91 @@ public final class AccessConditionUtils {
             logger.trace("No required access conditions given, access granted.");
             return AccessPermission.granted();
         }
+
+        // The outcome of all checks that don't depend on the user or client only depends on the access rules snapshot, so it can be cached
+        // as long as the snapshot license types are used
+        AccessRulesManager accessRulesManager = DataManager.getInstance().getAccessRulesManager();
+        CachedDecision decision;
+        if (accessRulesManager.isSnapshotLicenseTypes(allLicenseTypes)) {
+            String key = getDecisionCacheKey(requiredAccessConditions, privilegeName, remoteAddress, query);
+            decision = accessRulesManager.getCachedDecision(key);
+            if (decision == null) {
+                decision = checkLicenseTypeAndIpRangeAccessPermission(allLicenseTypes, requiredAccessConditions, privilegeName, remoteAddress,
+                        query);
+                accessRulesManager.putCachedDecision(key, decision);
+            }
+        } else {
+            decision = checkLicenseTypeAndIpRangeAccessPermission(allLicenseTypes, requiredAccessConditions, privilegeName, remoteAddress, query);
+        }
+        AccessPermission permission = decision.getPermission();
+        if (permission != null) {
+            return permission;
+        }
+        Set<String> useAccessConditions = decision.getUseAccessConditions();
+
+        // If not within an allowed IP range, check the current user's satisfied access conditions
+        if (user != null) {
+            AccessPermission access =
+                    user.canSatisfyAllAccessConditions(useAccessConditions, privilegeName, null);
+            if (access.isGranted()) {
+                return access;
+            }
+        }
+
+        //check clientApplication
+        if (client.map(c -> c.mayLogIn(remoteAddress)).orElse(false)) {
+            //check if specific client matches access conditions
+            if (client.isPresent()) {
+                AccessPermission access = client.get().canSatisfyAllAccessConditions(useAccessConditions, privilegeName, null);
+                if (access.isGranted()) {
+                    return access;
+                }
+            }
+            //check if accesscondition match for all clients
+            ClientApplication allClients = DataManager.getInstance().getClientManager().getAllClientsFromDatabase();
+            if (allClients != null) {
+                AccessPermission access =
+                        allClients.canSatisfyAllAccessConditions(useAccessConditions, privilegeName, null);
+                if (access.isGranted()) {
+                    return access;
+                }
+            }
+        }
+
+        return AccessPermission.denied();
+    }
+
+    /**
+     * Checks access permissions granted by license types and IP ranges, i.e. everything that doesn't depend on the user or client.
+     *
+     * @param allLicenseTypes
+     * @param requiredAccessConditions
+     * @param privilegeName
+     * @param remoteAddress
+     * @param query
+     * @return {@link CachedDecision} with the final permission, or with the relevant access conditions if user and client licenses must be checked
+     * @throws IndexUnreachableException
+     * @throws PresentationException
+     * @throws DAOException
+     */
+    private static CachedDecision checkLicenseTypeAndIpRangeAccessPermission(List<LicenseType> allLicenseTypes,
+            final Set<String> requiredAccessConditions, String privilegeName, String remoteAddress, String query)
+            throws IndexUnreachableException, PresentationException, DAOException {
         // If OPENACCESS is the only condition, allow immediately
         if (isFreeOpenAccess(requiredAccessConditions, allLicenseTypes)) {
-            return AccessPermission.granted();
+            return new CachedDecision(AccessPermission.granted(), null);
         }
         // If no license types are configured or no privilege name is given, deny immediately
         if (allLicenseTypes == null || !StringUtils.isNotEmpty(privilegeName)) {
             logger.trace("No license types or no privilege name given.");
-            return AccessPermission.denied();
+            return new CachedDecision(AccessPermission.denied(), null);
         }
 
         List<LicenseType> relevantLicenseTypes = getRelevantLicenseTypesOnly(allLicenseTypes, requiredAccessConditions, query);
         // If no relevant license types found (configured), deny all
         if (relevantLicenseTypes.isEmpty()) {
             logger.trace("No relevant license types found.");
-            return AccessPermission.denied();
+            return new CachedDecision(AccessPermission.denied(), null);
         }
 
         Set<String> useAccessConditions = new HashSet<>(relevantLicenseTypes.size());
@@ -891,62 +1058,45 @@ public final class AccessConditionUtils {
         }
         if (licenseTypeAllowsPriv) {
             // logger.trace("Privilege '{}' is allowed by default in all license types.", privilegeName); //NOSONAR Debugging
-            return AccessPermission.granted().setRedirect(redirect).setRedirectUrl(redirectUrl);
+            return new CachedDecision(AccessPermission.granted().setRedirect(redirect).setRedirectUrl(redirectUrl), null);
         } else if (isFreeOpenAccess(useAccessConditions, relevantLicenseTypes)) {
             logger.trace("Privilege '{}' is OpenAccess", privilegeName);
-            return AccessPermission.granted().setRedirect(redirect).setRedirectUrl(redirectUrl);
+            return new CachedDecision(AccessPermission.granted().setRedirect(redirect).setRedirectUrl(redirectUrl), null);
         } else {
             // Check IP range
             if (StringUtils.isNotEmpty(remoteAddress)) {
                 if (NetTools.isIpAddressLocalhost(remoteAddress)
                         && DataManager.getInstance().getConfiguration().isFullAccessForLocalhost()) {
                     logger.trace("Access granted to localhost");
-                    return AccessPermission.granted();
+                    return new CachedDecision(AccessPermission.granted(), null);
                 }
                 // Check whether the requested privilege is allowed to this IP range (for all access conditions)
-                for (IpRange ipRange : DataManager.getInstance().getDao().getAllIpRanges()) {
-                    if (ipRange.matchIp(remoteAddress)) {
-                        AccessPermission access =
-                                ipRange.canSatisfyAllAccessConditions(useAccessConditions, relevantLicenseTypes, privilegeName, null);
-                        if (access.isGranted()) {
-                            logger.trace("Access granted to {} via IP range {}", remoteAddress, ipRange.getName());
-                            return access;
-                        }
-                    }
-                }
-            }
-
-            // If not within an allowed IP range, check the current user's satisfied access conditions
-            if (user != null) {
-                AccessPermission access =
-                        user.canSatisfyAllAccessConditions(useAccessConditions, privilegeName, null);
-                if (access.isGranted()) {
-                    return access;
-                }
-            }
-
-            //check clientApplication
-            if (client.map(c -> c.mayLogIn(remoteAddress)).orElse(false)) {
-                //check if specific client matches access conditions
-                if (client.isPresent()) {
-                    AccessPermission access = client.get().canSatisfyAllAccessConditions(useAccessConditions, privilegeName, null);
-                    if (access.isGranted()) {
-                        return access;
-                    }
-                }
-                //check if accesscondition match for all clients
-                ClientApplication allClients = DataManager.getInstance().getClientManager().getAllClientsFromDatabase();
-                if (allClients != null) {
+                for (IpRange ipRange : DataManager.getInstance().getAccessRulesManager().getSnapshot().getMatchingIpRanges(remoteAddress)) {
                     AccessPermission access =
-                            allClients.canSatisfyAllAccessConditions(useAccessConditions, privilegeName, null);
+                            ipRange.canSatisfyAllAccessConditions(useAccessConditions, relevantLicenseTypes, privilegeName, null);
                     if (access.isGranted()) {
-                        return access;
+                        logger.trace("Access granted to {} via IP range {}", remoteAddress, ipRange.getName());
+                        return new CachedDecision(access, null);
                     }
                 }
             }
         }
 
-        return AccessPermission.denied();
+        return new CachedDecision(null, useAccessConditions);
+    }
+
+    /**
+     * 
+     * @param requiredAccessConditions
+     * @param privilegeName
+     * @param remoteAddress
+     * @param query
+     * @return Key for the access decision cache
+     */
+    private static String getDecisionCacheKey(Set<String> requiredAccessConditions, String privilegeName, String remoteAddress, String query) {
+        StringBuilder sb = new StringBuilder().append(privilegeName).append('|').append(remoteAddress).append('|').append(query);
+        requiredAccessConditions.stream().sorted().forEach(condition -> sb.append('|').append(condition));
+        return sb.toString();
     }
 
     /**
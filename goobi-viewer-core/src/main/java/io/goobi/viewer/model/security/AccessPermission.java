@@ -35,6 +35,24 @@ public class AccessPermission implements Serializable {
     private boolean redirect = false;
     private String redirectUrl;
 
+    /**
+     * Default constructor.
+     */
+    public AccessPermission() {
+    }
+
+    /**
+     * Cloning constructor.
+     * 
+     * @param orig
+     */
+    public AccessPermission(AccessPermission orig) {
+        this.granted = orig.granted;
+        this.ticketRequired = orig.ticketRequired;
+        this.redirect = orig.redirect;
+        this.redirectUrl = orig.redirectUrl;
+    }
+
     /**
      * @return {@link AccessPermission} with denied status
      */
@@ -0,0 +1,180 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.model.security;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import io.goobi.viewer.controller.BoundedCache;
+import io.goobi.viewer.dao.IDAO;
+import io.goobi.viewer.exceptions.DAOException;
+
+/**
+ * Holds the current {@link AccessRulesSnapshot} and a cache of access decisions that only depend on the snapshot. Both are discarded whenever
+ * license types, IP ranges or licenses are changed via {@link #invalidate()}, and also expire after a while to pick up changes made by other
+ * applications sharing the database.
+ */
+public class AccessRulesManager {
+
+    private static final Logger logger = LogManager.getLogger(AccessRulesManager.class);
+
+    /** Maximum age of a snapshot before it is reloaded from the database */
+    private static final long SNAPSHOT_MAX_AGE_MILLIS = Duration.ofMinutes(10).toMillis();
+    /** Maximum number of cached access decisions */
+    private static final int DECISION_CACHE_SIZE = 10_000;
+    /** Maximum age of a cached access decision; limits the time moving wall changes take effect */
+    private static final Duration DECISION_CACHE_TTL = Duration.ofMinutes(10);
+
+    private final IDAO dao;
+    private final AtomicLong version = new AtomicLong();
+    private final BoundedCache<String, CachedDecision> decisionCache = new BoundedCache<>(DECISION_CACHE_SIZE, DECISION_CACHE_TTL);
+    private volatile AccessRulesSnapshot snapshot = null;
+
+    /**
+     * 
+     * @param dao DAO to load license types and IP ranges from
+     */
+    public AccessRulesManager(IDAO dao) {
+        this.dao = dao;
+    }
+
+    /**
+     * Returns the current snapshot, creating a new one if the current one has been invalidated or is too old.
+     * 
+     * @return Current {@link AccessRulesSnapshot}
+     * @throws DAOException
+     * @should create new snapshot after invalidation
+     */
+    public AccessRulesSnapshot getSnapshot() throws DAOException {
+        AccessRulesSnapshot current = this.snapshot;
+        if (isValid(current)) {
+            return current;
+        }
+        synchronized (this) {
+            current = this.snapshot;
+            if (!isValid(current)) {
+                current = new AccessRulesSnapshot(dao, version.get());
+                decisionCache.clear();
+                this.snapshot = current;
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Convenience method.
+     * 
+     * @return Unmodifiable list of all non-core license types from the current snapshot
+     * @throws DAOException
+     */
+    public List<LicenseType> getRecordLicenseTypes() throws DAOException {
+        return getSnapshot().getRecordLicenseTypes();
+    }
+
+    /**
+     * Discards the current snapshot and all cached decisions. Must be called after license types, IP ranges or their licenses have been
+     * changed.
+     */
+    public void invalidate() {
+        long v = version.incrementAndGet();
+        decisionCache.clear();
+        logger.trace("Access rules invalidated, new version: {}", v);
+    }
+
+    /**
+     * 
+     * @param licenseTypes
+     * @return true if licenseTypes is the license type list of the current snapshot, i.e. decisions based on it may be cached
+     */
+    boolean isSnapshotLicenseTypes(List<LicenseType> licenseTypes) {
+        AccessRulesSnapshot current = this.snapshot;
+        return licenseTypes != null && isValid(current) && current.getRecordLicenseTypes() == licenseTypes;
+    }
+
+    /**
+     * 
+     * @param key
+     * @return Cached decision for key; null if none cached
+     */
+    CachedDecision getCachedDecision(String key) {
+        return decisionCache.get(version.get() + ":" + key);
+    }
+
+    /**
+     * 
+     * @param key
+     * @param decision
+     */
+    void putCachedDecision(String key, CachedDecision decision) {
+        decisionCache.put(version.get() + ":" + key, decision);
+    }
+
+    /**
+     * @return Number of access decisions served from the cache
+     */
+    public long getDecisionCacheHits() {
+        return decisionCache.getHits();
+    }
+
+    /**
+     * @return Number of access decisions not found in the cache
+     */
+    public long getDecisionCacheMisses() {
+        return decisionCache.getMisses();
+    }
+
+    private boolean isValid(AccessRulesSnapshot s) {
+        return s != null && s.getVersion() == version.get() && System.currentTimeMillis() - s.getCreated() < SNAPSHOT_MAX_AGE_MILLIS;
+    }
+
+    /**
+     * Outcome of the user independent part of an access permission check.
+     */
+    static class CachedDecision {
+
+        /** Final outcome; null if user and client licenses still need to be checked */
+        private final AccessPermission permission;
+        /** Names of the relevant license types to check against user and client licenses */
+        private final Set<String> useAccessConditions;
+
+        CachedDecision(AccessPermission permission, Set<String> useAccessConditions) {
+            this.permission = permission;
+            this.useAccessConditions = useAccessConditions;
+        }
+
+        /**
+         * @return Copy of the final outcome; null if user and client licenses still need to be checked
+         */
+        AccessPermission getPermission() {
+            return permission != null ? new AccessPermission(permission) : null;
+        }
+
+        Set<String> getUseAccessConditions() {
+            return useAccessConditions;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.model.security;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import io.goobi.viewer.dao.IDAO;
+import io.goobi.viewer.exceptions.DAOException;
+import io.goobi.viewer.model.security.user.IpRange;
+import io.goobi.viewer.model.security.user.IpRangeTable;
+
+/**
+ * Immutable snapshot of the record license types and IP ranges used for access permission checks, so that these don't need to be loaded from
+ * the database for each check. Snapshots are created and replaced by {@link AccessRulesManager}.
+ */
+public class AccessRulesSnapshot {
+
+    private static final Logger logger = LogManager.getLogger(AccessRulesSnapshot.class);
+
+    private final long version;
+    private final long created;
+    private final List<LicenseType> recordLicenseTypes;
+    private final List<IpRange> ipRanges;
+    private final IpRangeTable<IpRange> ipRangeTable = new IpRangeTable<>();
+
+    /**
+     * Loads all record license types and IP ranges from the given DAO.
+     * 
+     * @param dao
+     * @param version
+     * @throws DAOException
+     */
+    AccessRulesSnapshot(IDAO dao, long version) throws DAOException {
+        this.version = version;
+        this.created = System.currentTimeMillis();
+        this.recordLicenseTypes = Collections.unmodifiableList(dao.getRecordLicenseTypes());
+        this.ipRanges = Collections.unmodifiableList(dao.getAllIpRanges());
+        for (IpRange ipRange : ipRanges) {
+            if (!ipRangeTable.add(ipRange.getSubnetMask(), ipRange)) {
+                logger.error("Invalid subnet mask in IP range '{}': {}", ipRange.getName(), ipRange.getSubnetMask());
+            }
+        }
+        logger.debug("Access rules snapshot {} created with {} license types and {} IP ranges", version, recordLicenseTypes.size(),
+                ipRanges.size());
+    }
+
+    /**
+     * @return the version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return Creation time in milliseconds
+     */
+    public long getCreated() {
+        return created;
+    }
+
+    /**
+     * @return Unmodifiable list of all non-core license types
+     */
+    public List<LicenseType> getRecordLicenseTypes() {
+        return recordLicenseTypes;
+    }
+
+    /**
+     * @return Unmodifiable list of all IP ranges
+     */
+    public List<IpRange> getIpRanges() {
+        return ipRanges;
+    }
+
+    /**
+     * 
+     * @param ip IPv4 or IPv6 address
+     * @return All IP ranges that contain the given address
+     */
+    public List<IpRange> getMatchingIpRanges(String ip) {
+        return ipRangeTable.match(ip);
+    }
+}
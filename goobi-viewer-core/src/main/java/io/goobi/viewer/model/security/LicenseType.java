@@ -24,11 +24,11 @@ package io.goobi.viewer.model.security;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -129,7 +129,7 @@ public class LicenseType extends AbstractPrivilegeHolder implements ILicenseType
      * record.
      */
     @Transient
-    private Map<String, Boolean> restrictionsExpired = new HashMap<>();
+    private Map<String, Boolean> restrictionsExpired = new ConcurrentHashMap<>();
 
     @Transient
     private Boolean ugcType = null;
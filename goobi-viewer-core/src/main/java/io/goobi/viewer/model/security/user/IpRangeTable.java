@@ -0,0 +1,208 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.model.security.user;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Binary prefix trie of IPv4 and IPv6 subnets in CIDR notation. Looking up all subnets containing an address costs at most 32 (IPv4) or 128
+ * (IPv6) steps, regardless of the number of subnets. Instances are not thread safe while being filled, but may be shared once filled.
+ *
+ * @param <T> type of the values associated with the subnets
+ */
+public class IpRangeTable<T> {
+
+    private final Node<T> ipv4Root = new Node<>();
+    private final Node<T> ipv6Root = new Node<>();
+    private int size = 0;
+
+    /**
+     * Adds a subnet to the table.
+     * 
+     * @param subnetMask Subnet in CIDR notation, e.g. "192.168.0.0/16" or "2001:db8::/32"
+     * @param value Value to return for addresses within the subnet
+     * @return true if added; false if subnetMask could not be parsed
+     * @should add IPv4 and IPv6 subnets
+     * @should reject invalid subnets
+     */
+    public boolean add(String subnetMask, T value) {
+        if (subnetMask == null) {
+            return false;
+        }
+        int slash = subnetMask.indexOf('/');
+        if (slash < 0) {
+            return false;
+        }
+        byte[] address = parseAddress(subnetMask.substring(0, slash).trim());
+        if (address == null) {
+            return false;
+        }
+        int prefixLength;
+        try {
+            prefixLength = Integer.parseInt(subnetMask.substring(slash + 1).trim());
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        if (prefixLength < 0 || prefixLength > address.length * 8) {
+            return false;
+        }
+
+        Node<T> node = address.length == 4 ? ipv4Root : ipv6Root;
+        for (int i = 0; i < prefixLength; i++) {
+            int bit = getBit(address, i);
+            if (node.children[bit] == null) {
+                node.children[bit] = new Node<>();
+            }
+            node = node.children[bit];
+        }
+        node.values.add(new Value<>(value, size));
+        size++;
+        return true;
+    }
+
+    /**
+     * Returns the values of all subnets containing the given address, in the order in which they were added. The IPv6 localhost address is
+     * treated as IPv4 localhost.
+     * 
+     * @param ip IPv4 or IPv6 address
+     * @return List of matching values; empty list if none match or ip is not a valid address
+     * @should return all matching values in insertion order
+     * @should match IPv6 localhost to IPv4 subnet
+     * @should match edge addresses
+     * @should return empty list for invalid address
+     */
+    public List<T> match(String ip) {
+        if (ip == null || size == 0) {
+            return Collections.emptyList();
+        }
+        byte[] address = parseAddress(normalizeLocalhost(ip.trim()));
+        if (address == null) {
+            return Collections.emptyList();
+        }
+
+        List<Value<T>> found = new ArrayList<>();
+        Node<T> node = address.length == 4 ? ipv4Root : ipv6Root;
+        int bits = address.length * 8;
+        for (int i = 0; node != null; i++) {
+            found.addAll(node.values);
+            if (i == bits) {
+                break;
+            }
+            node = node.children[getBit(address, i)];
+        }
+        if (found.isEmpty()) {
+            return Collections.emptyList();
+        }
+        found.sort((v1, v2) -> Integer.compare(v1.index, v2.index));
+        List<T> ret = new ArrayList<>(found.size());
+        for (Value<T> v : found) {
+            ret.add(v.value);
+        }
+        return ret;
+    }
+
+    /**
+     * @return Number of subnets in the table
+     */
+    public int size() {
+        return size;
+    }
+
+    private static String normalizeLocalhost(String ip) {
+        if ("0:0:0:0:0:0:0:1".equals(ip) || "::1".equals(ip)) {
+            return "127.0.0.1";
+        }
+        return ip;
+    }
+
+    private static int getBit(byte[] address, int index) {
+        return (address[index / 8] >> (7 - index % 8)) & 1;
+    }
+
+    /**
+     * Parses an IPv4 or IPv6 address literal without doing any name lookups.
+     * 
+     * @param ip
+     * @return 4 or 16 bytes; null if ip is not an address literal
+     */
+    static byte[] parseAddress(String ip) {
+        if (ip.isEmpty()) {
+            return null;
+        }
+        if (ip.indexOf(':') < 0) {
+            String[] parts = ip.split("\\.", -1);
+            if (parts.length != 4) {
+                return null;
+            }
+            byte[] ret = new byte[4];
+            for (int i = 0; i < 4; i++) {
+                if (parts[i].isEmpty() || parts[i].length() > 3) {
+                    return null;
+                }
+                int value = 0;
+                for (char c : parts[i].toCharArray()) {
+                    if (c < '0' || c > '9') {
+                        return null;
+                    }
+                    value = value * 10 + (c - '0');
+                }
+                if (value > 255) {
+                    return null;
+                }
+                ret[i] = (byte) value;
+            }
+            return ret;
+        }
+        // Only hex digits, colons, dots and an optional zone index are valid in an IPv6 literal, so InetAddress won't do a name lookup
+        if (!ip.matches("[0-9a-fA-F:.]+(%[0-9a-zA-Z]+)?")) {
+            return null;
+        }
+        try {
+            // IPv4-mapped IPv6 addresses are returned as 4 byte IPv4 addresses
+            return InetAddress.getByName(ip).getAddress();
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+
+    private static class Node<T> {
+
+        @SuppressWarnings("unchecked")
+        private final Node<T>[] children = new Node[2];
+        private final List<Value<T>> values = new ArrayList<>(1);
+    }
+
+    private static class Value<T> {
+
+        private final T value;
+        private final int index;
+
+        public Value(T value, int index) {
+            this.value = value;
+            this.index = index;
+        }
+    }
+}
@@ -53,6 +53,7 @@ import io.goobi.viewer.model.viewer.PageType;
 import io.goobi.viewer.model.viewer.StringPair;
 import io.goobi.viewer.solr.SolrConstants;
 import io.goobi.viewer.solr.SolrConstants.DocType;
+import io.goobi.viewer.solr.SolrCursor;
 import io.goobi.viewer.solr.SolrSearchIndex;
 
 /**
@@ -62,6 +63,9 @@ public class Sitemap {
 
     private static final Logger logger = LogManager.getLogger(Sitemap.class);
 
+    /** Number of record documents fetched from the index per request. */
+    private static final int RECORD_BATCH_SIZE = 1000;
+
     static final Namespace NS_SITEMAP = Namespace.getNamespace(null, "http://www.sitemaps.org/schemas/sitemap/0.9");
 
     private String viewerRootUrl = "http://localhost:8080/viewer";
@@ -140,107 +144,113 @@ public class Sitemap {
                 SolrConstants.DOCTYPE, SolrConstants.ISANCHOR, SolrConstants.THUMBPAGENO };
         String[] pageFields = { SolrConstants.ORDER };
 
-        QueryResponse qr = DataManager.getInstance()
+        // Records are fetched in batches via a cursor instead of all at once
+        SolrCursor cursor = DataManager.getInstance()
                 .getSearchIndex()
-                .search(sbQuery.toString(), 0, SolrSearchIndex.MAX_HITS, Collections.singletonList(new StringPair(SolrConstants.DATECREATED, "asc")),
-                        null, null, Arrays.asList(fields), null, null);
-        logger.debug("Sitemap: found {} records.", qr.getResults().size());
+                .searchWithCursor(sbQuery.toString(), RECORD_BATCH_SIZE, Collections.singletonList(new StringPair(SolrConstants.DATECREATED, "asc")),
+                        Arrays.asList(fields), null, null);
 
         long latestTimestampModified = 0;
         int recordIndex = 0;
         long start = System.nanoTime();
-        for (SolrDocument solrDoc : qr.getResults()) {
-            if (Thread.interrupted()) {
-                break;
+        records: while (cursor.hasNext()) {
+            QueryResponse qr = cursor.next();
+            if (recordIndex == 0) {
+                logger.debug("Sitemap: found {} records.", cursor.getNumFound());
             }
-            String pi = (String) solrDoc.getFieldValue(SolrConstants.PI);
-            String dateModified = null;
-            Collection<Object> dateUpdatedValues = solrDoc.getFieldValues(SolrConstants.DATEUPDATED);
-            if (dateUpdatedValues != null && !dateUpdatedValues.isEmpty()) {
-                // Get latest DATEUPDATED values
-                for (Object dateUpdated : dateUpdatedValues) {
-                    if (((long) dateUpdated) > timestampModified) {
-                        timestampModified = (long) dateUpdated;
-                    }
+            for (SolrDocument solrDoc : qr.getResults()) {
+                if (Thread.interrupted()) {
+                    break records;
                 }
-                dateModified =
-                        DateTools.format(DateTools.getLocalDateTimeFromMillis(timestampModified, false), DateTools.FORMATTERISO8601DATE, false);
-                if (timestampModified > latestTimestampModified) {
-                    latestTimestampModified = timestampModified;
-                    eleCurrectIndexSitemap.getChild("lastmod", NS_SITEMAP).setText(dateModified);
-                    //                        logger.debug("Sitemap: set latest modified date: " + dateModified);
+                String pi = (String) solrDoc.getFieldValue(SolrConstants.PI);
+                String dateModified = null;
+                Collection<Object> dateUpdatedValues = solrDoc.getFieldValues(SolrConstants.DATEUPDATED);
+                if (dateUpdatedValues != null && !dateUpdatedValues.isEmpty()) {
+                    // Get latest DATEUPDATED values
+                    for (Object dateUpdated : dateUpdatedValues) {
+                        if (((long) dateUpdated) > timestampModified) {
+                            timestampModified = (long) dateUpdated;
+                        }
+                    }
+                    dateModified =
+                            DateTools.format(DateTools.getLocalDateTimeFromMillis(timestampModified, false), DateTools.FORMATTERISO8601DATE, false);
+                    if (timestampModified > latestTimestampModified) {
+                        latestTimestampModified = timestampModified;
+                        eleCurrectIndexSitemap.getChild("lastmod", NS_SITEMAP).setText(dateModified);
+                        //                        logger.debug("Sitemap: set latest modified date: " + dateModified);
+                    }
                 }
-            }
-            if (solrDoc.getFieldValue(SolrConstants.ISANCHOR) != null && (Boolean) solrDoc.getFieldValue(SolrConstants.ISANCHOR)) {
-                // Anchor
-
-                // Anchor TOC URL
-                currentDocSitemap.getRootElement().addContent(createUrlElement(pi, 1, dateModified, PageType.viewToc.getName(), "weekly", "0.5"));
-                increment(timestampModified);
-
-                // Anchor metadata URL
-                currentDocSitemap.getRootElement()
-                        .addContent(createUrlElement(pi, 1, dateModified, PageType.viewMetadata.getName(), "weekly", "0.5"));
-                increment(timestampModified);
-            } else if (DocType.GROUP.toString().equals(solrDoc.getFieldValue(SolrConstants.DOCTYPE))) {
-                // Group
-
-                // Group TOC URL
-                currentDocSitemap.getRootElement().addContent(createUrlElement(pi, 1, dateModified, PageType.viewToc.getName(), "weekly", "0.5"));
-                increment(timestampModified);
-            } else {
-                // RECORD
-                // Record object URL (representative page)
-                int recOrder = solrDoc.containsKey(SolrConstants.THUMBPAGENO) ? (int) solrDoc.getFieldValue(SolrConstants.THUMBPAGENO) : 1;
-                currentDocSitemap.getRootElement()
-                        .addContent(createUrlElement(pi, recOrder, dateModified, PageType.viewObject.getName(), "weekly", "0.5"));
-                increment(timestampModified);
-
-                // Record metadata URL
-                currentDocSitemap.getRootElement()
-                        .addContent(createUrlElement(pi, 1, dateModified, PageType.viewMetadata.getName(), "weekly", "0.5"));
-                increment(timestampModified);
-
-                // Record TOC URL
-                currentDocSitemap.getRootElement().addContent(createUrlElement(pi, 1, dateModified, PageType.viewToc.getName(), "weekly", "0.5"));
-                increment(timestampModified);
-
-                QueryResponse qrPages;
-                // PAGES
-                StringBuilder sbPagesQuery = new StringBuilder();
-                sbPagesQuery.append(SolrConstants.PI_TOPSTRUCT)
-                        .append(':')
-                        .append(pi)
-                        .append(" AND ")
-                        .append(SolrConstants.DOCTYPE)
-                        .append(':')
-                        .append(SolrConstants.DocType.PAGE)
-                        .append(" AND ")
-                        .append(SolrConstants.FULLTEXTAVAILABLE)
-                        .append(":true");
-                // logger.trace("Sitemap: pages query: {}", sbPagesQuery.toString()); //NOSONAR Debug
-                qrPages = DataManager.getInstance()
-                        .getSearchIndex()
-                        .search(sbPagesQuery.toString(), 0, SolrSearchIndex.MAX_HITS,
-                                Collections.singletonList(new StringPair(SolrConstants.ORDER, "asc")), null, null, Arrays.asList(pageFields), null,
-                                null);
-                if (!qrPages.getResults().isEmpty()) {
-                    logger.debug("Sitemap: found {} pages with full-text for '{}'.", qrPages.getResults().size(), pi);
-                    for (SolrDocument solrPageDoc : qrPages.getResults()) {
-                        int pageOrder = (int) solrPageDoc.getFieldValue(SolrConstants.ORDER);
-                        // Page full-text URL
-                        currentDocSitemap.getRootElement()
-                                .addContent(createUrlElement(pi, pageOrder, dateModified, PageType.viewFulltext.getName(), "weekly", "0.5"));
-                        increment(timestampModified);
+                if (solrDoc.getFieldValue(SolrConstants.ISANCHOR) != null && (Boolean) solrDoc.getFieldValue(SolrConstants.ISANCHOR)) {
+                    // Anchor
+
+                    // Anchor TOC URL
+                    currentDocSitemap.getRootElement().addContent(createUrlElement(pi, 1, dateModified, PageType.viewToc.getName(), "weekly", "0.5"));
+                    increment(timestampModified);
+
+                    // Anchor metadata URL
+                    currentDocSitemap.getRootElement()
+                            .addContent(createUrlElement(pi, 1, dateModified, PageType.viewMetadata.getName(), "weekly", "0.5"));
+                    increment(timestampModified);
+                } else if (DocType.GROUP.toString().equals(solrDoc.getFieldValue(SolrConstants.DOCTYPE))) {
+                    // Group
+
+                    // Group TOC URL
+                    currentDocSitemap.getRootElement().addContent(createUrlElement(pi, 1, dateModified, PageType.viewToc.getName(), "weekly", "0.5"));
+                    increment(timestampModified);
+                } else {
+                    // RECORD
+                    // Record object URL (representative page)
+                    int recOrder = solrDoc.containsKey(SolrConstants.THUMBPAGENO) ? (int) solrDoc.getFieldValue(SolrConstants.THUMBPAGENO) : 1;
+                    currentDocSitemap.getRootElement()
+                            .addContent(createUrlElement(pi, recOrder, dateModified, PageType.viewObject.getName(), "weekly", "0.5"));
+                    increment(timestampModified);
+
+                    // Record metadata URL
+                    currentDocSitemap.getRootElement()
+                            .addContent(createUrlElement(pi, 1, dateModified, PageType.viewMetadata.getName(), "weekly", "0.5"));
+                    increment(timestampModified);
+
+                    // Record TOC URL
+                    currentDocSitemap.getRootElement().addContent(createUrlElement(pi, 1, dateModified, PageType.viewToc.getName(), "weekly", "0.5"));
+                    increment(timestampModified);
+
+                    QueryResponse qrPages;
+                    // PAGES
+                    StringBuilder sbPagesQuery = new StringBuilder();
+                    sbPagesQuery.append(SolrConstants.PI_TOPSTRUCT)
+                            .append(':')
+                            .append(pi)
+                            .append(" AND ")
+                            .append(SolrConstants.DOCTYPE)
+                            .append(':')
+                            .append(SolrConstants.DocType.PAGE)
+                            .append(" AND ")
+                            .append(SolrConstants.FULLTEXTAVAILABLE)
+                            .append(":true");
+                    // logger.trace("Sitemap: pages query: {}", sbPagesQuery.toString()); //NOSONAR Debug
+                    qrPages = DataManager.getInstance()
+                            .getSearchIndex()
+                            .search(sbPagesQuery.toString(), 0, SolrSearchIndex.MAX_HITS,
+                                    Collections.singletonList(new StringPair(SolrConstants.ORDER, "asc")), null, null, Arrays.asList(pageFields),
+                                    null, null);
+                    if (!qrPages.getResults().isEmpty()) {
+                        logger.debug("Sitemap: found {} pages with full-text for '{}'.", qrPages.getResults().size(), pi);
+                        for (SolrDocument solrPageDoc : qrPages.getResults()) {
+                            int pageOrder = (int) solrPageDoc.getFieldValue(SolrConstants.ORDER);
+                            // Page full-text URL
+                            currentDocSitemap.getRootElement()
+                                    .addContent(createUrlElement(pi, pageOrder, dateModified, PageType.viewFulltext.getName(), "weekly", "0.5"));
+                            increment(timestampModified);
+                        }
                     }
                 }
-            }
-            recordIndex++;
-            if (recordIndex % 50 == 0) {
-                logger.debug("Sitemap: parsed record {}", recordIndex);
-                long end = System.nanoTime();
-                logger.debug("Sitemap: parsing 50 records took {}" + " seconds", ((end - start) / 1e9));
-                start = end;
+                recordIndex++;
+                if (recordIndex % 50 == 0) {
+                    logger.debug("Sitemap: parsed record {}", recordIndex);
+                    long end = System.nanoTime();
+                    logger.debug("Sitemap: parsing 50 records took {}" + " seconds", ((end - start) / 1e9));
+                    start = end;
+                }
             }
         }
 
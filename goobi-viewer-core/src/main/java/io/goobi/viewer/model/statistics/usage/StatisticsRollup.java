@@ -0,0 +1,200 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.model.statistics.usage;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.solr.common.SolrDocument;
+
+/**
+ * Request counts of a whole period (month or year), summed up from the daily STATISTICS_USAGE documents of that period. Counts are held per record
+ * identifier in a single array, so a summary for the whole period can be created without reading the daily documents again, both for all records
+ * and for any subset of records.
+ */
+public final class StatisticsRollup {
+
+    private static final Logger logger = LogManager.getLogger(StatisticsRollup.class);
+
+    /** Number of counts per record: total and unique count for each {@link RequestType} */
+    static final int COUNTS_PER_RECORD = RequestType.values().length * 2;
+
+    /** Number of daily documents summed up in this rollup */
+    private final int days;
+    private final LocalDate firstDate;
+    private final LocalDate lastDate;
+    /** Sorted record identifiers */
+    private final String[] identifiers;
+    /** {@link #COUNTS_PER_RECORD} counts for each record, in the order of {@link #identifiers} */
+    private final long[] counts;
+    /** Sums of all records */
+    private final long[] totals;
+
+    private StatisticsRollup(int days, LocalDate firstDate, LocalDate lastDate, Map<String, long[]> recordCounts) {
+        this.days = days;
+        this.firstDate = firstDate;
+        this.lastDate = lastDate;
+        this.identifiers = recordCounts.keySet().toArray(new String[0]);
+        this.counts = new long[identifiers.length * COUNTS_PER_RECORD];
+        this.totals = new long[COUNTS_PER_RECORD];
+        for (int i = 0; i < identifiers.length; ++i) {
+            long[] values = recordCounts.get(identifiers[i]);
+            System.arraycopy(values, 0, counts, i * COUNTS_PER_RECORD, COUNTS_PER_RECORD);
+            for (int j = 0; j < COUNTS_PER_RECORD; ++j) {
+                totals[j] += values[j];
+            }
+        }
+    }
+
+    /**
+     * Sums up the given daily statistics documents.
+     * 
+     * @param docs STATISTICS_USAGE documents with all fields
+     * @return {@link StatisticsRollup}
+     * @should sum up counts per record
+     */
+    public static StatisticsRollup create(Collection<SolrDocument> docs) {
+        Map<String, long[]> recordCounts = new TreeMap<>();
+        LocalDate first = null;
+        LocalDate last = null;
+        for (SolrDocument doc : docs) {
+            LocalDate date = getDate(doc);
+            if (date != null) {
+                first = first == null || date.isBefore(first) ? date : first;
+                last = last == null || date.isAfter(last) ? date : last;
+            }
+            for (String fieldName : doc.getFieldNames()) {
+                if (!fieldName.startsWith(StatisticsLuceneFields.RECORD_STATISTICS_PREFIX)) {
+                    continue;
+                }
+                Object value = doc.getFieldValue(fieldName);
+                if (!(value instanceof List<?> values)) {
+                    logger.warn("Envountered solr doc field of unexcepted type: '{}' : '{}'", fieldName, value);
+                    continue;
+                }
+                long[] sums = recordCounts.computeIfAbsent(StatisticsLuceneFields.getPi(fieldName), k -> new long[COUNTS_PER_RECORD]);
+                for (int i = 0; i < COUNTS_PER_RECORD && i < values.size(); ++i) {
+                    if (values.get(i) instanceof Number n) {
+                        sums[i] += n.longValue();
+                    }
+                }
+            }
+        }
+
+        return new StatisticsRollup(docs.size(), first, last, recordCounts);
+    }
+
+    /**
+     * Combines the given rollups of consecutive periods into one for the whole period.
+     * 
+     * @param rollups Rollups to combine
+     * @return {@link StatisticsRollup}
+     * @should combine counts of all rollups
+     */
+    public static StatisticsRollup merge(Collection<StatisticsRollup> rollups) {
+        Map<String, long[]> recordCounts = new TreeMap<>();
+        int days = 0;
+        LocalDate first = null;
+        LocalDate last = null;
+        for (StatisticsRollup rollup : rollups) {
+            days += rollup.days;
+            if (rollup.firstDate != null) {
+                first = first == null || rollup.firstDate.isBefore(first) ? rollup.firstDate : first;
+                last = last == null || rollup.lastDate.isAfter(last) ? rollup.lastDate : last;
+            }
+            for (int i = 0; i < rollup.identifiers.length; ++i) {
+                long[] sums = recordCounts.computeIfAbsent(rollup.identifiers[i], k -> new long[COUNTS_PER_RECORD]);
+                for (int j = 0; j < COUNTS_PER_RECORD; ++j) {
+                    sums[j] += rollup.counts[i * COUNTS_PER_RECORD + j];
+                }
+            }
+        }
+
+        return new StatisticsRollup(days, first, last, recordCounts);
+    }
+
+    /**
+     * Creates a summary of the whole period.
+     * 
+     * @param identifiersToInclude Record identifiers to count; all records are counted if empty
+     * @return {@link StatisticsSummary}
+     * @should only count included records
+     */
+    public StatisticsSummary getSummary(List<String> identifiersToInclude) {
+        long[] sums;
+        if (identifiersToInclude.isEmpty()) {
+            sums = totals;
+        } else {
+            sums = new long[COUNTS_PER_RECORD];
+            for (String pi : identifiersToInclude) {
+                int index = Arrays.binarySearch(identifiers, pi);
+                if (index >= 0) {
+                    for (int j = 0; j < COUNTS_PER_RECORD; ++j) {
+                        sums[j] += counts[index * COUNTS_PER_RECORD + j];
+                    }
+                }
+            }
+        }
+
+        Map<RequestType, RequestTypeSummary> map = new EnumMap<>(RequestType.class);
+        for (int i = 0; i < COUNTS_PER_RECORD; i += 2) {
+            map.put(RequestType.getTypeForTotalCountIndex(i), new RequestTypeSummary(sums[i], sums[i + 1], firstDate, lastDate));
+        }
+        return new StatisticsSummary(map);
+    }
+
+    /**
+     * @return Number of daily documents summed up in this rollup
+     */
+    public int getDays() {
+        return days;
+    }
+
+    /**
+     * @return Number of records with requests in this period
+     */
+    public int getNumRecords() {
+        return identifiers.length;
+    }
+
+    /**
+     * 
+     * @param doc
+     * @return Value of the {@link StatisticsLuceneFields#DATE} field; null if not set
+     */
+    static LocalDate getDate(SolrDocument doc) {
+        if (doc.getFieldValue(StatisticsLuceneFields.DATE) instanceof Date date) {
+            return new Timestamp(date.getTime()).toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+        }
+        return null;
+    }
+}
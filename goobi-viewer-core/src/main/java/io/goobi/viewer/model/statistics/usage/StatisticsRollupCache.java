@@ -0,0 +1,111 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.model.statistics.usage;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.goobi.viewer.controller.BoundedCache;
+
+/**
+ * Cache of {@link StatisticsRollup}s for completed months and years, shared by all {@link StatisticsSummaryBuilder}s. A rollup is only returned if
+ * it contains as many daily documents as are currently indexed for its period, so days indexed after the rollup was created are never missed. The
+ * memory used by a rollup grows with the number of records it contains, so the cache is bounded by the total number of records of all rollups.
+ */
+public class StatisticsRollupCache {
+
+    /** Enough for 50 years of monthly and yearly rollups */
+    private static final int MAX_SIZE = 650;
+    /** Maximum total number of records in all cached rollups, roughly 100 bytes each */
+    private static final long MAX_RECORDS = 1_000_000;
+    private static final Duration TTL = Duration.ofDays(1);
+
+    private final BoundedCache<String, StatisticsRollup> cache;
+
+    private final LongAdder stale = new LongAdder();
+
+    /**
+     * Creates a cache with the default maximum number of records.
+     */
+    public StatisticsRollupCache() {
+        this(MAX_RECORDS);
+    }
+
+    /**
+     * 
+     * @param maxRecords Maximum total number of records in all cached rollups
+     */
+    StatisticsRollupCache(long maxRecords) {
+        this.cache = new BoundedCache<>(MAX_SIZE, TTL, maxRecords, StatisticsRollup::getNumRecords);
+    }
+
+    /**
+     * 
+     * @param period Period key, e.g. "2022" or "2022-08"
+     * @param days Number of daily documents currently indexed for the period
+     * @return Cached rollup; null if none exists or it doesn't cover all indexed days
+     * @should return null if number of days differs
+     */
+    public StatisticsRollup get(String period, int days) {
+        StatisticsRollup ret = cache.get(period);
+        if (ret != null && ret.getDays() != days) {
+            cache.remove(period);
+            stale.increment();
+            return null;
+        }
+        return ret;
+    }
+
+    /**
+     * Adds the given rollup. Least recently used rollups are evicted if the total number of records becomes too large.
+     * 
+     * @param period Period key, e.g. "2022" or "2022-08"
+     * @param rollup
+     * @should evict rollups if max records exceeded
+     */
+    public void put(String period, StatisticsRollup rollup) {
+        cache.put(period, rollup);
+    }
+
+    /**
+     * Removes all rollups.
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     *
+     * @return Counters for monitoring
+     */
+    public Map<String, Long> getStatistics() {
+        Map<String, Long> ret = new LinkedHashMap<>();
+        ret.put("size", (long) cache.size());
+        ret.put("records", cache.getWeight());
+        ret.put("hits", cache.getHits());
+        ret.put("misses", cache.getMisses());
+        ret.put("stale", stale.sum());
+        return ret;
+    }
+}
@@ -21,17 +21,18 @@
  */
 package io.goobi.viewer.model.statistics.usage;
 
-import java.sql.Timestamp;
 import java.time.LocalDate;
-import java.time.ZoneId;
+import java.time.Month;
+import java.time.Year;
+import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Date;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.TreeMap;
 
 import javax.ws.rs.WebApplicationException;
 
@@ -72,13 +73,19 @@ public class StatisticsSummaryBuilder {
      */
     private final SolrSearchIndex searchIndex;
 
+    /**
+     * Request counts of completed months and years
+     */
+    private final StatisticsRollupCache rollupCache;
+
     /**
      * Constructor using instances from {@link DataManager}
      * 
      * @throws DAOException
      */
     public StatisticsSummaryBuilder() throws DAOException {
-        this(DataManager.getInstance().getDao(), DataManager.getInstance().getSearchIndex());
+        this(DataManager.getInstance().getDao(), DataManager.getInstance().getSearchIndex(),
+                DataManager.getInstance().getUsageStatisticsRollupCache());
     }
 
     /**
@@ -88,8 +95,19 @@ public class StatisticsSummaryBuilder {
      * @param searchIndex the {@link SolrSearchIndex} to set
      */
     public StatisticsSummaryBuilder(IDAO dao, SolrSearchIndex searchIndex) {
+        this(dao, searchIndex, new StatisticsRollupCache());
+    }
+
+    /**
+     * 
+     * @param dao the {@link IDAO} to set. May be null since it isn't used
+     * @param searchIndex the {@link SolrSearchIndex} to set
+     * @param rollupCache the {@link StatisticsRollupCache} to use
+     */
+    public StatisticsSummaryBuilder(IDAO dao, SolrSearchIndex searchIndex, StatisticsRollupCache rollupCache) {
         this.dao = dao;
         this.searchIndex = searchIndex;
+        this.rollupCache = rollupCache;
     }
 
     /**
@@ -117,13 +135,117 @@ public class StatisticsSummaryBuilder {
         if (filter.hasFilterQuery() && identifiersToInclude.isEmpty()) {
             throw new WebApplicationException("No records found matching filter " + filter.getFilterQuery());
         }
+
+        // Same date range as selected by getSolrQuery(filter)
+        LocalDate startDate = filter.hasStartDateRestriction() ? filter.getStartDate() : StatisticsSummaryFilter.LOCAL_DATE_MIN;
+        LocalDate endDate = filter.isDateRange() ? filter.getEndDate() : startDate;
+        if (!filter.hasStartDateRestriction()) {
+            endDate = StatisticsSummaryFilter.LOCAL_DATE_MAX;
+        }
+
+        // Only the dates of all daily documents in the range are loaded, to find out which rollups can be used
+        Map<YearMonth, Integer> dayCounts = new TreeMap<>();
+        for (SolrDocument doc : this.searchIndex.search(getSolrQuery(filter), Collections.singletonList(StatisticsLuceneFields.DATE))) {
+            LocalDate date = StatisticsRollup.getDate(doc);
+            if (date != null) {
+                dayCounts.merge(YearMonth.from(date), 1, Integer::sum);
+            }
+        }
+
+        StatisticsSummary ret = StatisticsSummary.empty();
+        Map<Year, Map<YearMonth, Integer>> completeYears = new TreeMap<>();
+        for (Entry<YearMonth, Integer> entry : dayCounts.entrySet()) {
+            YearMonth month = entry.getKey();
+            Year year = Year.from(month);
+            if (isComplete(year.atDay(1), year.atMonth(Month.DECEMBER).atEndOfMonth(), startDate, endDate)) {
+                completeYears.computeIfAbsent(year, y -> new TreeMap<>()).put(month, entry.getValue());
+            } else if (isComplete(month.atDay(1), month.atEndOfMonth(), startDate, endDate)) {
+                ret = ret.add(getMonthRollup(month, entry.getValue()).getSummary(identifiersToInclude));
+            } else {
+                // Month only partially within the requested range
+                LocalDate start = month.atDay(1).isBefore(startDate) ? startDate : month.atDay(1);
+                LocalDate end = month.atEndOfMonth().isAfter(endDate) ? endDate : month.atEndOfMonth();
+                ret = ret.add(loadDays(start, end, identifiersToInclude));
+            }
+        }
+        for (Entry<Year, Map<YearMonth, Integer>> entry : completeYears.entrySet()) {
+            ret = ret.add(getYearRollup(entry.getKey(), entry.getValue()).getSummary(identifiersToInclude));
+        }
+
+        return ret;
+    }
+
+    /**
+     * 
+     * @param periodStart
+     * @param periodEnd
+     * @param startDate Start of the requested range
+     * @param endDate End of the requested range
+     * @return true if the given period is over and lies completely within the requested range; false otherwise
+     */
+    static boolean isComplete(LocalDate periodStart, LocalDate periodEnd, LocalDate startDate, LocalDate endDate) {
+        return !periodStart.isBefore(startDate) && !periodEnd.isAfter(endDate) && periodEnd.isBefore(LocalDate.now());
+    }
+
+    /**
+     * 
+     * @param year
+     * @param dayCounts Number of indexed daily documents for each month of the year that has any
+     * @return Cached or newly combined rollup of the given year
+     * @throws PresentationException
+     * @throws IndexUnreachableException
+     */
+    private StatisticsRollup getYearRollup(Year year, Map<YearMonth, Integer> dayCounts) throws PresentationException, IndexUnreachableException {
+        String key = year.toString();
+        StatisticsRollup ret = rollupCache.get(key, dayCounts.values().stream().mapToInt(Integer::intValue).sum());
+        if (ret == null) {
+            List<StatisticsRollup> months = new ArrayList<>(dayCounts.size());
+            for (Entry<YearMonth, Integer> entry : dayCounts.entrySet()) {
+                months.add(getMonthRollup(entry.getKey(), entry.getValue()));
+            }
+            ret = StatisticsRollup.merge(months);
+            rollupCache.put(key, ret);
+        }
+        return ret;
+    }
+
+    /**
+     * 
+     * @param month
+     * @param days Number of indexed daily documents for the month
+     * @return Cached or newly loaded rollup of the given month
+     * @throws PresentationException
+     * @throws IndexUnreachableException
+     */
+    private StatisticsRollup getMonthRollup(YearMonth month, int days) throws PresentationException, IndexUnreachableException {
+        String key = month.toString();
+        StatisticsRollup ret = rollupCache.get(key, days);
+        if (ret == null) {
+            logger.trace("Creating usage statistics rollup for {}", key);
+            // Counts of all records are needed, since the rollup is shared by all filters
+            ret = StatisticsRollup.create(this.searchIndex.search(getSolrQuery(month.atDay(1), month.atEndOfMonth()), Collections.emptyList()));
+            rollupCache.put(key, ret);
+        }
+        return ret;
+    }
+
+    /**
+     * Sums up the daily documents of the given range.
+     * 
+     * @param start
+     * @param end
+     * @param identifiersToInclude
+     * @return {@link StatisticsSummary}
+     * @throws PresentationException
+     * @throws IndexUnreachableException
+     */
+    private StatisticsSummary loadDays(LocalDate start, LocalDate end, List<String> identifiersToInclude)
+            throws PresentationException, IndexUnreachableException {
         List<String> fields = new ArrayList<>(getFieldListForRecords(identifiersToInclude));
         if (!fields.isEmpty()) {
             fields.add(StatisticsLuceneFields.DATE);
         }
-        SolrDocumentList docs =
-                // search(getSolrQuery(filter), fields);
-                this.searchIndex.search(getSolrQuery(filter), fields);
+        SolrDocumentList docs = this.searchIndex.search(getSolrQuery(start, end), fields);
         return docs.stream().reduce(StatisticsSummary.empty(), this::add, StatisticsSummary::add);
     }
 
@@ -160,7 +282,7 @@ public class StatisticsSummaryBuilder {
         }
 
         Map<RequestType, RequestTypeSummary> map = new EnumMap<>(RequestType.class);
-        LocalDate date = getDate(doc);
+        LocalDate date = StatisticsRollup.getDate(doc);
         for (int i = 0; i < counts.length; i += 2) {
             RequestType type = RequestType.getTypeForTotalCountIndex(i);
             long total = counts[i];
@@ -185,7 +307,7 @@ public class StatisticsSummaryBuilder {
         }
 
         Map<String, Map<RequestType, RequestTypeSummary>> map = new HashMap<>(); // new EnumMap<>(RequestType.class);
-        LocalDate date = getDate(doc);
+        LocalDate date = StatisticsRollup.getDate(doc);
 
         for (Entry<String, List<Long>> entry : countsMap.entrySet()) {
             String pi = entry.getKey();
@@ -202,14 +324,6 @@ public class StatisticsSummaryBuilder {
         return map;
     }
 
-    private static LocalDate getDate(SolrDocument doc) {
-        if (doc.containsKey(StatisticsLuceneFields.DATE)) {
-            Date date = (Date) doc.getFieldValue(StatisticsLuceneFields.DATE);
-            return new Timestamp(date.getTime()).toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
-        }
-        return null;
-    }
-
     /**
      * 
      * @param identifiersToInclude
@@ -220,24 +334,39 @@ public class StatisticsSummaryBuilder {
     }
 
     private static String getSolrQuery(StatisticsSummaryFilter filter) {
+        if (filter.isDateRange()) {
+            return getSolrQuery(filter.getStartDate(), filter.getEndDate());
+        } else if (filter.hasStartDateRestriction()) {
+            return getSolrQuery(filter.getStartDate(), filter.getStartDate());
+        }
+        return getSolrQuery(null, null);
+    }
+
+    /**
+     * 
+     * @param start First day; no date restriction if null
+     * @param end Last day
+     * @return Query for the daily documents of the given range
+     */
+    private static String getSolrQuery(LocalDate start, LocalDate end) {
         StringBuilder sb = new StringBuilder();
         sb.append("+").append(SolrConstants.DOCTYPE).append(":").append(StatisticsLuceneFields.USAGE_STATISTICS_DOCTYPE);
 
-        if (filter.isDateRange()) {
+        if (start != null && end.isAfter(start)) {
             sb.append(" +")
                     .append(StatisticsLuceneFields.DATE)
                     .append(":")
                     .append("[")
-                    .append(StatisticsLuceneFields.SOLR_DATE_FORMATTER.format(filter.getStartDate().atStartOfDay()))
+                    .append(StatisticsLuceneFields.SOLR_DATE_FORMATTER.format(start.atStartOfDay()))
                     .append(" TO ")
-                    .append(StatisticsLuceneFields.SOLR_DATE_FORMATTER.format(filter.getEndDate().atStartOfDay()))
+                    .append(StatisticsLuceneFields.SOLR_DATE_FORMATTER.format(end.atStartOfDay()))
                     .append("]");
-        } else if (filter.hasStartDateRestriction()) {
+        } else if (start != null) {
             sb.append(" +")
                     .append(StatisticsLuceneFields.DATE)
                     .append(":")
                     .append("\"")
-                    .append(StatisticsLuceneFields.SOLR_DATE_FORMATTER.format(filter.getStartDate().atStartOfDay()))
+                    .append(StatisticsLuceneFields.SOLR_DATE_FORMATTER.format(start.atStartOfDay()))
                     .append("\"");
         }
         return sb.toString();
@@ -22,7 +22,19 @@
 package io.goobi.viewer.model.statistics.usage;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpSession;
@@ -31,18 +43,26 @@ import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
 
 import io.goobi.viewer.controller.Configuration;
+import io.goobi.viewer.controller.DataManager;
 import io.goobi.viewer.controller.NetTools;
 import io.goobi.viewer.dao.IDAO;
 import io.goobi.viewer.exceptions.DAOException;
 
 /**
- * Class to be called on requests to be recorded in usage statistics. Stores and updates usage statistics in database on each request
+ * Class to be called on requests to be recorded in usage statistics. Request counts are accumulated in memory and written to the database in
+ * batches, either periodically (see {@link Configuration#getStatisticsFlushInterval()}), when the number of buffered sessions exceeds
+ * {@link Configuration#getStatisticsFlushMaxBufferedSessions()}, or on {@link #shutdown()}
  * 
  * @author florian
  */
 public class UsageStatisticsRecorder {
 
     private static final String USER_AGENT_HEADER = "User-Agent";
+    private static final String SCHEDULER_NAME = "usage-statistics-flush";
+    /**
+     * Maximum number of sessions kept in {@link #pendingBuffers}, as a multiple of {@link Configuration#getStatisticsFlushMaxBufferedSessions()}
+     */
+    private static final int MAX_PENDING_SESSIONS_FACTOR = 10;
 
     private static final Logger logger = LogManager.getLogger(UsageStatisticsRecorder.class);
 
@@ -59,9 +79,29 @@ public class UsageStatisticsRecorder {
      */
     private final String viewerName;
     /**
-     * Locks all calls to {@link #recordRequest(RequestType, String, String, String, String)}
+     * Recording threads share the read lock; the write lock is only held while swapping {@link #buffer} for an empty one
+     */
+    private final ReadWriteLock bufferLock = new ReentrantReadWriteLock();
+    /**
+     * Serializes writing buffered counts to the database
+     */
+    private final Object flushLock = new Object();
+    /**
+     * Set while an out of schedule flush triggered by a full buffer is pending
+     */
+    private final AtomicBoolean flushPending = new AtomicBoolean(false);
+    /**
+     * Request counts recorded since the last flush
+     */
+    private volatile RequestBuffer buffer = new RequestBuffer(LocalDate.now());
+    /**
+     * Periodic flush. Scheduled on the first recorded request
+     */
+    private volatile ScheduledFuture<?> scheduledFlush = null;
+    /**
+     * Request counts of previous days and counts that could not be written to the database, merged per date. Written on each {@link #flush()}
      */
-    private final Object dailyStatisticsLock = new Object();
+    private final Map<LocalDate, RequestBuffer> pendingBuffers = new ConcurrentHashMap<>();
 
     /**
      * Default constructor
@@ -101,7 +141,7 @@ public class UsageStatisticsRecorder {
     }
 
     /**
-     * Add a request to the internal request counts
+     * Add a request to the internal request counts. The counts are written to the database on the next {@link #flush()}
      * 
      * @param type the {@link RequestType} for which to count the request
      * @param recordIdentifier the record identifier requested by the request
@@ -110,23 +150,231 @@ public class UsageStatisticsRecorder {
      * @param clientIP The IP Address from which the request is issued
      */
     protected void recordRequest(RequestType type, String recordIdentifier, String sessionID, String userAgent, String clientIP) {
-        if (sessionID != null) {
-            synchronized (dailyStatisticsLock) {
+        recordRequest(type, recordIdentifier, sessionID, userAgent, clientIP, LocalDate.now());
+    }
+
+    /**
+     * Add a request on the given date to the internal request counts
+     * 
+     * @param type the {@link RequestType} for which to count the request
+     * @param recordIdentifier the record identifier requested by the request
+     * @param sessionID The session issuing this request
+     * @param userAgent the 'User-Agent' header value of the request
+     * @param clientIP The IP Address from which the request is issued
+     * @param date Date of the request
+     * @should flush early if too many sessions are buffered
+     * @should write counts of previous day on day change
+     */
+    void recordRequest(RequestType type, String recordIdentifier, String sessionID, String userAgent, String clientIP, LocalDate date) {
+        if (sessionID == null || recordIdentifier == null) {
+            return;
+        }
+        ScheduledExecutorService executor = startScheduler();
+        int bufferedSessions;
+        bufferLock.readLock().lock();
+        try {
+            RequestBuffer current = this.buffer;
+            if (date.isAfter(current.getDate())) {
+                // Day has changed: counts for the new day must not be added to the previous day's statistics
+                bufferLock.readLock().unlock();
                 try {
-                    LocalDate date = LocalDate.now();
-                    DailySessionUsageStatistics stats = getStatistics(date);
-                    if (stats == null) {
-                        stats = initStatistics(date);
+                    rollOver(date, executor);
+                } finally {
+                    bufferLock.readLock().lock();
+                }
+                current = this.buffer;
+            }
+            current.increment(type, recordIdentifier, sessionID, userAgent, clientIP);
+            bufferedSessions = current.getSessionCount();
+        } finally {
+            bufferLock.readLock().unlock();
+        }
+        if (bufferedSessions > config.getStatisticsFlushMaxBufferedSessions() && flushPending.compareAndSet(false, true)) {
+            logger.debug("Usage statistics buffer holds {} sessions, flushing early", bufferedSessions);
+            submit(executor, this::flush);
+        }
+    }
+
+    /**
+     * Write all request counts recorded since the last flush to the database, including counts of earlier flushes that failed
+     * 
+     * @should keep counts if writing fails
+     * @should not add counts twice if updating fails
+     * @should drop counts if too many sessions are pending
+     */
+    public void flush() {
+        flushPending.set(false);
+        writePending();
+        RequestBuffer flushed = swapBuffer(null);
+        if (flushed != null) {
+            write(flushed);
+        }
+    }
+
+    /**
+     * Stop periodic flushing and write all remaining request counts to the database. Should be called when the application shuts down
+     */
+    public void shutdown() {
+        synchronized (this) {
+            if (scheduledFlush != null) {
+                // A running flush is not interrupted; flush() below waits for it
+                scheduledFlush.cancel(false);
+                scheduledFlush = null;
+            }
+        }
+        flush();
+    }
+
+    /**
+     * Schedule the periodic flush if not yet scheduled. Flushes of all recorders run on a single thread managed by the
+     * {@link io.goobi.viewer.controller.ThreadPoolManager}
+     * 
+     * @return the scheduler
+     */
+    private ScheduledExecutorService startScheduler() {
+        ScheduledExecutorService executor = DataManager.getInstance().getThreadPoolManager().getScheduledExecutor(SCHEDULER_NAME);
+        if (scheduledFlush == null) {
+            synchronized (this) {
+                if (scheduledFlush == null) {
+                    long interval = Math.max(1, config.getStatisticsFlushInterval());
+                    try {
+                        scheduledFlush = executor.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.SECONDS);
+                    } catch (RejectedExecutionException e) {
+                        // Application is shutting down; counts are written by shutdown()
+                        logger.debug("Periodic usage statistics flush rejected: {}", e.getMessage());
                     }
-                    SessionUsageStatistics session = stats.getSession(sessionID);
-                    if (session == null) {
-                        session = new SessionUsageStatistics(sessionID, userAgent, clientIP);
-                        stats.addSession(session);
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Replace the current buffer with an empty buffer for the given date and write the old one asynchronously
+     * 
+     * @param date
+     * @param executor
+     */
+    private void rollOver(LocalDate date, ScheduledExecutorService executor) {
+        RequestBuffer flushed = swapBuffer(date);
+        if (flushed != null) {
+            // Kept as pending so that shutdown() writes it even if the task is dropped
+            keep(flushed);
+            submit(executor, this::writePending);
+        }
+    }
+
+    /**
+     * Write all buffers in {@link #pendingBuffers} to the database
+     */
+    private void writePending() {
+        for (LocalDate date : new ArrayList<>(pendingBuffers.keySet())) {
+            RequestBuffer pending = pendingBuffers.remove(date);
+            if (pending != null) {
+                write(pending);
+            }
+        }
+    }
+
+    /**
+     * Add the given buffer to {@link #pendingBuffers}. If that would exceed the maximum number of pending sessions, the counts are dropped
+     * 
+     * @param unwritten
+     */
+    private void keep(RequestBuffer unwritten) {
+        int maxSessions = Math.max(1, config.getStatisticsFlushMaxBufferedSessions()) * MAX_PENDING_SESSIONS_FACTOR;
+        synchronized (pendingBuffers) {
+            int pendingSessions = pendingBuffers.values().stream().mapToInt(RequestBuffer::getSessionCount).sum();
+            if (pendingSessions + unwritten.getSessionCount() > maxSessions) {
+                logger.error("Too many unwritten usage statistics ({} sessions), dropping counts of {} sessions on {}", pendingSessions,
+                        unwritten.getSessionCount(), unwritten.getDate());
+                return;
+            }
+            pendingBuffers.merge(unwritten.getDate(), unwritten, RequestBuffer::merge);
+        }
+    }
+
+    /**
+     * Run the given task on the executor, or on the calling thread if the executor has already been shut down
+     * 
+     * @param executor
+     * @param task
+     */
+    private static void submit(ScheduledExecutorService executor, Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            task.run();
+        }
+    }
+
+    /**
+     * Replace {@link #buffer} with a new, empty buffer
+     * 
+     * @param date date of the new buffer. If null, the date of the current buffer is used
+     * @return the replaced buffer, or null if it was empty and not replaced
+     */
+    private RequestBuffer swapBuffer(LocalDate date) {
+        bufferLock.writeLock().lock();
+        try {
+            RequestBuffer current = this.buffer;
+            LocalDate newDate = date != null ? date : current.getDate();
+            if (current.isEmpty() && newDate.equals(current.getDate())) {
+                return null;
+            }
+            this.buffer = new RequestBuffer(newDate);
+            return current.isEmpty() ? null : current;
+        } finally {
+            bufferLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add the counts of the given buffer to the database statistics of the buffer date. If that fails, the counts are kept in
+     * {@link #pendingBuffers} for the next flush
+     * 
+     * @param flushed
+     */
+    private void write(RequestBuffer flushed) {
+        synchronized (flushLock) {
+            try {
+                // The counts are added to an instance loaded for this attempt only and discarded if the update fails, so that a retry adds them
+                // to the values stored in the database rather than to already incremented ones
+                DailySessionUsageStatistics stats = getStatistics(flushed.getDate());
+                if (stats == null) {
+                    stats = initStatistics(flushed.getDate());
+                }
+                addCounts(stats, flushed);
+                if (!updateStatistics(stats)) {
+                    throw new DAOException("Usage statistics for " + flushed.getDate() + " could not be updated");
+                }
+            } catch (DAOException e) {
+                logger.error("Unable to record update usage statistics, keeping counts for next flush: {}", e.toString());
+                keep(flushed);
+            }
+        }
+    }
+
+    /**
+     * Add the counts of the given buffer to the given statistics object
+     * 
+     * @param stats
+     * @param flushed
+     */
+    private static void addCounts(DailySessionUsageStatistics stats, RequestBuffer flushed) {
+        for (Entry<String, SessionBuffer> entry : flushed.getSessions().entrySet()) {
+            SessionBuffer sessionBuffer = entry.getValue();
+            SessionUsageStatistics session = stats.getSession(entry.getKey());
+            if (session == null) {
+                session = new SessionUsageStatistics(entry.getKey(), sessionBuffer.getUserAgent(), sessionBuffer.getClientIP());
+                stats.addSession(session);
+            }
+            for (Entry<String, LongAdder[]> counts : sessionBuffer.getCounts().entrySet()) {
+                for (RequestType type : RequestType.values()) {
+                    long count = counts.getValue()[type.getSessionCountIndex()].sum();
+                    if (count > 0) {
+                        session.setRecordRequectCount(type, counts.getKey(), session.getRecordRequestCount(type, counts.getKey()) + count);
                     }
-                    session.incrementRequestCount(type, recordIdentifier);
-                    updateStatistics(stats);
-                } catch (DAOException e) {
-                    logger.error("Unable to record update usage statistics: {}", e.toString());
                 }
             }
         }
@@ -167,8 +415,107 @@ public class UsageStatisticsRecorder {
      */
     private DailySessionUsageStatistics initStatistics(LocalDate date) throws DAOException {
         DailySessionUsageStatistics stats = new DailySessionUsageStatistics(date, viewerName);
-        this.dao.addUsageStatistics(stats);
+        if (!this.dao.addUsageStatistics(stats)) {
+            throw new DAOException("Usage statistics for " + date + " could not be added");
+        }
         return stats;
     }
 
+    /**
+     * Request counts of all sessions for a single day which have not yet been written to the database
+     */
+    private static class RequestBuffer {
+
+        private final LocalDate date;
+        private final Map<String, SessionBuffer> sessions = new ConcurrentHashMap<>();
+
+        public RequestBuffer(LocalDate date) {
+            this.date = date;
+        }
+
+        public void increment(RequestType type, String recordIdentifier, String sessionID, String userAgent, String clientIP) {
+            sessions.computeIfAbsent(sessionID, id -> new SessionBuffer(userAgent, clientIP)).increment(type, recordIdentifier);
+        }
+
+        public LocalDate getDate() {
+            return date;
+        }
+
+        public Map<String, SessionBuffer> getSessions() {
+            return sessions;
+        }
+
+        public int getSessionCount() {
+            return sessions.size();
+        }
+
+        public boolean isEmpty() {
+            return sessions.isEmpty();
+        }
+
+        /**
+         * Add all counts of the other buffer to this one
+         * 
+         * @param other buffer of the same date
+         * @return this
+         */
+        public RequestBuffer merge(RequestBuffer other) {
+            for (Entry<String, SessionBuffer> entry : other.getSessions().entrySet()) {
+                sessions.computeIfAbsent(entry.getKey(), id -> new SessionBuffer(entry.getValue().getUserAgent(), entry.getValue().getClientIP()))
+                        .add(entry.getValue());
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Request counts of a single session per record identifier, indexed by {@link RequestType#getSessionCountIndex()}
+     */
+    private static class SessionBuffer {
+
+        private final String userAgent;
+        private final String clientIP;
+        private final Map<String, LongAdder[]> counts = new ConcurrentHashMap<>();
+
+        public SessionBuffer(String userAgent, String clientIP) {
+            this.userAgent = userAgent;
+            this.clientIP = clientIP;
+        }
+
+        public void increment(RequestType type, String recordIdentifier) {
+            getAdders(recordIdentifier)[type.getSessionCountIndex()].increment();
+        }
+
+        public void add(SessionBuffer other) {
+            for (Entry<String, LongAdder[]> entry : other.getCounts().entrySet()) {
+                LongAdder[] adders = getAdders(entry.getKey());
+                for (int i = 0; i < adders.length; i++) {
+                    adders[i].add(entry.getValue()[i].sum());
+                }
+            }
+        }
+
+        private LongAdder[] getAdders(String recordIdentifier) {
+            return counts.computeIfAbsent(recordIdentifier, id -> {
+                LongAdder[] adders = new LongAdder[RequestType.values().length];
+                for (int i = 0; i < adders.length; i++) {
+                    adders[i] = new LongAdder();
+                }
+                return adders;
+            });
+        }
+
+        public String getUserAgent() {
+            return userAgent;
+        }
+
+        public String getClientIP() {
+            return clientIP;
+        }
+
+        public Map<String, LongAdder[]> getCounts() {
+            return counts;
+        }
+    }
+
 }
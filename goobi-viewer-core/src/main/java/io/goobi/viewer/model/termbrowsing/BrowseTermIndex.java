@@ -0,0 +1,234 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.model.termbrowsing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Immutable, sorted in-memory index of all browsing terms of one browsing menu field (in one language). Terms are held in display order, while a
+ * second, lower-cased key array allows binary searches for the range of terms starting with a given string, so that filtering and paging don't
+ * require any further Solr queries. Instances are built and cached by {@link io.goobi.viewer.model.search.SearchHelper}.
+ */
+public class BrowseTermIndex {
+
+    /** Filter value for terms starting with a digit. */
+    public static final String FILTER_NUMERICAL = "0-9";
+    /** Filter value for all terms. */
+    public static final String FILTER_ALL = "-";
+
+    /** Maximum number of distinct filter values for which resolved term ranges are kept. */
+    private static final int MAX_CACHED_RANGES = 100;
+
+    /** All terms in display order. */
+    private final BrowseTerm[] terms;
+    /** Lower-cased filter keys of all terms in lexicographical order. */
+    private final String[] keys;
+    /** Position of each key's term in <code>terms</code>. */
+    private final int[] positions;
+    /** Already resolved (and display sorted) term positions for filter values. */
+    private final Map<String, int[]> ranges = new ConcurrentHashMap<>();
+    private final long indexGeneration;
+    private final long created = System.currentTimeMillis();
+
+    /**
+     * 
+     * @param terms Terms to index
+     * @param comparator Comparator defining the display order; if null, terms are displayed in key order
+     * @param ignoreLeadingChars Optional leading characters to ignore when filtering terms
+     * @param indexGeneration Solr index generation from which the terms have been collected
+     */
+    public BrowseTermIndex(Collection<BrowseTerm> terms, Comparator<BrowseTerm> comparator, String ignoreLeadingChars, long indexGeneration) {
+        this.indexGeneration = indexGeneration;
+        this.terms = terms.toArray(new BrowseTerm[terms.size()]);
+        if (comparator != null) {
+            Arrays.sort(this.terms, comparator);
+        }
+
+        String[] termKeys = new String[this.terms.length];
+        Integer[] order = new Integer[this.terms.length];
+        for (int i = 0; i < this.terms.length; ++i) {
+            termKeys[i] = getFilterKey(this.terms[i], ignoreLeadingChars);
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing(i -> termKeys[i]));
+        this.keys = new String[order.length];
+        this.positions = new int[order.length];
+        for (int i = 0; i < order.length; ++i) {
+            this.keys[i] = termKeys[order[i]];
+            this.positions[i] = order[i];
+        }
+    }
+
+    /**
+     * 
+     * @param term
+     * @param ignoreLeadingChars
+     * @return Lower-cased string against which filter values are matched
+     * @should use sort term if provided
+     * @should remove ignored leading chars
+     */
+    static String getFilterKey(BrowseTerm term, String ignoreLeadingChars) {
+        String ret = StringUtils.isNotEmpty(term.getSortTerm()) ? term.getSortTerm() : term.getTerm();
+        if (ret == null) {
+            return "";
+        }
+        if (StringUtils.isNotEmpty(ignoreLeadingChars)) {
+            ret = BrowseTermComparator.normalizeString(ret, ignoreLeadingChars).trim();
+        }
+
+        return ret.toLowerCase();
+    }
+
+    /**
+     * 
+     * @param startsWith Optional filter value
+     * @return Number of terms matching the given filter
+     * @should return number of terms starting with filter value
+     * @should return number of all terms if filter empty
+     */
+    public int getCount(String startsWith) {
+        if (isFilterAll(startsWith)) {
+            return terms.length;
+        }
+        int[] range = findKeyRange(startsWith);
+        return range[1] - range[0];
+    }
+
+    /**
+     * 
+     * @param startsWith Optional filter value
+     * @param start Offset of the first returned term among the matching terms
+     * @param rows Maximum number of returned terms
+     * @return Unmodifiable list of matching terms in display order
+     * @should return terms starting with filter value in display order
+     * @should return all terms if filter empty
+     * @should return terms starting with digit for numerical filter
+     * @should page terms correctly
+     */
+    public List<BrowseTerm> getTerms(String startsWith, int start, int rows) {
+        if (start < 0 || rows <= 0) {
+            return Collections.emptyList();
+        }
+        if (isFilterAll(startsWith)) {
+            if (start >= terms.length) {
+                return Collections.emptyList();
+            }
+            return Collections.unmodifiableList(Arrays.asList(terms).subList(start, (int) Math.min((long) start + rows, terms.length)));
+        }
+
+        int[] displayPositions = ranges.get(startsWith);
+        if (displayPositions == null) {
+            int[] range = findKeyRange(startsWith);
+            displayPositions = Arrays.copyOfRange(positions, range[0], range[1]);
+            // Ascending positions restore the display order
+            Arrays.sort(displayPositions);
+            if (ranges.size() < MAX_CACHED_RANGES) {
+                ranges.put(startsWith, displayPositions);
+            }
+        }
+        if (start >= displayPositions.length) {
+            return Collections.emptyList();
+        }
+        int end = (int) Math.min((long) start + rows, displayPositions.length);
+        List<BrowseTerm> ret = new ArrayList<>(end - start);
+        for (int i = start; i < end; ++i) {
+            ret.add(terms[displayPositions[i]]);
+        }
+
+        return Collections.unmodifiableList(ret);
+    }
+
+    /**
+     * 
+     * @param startsWith
+     * @return Array containing the first (inclusive) and last (exclusive) key index of the matching terms
+     */
+    private int[] findKeyRange(String startsWith) {
+        String from;
+        String to;
+        if (FILTER_NUMERICAL.equals(startsWith)) {
+            from = "0";
+            to = String.valueOf((char) ('9' + 1));
+        } else {
+            from = startsWith.toLowerCase();
+            // Smallest string that is greater than all strings with the given prefix
+            to = from.substring(0, from.length() - 1) + (char) (from.charAt(from.length() - 1) + 1);
+        }
+
+        return new int[] { lowerBound(from), lowerBound(to) };
+    }
+
+    /**
+     * 
+     * @param key
+     * @return Index of the first key that is not smaller than the given key
+     */
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        return low;
+    }
+
+    private static boolean isFilterAll(String startsWith) {
+        return StringUtils.isEmpty(startsWith) || FILTER_ALL.equals(startsWith);
+    }
+
+    /**
+     * 
+     * @return Total number of terms
+     */
+    public int size() {
+        return terms.length;
+    }
+
+    /**
+     * @return the indexGeneration
+     */
+    public long getIndexGeneration() {
+        return indexGeneration;
+    }
+
+    /**
+     * @return Creation timestamp in milliseconds
+     */
+    public long getCreated() {
+        return created;
+    }
+}
@@ -23,6 +23,7 @@ package io.goobi.viewer.model.toc;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -57,7 +58,6 @@ import io.goobi.viewer.controller.imaging.ThumbnailHandler;
 import io.goobi.viewer.exceptions.DAOException;
 import io.goobi.viewer.exceptions.IndexUnreachableException;
 import io.goobi.viewer.exceptions.PresentationException;
-import io.goobi.viewer.exceptions.RecordNotFoundException;
 import io.goobi.viewer.exceptions.ViewerConfigurationException;
 import io.goobi.viewer.managedbeans.utils.BeanUtils;
 import io.goobi.viewer.messages.ViewerResourceBundle;
@@ -363,6 +363,9 @@ public final class TocMaker {
         Map<Integer, SolrDocument> docOrderMap = createOrderedGroupDocMap(groupMemberDocs, groupIdFields, groupIdValue);
 
         HttpServletRequest request = BeanUtils.getRequest();
+        Map<String, AccessPermission> pdfPermissions = sourceFormatPdfAllowed ? AccessConditionUtils
+                .checkAccessPermissionByIdentifiers(getTopStructPis(docOrderMap.values()), IPrivilegeHolder.PRIV_DOWNLOAD_PDF, request)
+                : Collections.emptyMap();
         for (int order : docOrderMap.keySet()) {
             SolrDocument doc = docOrderMap.get(order);
             // IMetadataValue label = new MultiLanguageMetadataValue(SolrSearchIndex.getMetadataValuesForLanguage(doc, SolrConstants.TITLE));
@@ -393,19 +396,30 @@ public final class TocMaker {
                 thumbnailUrl = thumbs.getThumbnailUrl(struct, ANCHOR_THUMBNAIL_WIDTH, ANCHOR_THUMBNAIL_HEIGHT);
             }
             label.mapEach(StringEscapeUtils::unescapeHtml4);
-            boolean accessPermissionPdf;
-            try {
-                accessPermissionPdf = sourceFormatPdfAllowed && AccessConditionUtils.checkAccessPermissionByIdentifierAndLogId(topStructPi,
-                        logId, IPrivilegeHolder.PRIV_DOWNLOAD_PDF, request).isGranted();
-            } catch (RecordNotFoundException e) {
+            AccessPermission pdfAccess = pdfPermissions.get(topStructPi);
+            if (sourceFormatPdfAllowed && pdfAccess == null) {
                 logger.error("Record not found in index: {}", topStructPi);
                 continue;
             }
+            boolean accessPermissionPdf = pdfAccess != null && pdfAccess.isGranted();
             ret.add(new TOCElement(label, "1", null, volumeIddoc, logId, 1, topStructPi, thumbnailUrl, accessPermissionPdf, false,
                     thumbnailUrl != null, mimeType, docStructType, footerId));
         }
     }
 
+    /**
+     * 
+     * @param docs Record documents
+     * @return <code>PI_TOPSTRUCT</code> values of the given documents
+     */
+    private static List<String> getTopStructPis(Collection<SolrDocument> docs) {
+        List<String> ret = new ArrayList<>(docs.size());
+        for (SolrDocument doc : docs) {
+            ret.add((String) doc.getFieldValue(SolrConstants.PI_TOPSTRUCT));
+        }
+        return ret;
+    }
+
     /**
      * Create a manually sorted map of docs, since the order can be contained in different GROUPORDER_* fields.
      *
@@ -506,18 +520,25 @@ public final class TocMaker {
                         DataManager.getInstance().getConfiguration().getTocVolumeSortFieldsForTemplate(anchorDocstructType), null, volumeFieldList);
         if (queryResponse != null) {
             HttpServletRequest request = BeanUtils.getRequest();
+            // Check access permissions of all volumes at once
+            List<String> volumePis = getTopStructPis(queryResponse.getResults());
+            Map<String, AccessPermission> listPermissions = FacesContext.getCurrentInstance() != null
+                    ? AccessConditionUtils.checkAccessPermissionByIdentifiers(volumePis, IPrivilegeHolder.PRIV_LIST, request) : null;
+            Map<String, AccessPermission> pdfPermissions = sourceFormatPdfAllowed
+                    ? AccessConditionUtils.checkAccessPermissionByIdentifiers(volumePis, IPrivilegeHolder.PRIV_DOWNLOAD_PDF, request)
+                    : Collections.emptyMap();
             for (SolrDocument volumeDoc : queryResponse.getResults()) {
                 String topStructPi = (String) volumeDoc.getFieldValue(SolrConstants.PI_TOPSTRUCT);
                 // Skip volumes that may not be listed
-                try {
-                    if (FacesContext.getCurrentInstance() != null
-                            && !AccessConditionUtils.checkAccessPermissionByIdentifierAndLogId(topStructPi, null, IPrivilegeHolder.PRIV_LIST,
-                                    request).isGranted()) {
+                if (listPermissions != null) {
+                    AccessPermission listAccess = listPermissions.get(topStructPi);
+                    if (listAccess == null) {
+                        logger.error("Record not found in index: {}", topStructPi);
+                        continue;
+                    }
+                    if (!listAccess.isGranted()) {
                         continue;
                     }
-                } catch (RecordNotFoundException e) {
-                    logger.error("Record not found in index: {}", topStructPi);
-                    continue;
                 }
                 // Determine the TOC group for this volume based on the grouping field, if configured
                 String groupName = StringConstants.DEFAULT_NAME;
@@ -549,14 +570,12 @@ public final class TocMaker {
 
                 IMetadataValue volumeLabel = buildLabel(volumeDoc, docStructType);
                 volumeLabel.mapEach(l -> StringEscapeUtils.unescapeHtml4(l));
-                boolean accessPermissionPdf;
-                try {
-                    accessPermissionPdf = sourceFormatPdfAllowed && AccessConditionUtils.checkAccessPermissionByIdentifierAndLogId(topStructPi,
-                            volumeLogId, IPrivilegeHolder.PRIV_DOWNLOAD_PDF, request).isGranted();
-                } catch (RecordNotFoundException e) {
+                AccessPermission pdfAccess = pdfPermissions.get(topStructPi);
+                if (sourceFormatPdfAllowed && pdfAccess == null) {
                     logger.error("Record not found in index: {}", topStructPi);
                     continue;
                 }
+                boolean accessPermissionPdf = pdfAccess != null && pdfAccess.isGranted();
                 TOCElement tocElement = new TOCElement(volumeLabel, "1", null, volumeIddoc, volumeLogId, 1, topStructPi, thumbnailUrl,
                         accessPermissionPdf, false, thumbnailUrl != null, volumeMimeType, docStructType, footerId);
                 tocElement.getMetadata().put(SolrConstants.DOCSTRCT, docStructType);
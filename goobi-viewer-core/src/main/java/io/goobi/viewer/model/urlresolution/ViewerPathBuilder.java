@@ -24,7 +24,6 @@ package io.goobi.viewer.model.urlresolution;
 import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URLEncoder;
-import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
@@ -39,7 +38,6 @@ import com.ocpsoft.pretty.PrettyContext;
 import io.goobi.viewer.controller.DataManager;
 import io.goobi.viewer.controller.StringTools;
 import io.goobi.viewer.exceptions.DAOException;
-import io.goobi.viewer.model.cms.CMSStaticPage;
 import io.goobi.viewer.model.cms.pages.CMSPage;
 import io.goobi.viewer.model.crowdsourcing.campaigns.Campaign;
 import io.goobi.viewer.model.viewer.PageType;
@@ -154,10 +152,13 @@ public final class ViewerPathBuilder {
                 currentPath.setParameterPath(currentPath.getPagePath().relativize(servicePath));
                 currentPath.setPageType(pageType.get());
                 if (pageType.get().isHandledWithCms()) {
-                    Optional<CMSStaticPage> staticPage = DataManager.getInstance().getDao().getStaticPageForTypeType(pageType.get());
-                    Optional<CMSPage> oCmsPage = staticPage.map(sp -> sp.getCmsPage());
-                    if (oCmsPage.isPresent()) {
-                        currentPath.setCmsPage(oCmsPage.get());
+                    Optional<Long> cmsPageId =
+                            DataManager.getInstance().getViewerRouteManager().getRouteTable().getStaticPageCmsPageId(pageType.get());
+                    if (cmsPageId.isPresent()) {
+                        CMSPage cmsPage = DataManager.getInstance().getDao().getCMSPage(cmsPageId.get());
+                        if (cmsPage != null) {
+                            currentPath.setCmsPage(cmsPage);
+                        }
                     }
                 }
             } else {
@@ -184,47 +185,26 @@ public final class ViewerPathBuilder {
      * @throws io.goobi.viewer.exceptions.DAOException if any.
      */
     public static Optional<CMSPage> getCmsPage(URI servicePath) throws DAOException {
-
-        List<CMSPage> cmsPages = DataManager.getInstance().getDao().getAllCMSPages();
-        //check pages with longer persistent url first because they have a narrower match and should be preferred
-        Collections.sort(cmsPages,
-                (p1, p2) -> Integer.compare(StringTools.getLength(p2.getPersistentUrl()), StringTools.getLength(p1.getPersistentUrl())));
-        for (CMSPage cmsPage : cmsPages) {
-            String pagePath = cmsPage.getPersistentUrl();
-            if (StringUtils.isNotBlank(pagePath)) {
-                pagePath = pagePath.replaceAll("(^\\/)|(\\/$)", "").trim();
-                if (startsWith(servicePath, pagePath)) {
-                    return Optional.of(cmsPage);
-                }
-            }
+        Optional<Long> cmsPageId = DataManager.getInstance().getViewerRouteManager().getRouteTable().findCmsPageId(servicePath);
+        if (cmsPageId.isPresent()) {
+            return Optional.ofNullable(DataManager.getInstance().getDao().getCMSPage(cmsPageId.get()));
         }
         return Optional.empty();
-
     }
 
     /**
-     * <p>
-     * getCampaign.
-     * </p>
+     * Gets the best matching campaign which permalink matches the beginning of the given path
      *
      * @param servicePath a {@link java.net.URI} object.
      * @return a {@link java.util.Optional} object.
      * @throws io.goobi.viewer.exceptions.DAOException if any.
      */
     public static Optional<Campaign> getCampaign(URI servicePath) throws DAOException {
-        List<Campaign> campaigns = DataManager.getInstance().getDao().getAllCampaigns();
-        Collections.sort(campaigns, (c1, c2) -> Integer.compare(StringTools.getLength(c2.getPermalink()), StringTools.getLength(c1.getPermalink())));
-        for (Campaign campaign : campaigns) {
-            String pagePath = campaign.getPermalink();
-            if (StringUtils.isNotBlank(pagePath)) {
-                pagePath = pagePath.replaceAll("(^\\/)|(\\/$)", "").trim();
-                if (startsWith(servicePath, pagePath)) {
-                    return Optional.of(campaign);
-                }
-            }
+        Optional<Long> campaignId = DataManager.getInstance().getViewerRouteManager().getRouteTable().findCampaignId(servicePath);
+        if (campaignId.isPresent()) {
+            return Optional.ofNullable(DataManager.getInstance().getDao().getCampaign(campaignId.get()));
         }
         return Optional.empty();
-
     }
 
     /**
@@ -279,7 +259,7 @@ public final class ViewerPathBuilder {
      * @param uriPart
      * @return {@link String}
      */
-    private static String cleanPathPart(final String uriPart) {
+    static String cleanPathPart(final String uriPart) {
         String ret = uriPart;
         if (ret.startsWith("!")) {
             ret = ret.substring(1);
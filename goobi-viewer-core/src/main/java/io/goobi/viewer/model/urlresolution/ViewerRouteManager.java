@@ -0,0 +1,89 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.model.urlresolution;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import io.goobi.viewer.dao.IDAO;
+import io.goobi.viewer.exceptions.DAOException;
+
+/**
+ * Holds the current {@link ViewerRouteTable}. The table is discarded whenever CMS pages, campaigns or static page mappings are saved or deleted
+ * via {@link #invalidate()}, and also expires after a while to pick up changes made elsewhere.
+ */
+public class ViewerRouteManager {
+
+    private static final Logger logger = LogManager.getLogger(ViewerRouteManager.class);
+
+    /** Maximum age of a route table before it is reloaded from the database */
+    private static final long ROUTE_TABLE_MAX_AGE_MILLIS = Duration.ofMinutes(10).toMillis();
+
+    private final IDAO dao;
+    private final AtomicLong version = new AtomicLong();
+    private volatile ViewerRouteTable routeTable = null;
+
+    /**
+     * 
+     * @param dao DAO to load CMS pages, campaigns and static pages from
+     */
+    public ViewerRouteManager(IDAO dao) {
+        this.dao = dao;
+    }
+
+    /**
+     * Returns the current route table, creating a new one if the current one has been invalidated or is too old.
+     * 
+     * @return Current {@link ViewerRouteTable}
+     * @throws DAOException
+     * @should create new route table after invalidation
+     */
+    public ViewerRouteTable getRouteTable() throws DAOException {
+        ViewerRouteTable current = this.routeTable;
+        if (isValid(current)) {
+            return current;
+        }
+        synchronized (this) {
+            current = this.routeTable;
+            if (!isValid(current)) {
+                current = new ViewerRouteTable(dao, version.get());
+                this.routeTable = current;
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Discards the current route table. Must be called after CMS pages, campaigns or static page mappings have been saved or deleted.
+     */
+    public void invalidate() {
+        long v = version.incrementAndGet();
+        logger.trace("Route table invalidated, new version: {}", v);
+    }
+
+    private boolean isValid(ViewerRouteTable t) {
+        return t != null && t.getVersion() == version.get() && System.currentTimeMillis() - t.getCreated() < ROUTE_TABLE_MAX_AGE_MILLIS;
+    }
+}
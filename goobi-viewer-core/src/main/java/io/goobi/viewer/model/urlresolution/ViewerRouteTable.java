@@ -0,0 +1,220 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.model.urlresolution;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import io.goobi.viewer.dao.IDAO;
+import io.goobi.viewer.exceptions.DAOException;
+import io.goobi.viewer.model.cms.CMSStaticPage;
+import io.goobi.viewer.model.cms.pages.CMSPage;
+import io.goobi.viewer.model.crowdsourcing.campaigns.Campaign;
+import io.goobi.viewer.model.viewer.PageType;
+
+/**
+ * Immutable snapshot of the CMS page and campaign permalinks and the static page mappings, used to resolve request paths without loading all CMS
+ * pages or campaigns from the database. Permalinks are stored in a tree of path segments, so that finding the longest permalink matching the
+ * beginning of a path takes one map lookup per path segment. Snapshots are created and replaced by {@link ViewerRouteManager}.
+ */
+public class ViewerRouteTable {
+
+    private static final Logger logger = LogManager.getLogger(ViewerRouteTable.class);
+
+    private final long version;
+    private final long created;
+    private final PathNode cmsPages = new PathNode();
+    private final PathNode campaigns = new PathNode();
+    /** CMS page IDs mapped to static page names */
+    private final Map<String, Long> staticPages = new HashMap<>();
+
+    /**
+     * Loads all CMS page and campaign permalinks and static page mappings from the given DAO.
+     * 
+     * @param dao
+     * @param version
+     * @throws DAOException
+     */
+    ViewerRouteTable(IDAO dao, long version) throws DAOException {
+        this(version);
+        int cmsPageCount = 0;
+        for (CMSPage cmsPage : dao.getAllCMSPages()) {
+            if (addCmsPage(cmsPage.getPersistentUrl(), cmsPage.getId())) {
+                cmsPageCount++;
+            }
+        }
+        int campaignCount = 0;
+        for (Campaign campaign : dao.getAllCampaigns()) {
+            if (add(campaigns, campaign.getPermalink(), campaign.getId())) {
+                campaignCount++;
+            }
+        }
+        for (CMSStaticPage staticPage : dao.getAllStaticPages()) {
+            staticPage.getCmsPageId().ifPresent(id -> addStaticPage(staticPage.getPageName(), id));
+        }
+        logger.debug("Route table {} created with {} CMS page permalinks, {} campaign permalinks and {} static pages", version, cmsPageCount,
+                campaignCount, staticPages.size());
+    }
+
+    /**
+     * Creates an empty table.
+     * 
+     * @param version
+     */
+    ViewerRouteTable(long version) {
+        this.version = version;
+        this.created = System.currentTimeMillis();
+    }
+
+    /**
+     * @return the version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return Creation time in milliseconds
+     */
+    public long getCreated() {
+        return created;
+    }
+
+    /**
+     * 
+     * @param servicePath Requested path relative to the application URL
+     * @return ID of the CMS page with the longest permalink matching the beginning of servicePath; empty if none matches
+     * @should return page with longest matching permalink
+     * @should only match complete path segments
+     * @should ignore leading exclamation marks in path
+     * @should return empty if no permalink matches
+     */
+    public Optional<Long> findCmsPageId(URI servicePath) {
+        return find(cmsPages, servicePath);
+    }
+
+    /**
+     * 
+     * @param servicePath Requested path relative to the application URL
+     * @return ID of the campaign with the longest permalink matching the beginning of servicePath; empty if none matches
+     */
+    public Optional<Long> findCampaignId(URI servicePath) {
+        return find(campaigns, servicePath);
+    }
+
+    /**
+     * 
+     * @param pageType
+     * @return ID of the CMS page mapped to the given page type; empty if there is none
+     * @should return mapped page id
+     */
+    public Optional<Long> getStaticPageCmsPageId(PageType pageType) {
+        if (pageType == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(staticPages.get(pageType.getName()));
+    }
+
+    /**
+     * Adds a CMS page permalink. Only used while building the table.
+     * 
+     * @param permalink
+     * @param id
+     * @return true if added; false otherwise
+     */
+    boolean addCmsPage(String permalink, Long id) {
+        return add(cmsPages, permalink, id);
+    }
+
+    /**
+     * Adds a static page mapping. Only used while building the table.
+     * 
+     * @param pageName
+     * @param cmsPageId
+     */
+    void addStaticPage(String pageName, Long cmsPageId) {
+        staticPages.putIfAbsent(pageName, cmsPageId);
+    }
+
+    /**
+     * Adds the given permalink to the tree with the given root. If several entries share the same permalink, the first one is kept.
+     * 
+     * @param root
+     * @param permalink
+     * @param id
+     * @return true if added; false if permalink or id are empty
+     */
+    private static boolean add(PathNode root, String permalink, Long id) {
+        if (StringUtils.isBlank(permalink) || id == null) {
+            return false;
+        }
+        PathNode node = root;
+        for (String part : permalink.replaceAll("(^\\/)|(\\/$)", "").trim().split("/")) {
+            node = node.children.computeIfAbsent(part, k -> new PathNode());
+        }
+        if (node.id == null) {
+            node.id = id;
+        }
+        return true;
+    }
+
+    /**
+     * 
+     * @param root
+     * @param servicePath
+     * @return ID of the deepest entry on the path of servicePath
+     */
+    private static Optional<Long> find(PathNode root, URI servicePath) {
+        if (servicePath == null) {
+            return Optional.empty();
+        }
+        Long ret = null;
+        PathNode node = root;
+        for (String part : servicePath.toString().split("/")) {
+            node = node.children.get(ViewerPathBuilder.cleanPathPart(part));
+            if (node == null) {
+                break;
+            }
+            if (node.id != null) {
+                ret = node.id;
+            }
+        }
+
+        return Optional.ofNullable(ret);
+    }
+
+    /**
+     * Path segment in the permalink tree.
+     */
+    private static class PathNode {
+
+        private final Map<String, PathNode> children = new HashMap<>();
+        /** ID of the entry whose permalink ends at this segment */
+        private Long id;
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.model.viewer;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.solr.common.SolrDocument;
+
+import io.goobi.viewer.controller.BoundedCache;
+import io.goobi.viewer.exceptions.DAOException;
+import io.goobi.viewer.exceptions.IndexUnreachableException;
+import io.goobi.viewer.exceptions.PresentationException;
+import io.goobi.viewer.model.viewer.pageloader.AbstractPageLoader;
+
+/**
+ * Cross-session cache of the parts of an opened record that are the same for every user: the top level {@link StructElement} and, for records
+ * small enough to be loaded eagerly, the page documents. Sessions opening a record that is already cached skip the corresponding index queries and
+ * only build their own page loader and table of contents, which contain per-user state.
+ * <p>
+ * Snapshots are keyed by record identifier and only returned for the IDDOC they were created from. A re-indexed record gets a new IDDOC, so an
+ * outdated snapshot is never used. {@link #invalidate(String)} additionally drops the snapshot as soon as the indexer reports the change.
+ * </p>
+ */
+public class RecordSnapshotCache {
+
+    private static final Logger logger = LogManager.getLogger(RecordSnapshotCache.class);
+
+    private static final Duration TTL = Duration.ofHours(1);
+
+    private final BoundedCache<String, Snapshot> cache;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder stale = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * Shared, read-only state of a single record.
+     */
+    public static final class Snapshot {
+
+        private final StructElement topStructElement;
+        /** Page documents; null if the record is too large to be loaded eagerly */
+        private final List<SolrDocument> pageDocs;
+
+        Snapshot(StructElement topStructElement, List<SolrDocument> pageDocs) {
+            this.topStructElement = topStructElement;
+            this.pageDocs = pageDocs;
+        }
+
+        /**
+         * @return Top level <code>StructElement</code> of the record; must not be modified
+         */
+        public StructElement getTopStructElement() {
+            return topStructElement;
+        }
+
+        /**
+         * @return IDDOC of the top level document
+         */
+        public long getIddoc() {
+            return topStructElement.getLuceneId();
+        }
+
+        /**
+         * Creates a new page loader for the record. Page loaders hold per-session state, so each session needs its own instance.
+         *
+         * @return New page loader
+         * @throws IndexUnreachableException
+         * @throws PresentationException
+         * @throws DAOException
+         */
+        public AbstractPageLoader createPageLoader() throws IndexUnreachableException, PresentationException, DAOException {
+            return AbstractPageLoader.createWithPageDocuments(topStructElement, pageDocs);
+        }
+    }
+
+    /**
+     *
+     * @param size Maximum number of cached records; 0 disables the cache
+     */
+    public RecordSnapshotCache(int size) {
+        this.cache = size > 0 ? new BoundedCache<>(size, TTL) : null;
+    }
+
+    /**
+     *
+     * @return true if snapshots are cached; false otherwise
+     */
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    /**
+     * Returns the cached snapshot of the given record, if it was created from the given top level document.
+     *
+     * @param pi Record identifier
+     * @param iddoc IDDOC of the current top level document of the record
+     * @return Cached snapshot; null if none exists or it was created from a different IDDOC
+     * @should return snapshot for same iddoc
+     * @should return null if iddoc differs
+     */
+    public Snapshot get(String pi, long iddoc) {
+        if (cache == null || StringUtils.isEmpty(pi)) {
+            return null;
+        }
+        Snapshot ret = cache.get(pi);
+        if (ret == null) {
+            misses.increment();
+            return null;
+        }
+        if (ret.getIddoc() != iddoc) {
+            logger.trace("Cached snapshot of {} is outdated (IDDOC {} instead of {}).", pi, ret.getIddoc(), iddoc);
+            cache.remove(pi);
+            stale.increment();
+            return null;
+        }
+        hits.increment();
+        return ret;
+    }
+
+    /**
+     * Creates a snapshot of the record with the given top level <code>StructElement</code> and caches it, if the record exists and has not been
+     * deleted. Page documents are loaded only if the record is small enough to be loaded eagerly.
+     *
+     * @param topStructElement Top level <code>StructElement</code> of the record
+     * @return New snapshot
+     * @throws IndexUnreachableException
+     * @throws PresentationException
+     * @should not cache deleted records
+     */
+    public Snapshot create(StructElement topStructElement) throws IndexUnreachableException, PresentationException {
+        if (cache == null || !topStructElement.isExists() || topStructElement.isDeleted() || StringUtils.isEmpty(topStructElement.getPi())) {
+            return new Snapshot(topStructElement, null);
+        }
+        Snapshot ret = new Snapshot(topStructElement, AbstractPageLoader.loadSharedPageDocuments(topStructElement));
+        cache.put(topStructElement.getPi(), ret);
+        return ret;
+    }
+
+    /**
+     * Removes the snapshot of the given record. Called after a record has been (re-)indexed.
+     *
+     * @param pi Record identifier
+     * @should remove snapshot
+     */
+    public void invalidate(String pi) {
+        if (cache == null || StringUtils.isEmpty(pi)) {
+            return;
+        }
+        if (cache.remove(pi) != null) {
+            invalidations.increment();
+        }
+    }
+
+    /**
+     *
+     * @return Counters for monitoring
+     */
+    public Map<String, Long> getStatistics() {
+        Map<String, Long> ret = new LinkedHashMap<>();
+        ret.put("size", cache != null ? (long) cache.size() : 0);
+        ret.put("hits", hits.sum());
+        ret.put("misses", misses.sum());
+        ret.put("stale", stale.sum());
+        ret.put("invalidations", invalidations.sum());
+        return ret;
+    }
+}
@@ -93,6 +93,8 @@ public class StructElement extends StructElementStub implements Comparable<Struc
     private List<ShapeMetadata> shapeMetadata;
     private ComplexMetadataContainer metadataDocuments = null;
     private StructElement topStruct = null;
+    /** Parent element, once loaded or resolved by the caller */
+    private StructElement parent = null;
     /** True if this record has a right-to-left reading direction. */
     private boolean rtl = false;
 
@@ -368,17 +370,29 @@ public class StructElement extends StructElementStub implements Comparable<Struc
      */
     public StructElement getParent() throws IndexUnreachableException {
         //        logger.trace("getParent");
-        StructElement parent = null;
+        if (this.parent != null) {
+            return this.parent;
+        }
         try {
             String parentIddoc = getMetadataValue(SolrConstants.IDDOC_PARENT);
             if (parentIddoc != null) {
-                parent = new StructElement(Long.valueOf(parentIddoc), null);
+                this.parent = new StructElement(Long.valueOf(parentIddoc), null);
             }
         } catch (NumberFormatException e) {
             logger.error("Malformed number with get the parent element for Lucene IDDOC: {}", luceneId);
         }
 
-        return parent;
+        return this.parent;
+    }
+
+    /**
+     * Sets a parent element that has already been loaded (e.g. together with the parents of other search hits), so that {@link #getParent()}
+     * doesn't need to query the index.
+     *
+     * @param parent Parent element
+     */
+    public void setParent(StructElement parent) {
+        this.parent = parent;
     }
 
     /**
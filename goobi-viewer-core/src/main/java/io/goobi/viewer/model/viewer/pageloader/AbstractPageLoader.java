@@ -95,6 +95,7 @@ public abstract class AbstractPageLoader implements IPageLoader {
      * @throws PresentationException
      * @should return EagerPageLoader if page count below threshold
      * @should return LeanPageLoder if page count at or above threshold
+     * @should return PrefetchingPageLoader if page count at or above threshold and prefetching enabled
      */
     public static AbstractPageLoader create(StructElement topStructElement, boolean loadPages)
             throws IndexUnreachableException, PresentationException, DAOException {
@@ -121,10 +122,53 @@ public abstract class AbstractPageLoader implements IPageLoader {
         if (pageNosToLoad.isEmpty() && numPages < DataManager.getInstance().getConfiguration().getPageLoaderThreshold()) {
             return new EagerPageLoader(topStructElement);
         }
+        int prefetchSize = DataManager.getInstance().getConfiguration().getPageLoaderPrefetchSize();
+        if (pageNosToLoad.isEmpty() && prefetchSize > 0) {
+            logger.debug("Record has {} pages, using a prefetching page loader to limit memory usage.", numPages);
+            return new PrefetchingPageLoader(topStructElement, numPages, prefetchSize);
+        }
         logger.debug("Record has {} pages, using a lean page loader to limit memory usage.", numPages);
         return new LeanPageLoader(topStructElement, numPages);
     }
 
+    /**
+     * Loads the page documents of the given record if the record is small enough to have all of its pages loaded at once (see
+     * {@link #create(StructElement, List)}). The returned documents can be passed to {@link #createWithPageDocuments(StructElement, List)} any number
+     * of times to create page loaders without querying the index again.
+     *
+     * @param topStructElement Top level <code>StructElement</code> of the record
+     * @return Unmodifiable list of page documents; null if the record is loaded lazily
+     * @throws IndexUnreachableException
+     * @throws PresentationException
+     */
+    public static List<SolrDocument> loadSharedPageDocuments(StructElement topStructElement) throws IndexUnreachableException, PresentationException {
+        if (topStructElement.getNumPages() >= DataManager.getInstance().getConfiguration().getPageLoaderThreshold()) {
+            return null;
+        }
+
+        return Collections.unmodifiableList(EagerPageLoader.loadPageDocuments(topStructElement));
+    }
+
+    /**
+     * Creates a page loader from page documents previously returned by {@link #loadSharedPageDocuments(StructElement)}.
+     *
+     * @param topStructElement Top level <code>StructElement</code> of the record
+     * @param pageDocs Page documents; null if the record is loaded lazily
+     * @return Appropriate page loader implementation for the given record topStructElement
+     * @throws IndexUnreachableException
+     * @throws PresentationException
+     * @throws DAOException
+     * @should create EagerPageLoader from page documents
+     */
+    public static AbstractPageLoader createWithPageDocuments(StructElement topStructElement, List<SolrDocument> pageDocs)
+            throws IndexUnreachableException, PresentationException, DAOException {
+        if (pageDocs != null) {
+            return new EagerPageLoader(topStructElement, pageDocs);
+        }
+
+        return create(topStructElement);
+    }
+
     /**
      * Replaces the static variable placeholders (the ones that don't change depending on the page) of the given label format with values.
      *
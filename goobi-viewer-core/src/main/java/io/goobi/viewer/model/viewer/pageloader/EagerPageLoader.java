@@ -81,6 +81,18 @@ public class EagerPageLoader extends AbstractPageLoader implements Serializable
         setFirstAndLastPageOrder();
     }
 
+    /**
+     * Creates a loader for the given, previously loaded page documents, without querying the index.
+     *
+     * @param topElement a {@link io.goobi.viewer.model.viewer.StructElement} object.
+     * @param pageDocs Page documents as returned by {@link #loadPageDocuments(StructElement)}
+     */
+    EagerPageLoader(StructElement topElement, List<SolrDocument> pageDocs) {
+        pi = topElement.getPi();
+        pages = createPages(topElement, pageDocs);
+        setFirstAndLastPageOrder();
+    }
+
     /** {@inheritDoc} */
     @Override
     public int getNumPages() {
@@ -182,17 +194,27 @@ public class EagerPageLoader extends AbstractPageLoader implements Serializable
      */
     private Map<Integer, PhysicalElement> loadAllPages(StructElement topElement)
             throws PresentationException, IndexUnreachableException {
-        Map<Integer, PhysicalElement> ret = new HashMap<>();
+        return createPages(topElement, loadPageDocuments(topElement));
+    }
 
+    /**
+     * Loads the page documents of the given record, sorted by page order.
+     * 
+     * @param topElement Top structure element of the record
+     * @return List of page documents; empty list for anchors, groups and records without pages
+     * @throws PresentationException
+     * @throws IndexUnreachableException
+     */
+    static List<SolrDocument> loadPageDocuments(StructElement topElement) throws PresentationException, IndexUnreachableException {
         if (topElement.isAnchor() || topElement.isGroup()) {
             logger.trace("Anchor or group document, no pages.");
-            return ret;
+            return Collections.emptyList();
         }
 
         String pi = topElement.getPi();
         if (StringUtils.isEmpty(pi)) {
             logger.debug("PI not found, no pages.");
-            return ret;
+            return Collections.emptyList();
         }
         logger.trace("Loading pages for '{}'...", pi);
         List<String> fields = new ArrayList<>(Arrays.asList(FIELDS));
@@ -208,12 +230,25 @@ public class EagerPageLoader extends AbstractPageLoader implements Serializable
         SolrDocumentList result = DataManager.getInstance()
                 .getSearchIndex()
                 .search(sbQuery.toString(), SolrSearchIndex.MAX_HITS, Collections.singletonList(new StringPair(SolrConstants.ORDER, "asc")), fields);
-        if (result.isEmpty()) {
+
+        return result;
+    }
+
+    /**
+     * Creates PhysicalElement objects for the given page documents. The documents are only read, so they may be shared with other loaders.
+     * 
+     * @param topElement Top structure element of the record
+     * @param pageDocs Page documents, sorted by page order
+     * @return Map<Integer, PhysicalElement> containing all pages
+     */
+    private Map<Integer, PhysicalElement> createPages(StructElement topElement, List<SolrDocument> pageDocs) {
+        Map<Integer, PhysicalElement> ret = new HashMap<>();
+        if (pageDocs.isEmpty()) {
             return ret;
         }
 
         boolean flipRectoVerso = false;
-        for (SolrDocument doc : result) {
+        for (SolrDocument doc : pageDocs) {
             PhysicalElement pe = loadPageFromDoc(doc, pi, topElement, pageOwnerIddocMap);
             ret.put(pe.getOrder(), pe);
             if (!pe.isDoubleImage()) {
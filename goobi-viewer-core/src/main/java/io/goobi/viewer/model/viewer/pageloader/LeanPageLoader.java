@@ -80,6 +80,13 @@ public class LeanPageLoader extends AbstractPageLoader implements Serializable {
         setFirstAndLastPageOrder();
     }
 
+    /**
+     * @return the topElement
+     */
+    protected StructElement getTopElement() {
+        return topElement;
+    }
+
     /** {@inheritDoc} */
     @Override
     public int getNumPages() throws IndexUnreachableException {
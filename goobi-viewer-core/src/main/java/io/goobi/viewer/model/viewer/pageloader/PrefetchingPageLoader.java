@@ -0,0 +1,352 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.model.viewer.pageloader;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.commons.lang3.Range;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.SolrDocumentList;
+
+import io.goobi.viewer.controller.DataManager;
+import io.goobi.viewer.controller.StringConstants;
+import io.goobi.viewer.exceptions.IndexUnreachableException;
+import io.goobi.viewer.exceptions.PresentationException;
+import io.goobi.viewer.model.viewer.PhysicalElement;
+import io.goobi.viewer.model.viewer.StringPair;
+import io.goobi.viewer.model.viewer.StructElement;
+import io.goobi.viewer.solr.SolrConstants;
+import io.goobi.viewer.solr.SolrConstants.DocType;
+
+/**
+ * Page loader for large records that keeps a bounded window of recently used pages. Pages are loaded in batches via range queries on
+ * <code>ORDER</code> and the batches adjacent to the current page are prefetched in the background, so that flipping through a record does not
+ * require a synchronous index query for every page.
+ */
+public class PrefetchingPageLoader extends LeanPageLoader {
+
+    private static final long serialVersionUID = -3518398702145366113L;
+
+    private static final Logger logger = LogManager.getLogger(PrefetchingPageLoader.class);
+
+    /** Number of batches kept in the page window. */
+    static final int WINDOW_BATCHES = 4;
+    /** Maximum time in milliseconds to wait for a running prefetch that contains the requested page. */
+    private static final long PREFETCH_TIMEOUT = 2000;
+
+    private static final String EXECUTOR_NAME = "page-prefetch";
+    private static final int EXECUTOR_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+    /** Prefetches that don't fit into the queue are dropped, the pages are then loaded on demand */
+    private static final int EXECUTOR_QUEUE_SIZE = 100;
+
+    private final int batchSize;
+    /** Loaded pages in access order. Not serialized; reloaded on demand after deserialization. */
+    private transient Map<Integer, PhysicalElement> pages;
+    /** Queued or running background loads, keyed by their page order range. */
+    private transient Map<Range<Integer>, Prefetch> prefetches;
+
+    /**
+     * Background load of a page order range. A load that has not started yet can be claimed by a request thread, which then loads the pages
+     * itself instead of waiting for a free prefetch thread.
+     */
+    private static class Prefetch {
+
+        private final AtomicBoolean started = new AtomicBoolean(false);
+        private volatile Future<?> future;
+
+        /**
+         *
+         * @return true if the caller may run the load; false if it has already been started by someone else
+         */
+        boolean start() {
+            return started.compareAndSet(false, true);
+        }
+    }
+
+    /**
+     * Package private constructor.
+     *
+     * @param topElement Top level <code>StructElement</code> of the record
+     * @param numPages Number of pages in the record
+     * @param batchSize Number of pages to load per index query
+     * @throws IndexUnreachableException
+     */
+    PrefetchingPageLoader(StructElement topElement, int numPages, int batchSize) throws IndexUnreachableException {
+        super(topElement, numPages);
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be greater than 0");
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @should return correct page
+     * @should return null if pageOrder out of bounds
+     * @should limit number of kept pages to window size
+     */
+    @Override
+    public PhysicalElement getPage(int pageOrder) throws IndexUnreachableException {
+        if (pageOrder < getFirstPageOrder() || pageOrder > getLastPageOrder()) {
+            return null;
+        }
+
+        PhysicalElement ret = getPages().get(pageOrder);
+        if (ret == null && awaitPrefetch(pageOrder)) {
+            ret = getPages().get(pageOrder);
+        }
+        if (ret == null) {
+            try {
+                loadPages(pageOrder, Math.min(pageOrder + batchSize - 1, getLastPageOrder()));
+            } catch (PresentationException e) {
+                logger.debug(StringConstants.LOG_PRESENTATION_EXCEPTION_THROWN_HERE, e.getMessage());
+            }
+            ret = getPages().get(pageOrder);
+        }
+        prefetchAround(pageOrder);
+
+        return ret;
+    }
+
+    /**
+     * Schedules background loading of the following batch once the current page gets within half a batch of its end, and of the preceding batch
+     * if the previous page has not been loaded yet.
+     *
+     * @param pageOrder Current page order
+     */
+    void prefetchAround(int pageOrder) {
+        // Next batch
+        int ahead = Math.min(pageOrder + Math.max(batchSize / 2, 1), getLastPageOrder());
+        if (!isLoadedOrPending(ahead)) {
+            int from = pageOrder + 1;
+            while (from < ahead && isLoadedOrPending(from)) {
+                from++;
+            }
+            prefetch(from, Math.min(from + batchSize - 1, getLastPageOrder()));
+        }
+        // Previous batch
+        int behind = pageOrder - 1;
+        if (behind >= getFirstPageOrder() && !isLoadedOrPending(behind)) {
+            prefetch(Math.max(behind - batchSize + 1, getFirstPageOrder()), behind);
+        }
+    }
+
+    /**
+     *
+     * @param pageOrder
+     * @return true if the page with the given order is loaded or contained in a running prefetch; false otherwise
+     */
+    private boolean isLoadedOrPending(int pageOrder) {
+        if (getPages().containsKey(pageOrder)) {
+            return true;
+        }
+        return getPrefetches().keySet().stream().anyMatch(r -> r.contains(pageOrder));
+    }
+
+    /**
+     * Loads the given page order range in a background thread of a dedicated, bounded executor. If the executor does not accept the task, nothing
+     * is prefetched and the pages will be loaded on demand.
+     *
+     * @param from First page order
+     * @param to Last page order
+     */
+    private void prefetch(int from, int to) {
+        if (from > to) {
+            return;
+        }
+        Range<Integer> range = Range.of(from, to);
+        Prefetch prefetch = new Prefetch();
+        // Register before submitting so that the task cannot complete before it is known
+        getPrefetches().put(range, prefetch);
+        try {
+            prefetch.future = getExecutor().submit(() -> {
+                if (!prefetch.start()) {
+                    // Claimed by a request thread
+                    return;
+                }
+                try {
+                    loadPages(from, to);
+                } catch (PresentationException e) {
+                    logger.debug(StringConstants.LOG_PRESENTATION_EXCEPTION_THROWN_HERE, e.getMessage());
+                } catch (IndexUnreachableException e) {
+                    logger.warn("Could not prefetch pages {}-{} of '{}': {}", from, to, getTopElement().getPi(), e.getMessage());
+                } finally {
+                    getPrefetches().remove(range, prefetch);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            getPrefetches().remove(range, prefetch);
+            logger.debug("Prefetching pages {}-{} rejected: {}", from, to, e.getMessage());
+        }
+    }
+
+    /**
+     * Waits for a running prefetch containing the given page order, if there is one. A prefetch that has not started yet is claimed instead, so that
+     * the request thread does not wait for a free prefetch thread.
+     *
+     * @param pageOrder
+     * @return true if a prefetch was awaited; false if the page has to be loaded synchronously
+     */
+    private boolean awaitPrefetch(int pageOrder) {
+        for (Map.Entry<Range<Integer>, Prefetch> entry : getPrefetches().entrySet()) {
+            if (entry.getKey().contains(pageOrder)) {
+                Prefetch prefetch = entry.getValue();
+                if (prefetch.start()) {
+                    // Not started yet; the queued task will skip the load
+                    getPrefetches().remove(entry.getKey(), prefetch);
+                    return false;
+                }
+                Future<?> future = prefetch.future;
+                if (future == null) {
+                    // Started before submit() returned; don't wait for it
+                    return false;
+                }
+                try {
+                    future.get(PREFETCH_TIMEOUT, TimeUnit.MILLISECONDS);
+                    return true;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException | TimeoutException e) {
+                    logger.warn("Prefetch of page {} failed: {}", pageOrder, e.getMessage());
+                }
+                return false;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     *
+     * @return Dedicated executor for prefetches
+     */
+    private static ExecutorService getExecutor() {
+        return DataManager.getInstance()
+                .getThreadPoolManager()
+                .getBoundedExecutor(EXECUTOR_NAME, EXECUTOR_THREADS, EXECUTOR_QUEUE_SIZE, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Loads all pages in the given page order range with a single index query and adds them to the page window.
+     *
+     * @param from First page order
+     * @param to Last page order
+     * @throws PresentationException
+     * @should load all pages in range
+     * @throws IndexUnreachableException
+     */
+    void loadPages(int from, int to) throws PresentationException, IndexUnreachableException {
+        String pi = getTopElement().getPi();
+        logger.trace("Loading pages {}-{} for '{}'...", from, to, pi);
+        StringBuilder sbQuery = new StringBuilder();
+        sbQuery.append('+')
+                .append(SolrConstants.PI_TOPSTRUCT)
+                .append(':')
+                .append(pi)
+                .append(" +")
+                .append(SolrConstants.DOCTYPE)
+                .append(':')
+                .append(DocType.PAGE)
+                .append(" +")
+                .append(SolrConstants.ORDER)
+                .append(":[")
+                .append(from)
+                .append(" TO ")
+                .append(to)
+                .append(']');
+        SolrDocumentList result = DataManager.getInstance()
+                .getSearchIndex()
+                .search(sbQuery.toString(), to - from + 1, Collections.singletonList(new StringPair(SolrConstants.ORDER, "asc")),
+                        Arrays.asList(FIELDS));
+        for (SolrDocument doc : result) {
+            PhysicalElement page = loadPageFromDoc(doc, pi, getTopElement(), null);
+            if (page != null) {
+                getPages().put(page.getOrder(), page);
+            }
+        }
+    }
+
+    /**
+     * @return Number of currently loaded pages
+     */
+    int getLoadedPageCount() {
+        return getPages().size();
+    }
+
+    /**
+     * @return Maximum number of pages kept in memory
+     */
+    int getWindowSize() {
+        return batchSize * WINDOW_BATCHES;
+    }
+
+    /**
+     * @return the batchSize
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * @return Page window; created if not yet initialized
+     */
+    private synchronized Map<Integer, PhysicalElement> getPages() {
+        if (pages == null) {
+            final int windowSize = getWindowSize();
+            pages = Collections.synchronizedMap(new LinkedHashMap<>(windowSize * 2, 0.75f, true) {
+
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, PhysicalElement> eldest) {
+                    return size() > windowSize;
+                }
+            });
+        }
+        return pages;
+    }
+
+    /**
+     * @return Running prefetches; created if not yet initialized
+     */
+    private synchronized Map<Range<Integer>, Prefetch> getPrefetches() {
+        if (prefetches == null) {
+            prefetches = new ConcurrentHashMap<>();
+        }
+        return prefetches;
+    }
+}
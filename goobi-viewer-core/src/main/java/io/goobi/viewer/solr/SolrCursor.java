@@ -0,0 +1,132 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.solr;
+
+import java.util.NoSuchElementException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.SolrQuery.ORDER;
+import org.apache.solr.client.solrj.SolrRequest.METHOD;
+import org.apache.solr.client.solrj.response.QueryResponse;
+import org.apache.solr.common.params.CursorMarkParams;
+
+import io.goobi.viewer.exceptions.IndexUnreachableException;
+import io.goobi.viewer.exceptions.PresentationException;
+
+/**
+ * Iterates over a Solr result set in batches using <code>cursorMark</code> deep paging. Each call of {@link #next()} issues one Solr request, so
+ * only one batch of documents needs to be held in memory at a time. Instances are created via
+ * {@link SolrSearchIndex#searchWithCursor(String, int, java.util.List, java.util.List, java.util.List, java.util.Map)}.
+ *
+ * <pre>
+ * SolrCursor cursor = searchIndex.searchWithCursor(query, 1000, sortFields, fieldList, null, null);
+ * while (cursor.hasNext()) {
+ *     for (SolrDocument doc : cursor.next().getResults()) {
+ *         ...
+ *     }
+ * }
+ * </pre>
+ */
+public class SolrCursor {
+
+    private static final Logger logger = LogManager.getLogger(SolrCursor.class);
+
+    private final SolrSearchIndex searchIndex;
+    private final SolrQuery solrQuery;
+    private String cursorMark = CursorMarkParams.CURSOR_MARK_START;
+    private boolean done = false;
+    private long numFound = -1;
+    private long fetched = 0;
+
+    /**
+     * 
+     * @param searchIndex {@link SolrSearchIndex} to query
+     * @param solrQuery Query with rows set to the desired batch size
+     */
+    SolrCursor(SolrSearchIndex searchIndex, SolrQuery solrQuery) {
+        this.searchIndex = searchIndex;
+        this.solrQuery = solrQuery;
+        // Cursors require a sort on the unique key field as tie breaker
+        boolean uniqueKeySort = solrQuery.getSorts().stream().anyMatch(sort -> SolrConstants.IDDOC.equals(sort.getItem()));
+        if (!uniqueKeySort) {
+            if (solrQuery.getSorts().isEmpty()) {
+                // Keep default relevance order
+                solrQuery.addSort("score", ORDER.desc);
+            }
+            solrQuery.addSort(SolrConstants.IDDOC, ORDER.asc);
+        }
+        solrQuery.setStart(0);
+    }
+
+    /**
+     * 
+     * @return true if more documents may be available; false otherwise
+     */
+    public boolean hasNext() {
+        return !done;
+    }
+
+    /**
+     * Fetches the next batch of documents.
+     * 
+     * @return {@link QueryResponse} containing the next batch
+     * @throws PresentationException
+     * @throws IndexUnreachableException
+     * @throws NoSuchElementException if all documents have already been fetched
+     */
+    public QueryResponse next() throws PresentationException, IndexUnreachableException {
+        if (done) {
+            throw new NoSuchElementException("All documents have been fetched");
+        }
+        solrQuery.set(CursorMarkParams.CURSOR_MARK_PARAM, cursorMark);
+        QueryResponse resp = searchIndex.executeQuery(solrQuery, METHOD.POST);
+        String nextCursorMark = resp.getNextCursorMark();
+        if (resp.getResults() != null) {
+            numFound = resp.getResults().getNumFound();
+            fetched += resp.getResults().size();
+        }
+        // The cursor mark stays the same once the end of the result set has been reached
+        if (nextCursorMark == null || nextCursorMark.equals(cursorMark) || resp.getResults() == null || resp.getResults().isEmpty()
+                || fetched >= numFound) {
+            done = true;
+        }
+        logger.trace("Fetched {} of {} documents", fetched, numFound);
+        cursorMark = nextCursorMark;
+        return resp;
+    }
+
+    /**
+     * @return Total number of matching documents; -1 if no batch has been fetched yet
+     */
+    public long getNumFound() {
+        return numFound;
+    }
+
+    /**
+     * @return Number of documents fetched so far
+     */
+    public long getFetched() {
+        return fetched;
+    }
+}
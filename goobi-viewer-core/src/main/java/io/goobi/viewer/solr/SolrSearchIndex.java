@@ -22,6 +22,7 @@
 package io.goobi.viewer.solr;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -30,12 +31,14 @@ import java.util.Comparator;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -53,6 +56,7 @@ import org.apache.solr.client.solrj.impl.BinaryRequestWriter;
 import org.apache.solr.client.solrj.impl.Http2SolrClient;
 import org.apache.solr.client.solrj.impl.HttpSolrClient;
 import org.apache.solr.client.solrj.impl.XMLResponseParser;
+import org.apache.solr.client.solrj.request.GenericSolrRequest;
 import org.apache.solr.client.solrj.request.LukeRequest;
 import org.apache.solr.client.solrj.request.json.HeatmapFacetMap;
 import org.apache.solr.client.solrj.request.json.JsonQueryRequest;
@@ -66,9 +70,14 @@ import org.apache.solr.common.SolrDocument;
 import org.apache.solr.common.SolrDocumentList;
 import org.apache.solr.common.SolrException;
 import org.apache.solr.common.luke.FieldFlag;
+import org.apache.solr.common.params.CommonParams;
+import org.apache.solr.common.params.CursorMarkParams;
+import org.apache.solr.common.params.ModifiableSolrParams;
+import org.apache.solr.common.util.NamedList;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
+import io.goobi.viewer.controller.BoundedCache;
 import io.goobi.viewer.controller.DataManager;
 import io.goobi.viewer.controller.StringTools;
 import io.goobi.viewer.exceptions.DAOException;
@@ -98,9 +107,18 @@ public class SolrSearchIndex {
     public static final int MAX_HITS = 1000000;
     private static final int TIMEOUT_SO = 30000;
     private static final int TIMEOUT_CONNECTION = 30000;
+    /** Maximum number of requested rows for which query results are cached. */
+    static final int QUERY_CACHE_MAX_ROWS = 100;
 
     private long lastPing = 0;
 
+    /** Incremented each time the index has changed; used to invalidate data derived from the index. */
+    private final AtomicLong indexGeneration = new AtomicLong();
+    /** Last seen Lucene index version. */
+    private volatile long indexVersion = -1;
+    /** Optional cache for query results. */
+    private volatile BoundedCache<String, QueryResponse> queryCache = null;
+
     /** Application-scoped map containing already looked up data repository names of records. */
     private Map<String, String> dataRepositoryNames = new HashMap<>();
 
@@ -164,7 +182,129 @@ public class SolrSearchIndex {
                 }
             }
             lastPing = System.currentTimeMillis();
+            checkIndexVersion();
+        }
+    }
+
+    /**
+     * Increments the index generation if the Lucene index version has changed since the last check (e.g. after records have been indexed or
+     * deleted).
+     */
+    void checkIndexVersion() {
+        ModifiableSolrParams params = new ModifiableSolrParams();
+        params.set("show", "index");
+        params.set("numTerms", 0);
+        try {
+            NamedList<Object> resp = client.request(new GenericSolrRequest(METHOD.GET, "/admin/luke", params));
+            Object indexInfo = resp.get("index");
+            if (!(indexInfo instanceof NamedList<?> info) || !(info.get("version") instanceof Number version)) {
+                return;
+            }
+            if (indexVersion != -1 && indexVersion != version.longValue()) {
+                logger.debug("Index version has changed: {}", version);
+                incrementIndexGeneration();
+            }
+            indexVersion = version.longValue();
+        } catch (SolrServerException | SolrException | IOException e) {
+            logger.warn("Could not check index version: {}", SolrTools.extractExceptionMessageHtmlTitle(e.getMessage()));
+        }
+    }
+
+    /**
+     * 
+     * @return Current index generation
+     */
+    public long getIndexGeneration() {
+        return indexGeneration.get();
+    }
+
+    /**
+     * Marks all data derived from the current index state as outdated. Called whenever the indexer reports that the index has changed.
+     * 
+     * @return New index generation
+     * @should clear query cache
+     */
+    public long incrementIndexGeneration() {
+        long ret = indexGeneration.incrementAndGet();
+        logger.debug("Index generation is now {}", ret);
+        BoundedCache<String, QueryResponse> cache = queryCache;
+        if (cache != null) {
+            cache.clear();
+        }
+        return ret;
+    }
+
+    /**
+     * 
+     * @return Query cache if enabled in the configuration; null otherwise
+     */
+    private BoundedCache<String, QueryResponse> getQueryCache() {
+        if (!DataManager.getInstance().getConfiguration().isSolrQueryCacheEnabled()) {
+            return null;
+        }
+        BoundedCache<String, QueryResponse> ret = queryCache;
+        if (ret == null) {
+            synchronized (this) {
+                ret = queryCache;
+                if (ret == null) {
+                    ret = new BoundedCache<>(DataManager.getInstance().getConfiguration().getSolrQueryCacheMaxSize(),
+                            Duration.ofSeconds(DataManager.getInstance().getConfiguration().getSolrQueryCacheTtl()));
+                    queryCache = ret;
+                }
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * Returns a cache key for the given query, made up of all its parameters in alphabetical order. Queries for more than
+     * {@link #QUERY_CACHE_MAX_ROWS} rows, cursor queries and queries with random sorting are not cached.
+     * 
+     * @param solrQuery
+     * @return Cache key; null if the query should not be cached
+     * @should return same key regardless of filter query order
+     * @should return null for cursor queries
+     * @should return null for random sorting
+     * @should return null if too many rows requested
+     */
+    static String getQueryCacheKey(SolrQuery solrQuery) {
+        if (solrQuery.get(CursorMarkParams.CURSOR_MARK_PARAM) != null
+                || (solrQuery.getRows() != null && solrQuery.getRows() > QUERY_CACHE_MAX_ROWS)
+                || StringUtils.contains(solrQuery.get(CommonParams.SORT), "random_")) {
+            return null;
         }
+
+        List<String> names = new ArrayList<>(solrQuery.getParameterNames());
+        Collections.sort(names);
+        StringBuilder sb = new StringBuilder();
+        for (String name : names) {
+            String[] values = solrQuery.getParams(name);
+            if (CommonParams.FQ.equals(name) || CommonParams.FL.equals(name)) {
+                // Order of filter queries and returned fields doesn't matter
+                values = values.clone();
+                Arrays.sort(values);
+            }
+            for (String value : values) {
+                sb.append(name).append('=').append(value).append('&');
+            }
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * 
+     * @return Hit/miss counts of the query cache
+     */
+    public Map<String, Long> getQueryCacheStatistics() {
+        Map<String, Long> ret = new LinkedHashMap<>();
+        BoundedCache<String, QueryResponse> cache = queryCache;
+        ret.put("hits", cache != null ? cache.getHits() : 0);
+        ret.put("misses", cache != null ? cache.getMisses() : 0);
+        ret.put("size", cache != null ? (long) cache.size() : 0);
+        ret.put("indexGeneration", indexGeneration.get());
+        return ret;
     }
 
     /**
@@ -277,6 +417,7 @@ public class SolrSearchIndex {
      * @should sort results correctly
      * @should facet results correctly
      * @should filter fields correctly
+     * @should return cached results if query cache enabled
      * @throws io.goobi.viewer.exceptions.PresentationException if any.
      * @throws io.goobi.viewer.exceptions.IndexUnreachableException if any.
      */
@@ -288,6 +429,49 @@ public class SolrSearchIndex {
     public QueryResponse search(String query, int first, int rows, List<StringPair> sortFields, List<String> facetFields, String facetSort,
             List<String> fieldList, List<String> filterQueries, Map<String, String> params, METHOD queryMethod)
             throws PresentationException, IndexUnreachableException {
+        SolrQuery solrQuery = createSolrQuery(query, first, rows, sortFields, facetFields, facetSort, fieldList, filterQueries, params);
+        return executeQuery(solrQuery, queryMethod);
+    }
+
+    /**
+     * Opens a cursor over all documents matching the given query, which are then fetched in batches of the given size using Solr's
+     * <code>cursorMark</code> deep paging. Unlike paging with increasing <code>start</code> values, the cost of fetching each batch stays the same
+     * regardless of its position in the result set, so this should be used to iterate over very large result sets instead of requesting
+     * {@link #MAX_HITS} rows at once.
+     *
+     * @param query Solr query
+     * @param batchSize Number of documents to fetch per request
+     * @param sortFields Optional field/order pairs for sorting; {@link SolrConstants#IDDOC} is added as tie breaker
+     * @param fieldList If not null, only the fields in the list will be returned
+     * @param filterQueries Optional filter queries
+     * @param params Additional query parameters
+     * @return {@link SolrCursor}
+     * @should return all documents across batches
+     */
+    public SolrCursor searchWithCursor(String query, int batchSize, List<StringPair> sortFields, List<String> fieldList,
+            List<String> filterQueries, Map<String, String> params) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        SolrQuery solrQuery = createSolrQuery(query, 0, batchSize, sortFields, null, null, fieldList, filterQueries, params);
+        return new SolrCursor(this, solrQuery);
+    }
+
+    /**
+     * 
+     * @param query
+     * @param first
+     * @param rows
+     * @param sortFields
+     * @param facetFields
+     * @param facetSort
+     * @param fieldList
+     * @param filterQueries
+     * @param params
+     * @return {@link SolrQuery}
+     */
+    private static SolrQuery createSolrQuery(String query, int first, int rows, List<StringPair> sortFields, List<String> facetFields,
+            String facetSort, List<String> fieldList, List<String> filterQueries, Map<String, String> params) {
         SolrQuery solrQuery = new SolrQuery(SolrTools.cleanUpQuery(query)).setStart(first).setRows(rows);
 
         if (sortFields != null && !sortFields.isEmpty()) {
@@ -339,6 +523,27 @@ public class SolrSearchIndex {
             }
         }
 
+        return solrQuery;
+    }
+
+    /**
+     * 
+     * @param solrQuery
+     * @param queryMethod
+     * @return {@link QueryResponse}
+     * @throws PresentationException
+     * @throws IndexUnreachableException
+     */
+    QueryResponse executeQuery(SolrQuery solrQuery, METHOD queryMethod) throws PresentationException, IndexUnreachableException {
+        BoundedCache<String, QueryResponse> cache = getQueryCache();
+        String cacheKey = cache != null ? getQueryCacheKey(solrQuery) : null;
+        if (cacheKey != null) {
+            QueryResponse resp = cache.get(cacheKey);
+            if (resp != null) {
+                // Callers may modify the returned docs
+                return copyQueryResponse(resp);
+            }
+        }
         try {
             //             logger.trace("Solr query : {}", solrQuery.getQuery());
             //             logger.debug("range: {} - {}", first, first + rows);
@@ -347,6 +552,9 @@ public class SolrSearchIndex {
             QueryResponse resp = client.query(solrQuery, queryMethod);
             //             logger.debug("found: {}", resp.getResults().getNumFound());
             //             logger.debug("fetched: {}", resp.getResults().size());
+            if (cacheKey != null) {
+                cache.put(cacheKey, copyQueryResponse(resp));
+            }
 
             return resp;
         } catch (SolrServerException e) {
@@ -372,6 +580,97 @@ public class SolrSearchIndex {
         }
     }
 
+    /**
+     * Creates a copy of the given response that shares no docs or lists with it, so that changes to the docs of one don't affect the other.
+     * 
+     * @param resp
+     * @return Copy of resp
+     * @should copy docs
+     */
+    static QueryResponse copyQueryResponse(QueryResponse resp) {
+        QueryResponse ret = new QueryResponse();
+        ret.setResponse(copyNamedList(resp.getResponse()));
+        ret.setElapsedTime(resp.getElapsedTime());
+        return ret;
+    }
+
+    /**
+     * 
+     * @param namedList
+     * @return Copy of namedList with all nested values copied
+     */
+    private static NamedList<Object> copyNamedList(NamedList<Object> namedList) {
+        NamedList<Object> ret = namedList.clone();
+        for (int i = 0; i < ret.size(); ++i) {
+            ret.setVal(i, copyResponseValue(ret.getVal(i)));
+        }
+        return ret;
+    }
+
+    /**
+     * 
+     * @param value
+     * @return Copy of value, if value is a container; value itself otherwise
+     */
+    @SuppressWarnings("unchecked")
+    private static Object copyResponseValue(Object value) {
+        if (value instanceof SolrDocumentList) {
+            SolrDocumentList docs = (SolrDocumentList) value;
+            SolrDocumentList ret = new SolrDocumentList();
+            ret.setNumFound(docs.getNumFound());
+            ret.setNumFoundExact(docs.getNumFoundExact());
+            ret.setStart(docs.getStart());
+            ret.setMaxScore(docs.getMaxScore());
+            for (SolrDocument doc : docs) {
+                ret.add(copyDocument(doc));
+            }
+            return ret;
+        }
+        if (value instanceof SolrDocument) {
+            return copyDocument((SolrDocument) value);
+        }
+        if (value instanceof NamedList) {
+            return copyNamedList((NamedList<Object>) value);
+        }
+        if (value instanceof List) {
+            List<Object> ret = new ArrayList<>(((List<Object>) value).size());
+            for (Object o : (List<Object>) value) {
+                ret.add(copyResponseValue(o));
+            }
+            return ret;
+        }
+        if (value instanceof Map) {
+            Map<Object, Object> ret = new LinkedHashMap<>();
+            for (Entry<Object, Object> entry : ((Map<Object, Object>) value).entrySet()) {
+                ret.put(entry.getKey(), copyResponseValue(entry.getValue()));
+            }
+            return ret;
+        }
+        return value;
+    }
+
+    /**
+     * 
+     * @param doc
+     * @return Copy of doc including multi-valued field value collections and child docs
+     */
+    private static SolrDocument copyDocument(SolrDocument doc) {
+        SolrDocument ret = new SolrDocument();
+        for (Entry<String, Object> entry : doc.entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof Collection) {
+                value = new ArrayList<>((Collection<?>) value);
+            }
+            ret.setField(entry.getKey(), value);
+        }
+        if (doc.hasChildDocuments()) {
+            for (SolrDocument child : doc.getChildDocuments()) {
+                ret.addChildDocument(copyDocument(child));
+            }
+        }
+        return ret;
+    }
+
     /**
      * <p>
      * search.
@@ -1000,8 +1299,21 @@ public class SolrSearchIndex {
             }
         }
 
+        BoundedCache<String, QueryResponse> cache = getQueryCache();
+        String cacheKey = cache != null ? getQueryCacheKey(solrQuery) : null;
+        if (cacheKey != null) {
+            QueryResponse resp = cache.get(cacheKey);
+            if (resp != null) {
+                // Callers may modify the returned docs
+                return copyQueryResponse(resp);
+            }
+        }
         try {
-            return client.query(solrQuery);
+            QueryResponse resp = client.query(solrQuery);
+            if (cacheKey != null) {
+                cache.put(cacheKey, copyQueryResponse(resp));
+            }
+            return resp;
         } catch (SolrServerException e) {
             if (e.getMessage().startsWith("Server refused connection")) {
                 logger.warn("Solr offline; Query: {}", solrQuery.getQuery());
@@ -1394,6 +1706,26 @@ public class SolrSearchIndex {
      */
     public String getHeatMap(String solrField, String wktRegion, String query, String filterQuery, Integer gridLevel)
             throws IndexUnreachableException {
+        HeatmapJsonFacet heatmap = getHeatMapFacet(solrField, wktRegion, query, filterQuery, gridLevel);
+        if (heatmap != null) {
+            return getAsJson(heatmap);
+        }
+        return "{}";
+    }
+
+    /**
+     * Returns the raw heatmap facet, i.e. the number of hits per grid cell within the given region.
+     *
+     * @param solrField
+     * @param wktRegion
+     * @param query
+     * @param filterQuery
+     * @param gridLevel Grid level; if null, Solr chooses a level depending on the region size
+     * @return {@link HeatmapJsonFacet}; null if the response contains none
+     * @throws IndexUnreachableException
+     */
+    public HeatmapJsonFacet getHeatMapFacet(String solrField, String wktRegion, String query, String filterQuery, Integer gridLevel)
+            throws IndexUnreachableException {
 
         HeatmapFacetMap facetMap = new HeatmapFacetMap(solrField)
                 .setHeatmapFormat(HeatmapFacetMap.HeatmapFormat.INTS2D)
@@ -1411,11 +1743,7 @@ public class SolrSearchIndex {
         try {
             QueryResponse response = request.process(client);
             final NestableJsonFacet topLevelFacet = response.getJsonFacetingResponse();
-            final HeatmapJsonFacet heatmap = topLevelFacet.getHeatmapFacetByName("heatmapFacet");
-            if (heatmap != null) {
-                return getAsJson(heatmap);
-            }
-            return "{}";
+            return topLevelFacet != null ? topLevelFacet.getHeatmapFacetByName("heatmapFacet") : null;
         } catch (SolrServerException | IOException e) {
             throw new IndexUnreachableException("Error getting facet heatmap: " + e.toString());
         }
@@ -0,0 +1,172 @@
+/**
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information. - http://www.intranda.com -
+ * http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU General Public License as published by the Free Software Foundation; either
+ * version 2 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this
+ * program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Leaflet layer loading geospatial search hits as map tiles from the REST API. Depending on zoom level and number of hits,
+ * a tile contains either the individual features or cluster features with the number of hits in the area of a heatmap cell.
+ * Both are added to the given feature group, which displays features with a 'count' property as cluster icons.
+ *
+ * @module viewerJS.geoMap.leafletSolrTiles
+ * @requires jQuery
+ */
+
+// Check if L (leaflet) exists, before executing
+
+if (typeof L !== 'undefined') {
+
+	L.SolrTiles = L.Layer.extend({
+		options: {
+			field: "WKT_COORDS",
+			filterQuery: "*:*",
+			facetQuery: "",
+			labelField: "LABEL",
+			// Maximum zoom level supported by the tile endpoint
+			maxZoom: 22,
+			// Latitude limits of the web mercator projection
+			maxLatitude: 85.0511287798
+		},
+
+		visible: true,
+
+		initialize: function(tileUrl, featureGroup, options) {
+			L.setOptions(this, options);
+			this._tileUrl = tileUrl;
+			this.featureGroup = featureGroup;
+			this._loadedTiles = {};
+			this._loadedFeatures = {};
+			this._zoom = undefined;
+		},
+
+		onAdd: function(map) {
+			map.on('moveend', this._update, this);
+			this._update();
+		},
+
+		onRemove: function(map) {
+			map.off('moveend', this._update, this);
+			this._reset();
+		},
+
+		isVisible: function() {
+			return this.visible;
+		},
+
+		setVisible: function(visible) {
+			this.visible = visible;
+			this.featureGroup.setVisible(visible);
+			if (visible) {
+				this._update();
+			}
+		},
+
+		_reset: function() {
+			this._loadedTiles = {};
+			this._loadedFeatures = {};
+			this.featureGroup.removeAllMarkers();
+		},
+
+		/**
+		 * Loads all tiles within the current map view which have not been loaded at the current zoom level yet. Clusters depend on the
+		 * zoom level, so all markers are removed when the zoom level changes.
+		 */
+		_update: function() {
+			if (!this.visible || !this._map) {
+				return;
+			}
+			let zoom = Math.max(0, Math.min(this.options.maxZoom, Math.round(this._map.getZoom())));
+			if (zoom !== this._zoom) {
+				this._reset();
+				this._zoom = zoom;
+			}
+			let tiles = 1 << zoom;
+			let bounds = this._map.getBounds();
+			let west = Math.max(-180, bounds.getWest());
+			let east = Math.min(180, bounds.getEast());
+			let north = Math.min(this.options.maxLatitude, bounds.getNorth());
+			let south = Math.max(-this.options.maxLatitude, bounds.getSouth());
+			if (west >= east || south >= north) {
+				return;
+			}
+			for (let x = this._getTileX(west, tiles); x <= this._getTileX(east, tiles); x++) {
+				for (let y = this._getTileY(north, tiles); y <= this._getTileY(south, tiles); y++) {
+					let key = zoom + "/" + x + "/" + y;
+					if (!this._loadedTiles[key]) {
+						this._loadedTiles[key] = true;
+						this._loadTile(zoom, x, y);
+					}
+				}
+			}
+		},
+
+		_loadTile: function(zoom, x, y) {
+			$.ajax({
+				url: this._getTileUrl(zoom, x, y),
+				dataType: 'json'
+			})
+			.then(tile => {
+				// Ignore responses for a previous zoom level
+				if (zoom !== this._zoom || !this.visible) {
+					return;
+				}
+				tile.features.forEach(feature => this._addFeature(feature));
+			})
+			.fail(error => {
+				console.error("Error loading map tile " + zoom + "/" + x + "/" + y, error);
+				delete this._loadedTiles[zoom + "/" + x + "/" + y];
+			});
+		},
+
+		_addFeature: function(feature) {
+			// Polygons are part of every tile they intersect
+			let key = JSON.stringify(feature.geometry) + "|" + (feature.properties.link ? feature.properties.link : JSON.stringify(feature.properties.title));
+			if (!feature.properties.cluster && this._loadedFeatures[key]) {
+				return;
+			}
+			this._loadedFeatures[key] = true;
+			this.featureGroup.addMarker(feature);
+		},
+
+		_getTileUrl: function(zoom, x, y) {
+			// Queries are passed URL-encoded
+			let url = this._tileUrl.replace("{solrField}", this.options.field)
+				.replace("{zoom}", zoom)
+				.replace("{x}", x)
+				.replace("{y}", y)
+				+ "?query=" + this.options.filterQuery
+				+ "&labelField=" + this.options.labelField;
+			if (this.options.facetQuery) {
+				url += "&facetQuery=" + this.options.facetQuery;
+			}
+			return url;
+		},
+
+		_getTileX: function(lng, tiles) {
+			let x = Math.floor((lng + 180) / 360 * tiles);
+			return Math.max(0, Math.min(tiles - 1, x));
+		},
+
+		_getTileY: function(lat, tiles) {
+			let rad = lat * Math.PI / 180;
+			let y = Math.floor((1 - Math.log(Math.tan(rad) + 1 / Math.cos(rad)) / Math.PI) / 2 * tiles);
+			return Math.max(0, Math.min(tiles - 1, y));
+		}
+	});
+
+	L.solrTiles = function(tileUrl, featureGroup, options) {
+		return new L.SolrTiles(tileUrl, featureGroup, options);
+	};
+}
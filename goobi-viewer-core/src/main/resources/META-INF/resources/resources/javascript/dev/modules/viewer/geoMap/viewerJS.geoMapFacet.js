@@ -60,6 +60,13 @@ var viewerJS = ( function ( viewer ) {
 			facetQuery: "",
 			labelField: "LABEL",
 		}, 
+		tiles: {
+			enabled: false,
+			tileUrl: "/viewer/api/v1/index/spatial/tiles/{solrField}/{zoom}/{x}/{y}",
+			mainQuery: "BOOL_WKT_COORDS:*",
+			facetQuery: "",
+			labelField: "LABEL",
+		},
 		search: {
 			$loader: $( "[data-loader='geoFacet']" ),
 			$searchButton: $( "[data-geofacet='execute']" )
@@ -90,17 +97,24 @@ var viewerJS = ( function ( viewer ) {
 
 	viewer.GeoMapFacet.prototype.init = function (features,  view ) {
 		this.area = this.getArea( this.config.areaString );
-		this.features = this.config.heatmap.enabled ? {} : features;
+		// Heatmap and tiles load the hits within the visible map area themselves
+		this.features = this.config.heatmap.enabled || this.config.tiles.enabled ? {} : features;
 		this.geoMap.init(view);
 
 		this.drawLayer = this.initDrawLayer();
 		this.hitsLayer = this.initHitsLayer(this.features);
 		if(this.config.heatmap.enabled) {
 			this.heatmap = this.initHeatmap();
+		} else if(this.config.tiles.enabled) {
+			this.tiles = this.initTiles();
 		}
 
 
 		this.config.buttons.$toggleMarkers.on("click", () => {
+			if(this.tiles) {
+				this.tiles.setVisible(!this.tiles.isVisible());
+				return;
+			}
 			this.hitsLayer?.setVisible(!this.hitsLayer.isVisible());
 			this.heatmap?.setVisible(!this.heatmap.isVisible());
 		})
@@ -128,12 +142,27 @@ var viewerJS = ( function ( viewer ) {
 			if(f.properties && f.properties.link) {
 				$(this.config.search.loader).show();
 				window.location.assign(f.properties.link);
+			} else if(f.properties && f.properties.cluster && f.properties.bounds) {
+				// Cluster from a map tile: bounds are west, south, east, north
+				let b = f.properties.bounds;
+				this.geoMap.map.fitBounds([[b[1], b[0]], [b[3], b[2]]]);
 			}
 		})
 
 		return hitsLayer;
 	}
 
+	viewer.GeoMapFacet.prototype.initTiles = function () {
+		let tiles = L.solrTiles(this.config.tiles.tileUrl, this.hitsLayer, {
+			field: "WKT_COORDS",
+			filterQuery: this.config.tiles.mainQuery,
+			facetQuery: this.config.tiles.facetQuery,
+			labelField: this.config.tiles.labelField
+		});
+		tiles.addTo(this.geoMap.map);
+		return tiles;
+	}
+
 	viewer.GeoMapFacet.prototype.initHeatmap = function () {
 		let heatmapQuery = this.config.heatmap.mainQuery;
 		let heatmapFacetQuery = this.config.heatmap.facetQuery;
@@ -203,6 +232,7 @@ var viewerJS = ( function ( viewer ) {
 				hitsLayer: this.config.map.hitsLayer,
 				areaLayer: this.config.map.areaLayer,
 				heatmap: this.config.heatmap,
+				tiles: this.config.tiles,
 				onFeatureSelect: area => {
 					//console.log("Set facetting area", area);
 					sessionStorage.setItem("geoFacet", JSON.stringify(area));
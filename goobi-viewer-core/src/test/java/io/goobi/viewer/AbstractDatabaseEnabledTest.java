@@ -67,6 +67,8 @@ public abstract class AbstractDatabaseEnabledTest extends AbstractTest {
     public void tearDown() throws Exception {
         databaseTester.onTearDown();
         ((JPADAO) DataManager.getInstance().getDao()).clear();
+        DataManager.getInstance().getAccessRulesManager().invalidate();
+        DataManager.getInstance().getViewerRouteManager().invalidate();
 
         // FlatXmlDataSet
         // .write(databaseTester.getConnection().createDataSet(), new FileOutputStream("resources/" + System.currentTimeMillis() + ".xml"));
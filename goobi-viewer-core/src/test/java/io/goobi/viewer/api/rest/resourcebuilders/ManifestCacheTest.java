@@ -0,0 +1,151 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.api.rest.resourcebuilders;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Providers;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.intranda.api.iiif.presentation.v2.Manifest2;
+import io.goobi.viewer.AbstractTest;
+import io.goobi.viewer.api.rest.resourcebuilders.ManifestCache.CachedManifest;
+
+class ManifestCacheTest extends AbstractTest {
+
+    private static final String PI = "PPN123";
+
+    private Providers providers;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        MessageBodyWriter<Object> writer = Mockito.mock(MessageBodyWriter.class);
+        Mockito.doAnswer(invocation -> {
+            new ObjectMapper().writeValue((OutputStream) invocation.getArgument(6), invocation.getArgument(0));
+            return null;
+        })
+                .when(writer)
+                .writeTo(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(),
+                        ArgumentMatchers.any(), ArgumentMatchers.any());
+        providers = Mockito.mock(Providers.class);
+        Mockito.when(providers.getMessageBodyWriter(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(),
+                ArgumentMatchers.eq(MediaType.APPLICATION_JSON_TYPE))).thenReturn(writer);
+    }
+
+    /**
+     * @see ManifestCache#get(String,String,long)
+     * @verifies return manifest stored for same dateUpdated
+     */
+    @Test
+    void get_shouldReturnManifestStoredForSameDateUpdated(@TempDir Path folder) throws Exception {
+        ManifestCache cache = new ManifestCache(folder, true);
+        try {
+            CachedManifest stored =
+                    cache.put(PI, "v2_iiif", 1000L, new Manifest2(URI.create("https://example.com/" + PI + "/manifest/")), providers);
+            CachedManifest cached = cache.get(PI, "v2_iiif", 1000L).orElseThrow();
+            assertArrayEquals(stored.getJson(), cached.getJson());
+            assertTrue(new String(cached.getJson()).contains("https://example.com/" + PI + "/manifest/"));
+        } finally {
+            cache.shutdown();
+        }
+    }
+
+    /**
+     * @see ManifestCache#get(String,String,long)
+     * @verifies return empty if dateUpdated differs
+     */
+    @Test
+    void get_shouldReturnEmptyIfDateUpdatedDiffers(@TempDir Path folder) throws Exception {
+        ManifestCache cache = new ManifestCache(folder, true);
+        try {
+            cache.put(PI, "v2_iiif", 1000L, new Manifest2(URI.create("https://example.com/" + PI + "/manifest/")), providers);
+            assertFalse(cache.get(PI, "v2_iiif", 2000L).isPresent());
+            assertFalse(cache.get(PI, "v3", 1000L).isPresent());
+        } finally {
+            cache.shutdown();
+        }
+    }
+
+    /**
+     * @see ManifestCache#put(String,String,long,IPresentationModelElement,Providers)
+     * @verifies delete files of other index states
+     */
+    @Test
+    void put_shouldDeleteFilesOfOtherIndexStates(@TempDir Path folder) throws Exception {
+        ManifestCache cache = new ManifestCache(folder, true);
+        try {
+            cache.put(PI, "v2_iiif", 1000L, new Manifest2(URI.create("https://example.com/" + PI + "/manifest/")), providers);
+            cache.put(PI, "v2_thumbs", 1000L, new Manifest2(URI.create("https://example.com/" + PI + "/manifest/")), providers);
+            cache.put(PI, "v2_iiif", 2000L, new Manifest2(URI.create("https://example.com/" + PI + "/manifest/")), providers);
+            assertFalse(Files.exists(cache.getFile(PI, "v2_iiif", 1000L)));
+            assertTrue(Files.exists(cache.getFile(PI, "v2_iiif", 2000L)));
+            assertTrue(Files.exists(cache.getFile(PI, "v2_thumbs", 1000L)));
+        } finally {
+            cache.shutdown();
+        }
+    }
+
+    /**
+     * @see ManifestCache#invalidate(String)
+     * @verifies delete cached files
+     */
+    @Test
+    void invalidate_shouldDeleteCachedFiles(@TempDir Path folder) throws Exception {
+        ManifestCache cache = new ManifestCache(folder, true);
+        try {
+            cache.put(PI, "v2_iiif", 1000L, new Manifest2(URI.create("https://example.com/" + PI + "/manifest/")), providers);
+            cache.put(PI, "v3", 1000L, new Manifest2(URI.create("https://example.com/" + PI + "/manifest/")), providers);
+            cache.invalidate(PI);
+            assertFalse(cache.get(PI, "v2_iiif", 1000L).isPresent());
+            assertFalse(cache.get(PI, "v3", 1000L).isPresent());
+        } finally {
+            cache.shutdown();
+        }
+    }
+
+    /**
+     * @see ManifestCache#isAnonymousAccess(HttpServletRequest)
+     * @verifies return true if request null
+     */
+    @Test
+    void isAnonymousAccess_shouldReturnTrueIfRequestNull() {
+        assertTrue(ManifestCache.isAnonymousAccess(null));
+    }
+}
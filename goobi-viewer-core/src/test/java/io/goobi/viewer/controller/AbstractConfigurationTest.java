@@ -0,0 +1,124 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.goobi.viewer.AbstractTest;
+
+class AbstractConfigurationTest extends AbstractTest {
+
+    /**
+     * @see AbstractConfiguration#getCachedValue(String,java.util.function.Supplier)
+     * @verifies resolve value only once
+     */
+    @Test
+    void getCachedValue_shouldResolveValueOnlyOnce() throws Exception {
+        Configuration config = new Configuration(TEST_CONFIG_PATH);
+        AtomicInteger calls = new AtomicInteger();
+        assertEquals("foo", config.getCachedValue("test", () -> {
+            calls.incrementAndGet();
+            return "foo";
+        }));
+        assertEquals("foo", config.getCachedValue("test", () -> {
+            calls.incrementAndGet();
+            return "bar";
+        }));
+        assertEquals(1, calls.get());
+    }
+
+    /**
+     * @see AbstractConfiguration#getCachedValue(String,java.util.function.Supplier)
+     * @verifies resolve value again after reset
+     */
+    @Test
+    void getCachedValue_shouldResolveValueAgainAfterReset() throws Exception {
+        Configuration config = new Configuration(TEST_CONFIG_PATH);
+        assertEquals("foo", config.getCachedValue("test", () -> "foo"));
+        config.resetSnapshot();
+        assertEquals("bar", config.getCachedValue("test", () -> "bar"));
+    }
+
+    /**
+     * @see AbstractConfiguration#getCachedValue(String,java.util.function.Supplier)
+     * @verifies return null values
+     */
+    @Test
+    void getCachedValue_shouldReturnNullValues() throws Exception {
+        Configuration config = new Configuration(TEST_CONFIG_PATH);
+        AtomicInteger calls = new AtomicInteger();
+        assertNull(config.getCachedValue("test", () -> {
+            calls.incrementAndGet();
+            return null;
+        }));
+        assertNull(config.getCachedValue("test", () -> {
+            calls.incrementAndGet();
+            return null;
+        }));
+        assertEquals(1, calls.get());
+    }
+
+    /**
+     * @see AbstractConfiguration#addChangeListener(Runnable)
+     * @verifies notify listener on reset
+     */
+    @Test
+    void addChangeListener_shouldNotifyListenerOnReset() throws Exception {
+        Configuration config = new Configuration(TEST_CONFIG_PATH);
+        AtomicInteger calls = new AtomicInteger();
+        config.addChangeListener(calls::incrementAndGet);
+        config.overrideValue("search.fulltextFragmentLength", 10);
+        assertEquals(1, calls.get());
+    }
+
+    /**
+     * @see AbstractConfiguration#removeChangeListener(Runnable)
+     * @verifies not notify removed listener
+     */
+    @Test
+    void removeChangeListener_shouldNotNotifyRemovedListener() throws Exception {
+        Configuration config = new Configuration(TEST_CONFIG_PATH);
+        AtomicInteger calls = new AtomicInteger();
+        Runnable listener = calls::incrementAndGet;
+        config.addChangeListener(listener);
+        config.removeChangeListener(listener);
+        config.resetSnapshot();
+        assertEquals(0, calls.get());
+    }
+
+    /**
+     * @see AbstractConfiguration#overrideValue(String,Object)
+     * @verifies replace previously resolved values
+     */
+    @Test
+    void overrideValue_shouldReplacePreviouslyResolvedValues() throws Exception {
+        Configuration config = new Configuration(TEST_CONFIG_PATH);
+        boolean original = config.isCalendarSearchEnabled();
+        config.overrideValue("search.calendar[@enabled]", !original);
+        assertEquals(!original, config.isCalendarSearchEnabled());
+    }
+}
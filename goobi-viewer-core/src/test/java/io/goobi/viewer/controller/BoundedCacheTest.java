@@ -0,0 +1,100 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+class BoundedCacheTest {
+
+    /**
+     * @see BoundedCache#get(Object)
+     * @verifies return null for expired entries
+     */
+    @Test
+    void get_shouldReturnNullForExpiredEntries() throws Exception {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, Duration.ofMillis(10));
+        cache.put("a", "A");
+        assertEquals("A", cache.get("a"));
+        Thread.sleep(20);
+        assertNull(cache.get("a"));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    /**
+     * @see BoundedCache#get(Object)
+     * @verifies evict least recently used entry if max size exceeded
+     */
+    @Test
+    void get_shouldEvictLeastRecentlyUsedEntryIfMaxSizeExceeded() throws Exception {
+        BoundedCache<String, String> cache = new BoundedCache<>(2, null);
+        cache.put("a", "A");
+        cache.put("b", "B");
+        cache.get("a");
+        cache.put("c", "C");
+        assertEquals(2, cache.size());
+        assertEquals("A", cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals("C", cache.get("c"));
+    }
+
+    /**
+     * @see BoundedCache#put(Object,Object)
+     * @verifies evict least recently used entries if max weight exceeded
+     */
+    @Test
+    void put_shouldEvictLeastRecentlyUsedEntriesIfMaxWeightExceeded() throws Exception {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, null, 5, String::length);
+        cache.put("a", "AA");
+        cache.put("b", "BB");
+        cache.get("a");
+        cache.put("c", "CCC");
+        assertEquals(5, cache.getWeight());
+        assertNull(cache.get("b"));
+        assertEquals("AA", cache.get("a"));
+        assertEquals("CCC", cache.get("c"));
+
+        cache.remove("a");
+        assertEquals(3, cache.getWeight());
+        cache.clear();
+        assertEquals(0, cache.getWeight());
+    }
+
+    /**
+     * @see BoundedCache#put(Object,Object)
+     * @verifies not cache values heavier than max weight
+     */
+    @Test
+    void put_shouldNotCacheValuesHeavierThanMaxWeight() throws Exception {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, null, 5, String::length);
+        cache.put("a", "AA");
+        cache.put("b", "BBBBBB");
+        assertNull(cache.get("b"));
+        assertEquals("AA", cache.get("a"));
+        assertEquals(2, cache.getWeight());
+    }
+}
@@ -140,6 +140,15 @@ class ConfigurationTest extends AbstractTest {
         assertEquals(50000, DataManager.getInstance().getConfiguration().getBrowsingMenuIndexSizeThreshold());
     }
 
+    /**
+     * @see Configuration#getBrowsingMenuIndexMaxAge()
+     * @verifies return correct value
+     */
+    @Test
+    void getBrowsingMenuIndexMaxAge_shouldReturnCorrectValue() throws Exception {
+        assertEquals(30, DataManager.getInstance().getConfiguration().getBrowsingMenuIndexMaxAge());
+    }
+
     /**
      * @see Configuration#getBrowsingMenuSortingIgnoreLeadingChars()
      * @verifies return correct value
@@ -309,6 +318,15 @@ class ConfigurationTest extends AbstractTest {
         assertEquals(50, DataManager.getInstance().getConfiguration().getFulltextFragmentLength());
     }
 
+    /**
+     * @see Configuration#getFulltextLoadingTimeout()
+     * @verifies return correct value
+     */
+    @Test
+    void getFulltextLoadingTimeout_shouldReturnCorrectValue() throws Exception {
+        assertEquals(5000, DataManager.getInstance().getConfiguration().getFulltextLoadingTimeout());
+    }
+
     /**
      * @see Configuration#getHotfolder()
      * @verifies return correct value
@@ -580,6 +598,24 @@ class ConfigurationTest extends AbstractTest {
         assertEquals(1000, DataManager.getInstance().getConfiguration().getPageLoaderThreshold());
     }
 
+    /**
+     * @see Configuration#getPageLoaderPrefetchSize()
+     * @verifies return correct value
+     */
+    @Test
+    void getPageLoaderPrefetchSize_shouldReturnCorrectValue() throws Exception {
+        assertEquals(20, DataManager.getInstance().getConfiguration().getPageLoaderPrefetchSize());
+    }
+
+    /**
+     * @see Configuration#getRecordSnapshotCacheSize()
+     * @verifies return correct value
+     */
+    @Test
+    void getRecordSnapshotCacheSize_shouldReturnCorrectValue() throws Exception {
+        assertEquals(50, DataManager.getInstance().getConfiguration().getRecordSnapshotCacheSize());
+    }
+
     /**
      * @see Configuration#getPageType(PageType)
      * @verifies return the correct value for the given type
@@ -926,6 +962,24 @@ class ConfigurationTest extends AbstractTest {
         Assertions.assertThrows(FileNotFoundException.class, () -> Configuration.loadStopwords("src/test/resources/startwords.txt"));
     }
 
+    /**
+     * @see Configuration#getStatisticsFlushInterval()
+     * @verifies return correct value
+     */
+    @Test
+    void getStatisticsFlushInterval_shouldReturnCorrectValue() throws Exception {
+        assertEquals(30, DataManager.getInstance().getConfiguration().getStatisticsFlushInterval());
+    }
+
+    /**
+     * @see Configuration#getStatisticsFlushMaxBufferedSessions()
+     * @verifies return correct value
+     */
+    @Test
+    void getStatisticsFlushMaxBufferedSessions_shouldReturnCorrectValue() throws Exception {
+        assertEquals(500, DataManager.getInstance().getConfiguration().getStatisticsFlushMaxBufferedSessions());
+    }
+
     /**
      * @see Configuration#getStopwords()
      * @verifies return all stopwords
@@ -1254,6 +1308,24 @@ class ConfigurationTest extends AbstractTest {
         assertEquals(true, DataManager.getInstance().getConfiguration().isDocHierarchyPdfEnabled());
     }
 
+    /**
+     * @see Configuration#getPdfPrerenderThreads()
+     * @verifies return correct value
+     */
+    @Test
+    void getPdfPrerenderThreads_shouldReturnCorrectValue() throws Exception {
+        assertEquals(4, DataManager.getInstance().getConfiguration().getPdfPrerenderThreads());
+    }
+
+    /**
+     * @see Configuration#isAssemblePdfFromPrerenderedPages()
+     * @verifies return correct value
+     */
+    @Test
+    void isAssemblePdfFromPrerenderedPages_shouldReturnCorrectValue() throws Exception {
+        assertTrue(DataManager.getInstance().getConfiguration().isAssemblePdfFromPrerenderedPages());
+    }
+
     /**
      * @see Configuration#isTitleEpubEnabled()
      * @verifies return correct value
@@ -1335,6 +1407,114 @@ class ConfigurationTest extends AbstractTest {
         assertTrue(DataManager.getInstance().getConfiguration().isSolrBackwardsCompatible());
     }
 
+    /**
+     * @see Configuration#getHttpClientMaxConnections()
+     * @verifies return correct value
+     */
+    @Test
+    void getHttpClientMaxConnections_shouldReturnCorrectValue() throws Exception {
+        assertEquals(50, DataManager.getInstance().getConfiguration().getHttpClientMaxConnections());
+    }
+
+    /**
+     * @see Configuration#getHttpClientMaxConnectionsPerRoute()
+     * @verifies return correct value
+     */
+    @Test
+    void getHttpClientMaxConnectionsPerRoute_shouldReturnCorrectValue() throws Exception {
+        assertEquals(10, DataManager.getInstance().getConfiguration().getHttpClientMaxConnectionsPerRoute());
+    }
+
+    /**
+     * @see Configuration#getHttpClientKeepAlive()
+     * @verifies return correct value
+     */
+    @Test
+    void getHttpClientKeepAlive_shouldReturnCorrectValue() throws Exception {
+        assertEquals(15, DataManager.getInstance().getConfiguration().getHttpClientKeepAlive());
+    }
+
+    /**
+     * @see Configuration#isSolrQueryCacheEnabled()
+     * @verifies return correct value
+     */
+    @Test
+    void isSolrQueryCacheEnabled_shouldReturnCorrectValue() throws Exception {
+        assertFalse(DataManager.getInstance().getConfiguration().isSolrQueryCacheEnabled());
+    }
+
+    /**
+     * @see Configuration#getSolrQueryCacheMaxSize()
+     * @verifies return correct value
+     */
+    @Test
+    void getSolrQueryCacheMaxSize_shouldReturnCorrectValue() throws Exception {
+        assertEquals(500, DataManager.getInstance().getConfiguration().getSolrQueryCacheMaxSize());
+    }
+
+    /**
+     * @see Configuration#getSolrQueryCacheTtl()
+     * @verifies return correct value
+     */
+    @Test
+    void getSolrQueryCacheTtl_shouldReturnCorrectValue() throws Exception {
+        assertEquals(60, DataManager.getInstance().getConfiguration().getSolrQueryCacheTtl());
+    }
+
+    /**
+     * @see Configuration#getSearchQueriesMaxConcurrency()
+     * @verifies return correct value
+     */
+    @Test
+    void getSearchQueriesMaxConcurrency_shouldReturnCorrectValue() throws Exception {
+        assertEquals(3, DataManager.getInstance().getConfiguration().getSearchQueriesMaxConcurrency());
+    }
+
+    /**
+     * @see Configuration#getSearchQueriesTimeout()
+     * @verifies return correct value
+     */
+    @Test
+    void getSearchQueriesTimeout_shouldReturnCorrectValue() throws Exception {
+        assertEquals(30, DataManager.getInstance().getConfiguration().getSearchQueriesTimeout());
+    }
+
+    /**
+     * @see Configuration#getReIndexQueueDebounce()
+     * @verifies return correct value
+     */
+    @Test
+    void getReIndexQueueDebounce_shouldReturnCorrectValue() throws Exception {
+        assertEquals(2, DataManager.getInstance().getConfiguration().getReIndexQueueDebounce());
+    }
+
+    /**
+     * @see Configuration#getReIndexQueueMaxPending()
+     * @verifies return correct value
+     */
+    @Test
+    void getReIndexQueueMaxPending_shouldReturnCorrectValue() throws Exception {
+        assertEquals(100, DataManager.getInstance().getConfiguration().getReIndexQueueMaxPending());
+    }
+
+    /**
+     * @see Configuration#isIIIFManifestCacheEnabled()
+     * @verifies return correct value
+     */
+    @Test
+    void isIIIFManifestCacheEnabled_shouldReturnCorrectValue() throws Exception {
+        assertTrue(DataManager.getInstance().getConfiguration().isIIIFManifestCacheEnabled());
+    }
+
+    /**
+     * @see Configuration#getIIIFManifestCacheFolder()
+     * @verifies return correct value
+     */
+    @Test
+    void getIIIFManifestCacheFolder_shouldReturnCorrectValue() throws Exception {
+        assertEquals("target/manifest_cache", DataManager.getInstance().getConfiguration().getIIIFManifestCacheFolder());
+    }
+
     /**
      * @see Configuration#isSidebarFulltextLinkVisible()
      * @verifies return correct value
@@ -1981,6 +2161,33 @@ class ConfigurationTest extends AbstractTest {
         assertEquals("ISWITHIN", DataManager.getInstance().getConfiguration().getGeoFacetFieldPredicate("WKT_COORDS"));
     }
 
+    /**
+     * @see Configuration#getGeoMapTileFeatureZoom()
+     * @verifies return correct value
+     */
+    @Test
+    void getGeoMapTileFeatureZoom_shouldReturnCorrectValue() throws Exception {
+        assertEquals(10, DataManager.getInstance().getConfiguration().getGeoMapTileFeatureZoom());
+    }
+
+    /**
+     * @see Configuration#getGeoMapTileMaxFeatures()
+     * @verifies return correct value
+     */
+    @Test
+    void getGeoMapTileMaxFeatures_shouldReturnCorrectValue() throws Exception {
+        assertEquals(200, DataManager.getInstance().getConfiguration().getGeoMapTileMaxFeatures());
+    }
+
+    /**
+     * @see Configuration#useTilesForFacetting()
+     * @verifies return correct value
+     */
+    @Test
+    void useTilesForFacetting_shouldReturnCorrectValue() throws Exception {
+        assertFalse(DataManager.getInstance().getConfiguration().useTilesForFacetting());
+    }
+
     /**
      * @see Configuration#isShowSearchHitsInGeoFacetMap()
      * @verifies return correct value
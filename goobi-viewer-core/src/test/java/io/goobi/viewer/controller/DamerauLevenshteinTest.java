@@ -0,0 +1,73 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.controller;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class DamerauLevenshteinTest {
+
+    /**
+     * @see DamerauLevenshtein#isWithinDistance(String,String,int)
+     * @verifies return true if distance within max distance
+     */
+    @Test
+    void isWithinDistance_shouldReturnTrueIfDistanceWithinMaxDistance() throws Exception {
+        assertTrue(DamerauLevenshtein.isWithinDistance("kitten", "kitten", 0));
+        assertTrue(DamerauLevenshtein.isWithinDistance("kitten", "sitten", 1));
+        assertTrue(DamerauLevenshtein.isWithinDistance("kitten", "sitting", 3));
+    }
+
+    /**
+     * @see DamerauLevenshtein#isWithinDistance(String,String,int)
+     * @verifies return false if distance exceeds max distance
+     */
+    @Test
+    void isWithinDistance_shouldReturnFalseIfDistanceExceedsMaxDistance() throws Exception {
+        assertFalse(DamerauLevenshtein.isWithinDistance("kitten", "sitting", 2));
+        assertFalse(DamerauLevenshtein.isWithinDistance("kitten", "kittens", 0));
+        assertFalse(DamerauLevenshtein.isWithinDistance("abcdef", "uvwxyz", 2));
+    }
+
+    /**
+     * @see DamerauLevenshtein#isWithinDistance(String,String,int)
+     * @verifies count transposition as one edit
+     */
+    @Test
+    void isWithinDistance_shouldCountTranspositionAsOneEdit() throws Exception {
+        assertTrue(DamerauLevenshtein.isWithinDistance("goobi", "gooib", 1));
+        assertFalse(DamerauLevenshtein.isWithinDistance("goobi", "gooib", 0));
+    }
+
+    /**
+     * @see DamerauLevenshtein#isWithinDistance(String,String,int)
+     * @verifies handle empty strings
+     */
+    @Test
+    void isWithinDistance_shouldHandleEmptyStrings() throws Exception {
+        assertTrue(DamerauLevenshtein.isWithinDistance("", "", 0));
+        assertTrue(DamerauLevenshtein.isWithinDistance("", "ab", 2));
+        assertFalse(DamerauLevenshtein.isWithinDistance("ab", "", 1));
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.client.methods.HttpGet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class HttpClientManagerTest {
+
+    private HttpClientManager manager;
+
+    @BeforeEach
+    void setUp() {
+        manager = new HttpClientManager(10, 2, 5, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        manager.shutdown();
+    }
+
+    /**
+     * @see HttpClientManager#execute(org.apache.http.client.methods.HttpUriRequest,org.apache.http.client.protocol.HttpClientContext)
+     * @verifies record statistics for host
+     */
+    @Test
+    void execute_shouldRecordStatisticsForHost() throws Exception {
+        // Nothing is listening on port 1, so the request fails
+        assertThrows(IOException.class, () -> manager.execute(new HttpGet("http://127.0.0.1:1/"), null));
+        Map<String, Long> statistics = manager.getStatistics();
+        assertEquals(1, statistics.get("127.0.0.1.requests"));
+        assertEquals(1, statistics.get("127.0.0.1.errors"));
+        assertTrue(statistics.containsKey("127.0.0.1.averageMillis"));
+    }
+
+    /**
+     * @see HttpClientManager#executeAsync(java.util.concurrent.Callable)
+     * @verifies return result of task
+     */
+    @Test
+    void executeAsync_shouldReturnResultOfTask() throws Exception {
+        assertEquals("foo", manager.executeAsync(() -> "foo").get(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * @see HttpClientManager#executeAsync(java.util.concurrent.Callable)
+     * @verifies complete exceptionally if task fails
+     */
+    @Test
+    void executeAsync_shouldCompleteExceptionallyIfTaskFails() throws Exception {
+        ExecutionException e = assertThrows(ExecutionException.class, () -> manager.executeAsync(() -> {
+            throw new IOException("foo");
+        }).get(5, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof IOException);
+    }
+}
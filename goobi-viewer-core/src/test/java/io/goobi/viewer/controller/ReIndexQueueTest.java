@@ -0,0 +1,173 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import io.goobi.viewer.AbstractTest;
+import io.goobi.viewer.controller.ReIndexQueue.ReIndexJob;
+import io.goobi.viewer.controller.mq.ViewerMessage;
+import io.goobi.viewer.model.job.TaskType;
+
+class ReIndexQueueTest extends AbstractTest {
+
+    /**
+     * @see ReIndexQueue#submitRecord(String)
+     * @verifies coalesce requests for same record
+     */
+    @Test
+    void submitRecord_shouldCoalesceRequestsForSameRecord() throws Exception {
+        BlockingQueue<ReIndexJob> executed = new LinkedBlockingQueue<>();
+        ReIndexQueue queue = new ReIndexQueue(500, 10, executed::add);
+        try {
+            queue.submitRecord("PPN123");
+            queue.submitRecord("PPN123");
+            queue.submitPage("PPN123", 5);
+            queue.submitRecord("PPN456");
+            assertEquals(2, queue.getPendingCount());
+
+            ReIndexJob job1 = executed.poll(5, TimeUnit.SECONDS);
+            ReIndexJob job2 = executed.poll(5, TimeUnit.SECONDS);
+            assertNotNull(job1);
+            assertNotNull(job2);
+            assertNull(executed.poll(700, TimeUnit.MILLISECONDS));
+            assertTrue(job1.isRecord());
+            assertTrue(job2.isRecord());
+            assertEquals(Set.of("PPN123", "PPN456"), Set.of(job1.getPi(), job2.getPi()));
+            assertEquals(Long.valueOf(4), queue.getStatistics().get("requested"));
+            assertEquals(Long.valueOf(2), queue.getStatistics().get("coalesced"));
+        } finally {
+            queue.shutdown();
+        }
+    }
+
+    /**
+     * @see ReIndexQueue#submitPage(String,int)
+     * @verifies merge pages of same record
+     */
+    @Test
+    void submitPage_shouldMergePagesOfSameRecord() throws Exception {
+        BlockingQueue<ReIndexJob> executed = new LinkedBlockingQueue<>();
+        ReIndexQueue queue = new ReIndexQueue(500, 10, executed::add);
+        try {
+            queue.submitPage("PPN123", 1);
+            queue.submitPage("PPN123", 1);
+            ReIndexJob job = executed.poll(5, TimeUnit.SECONDS);
+            assertNotNull(job);
+            assertFalse(job.isRecord());
+            assertEquals(Set.of(1), job.getPages());
+
+            queue.submitPage("PPN123", 1);
+            queue.submitPage("PPN123", 2);
+            job = executed.poll(5, TimeUnit.SECONDS);
+            assertNotNull(job);
+            assertTrue(job.isRecord());
+            assertEquals(Set.of(1, 2), job.getPages());
+        } finally {
+            queue.shutdown();
+        }
+    }
+
+    /**
+     * @see ReIndexQueue#shutdown()
+     * @verifies dispatch pending jobs
+     */
+    @Test
+    void shutdown_shouldDispatchPendingJobs() throws Exception {
+        BlockingQueue<ReIndexJob> executed = new LinkedBlockingQueue<>();
+        ReIndexQueue queue = new ReIndexQueue(60000, 10, executed::add);
+        queue.submitCmsPage(7);
+        queue.shutdown();
+        assertEquals(0, queue.getPendingCount());
+        ReIndexJob job = executed.poll();
+        assertNotNull(job);
+        assertEquals(Long.valueOf(7), job.getCmsPageId());
+    }
+
+    /**
+     * @see ReIndexQueue#dispatch(String)
+     * @verifies keep job pending if local executor is busy
+     */
+    @Test
+    void dispatch_shouldKeepJobPendingIfLocalExecutorIsBusy() throws Exception {
+        BlockingQueue<ReIndexJob> executed = new LinkedBlockingQueue<>();
+        CountDownLatch release = new CountDownLatch(1);
+        ReIndexQueue queue = new ReIndexQueue(0, 10, executed::add);
+        try {
+            // Occupy the worker thread and fill the queue of the local executor
+            while (queue.getStatistics().get("failed") == 0) {
+                queue.execute(() -> {
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            queue.submitRecord("PPN789");
+            assertEquals(1, queue.getPendingCount());
+
+            release.countDown();
+            ReIndexJob job = executed.poll(5, TimeUnit.SECONDS);
+            assertNotNull(job);
+            assertEquals("PPN789", job.getPi());
+            assertEquals(0, queue.getPendingCount());
+        } finally {
+            release.countDown();
+            queue.shutdown();
+        }
+    }
+
+    /**
+     * @see ReIndexJob#fromMessage(ViewerMessage)
+     * @verifies restore job from message
+     */
+    @Test
+    void fromMessage_shouldRestoreJobFromMessage() throws Exception {
+        ReIndexJob job = new ReIndexJob("PPN123", null);
+        job.addPage(3);
+        job.addPage(4);
+        ViewerMessage message = job.toMessage();
+        assertEquals(TaskType.REINDEX_RECORD.name(), message.getTaskName());
+
+        ReIndexJob restored = ReIndexJob.fromMessage(message);
+        assertEquals("PPN123", restored.getPi());
+        assertEquals(Set.of(3, 4), restored.getPages());
+        assertTrue(restored.isRecord());
+
+        restored = ReIndexJob.fromMessage(new ReIndexJob(null, 9L).toMessage());
+        assertEquals(Long.valueOf(9), restored.getCmsPageId());
+        assertNull(restored.getPi());
+    }
+}
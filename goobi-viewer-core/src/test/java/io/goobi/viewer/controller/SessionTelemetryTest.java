@@ -0,0 +1,176 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import io.goobi.viewer.AbstractTest;
+import io.goobi.viewer.controller.SessionTelemetry.SessionInfo;
+
+class SessionTelemetryTest extends AbstractTest {
+
+    private static HttpSession createSession(String id) {
+        HttpSession session = Mockito.mock(HttpSession.class);
+        Mockito.when(session.getId()).thenReturn(id);
+        Mockito.when(session.getCreationTime()).thenReturn(1000L);
+        Mockito.when(session.getMaxInactiveInterval()).thenReturn(1800);
+        return session;
+    }
+
+    private static HttpServletRequest createRequest(HttpSession session) {
+        HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+        Mockito.when(request.getSession(false)).thenReturn(session);
+        Mockito.when(request.getRemoteAddr()).thenReturn("127.0.0.1");
+        return request;
+    }
+
+    /**
+     * @see SessionTelemetry#recordRequest(HttpServletRequest)
+     * @verifies not create session
+     */
+    @Test
+    void recordRequest_shouldNotCreateSession() throws Exception {
+        SessionTelemetry telemetry = new SessionTelemetry();
+        HttpServletRequest request = createRequest(null);
+        telemetry.recordRequest(request);
+
+        Mockito.verify(request, Mockito.never()).getSession();
+        Mockito.verify(request, Mockito.never()).getSession(true);
+        assertEquals(0, telemetry.getSessionCount());
+        assertEquals(Long.valueOf(1), telemetry.getStatistics().get("requestsWithoutSession"));
+    }
+
+    /**
+     * @see SessionTelemetry#recordRequest(HttpServletRequest)
+     * @verifies register unknown session
+     */
+    @Test
+    void recordRequest_shouldRegisterUnknownSession() throws Exception {
+        SessionTelemetry telemetry = new SessionTelemetry();
+        telemetry.recordRequest(createRequest(createSession("abc")));
+        telemetry.recordRequest(createRequest(createSession("abc")));
+
+        assertEquals(1, telemetry.getSessionCount());
+        SessionInfo info = telemetry.getSession("abc");
+        assertNotNull(info);
+        assertEquals(1000L, info.getCreated());
+        assertEquals(2, info.getRequests());
+        assertEquals("127.0.0.1", info.getAddress());
+        assertEquals(1800, info.getTimeout());
+        assertEquals(Long.valueOf(0), telemetry.getStatistics().get("created"));
+    }
+
+    /**
+     * @see SessionTelemetry#recordRequest(HttpServletRequest)
+     * @verifies not register invalidated session
+     */
+    @Test
+    void recordRequest_shouldNotRegisterInvalidatedSession() throws Exception {
+        SessionTelemetry telemetry = new SessionTelemetry();
+        HttpSession session = createSession("abc");
+        Mockito.when(session.getCreationTime()).thenThrow(new IllegalStateException("invalidated"));
+        telemetry.recordRequest(createRequest(session));
+
+        assertEquals(0, telemetry.getSessionCount());
+        assertNull(telemetry.getSession("abc"));
+        assertEquals(Long.valueOf(0), telemetry.getStatistics().get("peak"));
+    }
+
+    /**
+     * @see SessionTelemetry#sessionDestroyed(String)
+     * @verifies return true only for known sessions
+     */
+    @Test
+    void sessionDestroyed_shouldReturnTrueOnlyForKnownSessions() throws Exception {
+        SessionTelemetry telemetry = new SessionTelemetry();
+        telemetry.sessionCreated(createSession("abc"));
+        assertEquals(1, telemetry.getSessionCount());
+
+        assertTrue(telemetry.sessionDestroyed("abc"));
+        assertFalse(telemetry.sessionDestroyed("abc"));
+        assertFalse(telemetry.sessionDestroyed("xyz"));
+        assertEquals(0, telemetry.getSessionCount());
+    }
+
+    /**
+     * @see SessionInfo#getLogicalViewCount()
+     * @verifies count views stored in session
+     */
+    @Test
+    void getLogicalViewCount_shouldCountViewsStoredInSession() throws Exception {
+        HttpSession session = createSession("abc");
+        Mockito.when(session.getAttribute(SessionTelemetry.ATTRIBUTE_LOGICAL_VIEW_MAP))
+                .thenReturn(Map.of("view1", Map.of("a", 1, "b", 2), "view2", Map.of("c", 3)));
+        SessionTelemetry telemetry = new SessionTelemetry();
+        telemetry.sessionCreated(session);
+
+        assertEquals(2, telemetry.getSession("abc").getLogicalViewCount());
+    }
+
+    /**
+     * @see SessionInfo#getTotalViewCount()
+     * @verifies count views stored in session
+     */
+    @Test
+    void getTotalViewCount_shouldCountViewsStoredInSession() throws Exception {
+        HttpSession session = createSession("abc");
+        Mockito.when(session.getAttribute(SessionTelemetry.ATTRIBUTE_LOGICAL_VIEW_MAP))
+                .thenReturn(Map.of("view1", Map.of("a", 1, "b", 2), "view2", Map.of("c", 3)));
+        SessionTelemetry telemetry = new SessionTelemetry();
+        telemetry.sessionCreated(session);
+
+        assertEquals(3, telemetry.getSession("abc").getTotalViewCount());
+    }
+
+    /**
+     * @see SessionTelemetry#getStatistics()
+     * @verifies compute aggregate values
+     */
+    @Test
+    void getStatistics_shouldComputeAggregateValues() throws Exception {
+        SessionTelemetry telemetry = new SessionTelemetry();
+        telemetry.sessionCreated(createSession("abc"));
+        telemetry.sessionCreated(createSession("def"));
+        telemetry.sessionDestroyed("def");
+        telemetry.recordRequest(createRequest(createSession("abc")));
+
+        Map<String, Long> statistics = telemetry.getStatistics();
+        assertEquals(Long.valueOf(1), statistics.get("active"));
+        assertEquals(Long.valueOf(2), statistics.get("peak"));
+        assertEquals(Long.valueOf(2), statistics.get("created"));
+        assertEquals(Long.valueOf(1), statistics.get("destroyed"));
+        assertEquals(Long.valueOf(1), statistics.get("requests"));
+        assertTrue(statistics.get("heapPerSession") > 0);
+    }
+}
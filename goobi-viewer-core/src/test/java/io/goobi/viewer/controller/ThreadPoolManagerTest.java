@@ -0,0 +1,135 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import io.goobi.viewer.AbstractTest;
+
+class ThreadPoolManagerTest extends AbstractTest {
+
+    /**
+     * @see ThreadPoolManager#getBoundedExecutor(String,int,int)
+     * @verifies run tasks in calling thread if queue is full
+     */
+    @Test
+    void getBoundedExecutor_shouldRunTasksInCallingThreadIfQueueIsFull() throws Exception {
+        ThreadPoolManager manager = new ThreadPoolManager(1);
+        try {
+            ExecutorService executor = manager.getBoundedExecutor("test", 1, 1);
+            assertSame(executor, manager.getBoundedExecutor("test", 1, 1));
+
+            CountDownLatch release = new CountDownLatch(1);
+            // Occupies the only thread
+            executor.execute(() -> {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            // Fills the queue
+            executor.execute(() -> {
+            });
+            AtomicReference<Thread> thread = new AtomicReference<>();
+            executor.execute(() -> thread.set(Thread.currentThread()));
+            assertEquals(Thread.currentThread(), thread.get());
+            release.countDown();
+
+            manager.shutdown();
+            AtomicReference<Thread> afterShutdown = new AtomicReference<>();
+            executor.execute(() -> afterShutdown.set(Thread.currentThread()));
+            assertEquals(Thread.currentThread(), afterShutdown.get());
+            assertTrue(executor.isShutdown());
+        } finally {
+            manager.shutdown();
+        }
+    }
+
+    /**
+     * @see ThreadPoolManager#getBoundedExecutor(String,int,int,RejectedExecutionHandler)
+     * @verifies throw RejectedExecutionException if queue is full and abort policy given
+     */
+    @Test
+    void getBoundedExecutor_shouldThrowRejectedExecutionExceptionIfQueueIsFullAndAbortPolicyGiven() throws Exception {
+        ThreadPoolManager manager = new ThreadPoolManager(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            ExecutorService executor = manager.getBoundedExecutor("test", 1, 1, new ThreadPoolExecutor.AbortPolicy());
+            // Occupies the only thread
+            executor.execute(() -> {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            // Fills the queue
+            executor.execute(() -> {
+            });
+            assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> {
+            }));
+        } finally {
+            release.countDown();
+            manager.shutdown();
+        }
+    }
+
+    /**
+     * @see ThreadPoolManager#getScheduledExecutor(String)
+     * @verifies return same executor for same name
+     */
+    @Test
+    void getScheduledExecutor_shouldReturnSameExecutorForSameName() throws Exception {
+        ThreadPoolManager manager = new ThreadPoolManager(1);
+        try {
+            ScheduledExecutorService executor = manager.getScheduledExecutor("test");
+            assertSame(executor, manager.getScheduledExecutor("test"));
+            assertNotSame(executor, manager.getScheduledExecutor("other"));
+
+            CountDownLatch ran = new CountDownLatch(1);
+            executor.schedule(ran::countDown, 10, TimeUnit.MILLISECONDS);
+            assertTrue(ran.await(5, TimeUnit.SECONDS));
+
+            manager.shutdown();
+            assertTrue(executor.isShutdown());
+            assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> {
+            }));
+        } finally {
+            manager.shutdown();
+        }
+    }
+}
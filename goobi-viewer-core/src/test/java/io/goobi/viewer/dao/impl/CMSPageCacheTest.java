@@ -0,0 +1,161 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.dao.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.goobi.viewer.AbstractTest;
+import io.goobi.viewer.model.cms.pages.CMSPage;
+
+class CMSPageCacheTest extends AbstractTest {
+
+    private static CMSPage createPage(long id, boolean published) {
+        return createPage(id, published, null);
+    }
+
+    /**
+     *
+     * @param id
+     * @param published
+     * @param relatedPI Used to tell different loads of the same page apart
+     * @return {@link CMSPage}
+     */
+    private static CMSPage createPage(long id, boolean published, String relatedPI) {
+        CMSPage page = new CMSPage();
+        page.setId(id);
+        page.setPublished(published);
+        page.setRelatedPI(relatedPI);
+        return page;
+    }
+
+    /**
+     * @see CMSPageCache#getPage(long,PageLoader)
+     * @verifies return cached page
+     */
+    @Test
+    void getPage_shouldReturnCachedPage() throws Exception {
+        CMSPageCache cache = new CMSPageCache();
+        AtomicInteger loads = new AtomicInteger();
+        assertEquals("PPN1", cache.getPage(1, () -> {
+            loads.incrementAndGet();
+            return createPage(1, true, "PPN1");
+        }).getRelatedPI());
+        assertEquals("PPN1", cache.getPage(1, () -> {
+            loads.incrementAndGet();
+            return createPage(1, true, "PPN2");
+        }).getRelatedPI());
+        assertEquals(1, loads.get());
+    }
+
+    /**
+     * @see CMSPageCache#getPage(long,PageLoader)
+     * @verifies return copies of cached page
+     */
+    @Test
+    void getPage_shouldReturnCopiesOfCachedPage() throws Exception {
+        CMSPageCache cache = new CMSPageCache();
+        CMSPage page = createPage(1, true, "PPN1");
+        CMSPage first = cache.getPage(1, () -> page);
+        assertNotSame(page, first);
+        assertEquals(Long.valueOf(1), first.getId());
+
+        first.setRelatedPI("PPN2");
+        CMSPage second = cache.getPage(1, () -> createPage(1, true));
+        assertNotSame(first, second);
+        assertEquals("PPN1", second.getRelatedPI());
+        assertEquals("PPN1", page.getRelatedPI());
+    }
+
+    /**
+     * @see CMSPageCache#getPage(long,PageLoader)
+     * @verifies not cache unpublished pages
+     */
+    @Test
+    void getPage_shouldNotCacheUnpublishedPages() throws Exception {
+        CMSPageCache cache = new CMSPageCache();
+        AtomicInteger loads = new AtomicInteger();
+        cache.getPage(2, () -> {
+            loads.incrementAndGet();
+            return createPage(2, false);
+        });
+        cache.getPage(2, () -> {
+            loads.incrementAndGet();
+            return createPage(2, false);
+        });
+        assertEquals(2, loads.get());
+    }
+
+    /**
+     * @see CMSPageCache#getPage(long,PageLoader)
+     * @verifies reload page after invalidation
+     */
+    @Test
+    void getPage_shouldReloadPageAfterInvalidation() throws Exception {
+        CMSPageCache cache = new CMSPageCache();
+        cache.getPage(1, () -> createPage(1, true, "PPN1"));
+        long version = cache.getVersion();
+
+        cache.invalidate();
+        assertEquals("PPN2", cache.getPage(1, () -> createPage(1, true, "PPN2")).getRelatedPI());
+        assertEquals(version + 1, cache.getVersion());
+    }
+
+    /**
+     * @see CMSPageCache#getPage(long,PageLoader)
+     * @verifies not return page loaded before invalidation
+     */
+    @Test
+    void getPage_shouldNotReturnPageLoadedBeforeInvalidation() throws Exception {
+        CMSPageCache cache = new CMSPageCache();
+        // Invalidation happens while the page is being loaded
+        cache.getPage(1, () -> {
+            cache.invalidate();
+            return createPage(1, true, "PPN1");
+        });
+        assertEquals("PPN2", cache.getPage(1, () -> createPage(1, true, "PPN2")).getRelatedPI());
+    }
+
+    /**
+     * @see CMSPageCache#getPageForStaticPage(String,PageLoader)
+     * @verifies cache missing pages
+     */
+    @Test
+    void getPageForStaticPage_shouldCacheMissingPages() throws Exception {
+        CMSPageCache cache = new CMSPageCache();
+        AtomicInteger loads = new AtomicInteger();
+        assertNull(cache.getPageForStaticPage("search", () -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+        assertNull(cache.getPageForStaticPage("search", () -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+        assertEquals(1, loads.get());
+    }
+}
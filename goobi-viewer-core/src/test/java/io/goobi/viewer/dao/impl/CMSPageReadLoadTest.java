@@ -0,0 +1,127 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.dao.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import io.goobi.viewer.AbstractDatabaseEnabledTest;
+import io.goobi.viewer.controller.DataManager;
+import io.goobi.viewer.dao.IDAO;
+import io.goobi.viewer.exceptions.DAOException;
+import io.goobi.viewer.model.cms.pages.CMSPage;
+import io.goobi.viewer.model.viewer.PageType;
+
+/**
+ * Load test for the CMS start page lookup, i.e. resolving the static page mapping via the route table and loading the mapped {@link CMSPage}.
+ * Compares the throughput with one thread and with one thread per available processor (up to {@link #MAX_THREADS}). Without a global lock on CMS
+ * reads, the throughput must grow with the number of threads.
+ * <p>
+ * Excluded from the default build since the timings depend on the build machine. Run with
+ * <code>mvn test -DskipTests=false -DexcludedTestGroups=none -Dgroups=load</code>.
+ * </p>
+ */
+@Tag("load")
+class CMSPageReadLoadTest extends AbstractDatabaseEnabledTest {
+
+    private static final Logger logger = LogManager.getLogger(CMSPageReadLoadTest.class);
+
+    private static final int READS_PER_THREAD = 2000;
+    private static final int MAX_THREADS = 4;
+    /** Required share of the ideal speedup, leaving room for the shared database and background load */
+    private static final double MIN_SCALING = 0.6;
+
+    @Test
+    void getCMSPage_shouldScaleStartPageReadsWithProcessors() throws Exception {
+        int threads = Math.min(MAX_THREADS, Runtime.getRuntime().availableProcessors());
+        Assumptions.assumeTrue(threads > 1, "Scaling cannot be measured on a single processor");
+
+        // Warm up caches and JIT
+        readStartPages(threads);
+
+        double singleThreadThroughput = measureThroughput(1);
+        double multiThreadThroughput = measureThroughput(threads);
+        double speedup = multiThreadThroughput / singleThreadThroughput;
+        logger.info("CMS start page reads per second: {} with 1 thread, {} with {} threads (speedup {})", (long) singleThreadThroughput,
+                (long) multiThreadThroughput, threads, String.format("%.2f", speedup));
+        assertTrue(speedup >= threads * MIN_SCALING,
+                String.format("Speedup %.2f with %d threads is below %.2f", speedup, threads, threads * MIN_SCALING));
+    }
+
+    /**
+     * Reads the start page {@link #READS_PER_THREAD} times in each of the given number of threads.
+     *
+     * @param threads
+     * @return Number of reads per second
+     * @throws Exception
+     */
+    private static double measureThroughput(int threads) throws Exception {
+        long start = System.nanoTime();
+        int reads = readStartPages(threads);
+        long duration = System.nanoTime() - start;
+        assertEquals(threads * READS_PER_THREAD, reads);
+        return reads / (duration / 1_000_000_000.0);
+    }
+
+    private static int readStartPages(int threads) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Callable<Integer>> tasks = new ArrayList<>(threads);
+            for (int i = 0; i < threads; ++i) {
+                tasks.add(CMSPageReadLoadTest::readStartPage);
+            }
+            int reads = 0;
+            for (Future<Integer> future : executor.invokeAll(tasks, 5, TimeUnit.MINUTES)) {
+                reads += future.get();
+            }
+            return reads;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static int readStartPage() throws DAOException {
+        IDAO dao = DataManager.getInstance().getDao();
+        int reads = 0;
+        for (int i = 0; i < READS_PER_THREAD; ++i) {
+            long id = DataManager.getInstance().getViewerRouteManager().getRouteTable().getStaticPageCmsPageId(PageType.index).orElseThrow();
+            CMSPage page = dao.getCMSPage(id);
+            assertEquals(Long.valueOf(1), page.getId());
+            reads++;
+        }
+        return reads;
+    }
+}
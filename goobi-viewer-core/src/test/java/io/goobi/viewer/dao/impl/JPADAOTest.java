@@ -32,6 +32,7 @@ import static org.junit.jupiter.api.Assertions.fail;
 
 import java.io.File;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
@@ -44,6 +45,7 @@ import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -1898,6 +1900,64 @@ class JPADAOTest extends AbstractDatabaseEnabledTest {
         Assertions.assertNull(DataManager.getInstance().getDao().getCMSPage(1));
     }
 
+    /**
+     * @see JPADAO#getCMSPage(long)
+     * @verifies return updated page after update
+     */
+    @Test
+    void getCMSPage_shouldReturnUpdatedPageAfterUpdate() throws Exception {
+        IDAO dao = DataManager.getInstance().getDao();
+        CMSPage page = dao.getCMSPage(1);
+        Assertions.assertNotNull(page);
+
+        page.getTitleTranslations().setValue("changed title", Locale.ENGLISH);
+        // Changes to a returned page are not visible to other readers before saving
+        Assertions.assertNotEquals("changed title", dao.getCMSPage(1).getTitleTranslations().getValue(Locale.ENGLISH).orElse(null));
+        Assertions.assertTrue(dao.updateCMSPage(page));
+
+        CMSPage updated = dao.getCMSPage(1);
+        Assertions.assertNotSame(page, updated);
+        Assertions.assertEquals("changed title", updated.getTitleTranslations().getValue(Locale.ENGLISH).orElse(null));
+    }
+
+    /**
+     * @see JPADAO#getCMSPage(long)
+     * @verifies return copies of same page to concurrent readers
+     */
+    @Test
+    void getCMSPage_shouldReturnCopiesOfSamePageToConcurrentReaders() throws Exception {
+        IDAO dao = DataManager.getInstance().getDao();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<CMSPage>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; ++i) {
+                futures.add(executor.submit(() -> dao.getCMSPage(1)));
+            }
+            CMSPage page = dao.getCMSPage(1);
+            Assertions.assertNotNull(page);
+            for (Future<CMSPage> future : futures) {
+                CMSPage result = future.get(30, TimeUnit.SECONDS);
+                Assertions.assertNotSame(page, result);
+                Assertions.assertEquals(page.getId(), result.getId());
+                Assertions.assertFalse(result.getCategories().isEmpty());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * @see JPADAO#getCmsPageForStaticPage(String)
+     * @verifies return page mapped to static page
+     */
+    @Test
+    void getCmsPageForStaticPage_shouldReturnPageMappedToStaticPage() throws Exception {
+        CMSPage page = DataManager.getInstance().getDao().getCmsPageForStaticPage("index");
+        Assertions.assertNotNull(page);
+        Assertions.assertEquals(Long.valueOf(1), page.getId());
+        Assertions.assertNull(DataManager.getInstance().getDao().getCmsPageForStaticPage("search"));
+    }
+
     /**
      * @see JPADAO#getAllTopCMSNavigationItems()
      * @verifies return all top items
@@ -2529,6 +2589,77 @@ class JPADAOTest extends AbstractDatabaseEnabledTest {
         Assertions.assertThrows(IllegalArgumentException.class, () -> dao.getAllAnnotations("foo", false));
     }
 
+    /**
+     * @see JPADAO#getAnnotations(int,int,String,List,List,List,String,Integer,String,boolean)
+     * @verifies filter correctly
+     */
+    @Test
+    void getAnnotations_shouldFilterCorrectly() throws Exception {
+        IDAO dao = DataManager.getInstance().getDao();
+        List<CrowdsourcingAnnotation> annotations =
+                dao.getAnnotations(0, 10, null, Collections.singletonList("DESCRIBING"), Arrays.asList(1L, 3L), null, "PI_1", null, "id", false);
+        assertEquals(2, annotations.size());
+        assertEquals(Long.valueOf(1), annotations.get(0).getId());
+        assertEquals(Long.valueOf(4), annotations.get(1).getId());
+
+        assertEquals(1, dao.getAnnotations(0, 10, null, null, null, Collections.singletonList(1L), null, null, null, false).size());
+        assertEquals(1, dao.getAnnotations(0, 10, null, null, null, null, "PI_2", 6, null, false).size());
+        assertEquals(1, dao.getAnnotations(0, 10, "C", null, null, null, null, null, null, false).size());
+    }
+
+    /**
+     * @see JPADAO#getAnnotations(int,int,String,List,List,List,String,Integer,String,boolean)
+     * @verifies page correctly
+     */
+    @Test
+    void getAnnotations_shouldPageCorrectly() throws Exception {
+        List<CrowdsourcingAnnotation> annotations =
+                DataManager.getInstance().getDao().getAnnotations(1, 2, null, null, null, null, null, null, "id", true);
+        assertEquals(2, annotations.size());
+        assertEquals(Long.valueOf(4), annotations.get(0).getId());
+        assertEquals(Long.valueOf(3), annotations.get(1).getId());
+    }
+
+    /**
+     * @see JPADAO#getAnnotations(int,int,String,List,List,List,String,Integer,String,boolean)
+     * @verifies throw IllegalArgumentException if sortField unknown
+     */
+    @Test
+    void getAnnotations_shouldThrowIllegalArgumentExceptionIfSortFieldUnknown() throws Exception {
+        IDAO dao = DataManager.getInstance().getDao();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> dao.getAnnotations(0, 10, null, null, null, null, null, null, "foo", false));
+    }
+
+    /**
+     * @see JPADAO#getAnnotationsAfterId(Long,int,String,List,List,List,String,Integer,boolean)
+     * @verifies return annotations following given id
+     */
+    @Test
+    void getAnnotationsAfterId_shouldReturnAnnotationsFollowingGivenId() throws Exception {
+        IDAO dao = DataManager.getInstance().getDao();
+        List<CrowdsourcingAnnotation> annotations = dao.getAnnotationsAfterId(1L, 2, null, null, null, null, "PI_1", null, false);
+        assertEquals(2, annotations.size());
+        assertEquals(Long.valueOf(3), annotations.get(0).getId());
+        assertEquals(Long.valueOf(4), annotations.get(1).getId());
+
+        annotations = dao.getAnnotationsAfterId(4L, 10, null, null, null, null, null, null, true);
+        assertEquals(3, annotations.size());
+        assertEquals(Long.valueOf(3), annotations.get(0).getId());
+    }
+
+    /**
+     * @see JPADAO#getAnnotationCount(String,List,List,List,String,Integer)
+     * @verifies return correct count
+     */
+    @Test
+    void getAnnotationCount_shouldReturnCorrectCount() throws Exception {
+        IDAO dao = DataManager.getInstance().getDao();
+        assertEquals(5, dao.getAnnotationCount(null, null, null, null, null, null));
+        assertEquals(3, dao.getAnnotationCount(null, null, null, null, "PI_1", null));
+        assertEquals(2, dao.getAnnotationCount(null, null, Collections.singletonList(3L), null, null, null));
+        assertEquals(0, dao.getAnnotationCount(null, Collections.singletonList("commenting"), null, null, null, null));
+    }
+
     /**
      * @see JPADAO#getAnnotation(Long)
      * @verifies return correct row
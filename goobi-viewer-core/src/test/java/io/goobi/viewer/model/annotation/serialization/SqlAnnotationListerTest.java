@@ -22,14 +22,18 @@
 package io.goobi.viewer.model.annotation.serialization;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
 import io.goobi.viewer.AbstractDatabaseEnabledTest;
+import io.goobi.viewer.controller.DataManager;
 import io.goobi.viewer.dao.IDAO;
 import io.goobi.viewer.model.annotation.CrowdsourcingAnnotation;
 
@@ -37,30 +41,31 @@ import io.goobi.viewer.model.annotation.CrowdsourcingAnnotation;
  * @author florian
  *
  */
-class SqlAnnotationListerTest {
+class SqlAnnotationListerTest extends AbstractDatabaseEnabledTest {
 
     IDAO dao;
     SqlAnnotationLister lister;
 
+    @Override
     @BeforeEach
     public void setUp() throws Exception {
-        CrowdsourcingAnnotation a1 = createAnnotation(1l, "OPENACCESS", "Text 1", 10l, 100l, "describing", "PI01", 5);
-        CrowdsourcingAnnotation a2 = createAnnotation(2l, "OPENACCESS", "Text 2", 10l, 101l, "describing", "PI02", 10);
-        CrowdsourcingAnnotation a3 = createAnnotation(3l, "OPENACCESS", "Text 3", 11l, 101l, "commenting", "PI03", 5);
-        CrowdsourcingAnnotation a4 = createAnnotation(4l, "OPENACCESS", "Text 4", 11l, 102l, "commenting", "PI03", 8);
-        CrowdsourcingAnnotation a5 = createAnnotation(5l, "OPENACCESS", "Text 5", 12l, 102l, "annotating", "PI04", 1);
-        CrowdsourcingAnnotation a6 = createAnnotation(6l, "RESTRICTED", "Text 6", 11l, 102l, "describing", "PI04", 5);
-        CrowdsourcingAnnotation a7 = createAnnotation(7l, "RESTRICTED", "Text 7", 12l, 103l, "describing", "PI03", 5);
-        dao = Mockito.mock(IDAO.class);
-        Mockito.when(dao.getAllAnnotations(Mockito.anyString(), Mockito.anyBoolean()))
-        .thenReturn(Arrays.asList(a1, a2, a3, a4, a5, a6, a7));
+        super.setUp();
+        dao = DataManager.getInstance().getDao();
+        // Added to the five annotations in the test database
+        dao.addAnnotation(createAnnotation("OPENACCESS", "Text 1", 10l, 100l, "describing", "PI01", 5));
+        dao.addAnnotation(createAnnotation("OPENACCESS", "Text 2", 10l, 101l, "describing", "PI02", 10));
+        dao.addAnnotation(createAnnotation("OPENACCESS", "Text 3", 11l, 101l, "commenting", "PI03", 5));
+        dao.addAnnotation(createAnnotation("OPENACCESS", "Text 4", 11l, 102l, "commenting", "PI03", 8));
+        dao.addAnnotation(createAnnotation("OPENACCESS", "Text 5", 12l, 102l, "annotating", "PI04", 1));
+        dao.addAnnotation(createAnnotation("RESTRICTED", "Text 6", 11l, 102l, "describing", "PI04", 5));
+        dao.addAnnotation(createAnnotation("RESTRICTED", "Text 7", 12l, 103l, "describing", "PI03", 5));
 
         lister = new SqlAnnotationLister(dao);
     }
 
     @Test
     void testGetAllAnnotations() {
-        assertEquals(7, lister.getAllAnnotations().size());
+        assertEquals(12, lister.getAllAnnotations().size());
     }
 
     @Test
@@ -72,19 +77,70 @@ class SqlAnnotationListerTest {
         assertEquals(3, lister.getAnnotationCount(null, null, null, Arrays.asList(11l), null, null));
         assertEquals(2, lister.getAnnotationCount(null, null, null, null, "PI04", null));
         assertEquals(2, lister.getAnnotationCount(null, null, null, null, "PI03", 5));
-        assertEquals(7, lister.getAnnotationCount(null, null, null, null, null, null));
+        assertEquals(12, lister.getAnnotationCount(null, null, null, null, null, null));
     }
 
     @Test
     void testGetAnnotationPage() {
         assertEquals(5, lister.getAnnotations(0, 5, null, null, null, null, null, null, "", false).size());
-        assertEquals(2, lister.getAnnotations(5, 5, null, null, null, null, null, null, "", false).size());
+        assertEquals(5, lister.getAnnotations(5, 5, null, null, null, null, null, null, "", false).size());
+        assertEquals(2, lister.getAnnotations(10, 5, null, null, null, null, null, null, "", false).size());
     }
 
+    /**
+     * @see SqlAnnotationLister#getAnnotations(int,int,String,List,List,List,String,Integer,String,boolean)
+     * @verifies filter by text content
+     */
+    @Test
+    void getAnnotations_shouldFilterByTextContent() {
+        List<CrowdsourcingAnnotation> annotations = lister.getAnnotations(0, 5, "text", null, null, Arrays.asList(12l), null, null, "id", false);
+        assertEquals(2, annotations.size());
+        assertEquals("Text 5", annotations.get(0).getContentString());
+        assertEquals("Text 7", annotations.get(1).getContentString());
+        assertEquals(1, lister.getAnnotations(1, 5, "text", null, null, Arrays.asList(12l), null, null, "id", false).size());
+    }
+
+    /**
+     * @see SqlAnnotationLister#getAnnotations(int,int,String,List,List,List,String,Integer,String,boolean)
+     * @verifies page in the database
+     */
+    @Test
+    void getAnnotations_shouldPageInTheDatabase() throws Exception {
+        IDAO spyDao = Mockito.spy(dao);
+        SqlAnnotationLister spyLister = new SqlAnnotationLister(spyDao);
+        List<Long> allIds = dao.getAllAnnotations("id", false).stream().map(CrowdsourcingAnnotation::getId).toList();
+
+        List<CrowdsourcingAnnotation> page = spyLister.getAnnotations(5, 5, null, null, null, null, null, null, "id", false);
+        assertEquals(allIds.subList(5, 10), page.stream().map(CrowdsourcingAnnotation::getId).toList());
+        Mockito.verify(spyDao).getAnnotations(5, 5, null, null, null, null, null, null, "id", false);
+
+        // Following page via keyset pagination
+        page = spyLister.getAnnotations(10, 5, null, null, null, null, null, null, "id", false);
+        assertEquals(allIds.subList(10, 12), page.stream().map(CrowdsourcingAnnotation::getId).toList());
+        Mockito.verify(spyDao).getAnnotationsAfterId(allIds.get(9), 5, null, null, null, null, null, null, false);
+
+        Mockito.verify(spyDao, Mockito.never()).getAllAnnotations(Mockito.any(), Mockito.anyBoolean());
+    }
+
+    /**
+     * @see SqlAnnotationLister#getAnnotations(int,int,String,List,List,List,String,Integer,String,boolean)
+     * @verifies return consecutive pages sorted by id
+     */
+    @Test
+    void getAnnotations_shouldReturnConsecutivePagesSortedById() {
+        List<CrowdsourcingAnnotation> annotations = new ArrayList<>();
+        for (int first = 0; first < 12; first += 5) {
+            annotations.addAll(lister.getAnnotations(first, 5, null, null, null, null, null, null, "id", true));
+        }
+        assertEquals(12, annotations.size());
+        for (int i = 1; i < annotations.size(); ++i) {
+            assertTrue(annotations.get(i - 1).getId() > annotations.get(i).getId());
+        }
+    }
 
-    private CrowdsourcingAnnotation createAnnotation(long id, String accessCondition, String text, long creatorId, long reviewerId, String motivation, String pi, int page) {
+    private static CrowdsourcingAnnotation createAnnotation(String accessCondition, String text, long creatorId, long reviewerId, String motivation,
+            String pi, int page) {
         CrowdsourcingAnnotation anno = new CrowdsourcingAnnotation();
-        anno.setId(id);
         anno.setAccessCondition(accessCondition);
         anno.setBody(text);
         anno.setCreatorId(creatorId);
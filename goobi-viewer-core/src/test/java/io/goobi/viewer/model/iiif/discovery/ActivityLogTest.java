@@ -0,0 +1,222 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.model.iiif.discovery;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.solr.common.SolrDocument;
+import org.junit.jupiter.api.Test;
+
+import de.intranda.api.iiif.discovery.ActivityType;
+import io.goobi.viewer.AbstractDatabaseAndSolrEnabledTest;
+import io.goobi.viewer.controller.DataManager;
+import io.goobi.viewer.model.search.SearchHelper;
+import io.goobi.viewer.model.security.IPrivilegeHolder;
+import io.goobi.viewer.solr.SolrConstants;
+
+class ActivityLogTest extends AbstractDatabaseAndSolrEnabledTest {
+
+    private static SolrDocument createDoc(String pi, long created, Long deleted, long... updates) {
+        SolrDocument doc = new SolrDocument();
+        doc.setField(SolrConstants.PI, pi);
+        doc.setField(SolrConstants.DATECREATED, created);
+        if (deleted != null) {
+            doc.setField(SolrConstants.DATEDELETED, deleted);
+        }
+        for (long update : updates) {
+            doc.addField(SolrConstants.DATEUPDATED, update);
+        }
+        return doc;
+    }
+
+    /**
+     * Adds the activities of the given documents to the given log, like a catch-up would.
+     */
+    private static void append(ActivityLog log, SolrDocument... docs) {
+        List<ActivityLog.Entry> entries = new ArrayList<>();
+        for (SolrDocument doc : docs) {
+            log.collectNewEntries(doc, entries);
+        }
+        log.append(entries);
+    }
+
+    /**
+     * @see ActivityLog#collectNewEntries(SolrDocument,List)
+     * @verifies add create update and delete activities
+     */
+    @Test
+    void collectNewEntries_shouldAddCreateUpdateAndDeleteActivities() throws Exception {
+        ActivityLog log = new ActivityLog();
+        List<ActivityLog.Entry> entries = new ArrayList<>();
+        log.collectNewEntries(createDoc("PPN1", 10L, 30L, 10L, 20L, 30L), entries);
+        assertEquals(3, entries.size());
+        assertEquals(ActivityType.CREATE, entries.get(0).getType());
+        assertEquals(10L, entries.get(0).getDate());
+        assertEquals(ActivityType.UPDATE, entries.get(1).getType());
+        assertEquals(20L, entries.get(1).getDate());
+        assertEquals(ActivityType.DELETE, entries.get(2).getType());
+        assertEquals(30L, entries.get(2).getDate());
+    }
+
+    /**
+     * @see ActivityLog#collectNewEntries(SolrDocument,List)
+     * @verifies skip activities already in log
+     */
+    @Test
+    void collectNewEntries_shouldSkipActivitiesAlreadyInLog() throws Exception {
+        ActivityLog log = new ActivityLog();
+        append(log, createDoc("PPN1", 10L, null, 10L, 20L));
+        assertEquals(2, log.size());
+
+        // Record has been re-indexed
+        append(log, createDoc("PPN1", 10L, null, 10L, 20L, 40L));
+        assertEquals(3, log.size());
+        ActivityLog.Entry entry = log.getEntries(2, 1).get(0);
+        assertEquals(ActivityType.UPDATE, entry.getType());
+        assertEquals(40L, entry.getDate());
+    }
+
+    /**
+     * @see ActivityLog#append(List)
+     * @verifies append entries in chronological order
+     */
+    @Test
+    void append_shouldAppendEntriesInChronologicalOrder() throws Exception {
+        ActivityLog log = new ActivityLog();
+        append(log, createDoc("PPN2", 50L, null, 50L), createDoc("PPN1", 10L, null, 10L, 60L));
+        List<ActivityLog.Entry> entries = log.getEntries(0, 10);
+        assertEquals(3, entries.size());
+        assertEquals("PPN1", entries.get(0).getPi());
+        assertEquals(10L, entries.get(0).getDate());
+        assertEquals("PPN2", entries.get(1).getPi());
+        assertEquals(50L, entries.get(1).getDate());
+        assertEquals("PPN1", entries.get(2).getPi());
+        assertEquals(60L, entries.get(2).getDate());
+    }
+
+    /**
+     * @see ActivityLog#append(List)
+     * @verifies merge older entries into place
+     */
+    @Test
+    void append_shouldMergeOlderEntriesIntoPlace() throws Exception {
+        ActivityLog log = new ActivityLog();
+        append(log, createDoc("PPN1", 10L, null, 10L, 30L), createDoc("PPN2", 20L, null, 20L, 40L));
+        // Record seen for the first time, with activities older than the latest ones in the log
+        append(log, createDoc("PPN3", 15L, null, 15L, 30L, 50L));
+        List<ActivityLog.Entry> entries = log.getEntries(0, 10);
+        assertEquals(7, entries.size());
+        long[] expectedDates = { 10L, 15L, 20L, 30L, 30L, 40L, 50L };
+        String[] expectedPis = { "PPN1", "PPN3", "PPN2", "PPN1", "PPN3", "PPN2", "PPN3" };
+        for (int i = 0; i < entries.size(); ++i) {
+            assertEquals(expectedDates[i], entries.get(i).getDate());
+            assertEquals(expectedPis[i], entries.get(i).getPi());
+        }
+        assertEquals(1, log.indexOf(11L));
+        assertEquals(3, log.indexOf(30L));
+        assertEquals(6, log.indexOf(45L));
+    }
+
+    /**
+     * @see ActivityLog#getEntries(int,int)
+     * @verifies return requested range
+     */
+    @Test
+    void getEntries_shouldReturnRequestedRange() throws Exception {
+        ActivityLog log = new ActivityLog();
+        // More entries than the initial capacity
+        SolrDocument[] docs = new SolrDocument[2000];
+        for (int i = 0; i < docs.length; ++i) {
+            docs[i] = createDoc("PPN" + i, i, null, i);
+        }
+        append(log, docs);
+        assertEquals(2000, log.size());
+
+        List<ActivityLog.Entry> entries = log.getEntries(1500, 100);
+        assertEquals(100, entries.size());
+        assertEquals("PPN1500", entries.get(0).getPi());
+        assertEquals("PPN1599", entries.get(99).getPi());
+        // Last page is incomplete
+        assertEquals(50, log.getEntries(1950, 100).size());
+    }
+
+    /**
+     * @see ActivityLog#getEntries(int,int)
+     * @verifies return empty list if first out of range
+     */
+    @Test
+    void getEntries_shouldReturnEmptyListIfFirstOutOfRange() throws Exception {
+        ActivityLog log = new ActivityLog();
+        append(log, createDoc("PPN1", 10L, null, 10L));
+        assertTrue(log.getEntries(1, 10).isEmpty());
+        assertTrue(log.getEntries(-1, 10).isEmpty());
+    }
+
+    /**
+     * @see ActivityLog#indexOf(long)
+     * @verifies return position of first activity at or after date
+     */
+    @Test
+    void indexOf_shouldReturnPositionOfFirstActivityAtOrAfterDate() throws Exception {
+        ActivityLog log = new ActivityLog();
+        append(log, createDoc("PPN1", 10L, null, 10L, 20L, 30L), createDoc("PPN2", 20L, null, 20L));
+        assertEquals(0, log.indexOf(5L));
+        assertEquals(1, log.indexOf(20L));
+        assertEquals(1, log.indexOf(15L));
+        assertEquals(3, log.indexOf(30L));
+    }
+
+    /**
+     * @see ActivityLog#indexOf(long)
+     * @verifies return size if all activities older
+     */
+    @Test
+    void indexOf_shouldReturnSizeIfAllActivitiesOlder() throws Exception {
+        ActivityLog log = new ActivityLog();
+        append(log, createDoc("PPN1", 10L, null, 10L, 20L));
+        assertEquals(2, log.indexOf(100L));
+    }
+
+    /**
+     * @see ActivityLog#getQuery()
+     * @verifies exclude records not listed for anonymous users
+     */
+    @Test
+    void getQuery_shouldExcludeRecordsNotListedForAnonymousUsers() throws Exception {
+        String anonymousSuffix = SearchHelper.getAnonymousFilterQuerySuffix(null, Optional.empty(), IPrivilegeHolder.PRIV_LIST);
+        // Any record outside of the anonymous access filter
+        SolrDocument doc = DataManager.getInstance()
+                .getSearchIndex()
+                .getFirstDoc("+ISWORK:true -" + anonymousSuffix.trim().substring(1), Collections.singletonList(SolrConstants.PI));
+        assertNotNull(doc);
+        String pi = (String) doc.getFirstValue(SolrConstants.PI);
+        assertEquals(0, DataManager.getInstance().getSearchIndex().getHitCount("(" + ActivityLog.getQuery() + ") +PI:\"" + pi + "\""));
+        assertEquals(1, DataManager.getInstance().getSearchIndex().getHitCount("+ISWORK:true +PI:\"" + pi + "\""));
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.model.iiif.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class IIIFSearchBuilderTest {
+
+    /**
+     * @see IIIFSearchBuilder#getEstimatedHitCount(long,int,int)
+     * @verifies return hit count if all pages visited
+     */
+    @Test
+    void getEstimatedHitCount_shouldReturnHitCountIfAllPagesVisited() throws Exception {
+        assertEquals(42, IIIFSearchBuilder.getEstimatedHitCount(42, 10, 10));
+        assertEquals(0, IIIFSearchBuilder.getEstimatedHitCount(0, 0, 0));
+    }
+
+    /**
+     * @see IIIFSearchBuilder#getEstimatedHitCount(long,int,int)
+     * @verifies extrapolate hit count from visited pages
+     */
+    @Test
+    void getEstimatedHitCount_shouldExtrapolateHitCountFromVisitedPages() throws Exception {
+        // 4 hits per page
+        assertEquals(400, IIIFSearchBuilder.getEstimatedHitCount(20, 5, 100));
+        // At least one hit per remaining page
+        assertEquals(101, IIIFSearchBuilder.getEstimatedHitCount(1, 1, 101));
+    }
+}
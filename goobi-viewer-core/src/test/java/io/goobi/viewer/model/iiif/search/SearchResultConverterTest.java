@@ -196,6 +196,28 @@ class SearchResultConverterTest extends AbstractSolrEnabledTest {
 
     }
 
+    /**
+     * @see SearchResultConverter#getAnnotationsFromAlto(Path,String,long,int,int)
+     * @verifies count all matches but only create hits within range
+     */
+    @Test
+    void getAnnotationsFromAlto_shouldCountAllMatchesButOnlyCreateHitsWithinRange() throws Exception {
+        String queryRegex = AbstractSearchParser.getQueryRegex("Hollywood");
+        AnnotationResultList allResults = converter.getAnnotationsFromAlto(altoFile, queryRegex);
+
+        // Hits 5 to 7 of the whole search, with 3 hits on previous pages
+        AnnotationResultList results = converter.getAnnotationsFromAlto(altoFile, queryRegex, 3, 5, 3);
+        Assertions.assertEquals(9, results.getNumHits());
+        Assertions.assertEquals(3, results.getHits().size());
+        Assertions.assertEquals(allResults.getHits().get(2).getAnnotations().get(0).getId(), results.getHits().get(0).getAnnotations().get(0).getId());
+        Assertions.assertEquals(allResults.getHits().get(4).getAnnotations().get(0).getId(), results.getHits().get(2).getAnnotations().get(0).getId());
+
+        // Range on later pages
+        results = converter.getAnnotationsFromAlto(altoFile, queryRegex, 0, 20, 20);
+        Assertions.assertEquals(9, results.getNumHits());
+        Assertions.assertTrue(results.getHits().isEmpty());
+    }
+
     /**
      * Test method for
      * {@link io.goobi.viewer.model.iiif.search.SearchResultConverter#getAnnotationsFromFulltext(java.lang.String, java.lang.String, java.lang.Integer, java.lang.String, long, int, int)}.
@@ -0,0 +1,158 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.model.iiif.search.parser;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.awt.Rectangle;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import de.intranda.digiverso.ocr.alto.model.structureclasses.lineelements.Word;
+import de.intranda.digiverso.ocr.alto.model.structureclasses.logical.AltoDocument;
+
+class AltoWordIndexTest {
+
+    private static final Path ALTO_FILE = Paths.get("src/test/resources/data/sample_alto.xml");
+
+    private static final String ALTO = "<alto xmlns=\"http://www.loc.gov/standards/alto/ns-v2#\"><Description><MeasurementUnit>pixel</MeasurementUnit>"
+            + "</Description><Layout><Page><PrintSpace><TextBlock>"
+            + "<TextLine><String ID=\"w1\" CONTENT=\"A\" HPOS=\"1\" VPOS=\"2\" WIDTH=\"3\" HEIGHT=\"4\"/><SP/>"
+            + "<String ID=\"w2\" CONTENT=\"big\" HPOS=\"5\" VPOS=\"2\" WIDTH=\"3\" HEIGHT=\"4\"/><SP/>"
+            + "<String ID=\"w3\" CONTENT=\"red\" HPOS=\"9\" VPOS=\"2\" WIDTH=\"3\" HEIGHT=\"4\"/><SP/>"
+            + "<String ID=\"w4\" CONTENT=\"ap\" SUBS_TYPE=\"HypPart1\" SUBS_CONTENT=\"apple\" HPOS=\"13\" VPOS=\"2\" WIDTH=\"3\" HEIGHT=\"4\"/></TextLine>"
+            + "<TextLine><String ID=\"w5\" CONTENT=\"ple\" SUBS_TYPE=\"HypPart2\" SUBS_CONTENT=\"apple\" HPOS=\"1\" VPOS=\"7\" WIDTH=\"3\" HEIGHT=\"4\"/>"
+            + "<SP/><String ID=\"w6\" CONTENT=\"tree\" HPOS=\"5\" VPOS=\"7\" WIDTH=\"3.6\" HEIGHT=\"4\"/></TextLine>"
+            + "</TextBlock></PrintSpace></Page></Layout></alto>";
+
+    private static AltoWordIndex parse(String alto) throws Exception {
+        try (InputStream is = new ByteArrayInputStream(alto.getBytes(StandardCharsets.UTF_8))) {
+            return AltoWordIndex.parse(is);
+        }
+    }
+
+    private static AltoWordIndex parse(Path path) throws Exception {
+        try (InputStream is = Files.newInputStream(path)) {
+            return AltoWordIndex.parse(is);
+        }
+    }
+
+    /**
+     * @see AltoWordIndex#parse(InputStream)
+     * @verifies index all words
+     */
+    @Test
+    void parse_shouldIndexAllWords() throws Exception {
+        AltoWordIndex index = parse(ALTO);
+        assertNotNull(index);
+        assertEquals(6, index.size());
+        assertEquals("w4", index.getId(3));
+        assertEquals("ap", index.getContent(3));
+        assertEquals("apple", index.getSubsContent(3));
+        assertEquals("big", index.getSubsContent(1));
+        assertEquals(new Rectangle(5, 7, 4, 4), index.getBounds(5));
+
+        // Same words as in the complete document
+        AltoWordIndex fileIndex = parse(ALTO_FILE);
+        List<Word> words = new AltoSearchParser().getWords(AltoDocument.getDocumentFromFile(ALTO_FILE.toFile()));
+        assertNotNull(fileIndex);
+        assertEquals(words.size(), fileIndex.size());
+        assertEquals(words.get(0).getId(), fileIndex.getId(0));
+        assertEquals(words.get(0).getBounds(), fileIndex.getBounds(0));
+    }
+
+    /**
+     * @see AltoWordIndex#parse(InputStream)
+     * @verifies return null if measurement unit not pixel
+     */
+    @Test
+    void parse_shouldReturnNullIfMeasurementUnitNotPixel() throws Exception {
+        assertNull(parse(ALTO.replace(">pixel<", ">mm10<")));
+    }
+
+    /**
+     * @see AltoWordIndex#parse(InputStream)
+     * @verifies return null if no words
+     */
+    @Test
+    void parse_shouldReturnNullIfNoWords() throws Exception {
+        assertNull(parse("<alto><Description><MeasurementUnit>pixel</MeasurementUnit></Description><Layout><Page/></Layout></alto>"));
+    }
+
+    /**
+     * @see AltoWordIndex#findMatches(String)
+     * @verifies find phrases of consecutive matching words
+     */
+    @Test
+    void findMatches_shouldFindPhrasesOfConsecutiveMatchingWords() throws Exception {
+        AltoWordIndex index = parse(ALTO);
+        List<int[]> matches = index.findMatches(AbstractSearchParser.getQueryRegex("red apple"));
+        // Hyphenated word parts match via their complete word
+        assertEquals(1, matches.size());
+        assertArrayEquals(new int[] { 2, 4 }, matches.get(0));
+
+        // Same matches as AltoSearchParser
+        AltoWordIndex fileIndex = parse(ALTO_FILE);
+        String regex = AbstractSearchParser.getQueryRegex("Hollywood");
+        List<Word> words = new AltoSearchParser().getWords(AltoDocument.getDocumentFromFile(ALTO_FILE.toFile()));
+        List<List<Word>> expected = new AltoSearchParser().findWordMatches(words, regex);
+        List<int[]> actual = fileIndex.findMatches(regex);
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.stream().map(l -> l.get(0).getId()).collect(Collectors.toList()),
+                actual.stream().map(m -> fileIndex.getId(m[0])).collect(Collectors.toList()));
+    }
+
+    /**
+     * @see AltoWordIndex#getPrecedingText(int,int)
+     * @verifies return preceding words of same line
+     */
+    @Test
+    void getPrecedingText_shouldReturnPrecedingWordsOfSameLine() throws Exception {
+        AltoWordIndex index = parse(ALTO);
+        assertEquals("A big ", index.getPrecedingText(2, 20));
+        assertEquals("big ", index.getPrecedingText(2, 1));
+        assertEquals("", index.getPrecedingText(4, 20));
+    }
+
+    /**
+     * @see AltoWordIndex#getSucceedingText(int,int)
+     * @verifies return succeeding words of same line
+     */
+    @Test
+    void getSucceedingText_shouldReturnSucceedingWordsOfSameLine() throws Exception {
+        AltoWordIndex index = parse(ALTO);
+        assertEquals(" red apple", index.getSucceedingText(1, 20));
+        assertEquals("", index.getSucceedingText(3, 20));
+        assertEquals(" tree", index.getSucceedingText(4, 20));
+    }
+}
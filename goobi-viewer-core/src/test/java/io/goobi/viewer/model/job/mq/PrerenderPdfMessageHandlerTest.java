@@ -22,17 +22,21 @@
 package io.goobi.viewer.model.job.mq;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
 import java.util.List;
 import java.util.Map;
 
 import org.apache.commons.io.FileUtils;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mockito;
 
 import de.unigoettingen.sub.commons.contentlib.servlet.model.ContentServerConfiguration;
@@ -78,6 +82,90 @@ class PrerenderPdfMessageHandlerTest {
 
     }
 
+    @Test
+    void test_onlyStalePagesRecreated() throws PresentationException, IndexUnreachableException, IOException {
+        ContentServerConfiguration contentServerConfig = ContentServerConfiguration.getInstance(contentServerConfigPath.toString());
+        ProcessDataResolver processDataResolver = Mockito.mock(ProcessDataResolver.class);
+        Mockito.when(processDataResolver.getDataFolders(pi, "media", "pdf", "alto")).thenReturn(Map.of("media", imageFolder, "pdf", pdfFolder));
+
+        PrerenderPdfMessageHandler handler = new PrerenderPdfMessageHandler(processDataResolver, contentServerConfig, 4);
+
+        ViewerMessage ticket = new ViewerMessage(TaskType.PRERENDER_PDF.name());
+        ticket.getProperties().put("pi", pi);
+        ticket.getProperties().put("variant", "small");
+        assertEquals(MessageStatus.FINISH, handler.call(ticket, null));
+
+        List<Path> pdfFiles = FileTools.listFiles(pdfFolder, FileTools.PDF_NAME_FILTER);
+        assertEquals(17, pdfFiles.size());
+
+        // Mark one page as outdated
+        FileTime old = FileTime.fromMillis(0);
+        Path stalePdf = pdfFiles.get(0);
+        Files.setLastModifiedTime(stalePdf, old);
+        FileTime upToDate = Files.getLastModifiedTime(pdfFiles.get(1));
+
+        assertEquals(MessageStatus.FINISH, handler.call(ticket, null));
+        assertTrue(Files.getLastModifiedTime(stalePdf).compareTo(old) > 0);
+        assertEquals(upToDate, Files.getLastModifiedTime(pdfFiles.get(1)));
+    }
+
+    /**
+     * @see PrerenderPdfMessageHandler#isPdfFileStale(Path,Path,Path)
+     * @verifies return true if pdf file missing
+     */
+    @Test
+    void isPdfFileStale_shouldReturnTrueIfPdfFileMissing(@TempDir Path tempDir) throws Exception {
+        Path image = Files.createFile(tempDir.resolve("00000001.tif"));
+        assertTrue(PrerenderPdfMessageHandler.isPdfFileStale(image, tempDir.resolve("00000001.pdf"), null));
+    }
+
+    /**
+     * @see PrerenderPdfMessageHandler#isPdfFileStale(Path,Path,Path)
+     * @verifies return true if image file newer
+     */
+    @Test
+    void isPdfFileStale_shouldReturnTrueIfImageFileNewer(@TempDir Path tempDir) throws Exception {
+        Path image = Files.createFile(tempDir.resolve("00000001.tif"));
+        Path pdf = Files.createFile(tempDir.resolve("00000001.pdf"));
+        Files.setLastModifiedTime(image, FileTime.fromMillis(2000));
+        Files.setLastModifiedTime(pdf, FileTime.fromMillis(1000));
+        assertTrue(PrerenderPdfMessageHandler.isPdfFileStale(image, pdf, null));
+    }
+
+    /**
+     * @see PrerenderPdfMessageHandler#isPdfFileStale(Path,Path,Path)
+     * @verifies return true if alto file newer
+     */
+    @Test
+    void isPdfFileStale_shouldReturnTrueIfAltoFileNewer(@TempDir Path tempDir) throws Exception {
+        Path altoFolder = Files.createDirectory(tempDir.resolve("alto"));
+        Path image = Files.createFile(tempDir.resolve("00000001.tif"));
+        Path pdf = Files.createFile(tempDir.resolve("00000001.pdf"));
+        Path alto = Files.createFile(altoFolder.resolve("00000001.xml"));
+        Files.setLastModifiedTime(image, FileTime.fromMillis(1000));
+        Files.setLastModifiedTime(pdf, FileTime.fromMillis(2000));
+        Files.setLastModifiedTime(alto, FileTime.fromMillis(3000));
+        assertTrue(PrerenderPdfMessageHandler.isPdfFileStale(image, pdf, altoFolder));
+    }
+
+    /**
+     * @see PrerenderPdfMessageHandler#isPdfFileStale(Path,Path,Path)
+     * @verifies return false if pdf file up to date
+     */
+    @Test
+    void isPdfFileStale_shouldReturnFalseIfPdfFileUpToDate(@TempDir Path tempDir) throws Exception {
+        Path altoFolder = Files.createDirectory(tempDir.resolve("alto"));
+        Path image = Files.createFile(tempDir.resolve("00000001.tif"));
+        Path pdf = Files.createFile(tempDir.resolve("00000001.pdf"));
+        Path alto = Files.createFile(altoFolder.resolve("00000001.xml"));
+        Files.setLastModifiedTime(image, FileTime.fromMillis(1000));
+        Files.setLastModifiedTime(alto, FileTime.fromMillis(1000));
+        Files.setLastModifiedTime(pdf, FileTime.fromMillis(2000));
+        assertFalse(PrerenderPdfMessageHandler.isPdfFileStale(image, pdf, altoFolder));
+        // Missing ALTO file
+        assertFalse(PrerenderPdfMessageHandler.isPdfFileStale(image, pdf, tempDir.resolve("missing")));
+    }
+
     @AfterEach
     void cleanup() throws IOException {
         FileUtils.deleteDirectory(pdfFolder.toFile());
@@ -0,0 +1,83 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.model.job.mq;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.lowagie.text.Document;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.pdf.PdfReader;
+import com.lowagie.text.pdf.PdfWriter;
+import com.lowagie.text.pdf.parser.PdfTextExtractor;
+
+class PrerenderedPdfAssemblerTest {
+
+    private static Path createPdf(Path path, String... pageTexts) throws Exception {
+        try (OutputStream out = Files.newOutputStream(path)) {
+            Document document = new Document();
+            PdfWriter.getInstance(document, out);
+            document.open();
+            for (int i = 0; i < pageTexts.length; ++i) {
+                if (i > 0) {
+                    document.newPage();
+                }
+                document.add(new Paragraph(pageTexts[i]));
+            }
+            document.close();
+        }
+        return path;
+    }
+
+    /**
+     * @see PrerenderedPdfAssembler#concatenate(List,OutputStream)
+     * @verifies concatenate all pages in order
+     */
+    @Test
+    void concatenate_shouldConcatenateAllPagesInOrder(@TempDir Path tempDir) throws Exception {
+        Path pdf1 = createPdf(tempDir.resolve("00000001.pdf"), "first");
+        Path pdf2 = createPdf(tempDir.resolve("00000002.pdf"), "second", "third");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PrerenderedPdfAssembler.concatenate(Arrays.asList(pdf1, pdf2), out);
+
+        PdfReader reader = new PdfReader(out.toByteArray());
+        try {
+            assertEquals(3, reader.getNumberOfPages());
+            PdfTextExtractor extractor = new PdfTextExtractor(reader);
+            assertTrue(extractor.getTextFromPage(1).contains("first"));
+            assertTrue(extractor.getTextFromPage(2).contains("second"));
+            assertTrue(extractor.getTextFromPage(3).contains("third"));
+        } finally {
+            reader.close();
+        }
+    }
+}
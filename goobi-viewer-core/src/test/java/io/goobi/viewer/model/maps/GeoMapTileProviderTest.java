@@ -0,0 +1,148 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.model.maps;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import io.goobi.viewer.AbstractTest;
+
+class GeoMapTileProviderTest extends AbstractTest {
+
+    private static final double DELTA = 0.0001;
+
+    private static JSONObject createFeature(String type, double lng, double lat) {
+        JSONObject geometry = new JSONObject();
+        geometry.put("type", type);
+        geometry.put("coordinates", new JSONArray().put(lng).put(lat));
+        JSONObject ret = new JSONObject();
+        ret.put("type", "Feature");
+        ret.put("geometry", geometry);
+        return ret;
+    }
+
+    /**
+     * @see GeoMapTileProvider#getTileBounds(int,int,int)
+     * @verifies return whole world for zoom zero
+     */
+    @Test
+    void getTileBounds_shouldReturnWholeWorldForZoomZero() throws Exception {
+        double[] bounds = GeoMapTileProvider.getTileBounds(0, 0, 0);
+        assertEquals(-180, bounds[0], DELTA);
+        assertEquals(-85.0511, bounds[1], DELTA);
+        assertEquals(180, bounds[2], DELTA);
+        assertEquals(85.0511, bounds[3], DELTA);
+    }
+
+    /**
+     * @see GeoMapTileProvider#getTileBounds(int,int,int)
+     * @verifies return correct bounds
+     */
+    @Test
+    void getTileBounds_shouldReturnCorrectBounds() throws Exception {
+        // North-eastern quarter of the world
+        double[] bounds = GeoMapTileProvider.getTileBounds(1, 1, 0);
+        assertEquals(0, bounds[0], DELTA);
+        assertEquals(0, bounds[1], DELTA);
+        assertEquals(180, bounds[2], DELTA);
+        assertEquals(85.0511, bounds[3], DELTA);
+    }
+
+    /**
+     * @see GeoMapTileProvider#getTileBounds(int,int,int)
+     * @verifies throw IllegalArgumentException if tile out of range
+     */
+    @Test
+    void getTileBounds_shouldThrowIllegalArgumentExceptionIfTileOutOfRange() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> GeoMapTileProvider.getTileBounds(1, 2, 0));
+        assertThrows(IllegalArgumentException.class, () -> GeoMapTileProvider.getTileBounds(1, 0, -1));
+        assertThrows(IllegalArgumentException.class, () -> GeoMapTileProvider.getTileBounds(GeoMapTileProvider.MAX_ZOOM + 1, 0, 0));
+    }
+
+    /**
+     * @see GeoMapTileProvider#getFeatureLimit(int)
+     * @verifies return max features below feature zoom
+     */
+    @Test
+    void getFeatureLimit_shouldReturnMaxFeaturesBelowFeatureZoom() throws Exception {
+        assertEquals(100, new GeoMapTileProvider(12, 100).getFeatureLimit(11));
+    }
+
+    /**
+     * @see GeoMapTileProvider#getFeatureLimit(int)
+     * @verifies return hard limit from feature zoom on
+     */
+    @Test
+    void getFeatureLimit_shouldReturnHardLimitFromFeatureZoomOn() throws Exception {
+        assertEquals(GeoMapTileProvider.MAX_TILE_FEATURES, new GeoMapTileProvider(12, 100).getFeatureLimit(12));
+        assertEquals(GeoMapTileProvider.MAX_TILE_FEATURES, new GeoMapTileProvider(12, 100).getFeatureLimit(GeoMapTileProvider.MAX_ZOOM));
+    }
+
+    /**
+     * @see GeoMapTileProvider#getWktRegion(double[])
+     * @verifies extend edge tiles to poles
+     */
+    @Test
+    void getWktRegion_shouldExtendEdgeTilesToPoles() throws Exception {
+        assertEquals("[\"0.0 0.0\" TO \"180.0 90.0\"]", GeoMapTileProvider.getWktRegion(GeoMapTileProvider.getTileBounds(1, 1, 0)));
+        assertEquals("[\"-180.0 -90.0\" TO \"0.0 0.0\"]", GeoMapTileProvider.getWktRegion(GeoMapTileProvider.getTileBounds(1, 0, 1)));
+    }
+
+    /**
+     * @see GeoMapTileProvider#isInTile(JSONObject,double[])
+     * @verifies return true for point within bounds
+     */
+    @Test
+    void isInTile_shouldReturnTrueForPointWithinBounds() throws Exception {
+        double[] bounds = GeoMapTileProvider.getTileBounds(1, 1, 0);
+        assertTrue(GeoMapTileProvider.isInTile(createFeature("Point", 13.4, 52.5), bounds));
+        // Western and southern edges belong to the tile
+        assertTrue(GeoMapTileProvider.isInTile(createFeature("Point", 0, 0), bounds));
+    }
+
+    /**
+     * @see GeoMapTileProvider#isInTile(JSONObject,double[])
+     * @verifies return false for point outside bounds
+     */
+    @Test
+    void isInTile_shouldReturnFalseForPointOutsideBounds() throws Exception {
+        double[] bounds = GeoMapTileProvider.getTileBounds(1, 1, 0);
+        assertFalse(GeoMapTileProvider.isInTile(createFeature("Point", -74.0, 40.7), bounds));
+        assertFalse(GeoMapTileProvider.isInTile(createFeature("Point", 13.4, -10), bounds));
+    }
+
+    /**
+     * @see GeoMapTileProvider#isInTile(JSONObject,double[])
+     * @verifies return true for polygons
+     */
+    @Test
+    void isInTile_shouldReturnTrueForPolygons() throws Exception {
+        double[] bounds = GeoMapTileProvider.getTileBounds(1, 1, 0);
+        assertTrue(GeoMapTileProvider.isInTile(createFeature("Polygon", -74.0, 40.7), bounds));
+    }
+}
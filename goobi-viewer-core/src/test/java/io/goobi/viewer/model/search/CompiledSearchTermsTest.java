@@ -0,0 +1,66 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.model.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import io.goobi.viewer.AbstractTest;
+
+class CompiledSearchTermsTest extends AbstractTest {
+
+    /**
+     * @see CompiledSearchTerms#get(Set,int)
+     * @verifies return same instance for equal terms
+     */
+    @Test
+    void get_shouldReturnSameInstanceForEqualTerms() throws Exception {
+        Set<String> terms = new LinkedHashSet<>(Arrays.asList("foo", "bar"));
+        CompiledSearchTerms compiled = CompiledSearchTerms.get(terms, 0);
+        assertSame(compiled, CompiledSearchTerms.get(new LinkedHashSet<>(Arrays.asList("foo", "bar")), 0));
+    }
+
+    /**
+     * @see CompiledSearchTerms#get(Set,int)
+     * @verifies keep term order
+     */
+    @Test
+    void get_shouldKeepTermOrder() throws Exception {
+        Set<String> terms = new LinkedHashSet<>(Arrays.asList("foo*", "bar~1", "foo bar"));
+        CompiledSearchTerms compiled = CompiledSearchTerms.get(terms, 2);
+        assertEquals(3, compiled.getFragmentTerms().size());
+        assertEquals("foo", compiled.getFragmentTerms().get(0).getTerm());
+        assertEquals(CompiledSearchTerms.MatchType.REGULAR, compiled.getFragmentTerms().get(0).getType());
+        assertEquals(CompiledSearchTerms.MatchType.FUZZY, compiled.getFragmentTerms().get(1).getType());
+        assertEquals(CompiledSearchTerms.MatchType.PROXIMITY, compiled.getFragmentTerms().get(2).getType());
+        assertEquals(3, compiled.getHighlightingTerms().size());
+        assertEquals("foo", compiled.getHighlightingTerms().get(0).getTerm());
+        assertEquals("bar", compiled.getHighlightingTerms().get(1).getTerm());
+        assertEquals(1, compiled.getHighlightingTerms().get(1).getMaxDistance());
+    }
+}
@@ -48,6 +48,7 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
 
 import io.goobi.viewer.AbstractDatabaseAndSolrEnabledTest;
 import io.goobi.viewer.controller.DataManager;
@@ -63,6 +64,7 @@ import io.goobi.viewer.model.security.LicenseType;
 import io.goobi.viewer.model.security.user.User;
 import io.goobi.viewer.model.termbrowsing.BrowseTerm;
 import io.goobi.viewer.model.termbrowsing.BrowseTermComparator;
+import io.goobi.viewer.model.termbrowsing.BrowseTermIndex;
 import io.goobi.viewer.model.termbrowsing.BrowsingMenuFieldConfig;
 import io.goobi.viewer.model.viewer.StringPair;
 import io.goobi.viewer.solr.SolrConstants;
@@ -302,6 +304,34 @@ class SearchHelperTest extends AbstractDatabaseAndSolrEnabledTest {
         Assertions.assertEquals(" +(ACCESSCONDITION:\"OPENACCESS\")", suffix);
     }
 
+    /**
+     * @see SearchHelper#getAnonymousFilterQuerySuffix(String,Optional,String)
+     * @verifies limit to open access for anonymous user
+     */
+    @Test
+    void getAnonymousFilterQuerySuffix_shouldLimitToOpenAccessForAnonymousUser() throws Exception {
+        String suffix = SearchHelper.getAnonymousFilterQuerySuffix("10.0.0.1", Optional.empty(), IPrivilegeHolder.PRIV_LIST);
+        Assertions.assertTrue(suffix.startsWith(" +(ACCESSCONDITION:\"OPENACCESS\""));
+        Assertions.assertEquals(SearchHelper.getPersonalFilterQuerySuffix(DataManager.getInstance().getDao().getRecordLicenseTypes(), null,
+                "10.0.0.1", Optional.empty(), IPrivilegeHolder.PRIV_LIST), suffix);
+    }
+
+    /**
+     * @see SearchHelper#getFilterQuerySuffix(HttpServletRequest,String)
+     * @verifies return anonymous suffix for request without session
+     */
+    @Test
+    void getFilterQuerySuffix_shouldReturnAnonymousSuffixForRequestWithoutSession() throws Exception {
+        HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+        Mockito.when(request.getRemoteAddr()).thenReturn("10.0.0.1");
+        String suffix = SearchHelper.getFilterQuerySuffix(request, IPrivilegeHolder.PRIV_LIST);
+        Assertions.assertNotNull(suffix);
+        Assertions.assertTrue(suffix.startsWith(" +(ACCESSCONDITION:\"OPENACCESS\""));
+        // No session must be created
+        Mockito.verify(request, Mockito.never()).getSession();
+        Mockito.verify(request, Mockito.never()).getSession(true);
+    }
+
     /**
      * @see SearchHelper#truncateFulltext(List,String)
      * @verifies make terms bold if found in text
@@ -865,6 +895,26 @@ class SearchHelperTest extends AbstractDatabaseAndSolrEnabledTest {
         Assertions.assertTrue(suffix.contains(" -" + SolrConstants.DC + ":collection1 -" + SolrConstants.DC + ":collection2"));
     }
 
+    /**
+     * @see SearchHelper#getUserIndependentSuffixes()
+     * @verifies add static suffix
+     */
+    @Test
+    void getUserIndependentSuffixes_shouldAddStaticSuffix() throws Exception {
+        String suffix = SearchHelper.getUserIndependentSuffixes();
+        Assertions.assertTrue(suffix.contains(DataManager.getInstance().getConfiguration().getStaticQuerySuffix()));
+    }
+
+    /**
+     * @see SearchHelper#getUserIndependentSuffixes()
+     * @verifies add collection blacklist suffix
+     */
+    @Test
+    void getUserIndependentSuffixes_shouldAddCollectionBlacklistSuffix() throws Exception {
+        String suffix = SearchHelper.getUserIndependentSuffixes();
+        Assertions.assertTrue(suffix.contains(" -" + SolrConstants.DC + ":collection1 -" + SolrConstants.DC + ":collection2"));
+    }
+
     //    /**
     //     * @see SearchHelper#getAllSuffixes(HttpSession,boolean,boolean)
     //     * @verifies add discriminator value suffix
@@ -1480,6 +1530,57 @@ class SearchHelperTest extends AbstractDatabaseAndSolrEnabledTest {
         }
     }
 
+    /**
+     * @see SearchHelper#getBrowseTermIndex(BrowsingMenuFieldConfig,String,String)
+     * @verifies return same index for same field and filter query
+     */
+    @Test
+    void getBrowseTermIndex_shouldReturnSameIndexForSameFieldAndFilterQuery() throws Exception {
+        BrowsingMenuFieldConfig bmfc = new BrowsingMenuFieldConfig("MD_CREATOR_UNTOKENIZED", null, null);
+        BrowseTermIndex index = SearchHelper.getBrowseTermIndex(bmfc, null, null);
+        Assertions.assertNotNull(index);
+        Assertions.assertTrue(index.size() > 0);
+        Assertions.assertSame(index, SearchHelper.getBrowseTermIndex(new BrowsingMenuFieldConfig("MD_CREATOR_UNTOKENIZED", null, null), null, null));
+        Assertions.assertNotSame(index, SearchHelper.getBrowseTermIndex(bmfc, "+DOCTYPE:DOCSTRCT", null));
+    }
+
+    /**
+     * @see SearchHelper#getBrowseTermIndex(BrowsingMenuFieldConfig,String,String)
+     * @verifies rebuild index after index generation has changed
+     */
+    @Test
+    void getBrowseTermIndex_shouldRebuildIndexAfterIndexGenerationHasChanged() throws Exception {
+        BrowsingMenuFieldConfig bmfc = new BrowsingMenuFieldConfig("MD_CREATORDISPLAY_UNTOKENIZED", "SORT_CREATOR", null);
+        BrowseTermIndex index = SearchHelper.getBrowseTermIndex(bmfc, null, null);
+        long generation = DataManager.getInstance().getSearchIndex().incrementIndexGeneration();
+
+        // Outdated index is still returned while the new one is being built
+        Assertions.assertSame(index, SearchHelper.getBrowseTermIndex(bmfc, null, null));
+        BrowseTermIndex newIndex = index;
+        long timeout = System.currentTimeMillis() + 30000;
+        while (newIndex == index && System.currentTimeMillis() < timeout) {
+            Thread.sleep(100);
+            newIndex = SearchHelper.getBrowseTermIndex(bmfc, null, null);
+        }
+        Assertions.assertNotSame(index, newIndex);
+        Assertions.assertEquals(generation, newIndex.getIndexGeneration());
+        Assertions.assertEquals(index.size(), newIndex.size());
+    }
+
+    /**
+     * @see SearchHelper#getBrowseTermIndex(BrowsingMenuFieldConfig,String,String)
+     * @verifies use separate indexes for different access conditions filters
+     */
+    @Test
+    void getBrowseTermIndex_shouldUseSeparateIndexesForDifferentAccessConditionsFilters() throws Exception {
+        BrowsingMenuFieldConfig bmfc = new BrowsingMenuFieldConfig("MD_CREATOR_UNTOKENIZED", null, null);
+        BrowseTermIndex index = SearchHelper.getBrowseTermIndex(bmfc, null, null, "");
+        BrowseTermIndex restrictedIndex = SearchHelper.getBrowseTermIndex(bmfc, null, null, " -" + SolrConstants.PI_TOPSTRUCT + ":PPN517154005");
+        Assertions.assertNotSame(index, restrictedIndex);
+        Assertions.assertSame(restrictedIndex,
+                SearchHelper.getBrowseTermIndex(bmfc, null, null, " -" + SolrConstants.PI_TOPSTRUCT + ":PPN517154005"));
+    }
+
     /**
      * @see SearchHelper#getFilteredTermsFromIndex(BrowsingMenuFieldConfig,String,String,List,int,int)
      * @verifies contain facets for the main field
@@ -352,4 +352,23 @@ class SearchHitFactoryTest extends AbstractSolrEnabledTest {
         Assertions.assertEquals(1, be.getMetadataList("MD_IDENTIFIER").size());
         Assertions.assertEquals("id10T", be.getMetadataList("MD_IDENTIFIER").get(0).getValues().get(0).getComboValueShort(0));
     }
-}
\ No newline at end of file
+
+    /**
+     * @see SearchHitFactory#prefetchAncestors(Collection)
+     * @verifies load ancestors of all levels
+     */
+    @Test
+    void prefetchAncestors_shouldLoadAncestorsOfAllLevels() throws Exception {
+        long iddoc = DataManager.getInstance().getSearchIndex().getIddocByLogid(PI_KLEIUNIV, "LOG_0002");
+        SolrDocument doc = DataManager.getInstance().getSearchIndex().getDocumentByIddoc(String.valueOf(iddoc));
+        Assertions.assertNotNull(doc);
+
+        SearchHitFactory factory = new SearchHitFactory(null, null, null, 0, null, Locale.GERMAN);
+        factory.prefetchAncestors(Collections.singletonList(doc));
+        StructElement se = new StructElement(iddoc, doc);
+        factory.attachAncestors(se);
+        StructElement parent = se.getParent();
+        Assertions.assertNotNull(parent);
+        Assertions.assertEquals(iddocKleiuniv, parent.getLuceneId());
+    }
+}
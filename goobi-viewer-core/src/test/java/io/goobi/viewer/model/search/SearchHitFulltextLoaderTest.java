@@ -0,0 +1,82 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.model.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.FileNotFoundException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import io.goobi.viewer.AbstractTest;
+
+class SearchHitFulltextLoaderTest extends AbstractTest {
+
+    /**
+     * @see SearchHitFulltextLoader#await(Future,long)
+     * @verifies return result if completed in time
+     */
+    @Test
+    void await_shouldReturnResultIfCompletedInTime() throws Exception {
+        Future<String> future = SearchHitFulltextLoader.submit(() -> SearchHitFulltextLoader.load(() -> "foo"));
+        assertEquals("foo", SearchHitFulltextLoader.await(future, System.currentTimeMillis() + 5000));
+    }
+
+    /**
+     * @see SearchHitFulltextLoader#await(Future,long)
+     * @verifies return null and cancel task if deadline passed
+     */
+    @Test
+    void await_shouldReturnNullAndCancelTaskIfDeadlinePassed() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        Future<String> future = SearchHitFulltextLoader.submit(() -> {
+            latch.await();
+            return "foo";
+        });
+        try {
+            assertNull(SearchHitFulltextLoader.await(future, System.currentTimeMillis() + 50));
+            assertTrue(future.isCancelled());
+        } finally {
+            latch.countDown();
+        }
+    }
+
+    /**
+     * @see SearchHitFulltextLoader#await(Future,long)
+     * @verifies throw ExecutionException if task failed
+     */
+    @Test
+    void await_shouldThrowExecutionExceptionIfTaskFailed() throws Exception {
+        Future<String> future = SearchHitFulltextLoader.submit(() -> {
+            throw new FileNotFoundException("not found");
+        });
+        ExecutionException e =
+                assertThrows(ExecutionException.class, () -> SearchHitFulltextLoader.await(future, System.currentTimeMillis() + 5000));
+        assertTrue(e.getCause() instanceof FileNotFoundException);
+    }
+}
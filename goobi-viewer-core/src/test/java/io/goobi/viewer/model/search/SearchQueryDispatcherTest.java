@@ -0,0 +1,142 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.model.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.goobi.viewer.AbstractTest;
+import io.goobi.viewer.exceptions.IndexUnreachableException;
+import io.goobi.viewer.exceptions.PresentationException;
+
+class SearchQueryDispatcherTest extends AbstractTest {
+
+    /**
+     * @see SearchQueryDispatcher#submit(String,Callable)
+     * @verifies execute query
+     */
+    @Test
+    void submit_shouldExecuteQuery() throws Exception {
+        SearchQueryDispatcher dispatcher = new SearchQueryDispatcher(2, 5000);
+        Future<String> future = dispatcher.submit("test", () -> "foo");
+        assertEquals("foo", future.get(5, TimeUnit.SECONDS));
+        assertTrue(dispatcher.getTimings().containsKey("test"));
+    }
+
+    /**
+     * @see SearchQueryDispatcher#submit(String,Callable)
+     * @verifies not run more queries than max concurrency at the same time
+     */
+    @Test
+    void submit_shouldNotRunMoreQueriesThanMaxConcurrencyAtTheSameTime() throws Exception {
+        SearchQueryDispatcher dispatcher = new SearchQueryDispatcher(2, 5000);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 6; ++i) {
+            futures.add(dispatcher.submit("test", () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(20);
+                running.decrementAndGet();
+                return 1;
+            }));
+        }
+        int sum = 0;
+        for (Future<Integer> future : futures) {
+            sum += dispatcher.await(future);
+        }
+        assertEquals(6, sum);
+        assertTrue(maxRunning.get() <= 2);
+    }
+
+    /**
+     * @see SearchQueryDispatcher#await(Future)
+     * @verifies return query result
+     */
+    @Test
+    void await_shouldReturnQueryResult() throws Exception {
+        SearchQueryDispatcher dispatcher = new SearchQueryDispatcher(1, 5000);
+        Future<String> future1 = dispatcher.submit("test", () -> "foo");
+        Future<String> future2 = dispatcher.submit("test", () -> "bar");
+        assertEquals("bar", dispatcher.await(future2));
+        assertEquals("foo", dispatcher.await(future1));
+    }
+
+    /**
+     * @see SearchQueryDispatcher#await(Future)
+     * @verifies rethrow query exception and cancel other queries
+     */
+    @Test
+    void await_shouldRethrowQueryExceptionAndCancelOtherQueries() throws Exception {
+        SearchQueryDispatcher dispatcher = new SearchQueryDispatcher(1, 5000);
+        CountDownLatch latch = new CountDownLatch(1);
+        Future<String> failing = dispatcher.submit("test", () -> {
+            latch.await();
+            throw new PresentationException("query failed");
+        });
+        CountDownLatch blocker = new CountDownLatch(1);
+        Future<String> other = dispatcher.submit("test", () -> {
+            blocker.await();
+            return "foo";
+        });
+        try {
+            latch.countDown();
+            assertThrows(PresentationException.class, () -> dispatcher.await(failing));
+            assertTrue(other.isCancelled());
+        } finally {
+            blocker.countDown();
+        }
+    }
+
+    /**
+     * @see SearchQueryDispatcher#await(Future)
+     * @verifies throw IndexUnreachableException and cancel queries if deadline passed
+     */
+    @Test
+    void await_shouldThrowIndexUnreachableExceptionAndCancelQueriesIfDeadlinePassed() throws Exception {
+        SearchQueryDispatcher dispatcher = new SearchQueryDispatcher(1, 100);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch latch = new CountDownLatch(1);
+        Future<String> future = dispatcher.submit("test", () -> {
+            started.countDown();
+            latch.await();
+            return "foo";
+        });
+        try {
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            assertThrows(IndexUnreachableException.class, () -> dispatcher.await(future));
+            assertTrue(future.isCancelled());
+        } finally {
+            latch.countDown();
+        }
+    }
+}
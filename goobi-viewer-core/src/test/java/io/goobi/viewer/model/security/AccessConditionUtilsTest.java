@@ -43,11 +43,13 @@ import io.goobi.viewer.AbstractDatabaseAndSolrEnabledTest;
 import io.goobi.viewer.controller.DataManager;
 import io.goobi.viewer.dao.IDAO;
 import io.goobi.viewer.exceptions.DAOException;
+import io.goobi.viewer.exceptions.PresentationException;
 import io.goobi.viewer.exceptions.RecordNotFoundException;
 import io.goobi.viewer.model.search.SearchHelper;
 import io.goobi.viewer.model.security.user.IpRange;
 import io.goobi.viewer.model.security.user.User;
 import io.goobi.viewer.solr.SolrConstants;
+import io.goobi.viewer.solr.SolrSearchIndex;
 
 class AccessConditionUtilsTest extends AbstractDatabaseAndSolrEnabledTest {
 
@@ -474,4 +476,47 @@ class AccessConditionUtilsTest extends AbstractDatabaseAndSolrEnabledTest {
         licenses = AccessConditionUtils.getApplyingLicenses(Optional.empty(), "192.168.0.10", licenseType, dao);
         assertTrue(licenses.isEmpty());
     }
+
+    /**
+     * @see AccessConditionUtils#checkAccessPermissionByIdentifiers(java.util.Collection,String,javax.servlet.http.HttpServletRequest)
+     * @verifies return permissions for all records
+     */
+    @Test
+    void checkAccessPermissionByIdentifiers_shouldReturnPermissionsForAllRecords() throws Exception {
+        Map<String, AccessPermission> result = AccessConditionUtils
+                .checkAccessPermissionByIdentifiers(Arrays.asList(PI_KLEIUNIV, "02008031921530", PI_KLEIUNIV), IPrivilegeHolder.PRIV_LIST, null);
+        assertEquals(2, result.size());
+        assertEquals(AccessConditionUtils.checkAccessPermissionByIdentifierAndLogId(PI_KLEIUNIV, null, IPrivilegeHolder.PRIV_LIST, null).isGranted(),
+                result.get(PI_KLEIUNIV).isGranted());
+    }
+
+    /**
+     * @see AccessConditionUtils#checkAccessPermissionByIdentifiers(java.util.Collection,String,javax.servlet.http.HttpServletRequest)
+     * @verifies skip records not found
+     */
+    @Test
+    void checkAccessPermissionByIdentifiers_shouldSkipRecordsNotFound() throws Exception {
+        Map<String, AccessPermission> result =
+                AccessConditionUtils.checkAccessPermissionByIdentifiers(Arrays.asList(PI_KLEIUNIV, "notfound"), IPrivilegeHolder.PRIV_LIST, null);
+        assertTrue(result.containsKey(PI_KLEIUNIV));
+        assertFalse(result.containsKey("notfound"));
+    }
+
+    /**
+     * @see AccessConditionUtils#checkAccessPermissionByIdentifiers(java.util.Collection,String,javax.servlet.http.HttpServletRequest)
+     * @verifies deny unresolved records if query fails
+     */
+    @Test
+    void checkAccessPermissionByIdentifiers_shouldDenyUnresolvedRecordsIfQueryFails() throws Exception {
+        SolrSearchIndex searchIndex = Mockito.mock(SolrSearchIndex.class);
+        Mockito.when(searchIndex.search(Mockito.anyString(), Mockito.anyInt(), Mockito.any(), Mockito.anyList()))
+                .thenThrow(new PresentationException("test"));
+        DataManager.getInstance().injectSearchIndex(searchIndex);
+
+        Map<String, AccessPermission> result =
+                AccessConditionUtils.checkAccessPermissionByIdentifiers(Arrays.asList("PPN1", "PPN2"), IPrivilegeHolder.PRIV_LIST, null);
+        assertEquals(2, result.size());
+        assertFalse(result.get("PPN1").isGranted());
+        assertFalse(result.get("PPN2").isGranted());
+    }
 }
@@ -0,0 +1,52 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.model.security;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import io.goobi.viewer.AbstractDatabaseEnabledTest;
+import io.goobi.viewer.controller.DataManager;
+
+class AccessRulesManagerTest extends AbstractDatabaseEnabledTest {
+
+    /**
+     * @see AccessRulesManager#getSnapshot()
+     * @verifies create new snapshot after invalidation
+     */
+    @Test
+    void getSnapshot_shouldCreateNewSnapshotAfterInvalidation() throws Exception {
+        AccessRulesManager manager = new AccessRulesManager(DataManager.getInstance().getDao());
+        AccessRulesSnapshot snapshot = manager.getSnapshot();
+        assertTrue(manager.isSnapshotLicenseTypes(snapshot.getRecordLicenseTypes()));
+        assertSame(snapshot, manager.getSnapshot());
+
+        manager.invalidate();
+        AccessRulesSnapshot newSnapshot = manager.getSnapshot();
+        assertNotSame(snapshot, newSnapshot);
+        assertTrue(newSnapshot.getVersion() > snapshot.getVersion());
+        assertTrue(manager.isSnapshotLicenseTypes(newSnapshot.getRecordLicenseTypes()));
+    }
+}
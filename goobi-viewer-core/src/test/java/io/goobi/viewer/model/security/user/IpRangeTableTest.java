@@ -0,0 +1,116 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.model.security.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import io.goobi.viewer.controller.NetTools;
+
+class IpRangeTableTest {
+
+    /**
+     * @see IpRangeTable#add(String,Object)
+     * @verifies add IPv4 and IPv6 subnets
+     */
+    @Test
+    void add_shouldAddIPv4AndIPv6Subnets() throws Exception {
+        IpRangeTable<String> table = new IpRangeTable<>();
+        assertTrue(table.add("192.168.0.0/16", "v4"));
+        assertTrue(table.add("2001:db8::/32", "v6"));
+        assertEquals(2, table.size());
+    }
+
+    /**
+     * @see IpRangeTable#add(String,Object)
+     * @verifies reject invalid subnets
+     */
+    @Test
+    void add_shouldRejectInvalidSubnets() throws Exception {
+        IpRangeTable<String> table = new IpRangeTable<>();
+        assertFalse(table.add("192.168.0.1", "a"));
+        assertFalse(table.add("192.168.0.256/24", "b"));
+        assertFalse(table.add("192.168.0.1/33", "c"));
+        assertFalse(table.add("example.com/24", "d"));
+        assertEquals(0, table.size());
+    }
+
+    /**
+     * @see IpRangeTable#match(String)
+     * @verifies return all matching values in insertion order
+     */
+    @Test
+    void match_shouldReturnAllMatchingValuesInInsertionOrder() throws Exception {
+        IpRangeTable<String> table = new IpRangeTable<>();
+        table.add("192.168.1.0/24", "a");
+        table.add("10.0.0.0/8", "b");
+        table.add("192.168.0.0/16", "c");
+        table.add("0.0.0.0/0", "d");
+        assertEquals(Arrays.asList("a", "c", "d"), table.match("192.168.1.100"));
+        assertEquals(Arrays.asList("c", "d"), table.match("192.168.2.100"));
+        assertEquals(Arrays.asList("b", "d"), table.match("10.1.2.3"));
+    }
+
+    /**
+     * @see IpRangeTable#match(String)
+     * @verifies match IPv6 localhost to IPv4 subnet
+     */
+    @Test
+    void match_shouldMatchIPv6LocalhostToIPv4Subnet() throws Exception {
+        IpRangeTable<String> table = new IpRangeTable<>();
+        table.add("127.0.0.1/32", "localhost");
+        assertEquals(Collections.singletonList("localhost"), table.match(NetTools.ADDRESS_LOCALHOST_IPV6));
+    }
+
+    /**
+     * @see IpRangeTable#match(String)
+     * @verifies match edge addresses
+     */
+    @Test
+    void match_shouldMatchEdgeAddresses() throws Exception {
+        IpRangeTable<String> table = new IpRangeTable<>();
+        table.add("192.168.1.10/31", "a");
+        assertEquals(1, table.match("192.168.1.10").size());
+        assertEquals(1, table.match("192.168.1.11").size());
+        assertTrue(table.match("192.168.1.9").isEmpty());
+        assertTrue(table.match("192.168.1.12").isEmpty());
+    }
+
+    /**
+     * @see IpRangeTable#match(String)
+     * @verifies return empty list for invalid address
+     */
+    @Test
+    void match_shouldReturnEmptyListForInvalidAddress() throws Exception {
+        IpRangeTable<String> table = new IpRangeTable<>();
+        table.add("0.0.0.0/0", "a");
+        assertTrue(table.match("foo").isEmpty());
+        assertTrue(table.match("1.2.3").isEmpty());
+        assertTrue(table.match(null).isEmpty());
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.model.statistics.usage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.apache.solr.common.SolrDocument;
+import org.junit.jupiter.api.Test;
+
+import io.goobi.viewer.AbstractTest;
+
+class StatisticsRollupCacheTest extends AbstractTest {
+
+    /**
+     * @see StatisticsRollupCache#get(String,int)
+     * @verifies return null if number of days differs
+     */
+    @Test
+    void get_shouldReturnNullIfNumberOfDaysDiffers() throws Exception {
+        StatisticsRollupCache cache = new StatisticsRollupCache();
+        StatisticsRollup rollup = StatisticsRollup.create(Collections.emptyList());
+        cache.put("2022-08", rollup);
+        assertSame(rollup, cache.get("2022-08", 0));
+
+        // Another day has been indexed since the rollup was created
+        assertNull(cache.get("2022-08", 1));
+        assertNull(cache.get("2022-08", 0));
+    }
+
+    /**
+     * @see StatisticsRollupCache#put(String,StatisticsRollup)
+     * @verifies evict rollups if max records exceeded
+     */
+    @Test
+    void put_shouldEvictRollupsIfMaxRecordsExceeded() throws Exception {
+        StatisticsRollupCache cache = new StatisticsRollupCache(3);
+        StatisticsRollup rollup1 = createRollup("PPN1", "PPN2");
+        StatisticsRollup rollup2 = createRollup("PPN3", "PPN4");
+        cache.put("2022-07", rollup1);
+        cache.put("2022-08", rollup2);
+        assertNull(cache.get("2022-07", 1));
+        assertSame(rollup2, cache.get("2022-08", 1));
+        assertEquals(2, cache.getStatistics().get("records"));
+    }
+
+    /**
+     * 
+     * @param identifiers
+     * @return Rollup of a single day with one view of each given record
+     */
+    private static StatisticsRollup createRollup(String... identifiers) {
+        SolrDocument doc = new SolrDocument();
+        for (String pi : identifiers) {
+            doc.setField(StatisticsLuceneFields.getFieldName(pi), Arrays.asList(1L, 1L, 0L, 0L, 0L, 0L));
+        }
+        return StatisticsRollup.create(Collections.singletonList(doc));
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.model.statistics.usage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.solr.common.SolrDocument;
+import org.junit.jupiter.api.Test;
+
+import io.goobi.viewer.AbstractTest;
+
+class StatisticsRollupTest extends AbstractTest {
+
+    private static SolrDocument createDoc(LocalDate date, long pi01Views, long pi02Views) {
+        return new SolrDocument(Map.of(
+                StatisticsLuceneFields.DATE, Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant()),
+                StatisticsLuceneFields.getFieldName("PI_01"), Arrays.asList(new Long[] { pi01Views, 1l, 0l, 0l, 0l, 0l }),
+                StatisticsLuceneFields.getFieldName("PI_02"), Arrays.asList(new Long[] { pi02Views, 1l, 2l, 1l, 0l, 0l })));
+    }
+
+    /**
+     * @see StatisticsRollup#create(java.util.Collection)
+     * @verifies sum up counts per record
+     */
+    @Test
+    void create_shouldSumUpCountsPerRecord() throws Exception {
+        StatisticsRollup rollup =
+                StatisticsRollup.create(List.of(createDoc(LocalDate.of(2022, 8, 1), 12, 3), createDoc(LocalDate.of(2022, 8, 2), 6, 5)));
+        assertEquals(2, rollup.getDays());
+        assertEquals(2, rollup.getNumRecords());
+
+        StatisticsSummary summary = rollup.getSummary(Collections.emptyList());
+        assertEquals(26, summary.getTypes().get(RequestType.RECORD_VIEW).getTotalRequests());
+        assertEquals(4, summary.getTypes().get(RequestType.RECORD_VIEW).getUniqueRequests());
+        assertEquals(4, summary.getTypes().get(RequestType.FILE_DOWNLOAD).getTotalRequests());
+        assertEquals(LocalDate.of(2022, 8, 1), summary.getTypes().get(RequestType.RECORD_VIEW).getStartDate());
+        assertEquals(LocalDate.of(2022, 8, 2), summary.getTypes().get(RequestType.RECORD_VIEW).getEndDate());
+    }
+
+    /**
+     * @see StatisticsRollup#merge(java.util.Collection)
+     * @verifies combine counts of all rollups
+     */
+    @Test
+    void merge_shouldCombineCountsOfAllRollups() throws Exception {
+        StatisticsRollup august = StatisticsRollup.create(List.of(createDoc(LocalDate.of(2022, 8, 1), 12, 3)));
+        StatisticsRollup september =
+                StatisticsRollup.create(List.of(createDoc(LocalDate.of(2022, 9, 1), 6, 5), createDoc(LocalDate.of(2022, 9, 2), 1, 1)));
+        StatisticsRollup rollup = StatisticsRollup.merge(List.of(august, september));
+        assertEquals(3, rollup.getDays());
+        assertEquals(2, rollup.getNumRecords());
+
+        StatisticsSummary summary = rollup.getSummary(Collections.emptyList());
+        assertEquals(28, summary.getTypes().get(RequestType.RECORD_VIEW).getTotalRequests());
+        assertEquals(6, summary.getTypes().get(RequestType.RECORD_VIEW).getUniqueRequests());
+        assertEquals(LocalDate.of(2022, 8, 1), summary.getTypes().get(RequestType.RECORD_VIEW).getStartDate());
+        assertEquals(LocalDate.of(2022, 9, 2), summary.getTypes().get(RequestType.RECORD_VIEW).getEndDate());
+    }
+
+    /**
+     * @see StatisticsRollup#getSummary(List)
+     * @verifies only count included records
+     */
+    @Test
+    void getSummary_shouldOnlyCountIncludedRecords() throws Exception {
+        StatisticsRollup rollup =
+                StatisticsRollup.create(List.of(createDoc(LocalDate.of(2022, 8, 1), 12, 3), createDoc(LocalDate.of(2022, 8, 2), 6, 5)));
+
+        StatisticsSummary summary = rollup.getSummary(List.of("PI_02", "PI_03"));
+        assertEquals(8, summary.getTypes().get(RequestType.RECORD_VIEW).getTotalRequests());
+        assertEquals(2, summary.getTypes().get(RequestType.RECORD_VIEW).getUniqueRequests());
+        assertEquals(4, summary.getTypes().get(RequestType.FILE_DOWNLOAD).getTotalRequests());
+    }
+}
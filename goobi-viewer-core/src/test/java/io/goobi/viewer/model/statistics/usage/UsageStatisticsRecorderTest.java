@@ -22,15 +22,20 @@
 package io.goobi.viewer.model.statistics.usage;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 import java.time.LocalDate;
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
 
 import io.goobi.viewer.AbstractDatabaseEnabledTest;
+import io.goobi.viewer.controller.Configuration;
 import io.goobi.viewer.controller.DataManager;
 import io.goobi.viewer.dao.IDAO;
 import io.goobi.viewer.exceptions.DAOException;
@@ -106,11 +111,182 @@ class UsageStatisticsRecorderTest extends AbstractDatabaseEnabledTest {
         
         thread1.join();
         thread2.join();
+        recorder.flush();
         DailySessionUsageStatistics stats = dao.getUsageStatistics(date);
         
         assertEquals(55l, stats.getTotalRequestCount(RequestType.RECORD_VIEW, pi1));
     }
 
+    /**
+     * @see UsageStatisticsRecorder#recordRequest(RequestType,String,String,String,String,LocalDate)
+     * @verifies flush early if too many sessions are buffered
+     */
+    @Test
+    void recordRequest_shouldFlushEarlyIfTooManySessionsAreBuffered() throws Exception {
+        UsageStatisticsRecorder recorder = new UsageStatisticsRecorder(dao, createConfig(2), "viewer.goobi.io");
+        LocalDate date = LocalDate.now().plusYears(4);
+        try {
+            recorder.recordRequest(RequestType.RECORD_VIEW, "PI_1", "session1", "", "", date);
+            recorder.recordRequest(RequestType.RECORD_VIEW, "PI_1", "session2", "", "", date);
+            assertNull(dao.getUsageStatistics(date));
+
+            // Third session exceeds the limit
+            recorder.recordRequest(RequestType.RECORD_VIEW, "PI_1", "session3", "", "", date);
+            DailySessionUsageStatistics stats = waitForStatistics(date);
+            assertNotNull(stats);
+            assertEquals(3l, stats.getTotalRequestCount(RequestType.RECORD_VIEW, "PI_1"));
+        } finally {
+            recorder.shutdown();
+        }
+    }
+
+    /**
+     * @see UsageStatisticsRecorder#recordRequest(RequestType,String,String,String,String,LocalDate)
+     * @verifies write counts of previous day on day change
+     */
+    @Test
+    void recordRequest_shouldWriteCountsOfPreviousDayOnDayChange() throws Exception {
+        UsageStatisticsRecorder recorder = new UsageStatisticsRecorder(dao, createConfig(100), "viewer.goobi.io");
+        LocalDate day1 = LocalDate.now().plusYears(5);
+        LocalDate day2 = day1.plusDays(1);
+        recorder.recordRequest(RequestType.RECORD_VIEW, "PI_1", "session1", "", "", day1);
+        recorder.recordRequest(RequestType.RECORD_VIEW, "PI_1", "session1", "", "", day1);
+        recorder.recordRequest(RequestType.RECORD_VIEW, "PI_1", "session1", "", "", day2);
+
+        DailySessionUsageStatistics stats1 = waitForStatistics(day1);
+        assertNotNull(stats1);
+        assertEquals(2l, stats1.getTotalRequestCount(RequestType.RECORD_VIEW, "PI_1"));
+        // Counts of the new day are not written before the next flush
+        assertNull(dao.getUsageStatistics(day2));
+
+        recorder.shutdown();
+        assertEquals(2l, dao.getUsageStatistics(day1).getTotalRequestCount(RequestType.RECORD_VIEW, "PI_1"));
+        assertEquals(1l, dao.getUsageStatistics(day2).getTotalRequestCount(RequestType.RECORD_VIEW, "PI_1"));
+    }
+
+    /**
+     * @see UsageStatisticsRecorder#flush()
+     * @verifies keep counts if writing fails
+     */
+    @Test
+    void flush_shouldKeepCountsIfWritingFails() throws Exception {
+        IDAO failingDao = Mockito.mock(IDAO.class);
+        Mockito.when(failingDao.getUsageStatistics(Mockito.any(LocalDate.class)))
+                .thenThrow(new DAOException("database unavailable"))
+                .thenAnswer(inv -> dao.getUsageStatistics(inv.getArgument(0, LocalDate.class)));
+        Mockito.when(failingDao.addUsageStatistics(Mockito.any()))
+                .thenAnswer(inv -> dao.addUsageStatistics(inv.getArgument(0, DailySessionUsageStatistics.class)));
+        Mockito.when(failingDao.updateUsageStatistics(Mockito.any()))
+                .thenAnswer(inv -> dao.updateUsageStatistics(inv.getArgument(0, DailySessionUsageStatistics.class)));
+
+        UsageStatisticsRecorder recorder = new UsageStatisticsRecorder(failingDao, createConfig(100), "viewer.goobi.io");
+        LocalDate date = LocalDate.now();
+        try {
+            recorder.recordRequest(RequestType.RECORD_VIEW, "PI_RETRY", "session1", "", "", date);
+            recorder.recordRequest(RequestType.RECORD_VIEW, "PI_RETRY", "session1", "", "", date);
+            recorder.flush();
+            assertNull(dao.getUsageStatistics(date));
+
+            recorder.recordRequest(RequestType.RECORD_VIEW, "PI_RETRY", "session1", "", "", date);
+            recorder.flush();
+            DailySessionUsageStatistics stats = dao.getUsageStatistics(date);
+            assertNotNull(stats);
+            assertEquals(3l, stats.getTotalRequestCount(RequestType.RECORD_VIEW, "PI_RETRY"));
+        } finally {
+            recorder.shutdown();
+        }
+    }
+
+    /**
+     * @see UsageStatisticsRecorder#flush()
+     * @verifies not add counts twice if updating fails
+     */
+    @Test
+    void flush_shouldNotAddCountsTwiceIfUpdatingFails() throws Exception {
+        IDAO failingDao = Mockito.mock(IDAO.class);
+        Mockito.when(failingDao.getUsageStatistics(Mockito.any(LocalDate.class)))
+                .thenAnswer(inv -> dao.getUsageStatistics(inv.getArgument(0, LocalDate.class)));
+        Mockito.when(failingDao.addUsageStatistics(Mockito.any()))
+                .thenAnswer(inv -> dao.addUsageStatistics(inv.getArgument(0, DailySessionUsageStatistics.class)));
+        // JPADAO returns false if the transaction fails
+        Mockito.when(failingDao.updateUsageStatistics(Mockito.any()))
+                .thenReturn(false)
+                .thenAnswer(inv -> dao.updateUsageStatistics(inv.getArgument(0, DailySessionUsageStatistics.class)));
+
+        UsageStatisticsRecorder recorder = new UsageStatisticsRecorder(failingDao, createConfig(100), "viewer.goobi.io");
+        LocalDate date = LocalDate.now().plusYears(6);
+        try {
+            recorder.recordRequest(RequestType.RECORD_VIEW, "PI_UPDATE", "session1", "", "", date);
+            recorder.recordRequest(RequestType.RECORD_VIEW, "PI_UPDATE", "session1", "", "", date);
+            recorder.flush();
+            assertEquals(0l, dao.getUsageStatistics(date).getTotalRequestCount(RequestType.RECORD_VIEW, "PI_UPDATE"));
+
+            recorder.flush();
+            assertEquals(2l, dao.getUsageStatistics(date).getTotalRequestCount(RequestType.RECORD_VIEW, "PI_UPDATE"));
+        } finally {
+            recorder.shutdown();
+        }
+    }
+
+    /**
+     * @see UsageStatisticsRecorder#flush()
+     * @verifies drop counts if too many sessions are pending
+     */
+    @Test
+    void flush_shouldDropCountsIfTooManySessionsArePending() throws Exception {
+        AtomicBoolean available = new AtomicBoolean(false);
+        IDAO failingDao = Mockito.mock(IDAO.class);
+        Mockito.when(failingDao.getUsageStatistics(Mockito.any(LocalDate.class))).thenAnswer(inv -> {
+            if (!available.get()) {
+                throw new DAOException("database unavailable");
+            }
+            return dao.getUsageStatistics(inv.getArgument(0, LocalDate.class));
+        });
+        Mockito.when(failingDao.addUsageStatistics(Mockito.any()))
+                .thenAnswer(inv -> dao.addUsageStatistics(inv.getArgument(0, DailySessionUsageStatistics.class)));
+        Mockito.when(failingDao.updateUsageStatistics(Mockito.any()))
+                .thenAnswer(inv -> dao.updateUsageStatistics(inv.getArgument(0, DailySessionUsageStatistics.class)));
+
+        // At most 20 pending sessions
+        UsageStatisticsRecorder recorder = new UsageStatisticsRecorder(failingDao, createConfig(2), "viewer.goobi.io");
+        LocalDate date = LocalDate.now().plusYears(7);
+        try {
+            for (int i = 0; i < 11; i++) {
+                recorder.recordRequest(RequestType.RECORD_VIEW, "PI_DROP", "session" + i + "a", "", "", date);
+                recorder.recordRequest(RequestType.RECORD_VIEW, "PI_DROP", "session" + i + "b", "", "", date);
+                recorder.flush();
+            }
+
+            available.set(true);
+            recorder.flush();
+            assertEquals(20l, dao.getUsageStatistics(date).getTotalRequestCount(RequestType.RECORD_VIEW, "PI_DROP"));
+        } finally {
+            recorder.shutdown();
+        }
+    }
+
+    private static Configuration createConfig(int maxBufferedSessions) {
+        Configuration config = Mockito.mock(Configuration.class);
+        Mockito.when(config.isStatisticsEnabled()).thenReturn(true);
+        Mockito.when(config.getStatisticsFlushInterval()).thenReturn(3600);
+        Mockito.when(config.getStatisticsFlushMaxBufferedSessions()).thenReturn(maxBufferedSessions);
+        return config;
+    }
+
+    /**
+     * Asynchronous writes are done on the flush thread, so wait until they are visible
+     */
+    private DailySessionUsageStatistics waitForStatistics(LocalDate date) throws DAOException, InterruptedException {
+        for (int i = 0; i < 50; i++) {
+            DailySessionUsageStatistics stats = dao.getUsageStatistics(date);
+            if (stats != null && !stats.getRecordIdentifier().isEmpty()) {
+                return stats;
+            }
+            Thread.sleep(100);
+        }
+        return dao.getUsageStatistics(date);
+    }
+
     private void wait(Random random) throws InterruptedException {
         Thread.sleep(random.nextInt(100));
     }
@@ -0,0 +1,139 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.model.termbrowsing;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.goobi.viewer.AbstractTest;
+
+class BrowseTermIndexTest extends AbstractTest {
+
+    private BrowseTermIndex index;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        super.setUp();
+        List<BrowseTerm> terms = Arrays.asList(new BrowseTerm("Zebra", null, null), new BrowseTerm("banana", null, null),
+                new BrowseTerm("Apricot", null, null), new BrowseTerm("[Bear]", null, null), new BrowseTerm("apple", null, null),
+                new BrowseTerm("1984", null, null));
+        index = new BrowseTermIndex(terms, new BrowseTermComparator(null), ".[]", 1);
+    }
+
+    /**
+     * @see BrowseTermIndex#getFilterKey(BrowseTerm,String)
+     * @verifies use sort term if provided
+     */
+    @Test
+    void getFilterKey_shouldUseSortTermIfProvided() throws Exception {
+        Assertions.assertEquals("sort", BrowseTermIndex.getFilterKey(new BrowseTerm("Term", "Sort", null), null));
+        Assertions.assertEquals("term", BrowseTermIndex.getFilterKey(new BrowseTerm("Term", null, null), null));
+    }
+
+    /**
+     * @see BrowseTermIndex#getFilterKey(BrowseTerm,String)
+     * @verifies remove ignored leading chars
+     */
+    @Test
+    void getFilterKey_shouldRemoveIgnoredLeadingChars() throws Exception {
+        Assertions.assertEquals("term]", BrowseTermIndex.getFilterKey(new BrowseTerm("[Term]", null, null), ".[]"));
+    }
+
+    /**
+     * @see BrowseTermIndex#getCount(String)
+     * @verifies return number of terms starting with filter value
+     */
+    @Test
+    void getCount_shouldReturnNumberOfTermsStartingWithFilterValue() throws Exception {
+        Assertions.assertEquals(2, index.getCount("a"));
+        Assertions.assertEquals(2, index.getCount("AP"));
+        Assertions.assertEquals(1, index.getCount("apr"));
+        Assertions.assertEquals(2, index.getCount("B"));
+        Assertions.assertEquals(0, index.getCount("x"));
+    }
+
+    /**
+     * @see BrowseTermIndex#getCount(String)
+     * @verifies return number of all terms if filter empty
+     */
+    @Test
+    void getCount_shouldReturnNumberOfAllTermsIfFilterEmpty() throws Exception {
+        Assertions.assertEquals(6, index.getCount(null));
+        Assertions.assertEquals(6, index.getCount(""));
+        Assertions.assertEquals(6, index.getCount(BrowseTermIndex.FILTER_ALL));
+    }
+
+    /**
+     * @see BrowseTermIndex#getTerms(String,int,int)
+     * @verifies return terms starting with filter value in display order
+     */
+    @Test
+    void getTerms_shouldReturnTermsStartingWithFilterValueInDisplayOrder() throws Exception {
+        List<BrowseTerm> result = index.getTerms("A", 0, 10);
+        Assertions.assertEquals(2, result.size());
+        Assertions.assertEquals("apple", result.get(0).getTerm());
+        Assertions.assertEquals("Apricot", result.get(1).getTerm());
+
+        // Repeated calls use the resolved range
+        Assertions.assertEquals(result, index.getTerms("A", 0, 10));
+    }
+
+    /**
+     * @see BrowseTermIndex#getTerms(String,int,int)
+     * @verifies return all terms if filter empty
+     */
+    @Test
+    void getTerms_shouldReturnAllTermsIfFilterEmpty() throws Exception {
+        List<BrowseTerm> result = index.getTerms(null, 0, 100);
+        Assertions.assertEquals(6, result.size());
+        Assertions.assertEquals("Zebra", result.get(5).getTerm());
+    }
+
+    /**
+     * @see BrowseTermIndex#getTerms(String,int,int)
+     * @verifies return terms starting with digit for numerical filter
+     */
+    @Test
+    void getTerms_shouldReturnTermsStartingWithDigitForNumericalFilter() throws Exception {
+        List<BrowseTerm> result = index.getTerms(BrowseTermIndex.FILTER_NUMERICAL, 0, 10);
+        Assertions.assertEquals(1, result.size());
+        Assertions.assertEquals("1984", result.get(0).getTerm());
+    }
+
+    /**
+     * @see BrowseTermIndex#getTerms(String,int,int)
+     * @verifies page terms correctly
+     */
+    @Test
+    void getTerms_shouldPageTermsCorrectly() throws Exception {
+        List<BrowseTerm> result = index.getTerms("b", 1, 10);
+        Assertions.assertEquals(1, result.size());
+        Assertions.assertEquals("[Bear]", result.get(0).getTerm());
+        Assertions.assertEquals(2, index.getTerms("-", 2, 2).size());
+        Assertions.assertTrue(index.getTerms("b", 5, 10).isEmpty());
+        Assertions.assertTrue(index.getTerms(null, 6, 10).isEmpty());
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.model.urlresolution;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import io.goobi.viewer.AbstractDatabaseEnabledTest;
+import io.goobi.viewer.controller.DataManager;
+import io.goobi.viewer.model.viewer.PageType;
+
+class ViewerRouteManagerTest extends AbstractDatabaseEnabledTest {
+
+    /**
+     * @see ViewerRouteManager#getRouteTable()
+     * @verifies create new route table after invalidation
+     */
+    @Test
+    void getRouteTable_shouldCreateNewRouteTableAfterInvalidation() throws Exception {
+        ViewerRouteManager manager = new ViewerRouteManager(DataManager.getInstance().getDao());
+        ViewerRouteTable routeTable = manager.getRouteTable();
+        assertSame(routeTable, manager.getRouteTable());
+        // Static page mapping from the test database
+        assertEquals(Optional.of(1L), routeTable.getStaticPageCmsPageId(PageType.index));
+
+        manager.invalidate();
+        ViewerRouteTable newRouteTable = manager.getRouteTable();
+        assertNotSame(routeTable, newRouteTable);
+        assertTrue(newRouteTable.getVersion() > routeTable.getVersion());
+    }
+}
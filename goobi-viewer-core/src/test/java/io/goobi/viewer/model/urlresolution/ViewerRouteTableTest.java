@@ -0,0 +1,98 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.model.urlresolution;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import io.goobi.viewer.model.viewer.PageType;
+
+class ViewerRouteTableTest {
+
+    /**
+     * @see ViewerRouteTable#findCmsPageId(URI)
+     * @verifies return page with longest matching permalink
+     */
+    @Test
+    void findCmsPageId_shouldReturnPageWithLongestMatchingPermalink() throws Exception {
+        ViewerRouteTable routeTable = new ViewerRouteTable(0);
+        routeTable.addCmsPage("/a/", 1L);
+        routeTable.addCmsPage("a/b", 2L);
+        routeTable.addCmsPage("a/b/c/d", 3L);
+        assertEquals(Optional.of(2L), routeTable.findCmsPageId(URI.create("a/b/c/")));
+        assertEquals(Optional.of(1L), routeTable.findCmsPageId(URI.create("a/")));
+        assertEquals(Optional.of(3L), routeTable.findCmsPageId(URI.create("a/b/c/d/e/")));
+    }
+
+    /**
+     * @see ViewerRouteTable#findCmsPageId(URI)
+     * @verifies only match complete path segments
+     */
+    @Test
+    void findCmsPageId_shouldOnlyMatchCompletePathSegments() throws Exception {
+        ViewerRouteTable routeTable = new ViewerRouteTable(0);
+        routeTable.addCmsPage("a/b", 1L);
+        assertTrue(routeTable.findCmsPageId(URI.create("a/bc/")).isEmpty());
+    }
+
+    /**
+     * @see ViewerRouteTable#findCmsPageId(URI)
+     * @verifies ignore leading exclamation marks in path
+     */
+    @Test
+    void findCmsPageId_shouldIgnoreLeadingExclamationMarksInPath() throws Exception {
+        ViewerRouteTable routeTable = new ViewerRouteTable(0);
+        routeTable.addCmsPage("a/b", 1L);
+        assertEquals(Optional.of(1L), routeTable.findCmsPageId(URI.create("!a/b/")));
+        assertEquals(Optional.of(1L), routeTable.findCmsPageId(URI.create("%21a/b/")));
+    }
+
+    /**
+     * @see ViewerRouteTable#findCmsPageId(URI)
+     * @verifies return empty if no permalink matches
+     */
+    @Test
+    void findCmsPageId_shouldReturnEmptyIfNoPermalinkMatches() throws Exception {
+        ViewerRouteTable routeTable = new ViewerRouteTable(0);
+        routeTable.addCmsPage("a/b", 1L);
+        assertTrue(routeTable.findCmsPageId(URI.create("a/")).isEmpty());
+        assertTrue(routeTable.findCmsPageId(URI.create("b/a/")).isEmpty());
+        assertTrue(routeTable.findCmsPageId(null).isEmpty());
+    }
+
+    /**
+     * @see ViewerRouteTable#getStaticPageCmsPageId(PageType)
+     * @verifies return mapped page id
+     */
+    @Test
+    void getStaticPageCmsPageId_shouldReturnMappedPageId() throws Exception {
+        ViewerRouteTable routeTable = new ViewerRouteTable(0);
+        routeTable.addStaticPage(PageType.index.getName(), 5L);
+        assertEquals(Optional.of(5L), routeTable.getStaticPageCmsPageId(PageType.index));
+        assertTrue(routeTable.getStaticPageCmsPageId(PageType.search).isEmpty());
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.model.viewer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+import io.goobi.viewer.AbstractSolrEnabledTest;
+
+class RecordSnapshotCacheTest extends AbstractSolrEnabledTest {
+
+    /**
+     * @see RecordSnapshotCache#get(String,long)
+     * @verifies return snapshot for same iddoc
+     */
+    @Test
+    void get_shouldReturnSnapshotForSameIddoc() throws Exception {
+        RecordSnapshotCache cache = new RecordSnapshotCache(10);
+        RecordSnapshotCache.Snapshot snapshot = cache.create(new StructElement(iddocKleiuniv));
+        assertSame(snapshot, cache.get(PI_KLEIUNIV, iddocKleiuniv));
+        assertEquals(16, snapshot.createPageLoader().getNumPages());
+    }
+
+    /**
+     * @see RecordSnapshotCache#get(String,long)
+     * @verifies return null if iddoc differs
+     */
+    @Test
+    void get_shouldReturnNullIfIddocDiffers() throws Exception {
+        RecordSnapshotCache cache = new RecordSnapshotCache(10);
+        cache.create(new StructElement(iddocKleiuniv));
+        // Record has been re-indexed
+        assertNull(cache.get(PI_KLEIUNIV, iddocKleiuniv + 1));
+        assertEquals(1L, cache.getStatistics().get("stale"));
+        // Outdated snapshot has been removed
+        assertNull(cache.get(PI_KLEIUNIV, iddocKleiuniv));
+    }
+
+    /**
+     * @see RecordSnapshotCache#create(StructElement)
+     * @verifies not cache deleted records
+     */
+    @Test
+    void create_shouldNotCacheDeletedRecords() throws Exception {
+        RecordSnapshotCache cache = new RecordSnapshotCache(10);
+        // Default StructElement does not exist in the index
+        cache.create(new StructElement());
+        assertEquals(0L, cache.getStatistics().get("size"));
+    }
+
+    /**
+     * @see RecordSnapshotCache#invalidate(String)
+     * @verifies remove snapshot
+     */
+    @Test
+    void invalidate_shouldRemoveSnapshot() throws Exception {
+        RecordSnapshotCache cache = new RecordSnapshotCache(10);
+        cache.create(new StructElement(iddocKleiuniv));
+        cache.invalidate(PI_KLEIUNIV);
+        assertNull(cache.get(PI_KLEIUNIV, iddocKleiuniv));
+        assertEquals(1L, cache.getStatistics().get("invalidations"));
+    }
+}
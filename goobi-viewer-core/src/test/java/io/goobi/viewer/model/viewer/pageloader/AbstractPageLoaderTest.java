@@ -21,17 +21,33 @@
  */
 package io.goobi.viewer.model.viewer.pageloader;
 
+import java.util.Collections;
 import java.util.Locale;
 
 import javax.faces.model.SelectItem;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
 
-import io.goobi.viewer.AbstractTest;
+import io.goobi.viewer.AbstractSolrEnabledTest;
 import io.goobi.viewer.model.viewer.StructElement;
 
-class AbstractPageLoaderTest extends AbstractTest {
+class AbstractPageLoaderTest extends AbstractSolrEnabledTest {
+
+    /**
+     * @see AbstractPageLoader#create(StructElement,boolean)
+     * @verifies return PrefetchingPageLoader if page count at or above threshold and prefetching enabled
+     */
+    @Test
+    void create_shouldReturnPrefetchingPageLoaderIfPageCountAtOrAboveThresholdAndPrefetchingEnabled() throws Exception {
+        StructElement se = Mockito.spy(new StructElement(iddocKleiuniv));
+        // Threshold is 1000 and prefetch size 20 in the test config
+        Mockito.doReturn(1000).when(se).getNumPages();
+        AbstractPageLoader loader = AbstractPageLoader.create(se, true);
+        Assertions.assertInstanceOf(PrefetchingPageLoader.class, loader);
+        Assertions.assertEquals(20, ((PrefetchingPageLoader) loader).getBatchSize());
+    }
 
     /**
      * @see AbstractPageLoader#buildPageLabelTemplate(String, Locale)
@@ -78,4 +94,15 @@ class AbstractPageLoaderTest extends AbstractTest {
         Assertions.assertEquals("1-2: one - two", si.getLabel());
         Assertions.assertEquals("1-2", si.getValue());
     }
+
+    /**
+     * @see AbstractPageLoader#createWithPageDocuments(StructElement,List)
+     * @verifies create EagerPageLoader from page documents
+     */
+    @Test
+    void createWithPageDocuments_shouldCreateEagerPageLoaderFromPageDocuments() throws Exception {
+        AbstractPageLoader loader = AbstractPageLoader.createWithPageDocuments(new StructElement(), Collections.emptyList());
+        Assertions.assertTrue(loader instanceof EagerPageLoader);
+        Assertions.assertEquals(0, loader.getNumPages());
+    }
 }
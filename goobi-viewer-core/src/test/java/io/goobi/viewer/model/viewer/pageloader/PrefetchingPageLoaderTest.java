@@ -0,0 +1,107 @@
+/*
+ * This file is part of the Goobi viewer - a content presentation and management
+ * application for digitized objects.
+ *
+ * Visit these websites for more information.
+ *          - http://www.intranda.com
+ *          - http://digiverso.com
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.goobi.viewer.model.viewer.pageloader;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.goobi.viewer.AbstractDatabaseAndSolrEnabledTest;
+import io.goobi.viewer.controller.DataManager;
+import io.goobi.viewer.model.viewer.PhysicalElement;
+import io.goobi.viewer.model.viewer.StructElement;
+
+class PrefetchingPageLoaderTest extends AbstractDatabaseAndSolrEnabledTest {
+
+    /**
+     * @see PrefetchingPageLoader#getPage(int)
+     * @verifies return correct page
+     */
+    @Test
+    void getPage_shouldReturnCorrectPage() throws Exception {
+        StructElement se = new StructElement(iddocKleiuniv);
+        PrefetchingPageLoader pageLoader = new PrefetchingPageLoader(se, -1, 5);
+        PhysicalElement pe = pageLoader.getPage(3);
+        Assertions.assertNotNull(pe);
+        Assertions.assertEquals(3, pe.getOrder());
+        // Second call is served from the window
+        Assertions.assertSame(pe, pageLoader.getPage(3));
+    }
+
+    /**
+     * @see PrefetchingPageLoader#getPage(int)
+     * @verifies return null if pageOrder out of bounds
+     */
+    @Test
+    void getPage_shouldReturnNullIfPageOrderOutOfBounds() throws Exception {
+        StructElement se = new StructElement(iddocKleiuniv);
+        PrefetchingPageLoader pageLoader = new PrefetchingPageLoader(se, -1, 5);
+        Assertions.assertNull(pageLoader.getPage(-1));
+        Assertions.assertNull(pageLoader.getPage(pageLoader.getLastPageOrder() + 1));
+    }
+
+    /**
+     * @see PrefetchingPageLoader#getPage(int)
+     * @verifies limit number of kept pages to window size
+     */
+    @Test
+    void getPage_shouldLimitNumberOfKeptPagesToWindowSize() throws Exception {
+        StructElement se = new StructElement(iddocKleiuniv);
+        PrefetchingPageLoader pageLoader = new PrefetchingPageLoader(se, -1, 2);
+        Assertions.assertEquals(16, pageLoader.getNumPages());
+        for (int i = pageLoader.getFirstPageOrder(); i <= pageLoader.getLastPageOrder(); ++i) {
+            PhysicalElement pe = pageLoader.getPage(i);
+            Assertions.assertNotNull(pe);
+            Assertions.assertEquals(i, pe.getOrder());
+            Assertions.assertTrue(pageLoader.getLoadedPageCount() <= pageLoader.getWindowSize());
+        }
+    }
+
+    /**
+     * @see PrefetchingPageLoader#loadPages(int,int)
+     * @verifies load all pages in range
+     */
+    @Test
+    void loadPages_shouldLoadAllPagesInRange() throws Exception {
+        StructElement se = new StructElement(iddocKleiuniv);
+        PrefetchingPageLoader pageLoader = new PrefetchingPageLoader(se, -1, 5);
+        Assertions.assertEquals(0, pageLoader.getLoadedPageCount());
+        pageLoader.loadPages(3, 7);
+        Assertions.assertEquals(5, pageLoader.getLoadedPageCount());
+    }
+
+    /**
+     * @see AbstractPageLoader#create(StructElement,boolean)
+     * @verifies return PrefetchingPageLoader if page count at or above threshold and prefetching enabled
+     */
+    @Test
+    void create_shouldReturnPrefetchingPageLoaderIfPageCountAtOrAboveThresholdAndPrefetchingEnabled() throws Exception {
+        DataManager.getInstance().getConfiguration().overrideValue("performance.pageLoaderThreshold", 16);
+        StructElement se = new StructElement(iddocKleiuniv);
+        AbstractPageLoader pageLoader = AbstractPageLoader.create(se, true);
+        Assertions.assertInstanceOf(PrefetchingPageLoader.class, pageLoader);
+        Assertions.assertEquals(20, ((PrefetchingPageLoader) pageLoader).getBatchSize());
+
+        DataManager.getInstance().getConfiguration().overrideValue("performance.pageLoaderThreshold[@prefetchSize]", 0);
+        pageLoader = AbstractPageLoader.create(se, true);
+        Assertions.assertEquals(LeanPageLoader.class, pageLoader.getClass());
+    }
+}
@@ -24,8 +24,10 @@ package io.goobi.viewer.solr;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
@@ -35,9 +37,12 @@ import java.util.Set;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.SolrQuery.ORDER;
 import org.apache.solr.client.solrj.response.FieldStatsInfo;
 import org.apache.solr.client.solrj.response.QueryResponse;
 import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.params.CursorMarkParams;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.junit.jupiter.api.Assertions;
@@ -324,4 +329,140 @@ class SolrSearchIndexTest extends AbstractSolrEnabledTest {
         assertEquals(JSONObject.NULL, rows.get(2));
         assertEquals(JSONObject.NULL, rows.get(3));
     }
+
+    /**
+     * @see SolrSearchIndex#search(String,int,int,List,List,String,List,List,Map)
+     * @verifies return cached results if query cache enabled
+     */
+    @Test
+    void search_shouldReturnCachedResultsIfQueryCacheEnabled() throws Exception {
+        DataManager.getInstance().getConfiguration().overrideValue("performance.solr.queryCache[@enabled]", true);
+        SolrSearchIndex searchIndex = DataManager.getInstance().getSearchIndex();
+        List<String> filterQueries = Arrays.asList("+DOCTYPE:DOCSTRCT", "+ISWORK:true");
+        QueryResponse resp = searchIndex.search(SolrConstants.PI + ":" + PI_KLEIUNIV, 0, 10, null, null, null, null, filterQueries, null);
+        long hits = searchIndex.getQueryCacheStatistics().get("hits");
+        // Modifying the returned docs must not affect the cached response
+        resp.getResults().get(0).setField(SolrConstants.PI, "modified");
+        QueryResponse cachedResp =
+                searchIndex.search(SolrConstants.PI + ":" + PI_KLEIUNIV, 0, 10, null, null, null, null, Arrays.asList("+ISWORK:true", "+DOCTYPE:DOCSTRCT"), null);
+        assertEquals(hits + 1, searchIndex.getQueryCacheStatistics().get("hits"));
+        Assertions.assertNotSame(resp, cachedResp);
+        assertEquals(PI_KLEIUNIV, cachedResp.getResults().get(0).getFieldValue(SolrConstants.PI));
+    }
+
+    /**
+     * @see SolrSearchIndex#copyQueryResponse(QueryResponse)
+     * @verifies copy docs
+     */
+    @Test
+    void copyQueryResponse_shouldCopyDocs() throws Exception {
+        QueryResponse resp = DataManager.getInstance()
+                .getSearchIndex()
+                .search(SolrConstants.PI_TOPSTRUCT + ":" + PI_KLEIUNIV, 0, 10, null, null, null, null, null, null);
+        assertFalse(resp.getResults().isEmpty());
+        QueryResponse copy = SolrSearchIndex.copyQueryResponse(resp);
+        assertEquals(resp.getResults().getNumFound(), copy.getResults().getNumFound());
+        assertEquals(resp.getResults().size(), copy.getResults().size());
+
+        SolrDocument doc = copy.getResults().get(0);
+        Assertions.assertNotSame(resp.getResults().get(0), doc);
+        assertEquals(resp.getResults().get(0).getFieldValue(SolrConstants.IDDOC), doc.getFieldValue(SolrConstants.IDDOC));
+        doc.addField("MD_TEST", "foo");
+        doc.addField("MD_TEST", "bar");
+        assertNull(resp.getResults().get(0).getFieldValue("MD_TEST"));
+    }
+
+    /**
+     * @see SolrSearchIndex#incrementIndexGeneration()
+     * @verifies clear query cache
+     */
+    @Test
+    void incrementIndexGeneration_shouldClearQueryCache() throws Exception {
+        DataManager.getInstance().getConfiguration().overrideValue("performance.solr.queryCache[@enabled]", true);
+        SolrSearchIndex searchIndex = DataManager.getInstance().getSearchIndex();
+        searchIndex.getHitCount(SolrConstants.PI + ":" + PI_KLEIUNIV, null);
+        assertTrue(searchIndex.getQueryCacheStatistics().get("size") > 0);
+        long generation = searchIndex.getIndexGeneration();
+        assertEquals(generation + 1, searchIndex.incrementIndexGeneration());
+        assertEquals(0, searchIndex.getQueryCacheStatistics().get("size"));
+    }
+
+    /**
+     * @see SolrSearchIndex#searchWithCursor(String,int,List,List,List,Map)
+     * @verifies return all documents across batches
+     */
+    @Test
+    void searchWithCursor_shouldReturnAllDocumentsAcrossBatches() throws Exception {
+        String query = SolrConstants.PI_TOPSTRUCT + ":" + PI_KLEIUNIV;
+        List<String> fieldList = Collections.singletonList(SolrConstants.IDDOC);
+        Set<String> expected = new HashSet<>();
+        for (SolrDocument doc : DataManager.getInstance().getSearchIndex().search(query, fieldList)) {
+            expected.add(String.valueOf(doc.getFieldValue(SolrConstants.IDDOC)));
+        }
+        int batchSize = 7;
+        assertTrue(expected.size() > batchSize * 2);
+
+        SolrCursor cursor = DataManager.getInstance().getSearchIndex().searchWithCursor(query, batchSize, null, fieldList, null, null);
+        List<String> fetched = new ArrayList<>();
+        int batches = 0;
+        while (cursor.hasNext()) {
+            batches++;
+            // Terminate even if the cursor never reports the end
+            assertTrue(batches <= expected.size() / batchSize + 2);
+            for (SolrDocument doc : cursor.next().getResults()) {
+                fetched.add(String.valueOf(doc.getFieldValue(SolrConstants.IDDOC)));
+            }
+        }
+
+        assertTrue(batches > 1);
+        // No duplicates and no gaps
+        assertEquals(fetched.size(), new HashSet<>(fetched).size());
+        assertEquals(expected, new HashSet<>(fetched));
+        assertEquals(expected.size(), cursor.getFetched());
+        assertEquals(expected.size(), cursor.getNumFound());
+    }
+
+    /**
+     * @see SolrSearchIndex#getQueryCacheKey(SolrQuery)
+     * @verifies return same key regardless of filter query order
+     */
+    @Test
+    void getQueryCacheKey_shouldReturnSameKeyRegardlessOfFilterQueryOrder() throws Exception {
+        SolrQuery query1 = new SolrQuery("foo").setRows(10).addFilterQuery("fq1", "fq2");
+        SolrQuery query2 = new SolrQuery("foo").addFilterQuery("fq2", "fq1").setRows(10);
+        assertNotNull(SolrSearchIndex.getQueryCacheKey(query1));
+        assertEquals(SolrSearchIndex.getQueryCacheKey(query1), SolrSearchIndex.getQueryCacheKey(query2));
+        Assertions.assertNotEquals(SolrSearchIndex.getQueryCacheKey(query1), SolrSearchIndex.getQueryCacheKey(query2.setStart(10)));
+    }
+
+    /**
+     * @see SolrSearchIndex#getQueryCacheKey(SolrQuery)
+     * @verifies return null for cursor queries
+     */
+    @Test
+    void getQueryCacheKey_shouldReturnNullForCursorQueries() throws Exception {
+        SolrQuery query = new SolrQuery("foo").setRows(10);
+        query.set(CursorMarkParams.CURSOR_MARK_PARAM, CursorMarkParams.CURSOR_MARK_START);
+        Assertions.assertNull(SolrSearchIndex.getQueryCacheKey(query));
+    }
+
+    /**
+     * @see SolrSearchIndex#getQueryCacheKey(SolrQuery)
+     * @verifies return null for random sorting
+     */
+    @Test
+    void getQueryCacheKey_shouldReturnNullForRandomSorting() throws Exception {
+        SolrQuery query = new SolrQuery("foo").setRows(10).addSort(SolrTools.generateRandomSortField(), ORDER.asc);
+        Assertions.assertNull(SolrSearchIndex.getQueryCacheKey(query));
+    }
+
+    /**
+     * @see SolrSearchIndex#getQueryCacheKey(SolrQuery)
+     * @verifies return null if too many rows requested
+     */
+    @Test
+    void getQueryCacheKey_shouldReturnNullIfTooManyRowsRequested() throws Exception {
+        Assertions.assertNull(SolrSearchIndex.getQueryCacheKey(new SolrQuery("foo").setRows(SolrSearchIndex.QUERY_CACHE_MAX_ROWS + 1)));
+        assertNotNull(SolrSearchIndex.getQueryCacheKey(new SolrQuery("foo").setRows(SolrSearchIndex.QUERY_CACHE_MAX_ROWS)));
+    }
 }